@@ -3,14 +3,16 @@ package com.example.paymentflow.board.controller;
 import com.example.paymentflow.board.entity.BoardReceipt;
 import com.example.paymentflow.board.entity.BoardReceiptProcessRequest;
 import com.example.paymentflow.board.service.BoardReceiptService;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.TableChangeVersions.TrackedTable;
+import com.example.paymentflow.common.web.JsonETagResponder;
 import com.shared.common.annotation.Auditable;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
-import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -20,7 +22,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -36,9 +37,11 @@ public class BoardReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptController.class);
 
     private final BoardReceiptService service;
+    private final JsonETagResponder eTags;
 
-    public BoardReceiptController(BoardReceiptService service) {
+    public BoardReceiptController(BoardReceiptService service, JsonETagResponder eTags) {
         this.service = service;
+        this.eTags = eTags;
     }
 
     @PostMapping
@@ -52,7 +55,7 @@ public class BoardReceiptController {
 
     @PostMapping("/secure")
     @Operation(summary = "Get all board receipts with secure pagination and filtering",
-               description = "Returns paginated board receipts with optional status and date range filters, using secure pagination (mandatory date range, opaque tokens)")
+               description = "Returns paginated board receipts with optional status and date range filters, using secure pagination (mandatory date range, opaque tokens).")
     @SecurePagination
     public ResponseEntity<?> getAllBoardReceiptsSecure(
             @io.swagger.v3.oas.annotations.parameters.RequestBody(
@@ -61,6 +64,8 @@ public class BoardReceiptController {
             )
             @Valid @RequestBody
             SecurePaginationRequest request,
+            @Parameter(description = "Keyset cursor (nextCursor of a previous response); switches to keyset paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Use keyset paging from the first page") @RequestParam(defaultValue = "false") boolean keyset,
             HttpServletRequest httpRequest) {
         log.info("Fetching board receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
@@ -72,6 +77,12 @@ public class BoardReceiptController {
                 return ResponseEntity.badRequest().body(
                     SecurePaginationUtil.createErrorResponse(validation));
             }
+            // Answer an unchanged poll from the change version, before touching the table
+            String eTag = eTags.versionTag(httpRequest, request, TrackedTable.BOARD_RECEIPTS);
+            ResponseEntity<Object> notModified = eTags.checkNotModified(eTag, httpRequest);
+            if (notModified != null) {
+                return notModified;
+            }
             
             // Create Pageable from request (either from decoded token or direct parameters)
             Pageable pageable = PageRequest.of(
@@ -83,24 +94,26 @@ public class BoardReceiptController {
                 )
             );
             
-            // Fetch data using standard pagination
-            Page<BoardReceipt> receiptsPage =
-                service.findByStatusAndDateRange(
-                    request.getStatus(), 
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
-            SecurePaginationResponse<BoardReceipt> response =
-                SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
+            Object response;
+            if (keyset || cursor != null) {
+                // Seek on (receipt_date, id) instead of OFFSET; sort parameters do not apply
+                response = service.findByStatusAndDateRangeAfter(
+                    request.getStatus(),
+                    validation.getStartDateTime(),
+                    validation.getEndDateTime(),
+                    cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor.trim()) : null,
+                    request.getSize()).toResponse();
+            } else {
+                // Fetch data using standard pagination
+                Page<BoardReceipt> receiptsPage =
+                    service.findByStatusAndDateRange(
+                        request.getStatus(), 
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                response = SecurePaginationUtil.createSecureResponse(receiptsPage, request);
             }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, eTag);
         } catch (Exception e) {
             log.error("Error fetching board receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -108,19 +121,11 @@ public class BoardReceiptController {
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<BoardReceipt> findById(@PathVariable("id") Long id, HttpServletRequest request) {
+    public ResponseEntity<?> findById(@PathVariable("id") Long id, HttpServletRequest request) {
         log.info("Fetching board receipt id={}", id);
         BoardReceipt receipt = service.findById(id);
         try {
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(receipt);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(receipt);
+            return eTags.respond(receipt, request);
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
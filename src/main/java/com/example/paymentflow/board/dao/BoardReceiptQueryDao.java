@@ -1,6 +1,9 @@
 package com.example.paymentflow.board.dao;
 
 import com.example.paymentflow.board.entity.BoardReceipt;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.jdbc.core.RowMapper;
@@ -102,26 +105,44 @@ public class BoardReceiptQueryDao {
         return new PageResult(content, total != null ? total : 0L);
     }
 
+    /**
+     * Keyset page ordered by {@code receipt_date DESC, id DESC}. Reads one row past the page to
+     * tell whether another page follows, and seeks past {@code after} instead of using OFFSET, so
+     * deep pages cost the same as the first one.
+     */
+    public KeysetPage<BoardReceipt> findPageAfter(String status,
+                                    LocalDateTime startDate,
+                                    LocalDateTime endDate,
+                                    KeysetCursor after,
+                                    int size) {
+        int sizeSafe = Math.max(size, 1);
+        StringBuilder sql = new StringBuilder(baseSelect());
+        List<Object> params = new java.util.ArrayList<>();
+        appendFilters(sql, params, status, startDate, endDate);
+        if (after != null) {
+            sql.append(params.isEmpty() ? " WHERE " : " AND ");
+            sql.append("(br.receipt_date, br.id) < (?, ?)");
+            params.add(after.sortKeyAsDate());
+            params.add(after.id());
+        }
+        sql.append(" ORDER BY br.receipt_date DESC, br.id DESC LIMIT ?");
+        params.add(sizeSafe + 1);
+
+        List<BoardReceipt> rows = jdbcTemplate.query(sql.toString(), new BoardReceiptRowMapper(), params.toArray());
+        return KeysetPage.of(rows, sizeSafe, receipt -> KeysetCursor.of(receipt.getDate(), receipt.getId()),
+                null, RowCountEstimator.CountMode.NONE);
+    }
+
     private QuerySpec buildRangeQuery(String status,
                                       LocalDateTime startDate,
                                       LocalDateTime endDate,
                                       OrderClause orderClause,
                                       Integer limit,
                                       Integer offset) {
-        boolean hasStatus = status != null && !status.isEmpty();
         StringBuilder sql = new StringBuilder(baseSelect());
-        if (hasStatus) {
-            sql.append(" WHERE br.status = ? AND br.receipt_date BETWEEN ? AND ?");
-        } else {
-            sql.append(" WHERE br.receipt_date BETWEEN ? AND ?");
-        }
-        sql.append(orderClause.sql());
         List<Object> params = new java.util.ArrayList<>();
-        if (hasStatus) {
-            params.add(status);
-        }
-        params.add(startDate.toLocalDate());
-        params.add(endDate.toLocalDate());
+        appendFilters(sql, params, status, startDate, endDate);
+        sql.append(orderClause.sql());
         if (limit != null && offset != null) {
             sql.append(" LIMIT ? OFFSET ?");
             params.add(limit);
@@ -131,20 +152,33 @@ public class BoardReceiptQueryDao {
     }
 
     private Long countRange(String status, LocalDateTime startDate, LocalDateTime endDate) {
-        boolean hasStatus = status != null && !status.isEmpty();
-        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM board_receipts br WHERE ");
-        if (hasStatus) {
-            sql.append("br.status = ? AND br.receipt_date BETWEEN ? AND ?");
-        } else {
-            sql.append("br.receipt_date BETWEEN ? AND ?");
-        }
+        StringBuilder sql = new StringBuilder("SELECT COUNT(*) FROM board_receipts br");
         List<Object> params = new java.util.ArrayList<>();
-        if (hasStatus) {
+        appendFilters(sql, params, status, startDate, endDate);
+        return jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+    }
+
+    /**
+     * Status and receipt date filters; either may be absent.
+     */
+    private void appendFilters(StringBuilder sql,
+                               List<Object> params,
+                               String status,
+                               LocalDateTime startDate,
+                               LocalDateTime endDate) {
+        List<String> conditions = new java.util.ArrayList<>();
+        if (status != null && !status.isEmpty()) {
+            conditions.add("br.status = ?");
             params.add(status);
         }
-        params.add(startDate.toLocalDate());
-        params.add(endDate.toLocalDate());
-        return jdbcTemplate.queryForObject(sql.toString(), Long.class, params.toArray());
+        if (startDate != null && endDate != null) {
+            conditions.add("br.receipt_date BETWEEN ? AND ?");
+            params.add(startDate.toLocalDate());
+            params.add(endDate.toLocalDate());
+        }
+        if (!conditions.isEmpty()) {
+            sql.append(" WHERE ").append(String.join(" AND ", conditions));
+        }
     }
 
     private OrderClause sanitizeOrder(String sortBy, String sortDir) {
@@ -153,7 +187,9 @@ public class BoardReceiptQueryDao {
         if ("ASC".equalsIgnoreCase(sortDir)) {
             sanitizedDirection = "ASC";
         }
-        return new OrderClause(" ORDER BY br." + sanitizedColumn + " " + sanitizedDirection);
+        // id breaks ties so rows never repeat or vanish between pages
+        return new OrderClause(" ORDER BY br." + sanitizedColumn + " " + sanitizedDirection
+                + ", br.id " + sanitizedDirection);
     }
     
     public List<BoardReceipt> findByMaker(String maker) {
@@ -189,7 +225,7 @@ public class BoardReceiptQueryDao {
         return results.isEmpty() ? Optional.empty() : Optional.of(results.get(0));
     }
     
-    // Summary queries
+    // Summary queries, answered from board_receipt_daily_rollups
     public int countByStatus(String status) {
         String sql = sqlTemplates.load(COUNT_BY_STATUS_TEMPLATE);
         Integer count = jdbcTemplate.queryForObject(sql, Integer.class, status);
@@ -6,6 +6,10 @@ import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
 import com.shared.exception.ResourceNotFoundException;
 import com.example.paymentflow.board.dao.BoardReceiptRepository;
 import com.example.paymentflow.board.dao.BoardReceiptQueryDao;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator.ReferenceType;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import org.springframework.data.domain.Page;
@@ -67,14 +71,32 @@ public class BoardReceiptService {
         return new org.springframework.data.domain.PageImpl<>(result.content(), pageable, result.totalElements());
     }
 
+    /**
+     * Keyset variant of {@link #findByStatusAndDateRange}, newest receipt date first; {@code after}
+     * is null for the first page.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<BoardReceipt> findByStatusAndDateRangeAfter(String status, java.time.LocalDateTime start, java.time.LocalDateTime end, KeysetCursor after, int size) {
+        log.info("Finding board receipts with status: {} and date range: {} to {} (keyset)", status, start, end);
+        String upperStatus = status != null && !status.trim().isEmpty() ? status.trim().toUpperCase() : null;
+        if (upperStatus != null && !upperStatus.equals("PENDING") && !upperStatus.equals("VERIFIED") &&
+            !upperStatus.equals("REJECTED") && !upperStatus.equals("PROCESSED")) {
+            throw new RuntimeException("Invalid status: " + status + ". Valid values are: PENDING, VERIFIED, REJECTED, PROCESSED");
+        }
+        return queryDao.findPageAfter(upperStatus, start, end, after, size);
+    }
+
     private static final Logger log = LoggerFactoryProvider.getLogger(BoardReceiptService.class);
 
     private final BoardReceiptRepository repository;
     private final BoardReceiptQueryDao queryDao;
+    private final ReferenceNumberGenerator referenceNumbers;
 
-    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao) {
+    public BoardReceiptService(BoardReceiptRepository repository, BoardReceiptQueryDao queryDao,
+                               ReferenceNumberGenerator referenceNumbers) {
         this.repository = repository;
         this.queryDao = queryDao;
+        this.referenceNumbers = referenceNumbers;
     }
 
     public BoardReceipt create(BoardReceipt boardReceipt) {
@@ -131,7 +153,7 @@ public class BoardReceiptService {
         log.info("Creating board receipt from employer receipt: {}", employerReceipt.getEmployerReceiptNumber());
         
         // Generate board reference number
-        String boardRef = generateBoardReceiptNumber();
+        String boardRef = referenceNumbers.next(ReferenceType.BOARD_RECEIPT);
         
         // Create board receipt
         BoardReceipt boardReceipt = new BoardReceipt();
@@ -154,15 +176,13 @@ public class BoardReceiptService {
         return savedReceipt;
     }
 
+    @Transactional(readOnly = true)
     public Map<String, Object> getAllBoardReceiptsWithFilters(int page, int size, String status, 
                                                               String singleDate, String startDate, String endDate) {
         log.info("Fetching board receipts with filters - page: {}, size: {}, status: {}, singleDate: {}, startDate: {}, endDate: {}", 
                 page, size, status, singleDate, startDate, endDate);
         
         try {
-            Pageable pageable = PageRequest.of(page, size, Sort.by("date").descending());
-            Page<BoardReceipt> receiptsPage;
-            
             // Parse dates if provided
             LocalDate startLocalDate = null;
             LocalDate endLocalDate = null;
@@ -188,18 +208,14 @@ public class BoardReceiptService {
                 statusValue = upperStatus;
             }
             
-            // Apply filters - using simple pagination for now
-            List<BoardReceipt> allResults;
-            if (statusValue != null && startLocalDate != null && endLocalDate != null) {
-                allResults = queryDao.findByStatusAndDateRange(statusValue, startLocalDate.atStartOfDay(), endLocalDate.atTime(23, 59, 59));
-            } else if (statusValue != null) {
-                allResults = queryDao.findByStatus(statusValue);
-            } else if (startLocalDate != null && endLocalDate != null) {
-                allResults = queryDao.findByDateRange(startLocalDate.atStartOfDay(), endLocalDate.atTime(23, 59, 59));
-            } else {
-                allResults = queryDao.findAll();
-            }
-            receiptsPage = new org.springframework.data.domain.PageImpl<>(allResults, pageable, allResults.size());
+            java.time.LocalDateTime rangeStart = startLocalDate != null ? startLocalDate.atStartOfDay() : null;
+            java.time.LocalDateTime rangeEnd = endLocalDate != null ? endLocalDate.atTime(23, 59, 59) : null;
+            
+            Pageable pageable = PageRequest.of(page, size);
+            BoardReceiptQueryDao.PageResult result = queryDao.findByStatusAndDateRange(
+                    statusValue, rangeStart, rangeEnd, page, size, "receipt_date", "desc");
+            Page<BoardReceipt> receiptsPage =
+                    new org.springframework.data.domain.PageImpl<>(result.content(), pageable, result.totalElements());
             
             // Build response
             Map<String, Object> response = new HashMap<>();
@@ -274,13 +290,4 @@ public class BoardReceiptService {
         
         return savedReceipt;
     }
-
-    private String generateBoardReceiptNumber() {
-        // Generate board receipt number in format: BRD-YYYYMMDD-XXX
-        LocalDate now = LocalDate.now();
-        String dateStr = now.format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        
-        return "BRD-" + dateStr + "-" + sequence;
-    }
 }
@@ -0,0 +1,74 @@
+package com.example.paymentflow.common.reference;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.DSLContext;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Issues unique receipt and request reference numbers without a uniqueness lookup.
+ * <p>
+ * Uniqueness comes from {@code payment_flow.reference_number_seq}, which advances by
+ * {@link #BLOCK_SIZE}: one {@code nextval} reserves a whole block for this instance, and numbers
+ * within the block are handed out from memory. Pods therefore never share a value and only go to
+ * the database once per block. The date-time part is informational; values left unused in a block
+ * when an instance stops are simply skipped.
+ */
+@Component
+public class ReferenceNumberGenerator {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(ReferenceNumberGenerator.class);
+
+    /** Must equal the INCREMENT BY of payment_flow.reference_number_seq. */
+    static final int BLOCK_SIZE = 1000;
+
+    private static final String NEXT_BLOCK_SQL = "SELECT nextval('payment_flow.reference_number_seq')";
+
+    public enum ReferenceType {
+        WORKER_RECEIPT("RCP", "yyyyMMdd-HHmmss"),
+        REQUEST("REQ", "yyyyMMdd-HHmmss"),
+        EMPLOYER_RECEIPT("EMP", "yyyyMMdd-HHmmss"),
+        BOARD_RECEIPT("BRD", "yyyyMMdd");
+
+        private final String prefix;
+        private final DateTimeFormatter formatter;
+
+        ReferenceType(String prefix, String pattern) {
+            this.prefix = prefix;
+            this.formatter = DateTimeFormatter.ofPattern(pattern);
+        }
+    }
+
+    private final DSLContext dsl;
+
+    private long next;
+    private long blockEnd;
+
+    public ReferenceNumberGenerator(DSLContext dsl) {
+        this.dsl = dsl;
+    }
+
+    /**
+     * Next reference, e.g. {@code RCP-20251205-143015-000012345}.
+     */
+    public String next(ReferenceType type) {
+        return type.prefix + "-" + LocalDateTime.now().format(type.formatter) + "-"
+                + String.format("%09d", nextValue());
+    }
+
+    private synchronized long nextValue() {
+        if (next >= blockEnd) {
+            Object blockStart = dsl.fetchValue(NEXT_BLOCK_SQL);
+            if (!(blockStart instanceof Number)) {
+                throw new IllegalStateException("reference_number_seq returned no value");
+            }
+            next = ((Number) blockStart).longValue();
+            blockEnd = next + BLOCK_SIZE;
+            log.debug("Reserved reference number block [{}, {})", next, blockEnd);
+        }
+        return next++;
+    }
+}
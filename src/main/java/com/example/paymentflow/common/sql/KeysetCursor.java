@@ -0,0 +1,77 @@
+package com.example.paymentflow.common.sql;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Position of the last row of a page for keyset (seek) pagination over {@code (sort_key, id)}.
+ * The next page is read with {@code WHERE (sort_key, id) < (?, ?)} (or {@code >} ascending), so
+ * its cost does not grow with the page depth the way OFFSET does.
+ * <p>
+ * Cursors travel to clients as opaque URL-safe Base64 tokens. The {@value #TOKEN_PREFIX} prefix
+ * keeps them distinguishable from the offset page tokens issued by SecurePaginationUtil.
+ */
+public record KeysetCursor(String sortKey, long id) {
+
+    public static final String TOKEN_PREFIX = "ks1.";
+
+    private static final char SEPARATOR = '|';
+
+    public static KeysetCursor of(LocalDate sortKey, long id) {
+        return new KeysetCursor(sortKey.toString(), id);
+    }
+
+    public static KeysetCursor of(LocalDateTime sortKey, long id) {
+        return new KeysetCursor(sortKey.toString(), id);
+    }
+
+    public String encode() {
+        String raw = sortKey + SEPARATOR + id;
+        return TOKEN_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static boolean isKeysetToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * @throws IllegalArgumentException if the token was not produced by {@link #encode()}
+     */
+    public static KeysetCursor decode(String token) {
+        if (!isKeysetToken(token)) {
+            throw new IllegalArgumentException("Invalid page cursor");
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token.substring(TOKEN_PREFIX.length())),
+                    StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Invalid page cursor");
+            }
+            return new KeysetCursor(raw.substring(0, separator), Long.parseLong(raw.substring(separator + 1)));
+        } catch (IllegalArgumentException e) {
+            // Also covers NumberFormatException and bad Base64
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    public LocalDate sortKeyAsDate() {
+        try {
+            return LocalDate.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+
+    public LocalDateTime sortKeyAsDateTime() {
+        try {
+            return LocalDateTime.parse(sortKey);
+        } catch (DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid page cursor", e);
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.example.paymentflow.common.sql;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * One page of a keyset (seek) query.
+ *
+ * @param nextCursor    position to continue from, or {@code null} on the last page
+ * @param totalElements matching rows as reported by the requested {@link RowCountEstimator.CountMode},
+ *                      or {@code null} when no count was requested
+ */
+public record KeysetPage<T>(List<T> content, KeysetCursor nextCursor, Long totalElements,
+        RowCountEstimator.CountMode countMode) {
+
+    /**
+     * Build a page from a query that fetched {@code size + 1} rows; the extra row only signals that
+     * another page follows and is dropped.
+     */
+    public static <T> KeysetPage<T> of(List<T> rows, int size, Function<T, KeysetCursor> cursorOf,
+            Long totalElements, RowCountEstimator.CountMode countMode) {
+        if (rows.size() <= size) {
+            return new KeysetPage<>(rows, null, totalElements, countMode);
+        }
+        List<T> content = rows.subList(0, size);
+        return new KeysetPage<>(content, cursorOf.apply(content.get(size - 1)), totalElements, countMode);
+    }
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+
+    /**
+     * Response body for keyset endpoints.
+     */
+    public Map<String, Object> toResponse() {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("content", content);
+        response.put("size", content.size());
+        response.put("hasNext", hasNext());
+        response.put("nextCursor", hasNext() ? nextCursor.encode() : null);
+        response.put("totalElements", totalElements);
+        response.put("countMode", countMode);
+        return response;
+    }
+}
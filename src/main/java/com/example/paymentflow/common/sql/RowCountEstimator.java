@@ -0,0 +1,121 @@
+package com.example.paymentflow.common.sql;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Totals for paged listings, where an exact {@code COUNT(*)} over millions of rows often costs more
+ * than the page itself. Callers choose how much accuracy they need per request.
+ */
+@Component
+public class RowCountEstimator {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(RowCountEstimator.class);
+
+    private static final long CACHE_TTL_MILLIS = 60_000;
+    private static final int MAX_CACHED_COUNTS = 1_000;
+
+    public enum CountMode {
+        /** Run the count query on every request. */
+        EXACT,
+        /**
+         * Exact count, reused for up to a minute for the same caller, query and parameters. The
+         * caller is part of the key because row-level security scopes what each user can count.
+         */
+        CACHED,
+        /** Planner row estimate from EXPLAIN; no table scan. */
+        ESTIMATED,
+        /** Skip the total entirely. */
+        NONE;
+
+        /**
+         * Parse a request parameter, falling back to {@code defaultMode} when it is absent.
+         */
+        public static CountMode from(String value, CountMode defaultMode) {
+            if (value == null || value.isBlank()) {
+                return defaultMode;
+            }
+            try {
+                return CountMode.valueOf(value.trim().toUpperCase());
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid count mode: " + value
+                        + ". Valid values are: EXACT, CACHED, ESTIMATED, NONE");
+            }
+        }
+    }
+
+    private record CachedCount(long count, long expiresAt) {
+    }
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<String, CachedCount> cache = new ConcurrentHashMap<>();
+
+    public RowCountEstimator(NamedParameterJdbcTemplate jdbcTemplate, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @param selectSql filtered select without ORDER BY or LIMIT, used for estimates
+     * @param countSql  matching {@code SELECT COUNT(*)} with the same filters
+     * @return the total, or {@code null} for {@link CountMode#NONE}
+     */
+    public Long count(CountMode mode, String selectSql, String countSql, Map<String, Object> params) {
+        return switch (mode) {
+            case EXACT -> exactCount(countSql, params);
+            case CACHED -> cachedCount(countSql, params);
+            case ESTIMATED -> estimatedCount(selectSql, params);
+            case NONE -> null;
+        };
+    }
+
+    private long exactCount(String countSql, Map<String, Object> params) {
+        Long count = jdbcTemplate.queryForObject(countSql, params, Long.class);
+        return count != null ? count : 0L;
+    }
+
+    private long cachedCount(String countSql, Map<String, Object> params) {
+        String key = currentUser() + '\u0000' + countSql + '\u0000' + new TreeMap<>(params);
+        long now = System.currentTimeMillis();
+        CachedCount cached = cache.get(key);
+        if (cached != null && cached.expiresAt() > now) {
+            return cached.count();
+        }
+        long count = exactCount(countSql, params);
+        if (cache.size() >= MAX_CACHED_COUNTS) {
+            cache.values().removeIf(entry -> entry.expiresAt() <= now);
+            if (cache.size() >= MAX_CACHED_COUNTS) {
+                cache.clear();
+            }
+        }
+        cache.put(key, new CachedCount(count, now + CACHE_TTL_MILLIS));
+        return count;
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "";
+    }
+
+    private long estimatedCount(String selectSql, Map<String, Object> params) {
+        String plan = jdbcTemplate.queryForObject("EXPLAIN (FORMAT JSON) " + selectSql, params, String.class);
+        try {
+            JsonNode rows = objectMapper.readTree(plan).path(0).path("Plan").path("Plan Rows");
+            return rows.isMissingNode() ? 0L : rows.asLong();
+        } catch (Exception e) {
+            log.warn("Could not read row estimate from query plan, falling back to exact count", e);
+            return exactCount("SELECT COUNT(*) FROM (" + selectSql + ") counted", params);
+        }
+    }
+}
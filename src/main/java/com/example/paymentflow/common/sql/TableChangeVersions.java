@@ -0,0 +1,98 @@
+package com.example.paymentflow.common.sql;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.jooq.exception.DataAccessException;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Reads the change versions kept in {@code table_change_versions} and {@code table_change_log}. A
+ * statement-level trigger on each tracked table appends a log row in the writing transaction, so
+ * a version read before a query is never newer than the data that query sees; list endpoints use
+ * it to answer a conditional GET without reading the table itself.
+ * <p>
+ * Writers only insert log rows and never lock a shared counter. Once a read finds more than
+ * {@link #FOLD_THRESHOLD} unfolded log rows it folds them into the base versions, which keeps
+ * later reads cheap without changing any version.
+ */
+@Component
+public class TableChangeVersions {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(TableChangeVersions.class);
+
+    private static final String VERSION_TEMPLATE = "sql/common/table_change_version.sql";
+    private static final String FOLD_TEMPLATE = "sql/common/table_change_log_fold.sql";
+
+    static final int FOLD_THRESHOLD = 10_000;
+
+    public enum TrackedTable {
+        WORKER_UPLOADED_DATA("worker_uploaded_data"),
+        WORKER_PAYMENTS("worker_payments"),
+        BOARD_RECEIPTS("board_receipts"),
+        UPLOADED_FILES("uploaded_files");
+
+        private final String tableName;
+
+        TrackedTable(String tableName) {
+            this.tableName = tableName;
+        }
+
+        public String tableName() {
+            return tableName;
+        }
+    }
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+    private final AtomicBoolean folding = new AtomicBoolean();
+
+    public TableChangeVersions(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * @return a version that increases whenever any of the tables is written; versions of
+     *         different table sets are not comparable
+     */
+    public long version(TrackedTable... tables) {
+        String[] tableNames = Arrays.stream(tables).map(TrackedTable::tableName).toArray(String[]::new);
+        Record record = dsl.resultQuery(sqlTemplates.load(VERSION_TEMPLATE),
+                        DSL.val(tableNames, SQLDataType.VARCHAR.getArrayDataType()),
+                        DSL.val(tableNames, SQLDataType.VARCHAR.getArrayDataType()))
+                .fetchOne();
+        if (record == null) {
+            return 0L;
+        }
+        Long logRows = record.get("log_rows", Long.class);
+        if (logRows != null && logRows > FOLD_THRESHOLD) {
+            foldLog();
+        }
+        Long version = record.get("version", Long.class);
+        return version != null ? version : 0L;
+    }
+
+    /**
+     * Fold the change log into the base versions, unless another read already does. A failed fold
+     * only leaves the log longer; the version just read stays valid.
+     */
+    private void foldLog() {
+        if (!folding.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            dsl.execute(sqlTemplates.load(FOLD_TEMPLATE));
+        } catch (DataAccessException e) {
+            log.warn("Could not fold table change log: {}", e.getMessage());
+        } finally {
+            folding.set(false);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package com.example.paymentflow.common.web;
+
+import com.example.paymentflow.common.sql.TableChangeVersions;
+import com.example.paymentflow.common.sql.TableChangeVersions.TrackedTable;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Builds conditional JSON responses for the read endpoints that carry an ETag, most of them
+ * {@code @SecurePagination} list endpoints.
+ * <p>
+ * The body is serialized exactly once with the application's {@link ObjectMapper}, and the ETag
+ * is an MD5 of the bytes computed while they are written. The bytes themselves are returned as
+ * the response body, so Spring copies them to the client instead of serializing the body a
+ * second time, and the ETag always describes the representation the client actually receives.
+ * <p>
+ * Hot list endpoints can instead use a version ETag: {@link #versionTag} combines the change
+ * version of the tables behind the endpoint with the request, so an unchanged poll is answered
+ * with a 304 before the page query runs.
+ */
+@Component
+public class JsonETagResponder {
+
+    private final ObjectMapper objectMapper;
+    private final TableChangeVersions changeVersions;
+
+    public JsonETagResponder(ObjectMapper objectMapper, TableChangeVersions changeVersions) {
+        this.objectMapper = objectMapper;
+        this.changeVersions = changeVersions;
+    }
+
+    /**
+     * @return 304 with the ETag when the request's If-None-Match already names it, otherwise 200
+     *         with the serialized body and its ETag
+     */
+    public ResponseEntity<Object> respond(Object body, HttpServletRequest request) throws IOException {
+        MessageDigest digest = md5();
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(8192);
+        try (DigestOutputStream out = new DigestOutputStream(buffer, digest)) {
+            objectMapper.writeValue(out, body);
+        }
+        String eTag = "\"" + HexFormat.of().formatHex(digest.digest()) + "\"";
+        ResponseEntity<Object> notModified = checkNotModified(eTag, request);
+        if (notModified != null) {
+            return notModified;
+        }
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(buffer.toByteArray());
+    }
+
+    /**
+     * ETag for a response built from {@code tables}. It changes whenever one of the tables is
+     * written, and differs between requests for different pages, filters or users. Read it before
+     * querying: a write that lands in between then only makes the tag older than the body, which
+     * costs the client one extra full response and never a stale 304.
+     *
+     * @param requestKey request body that selects the page, e.g. a decoded SecurePaginationRequest,
+     *                   or null when the URL alone does
+     */
+    public String versionTag(HttpServletRequest request, Object requestKey, TrackedTable... tables)
+            throws IOException {
+        long version = changeVersions.version(tables);
+        MessageDigest digest = md5();
+        digest.update((request.getMethod() + ' ' + request.getRequestURI() + '?' + request.getQueryString()
+                + '\u0000' + request.getRemoteUser() + '\u0000').getBytes(StandardCharsets.UTF_8));
+        if (requestKey != null) {
+            digest.update(objectMapper.writeValueAsBytes(requestKey));
+        }
+        return "\"v" + version + "-" + HexFormat.of().formatHex(digest.digest(), 0, 8) + "\"";
+    }
+
+    /**
+     * @return 304 with the tag when the request's If-None-Match already names it, otherwise null
+     */
+    public ResponseEntity<Object> checkNotModified(String eTag, HttpServletRequest request) {
+        if (matches(request.getHeader(HttpHeaders.IF_NONE_MATCH), eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+        return null;
+    }
+
+    /**
+     * 200 with the body serialized once and a tag from {@link #versionTag}.
+     */
+    public ResponseEntity<Object> respond(Object body, String eTag) throws IOException {
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(objectMapper.writeValueAsBytes(body));
+    }
+
+    /**
+     * If-None-Match may list several tags, use {@code *}, or send back the weak form of a tag.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.startsWith("W/")) {
+                tag = tag.substring(2);
+            }
+            if (tag.equals("*") || tag.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static MessageDigest md5() {
+        try {
+            return MessageDigest.getInstance("MD5");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("MD5 not available", e);
+        }
+    }
+}
@@ -1,16 +1,17 @@
 package com.example.paymentflow.employer.controller;
 
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
 import com.example.paymentflow.employer.service.EmployerPaymentReceiptService;
+import com.example.paymentflow.common.web.JsonETagResponder;
 import com.shared.common.annotation.Auditable;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
-import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
-import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
@@ -19,7 +20,6 @@ import org.slf4j.Logger;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -34,11 +34,11 @@ public class EmployerPaymentReceiptController {
     private static final Logger log = LoggerFactoryProvider.getLogger(EmployerPaymentReceiptController.class);
     
     private final EmployerPaymentReceiptService service;
-    private final ObjectMapper objectMapper;
+    private final JsonETagResponder eTags;
 
-    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, ObjectMapper objectMapper) {
+    public EmployerPaymentReceiptController(EmployerPaymentReceiptService service, JsonETagResponder eTags) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.eTags = eTags;
     }
 
     @PostMapping("/available/secure")
@@ -52,6 +52,9 @@ public class EmployerPaymentReceiptController {
             )
             @Valid @RequestBody
             SecurePaginationRequest request,
+            @Parameter(description = "Keyset cursor (nextCursor of a previous response); switches to keyset paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Use keyset paging from the first page") @RequestParam(defaultValue = "false") boolean keyset,
+            @Parameter(description = "Total count for keyset paging: EXACT, CACHED, ESTIMATED or NONE (default)") @RequestParam(required = false) String count,
             HttpServletRequest httpRequest) {
         log.info("Fetching available receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
@@ -74,22 +77,27 @@ public class EmployerPaymentReceiptController {
                 )
             );
             
-            // Fetch data using standard pagination
-            Page<EmployerPaymentReceipt> receiptsPage =
-                service.findAvailableByStatusAndDateRangePaginated(
-                    request.getStatus(), 
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
-            SecurePaginationResponse<EmployerPaymentReceipt> response =
-                SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
+            Object response;
+            if (keyset || cursor != null) {
+                // Seek on (validated_at, id) instead of OFFSET; sort parameters do not apply
+                response = service.findAvailableByStatusAndDateRangeAfter(
+                    request.getStatus(),
+                    validation.getStartDateTime(),
+                    validation.getEndDateTime(),
+                    cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor.trim()) : null,
+                    request.getSize(),
+                    RowCountEstimator.CountMode.from(count, RowCountEstimator.CountMode.NONE)).toResponse();
+            } else {
+                // Fetch data using standard pagination
+                Page<EmployerPaymentReceipt> receiptsPage =
+                    service.findAvailableByStatusAndDateRangePaginated(
+                        request.getStatus(), 
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                response = SecurePaginationUtil.createSecureResponse(receiptsPage, request);
             }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, httpRequest);
         } catch (Exception e) {
             log.error("Error fetching available receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
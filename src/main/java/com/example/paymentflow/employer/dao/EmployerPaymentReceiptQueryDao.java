@@ -1,6 +1,9 @@
 package com.example.paymentflow.employer.dao;
 
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import com.shared.common.dao.BaseQueryDao;
 import org.jooq.DSLContext;
@@ -30,10 +33,13 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
 
     private final DSLContext dsl;
     private final SqlTemplateLoader sqlTemplates;
+    private final RowCountEstimator rowCountEstimator;
 
-    public EmployerPaymentReceiptQueryDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+    public EmployerPaymentReceiptQueryDao(DSLContext dsl, SqlTemplateLoader sqlTemplates,
+                                          RowCountEstimator rowCountEstimator) {
         this.dsl = dsl;
         this.sqlTemplates = sqlTemplates;
+        this.rowCountEstimator = rowCountEstimator;
     }
     
     private String baseSelect() {
@@ -78,8 +84,47 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
                                                             String validatedBy, LocalDateTime startDate, 
                                                             LocalDateTime endDate, int page, int size) {
         
-        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         Map<String, Object> params = new HashMap<>();
+        String whereClause = buildFilterClause(status, employerReceiptNumber, validatedBy, startDate, endDate, params);
+        
+        String baseSql = baseSelect() + whereClause + " ORDER BY validated_at DESC";
+        String countSql = baseCount() + whereClause;
+        
+        return queryForPage(baseSql, countSql, params, page, size, this::mapEmployerPaymentReceipt);
+    }
+    
+    /**
+     * Find with filters using keyset pagination on (validated_at, id), newest first. Employer receipts
+     * are listed by validation time, which is set when the receipt is created.
+     */
+    public KeysetPage<EmployerPaymentReceipt> findWithFiltersAfter(String status, String employerReceiptNumber,
+                                                                  String validatedBy, LocalDateTime startDate,
+                                                                  LocalDateTime endDate, KeysetCursor after,
+                                                                  int size, RowCountEstimator.CountMode countMode) {
+        
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = buildFilterClause(status, employerReceiptNumber, validatedBy, startDate, endDate, params);
+        
+        Map<String, Object> pageParams = new HashMap<>(params);
+        StringBuilder pageSql = new StringBuilder(baseSelect()).append(whereClause);
+        if (after != null) {
+            pageSql.append(" AND (validated_at, id) < (:afterValidatedAt, :afterId)");
+            pageParams.put("afterValidatedAt", after.sortKeyAsDateTime());
+            pageParams.put("afterId", after.id());
+        }
+        pageSql.append(" ORDER BY validated_at DESC, id DESC LIMIT :limit");
+        pageParams.put("limit", size + 1);
+        
+        List<EmployerPaymentReceipt> rows = queryForList(pageSql.toString(), pageParams, this::mapEmployerPaymentReceipt);
+        Long total = rowCountEstimator.count(countMode, baseSelect() + whereClause, baseCount() + whereClause, params);
+        return KeysetPage.of(rows, size, receipt -> KeysetCursor.of(receipt.getValidatedAt(), receipt.getId()),
+                total, countMode);
+    }
+    
+    private String buildFilterClause(String status, String employerReceiptNumber, String validatedBy,
+                                     LocalDateTime startDate, LocalDateTime endDate,
+                                     Map<String, Object> params) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         
         if (status != null && !status.trim().isEmpty()) {
             whereClause.append(" AND status = :status");
@@ -105,11 +150,7 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
             whereClause.append(" AND validated_at <= :endDate");
             params.put("endDate", endDate);
         }
-        
-        String baseSql = baseSelect() + whereClause + " ORDER BY validated_at DESC";
-        String countSql = baseCount() + whereClause;
-        
-        return queryForPage(baseSql, countSql, params, page, size, this::mapEmployerPaymentReceipt);
+        return whereClause.toString();
     }
     
     /**
@@ -160,16 +201,17 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
     }
     
     /**
-     * Get validation statistics
+     * Get validation statistics, from the daily rollup for the days the range fully covers
      */
     public Map<String, Object> getValidationStatistics(LocalDateTime startDate, LocalDateTime endDate) {
         String sql = sqlTemplates.load("sql/employer/employer_validation_statistics.sql");
-        Map<String, Object> result = dsl.resultQuery(sql, startDate, endDate).fetchOneMap();
+        Map<String, Object> result = dsl.resultQuery(sql, startDate, endDate, startDate, endDate, startDate, endDate)
+                .fetchOneMap();
         return result != null ? result : Map.of();
     }
     
     /**
-     * Get status distribution
+     * Get status distribution, from the daily rollup
      */
     public Map<String, Long> getStatusDistribution() {
         String sql = sqlTemplates.load("sql/employer/employer_status_distribution.sql");
@@ -229,6 +271,10 @@ public class EmployerPaymentReceiptQueryDao extends BaseQueryDao {
     private EmployerPaymentReceipt mapEmployerPaymentReceipt(ResultSet rs, int rowNum) throws SQLException {
         EmployerPaymentReceipt receipt = new EmployerPaymentReceipt();
         
+        Long id = rs.getObject("id", Long.class);
+        if (id != null) {
+            receipt.setId(id);
+        }
         // Map all fields according to the actual entity structure
         receipt.setEmployerReceiptNumber(rs.getString("employer_receipt_number"));
         receipt.setWorkerReceiptNumber(rs.getString("worker_receipt_number"));
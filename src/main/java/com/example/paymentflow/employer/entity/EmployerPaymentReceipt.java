@@ -56,6 +56,10 @@ public class EmployerPaymentReceipt extends AbstractAuditableEntity<Long> {
         return id;
     }
 
+    public void setId(Long id) {
+        this.id = id;
+    }
+
     public String getEmployerReceiptNumber() {
         return employerReceiptNumber;
     }
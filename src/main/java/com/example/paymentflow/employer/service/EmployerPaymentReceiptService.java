@@ -1,13 +1,18 @@
 package com.example.paymentflow.employer.service;
 
 import com.example.paymentflow.employer.entity.EmployerPaymentReceipt;
+import com.example.paymentflow.employer.dao.EmployerPaymentReceiptQueryDao;
 import com.example.paymentflow.employer.dao.EmployerPaymentReceiptRepository;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator.ReferenceType;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.service.WorkerPaymentReceiptService;
 
-import com.example.paymentflow.worker.service.WorkerPaymentService;
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService;
 import com.example.paymentflow.board.service.BoardReceiptService;
 import com.example.paymentflow.board.entity.BoardReceipt;
 import org.slf4j.Logger;
@@ -21,7 +26,6 @@ import org.springframework.data.domain.Sort;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -46,24 +50,42 @@ public class EmployerPaymentReceiptService {
         }
     }
     
+    /**
+     * Keyset variant of {@link #findAvailableByStatusAndDateRangePaginated}: seeks on
+     * (validated_at, id) and only counts as {@code countMode} asks.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<EmployerPaymentReceipt> findAvailableByStatusAndDateRangeAfter(String status,
+            java.time.LocalDateTime start, java.time.LocalDateTime end, KeysetCursor after, int size,
+            RowCountEstimator.CountMode countMode) {
+        log.info("Finding available employer receipts with status: {} and date range: {} to {} (keyset, count={})", status, start, end, countMode);
+        return queryDao.findWithFiltersAfter(status, null, null, start, end, after, size, countMode);
+    }
+    
     private static final Logger log = LoggerFactoryProvider.getLogger(EmployerPaymentReceiptService.class);
     
     private final EmployerPaymentReceiptRepository repository;
+    private final EmployerPaymentReceiptQueryDao queryDao;
     private final WorkerPaymentReceiptQueryDao workerReceiptQueryDao;
-    private final WorkerPaymentService workerPaymentService;
+    private final WorkerPaymentStatusTransitionService statusTransitions;
     private final BoardReceiptService boardReceiptService;
     private final WorkerPaymentReceiptService workerReceiptService;
+    private final ReferenceNumberGenerator referenceNumbers;
 
     public EmployerPaymentReceiptService(EmployerPaymentReceiptRepository repository,
+                                       EmployerPaymentReceiptQueryDao queryDao,
                                        WorkerPaymentReceiptQueryDao workerReceiptQueryDao,
-                                       WorkerPaymentService workerPaymentService,
+                                       WorkerPaymentStatusTransitionService statusTransitions,
                                        BoardReceiptService boardReceiptService,
-                                       WorkerPaymentReceiptService workerReceiptService) {
+                                       WorkerPaymentReceiptService workerReceiptService,
+                                       ReferenceNumberGenerator referenceNumbers) {
         this.repository = repository;
+        this.queryDao = queryDao;
         this.workerReceiptQueryDao = workerReceiptQueryDao;
-        this.workerPaymentService = workerPaymentService;
+        this.statusTransitions = statusTransitions;
         this.boardReceiptService = boardReceiptService;
         this.workerReceiptService = workerReceiptService;
+        this.referenceNumbers = referenceNumbers;
     }
 
         @Transactional(readOnly = true)
@@ -156,7 +178,7 @@ public class EmployerPaymentReceiptService {
         } else {
             // Create new employer receipt (fallback if auto-creation failed)
             employerReceipt = new EmployerPaymentReceipt();
-            employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
+            employerReceipt.setEmployerReceiptNumber(referenceNumbers.next(ReferenceType.EMPLOYER_RECEIPT));
             employerReceipt.setWorkerReceiptNumber(workerReceiptNumber);
             employerReceipt.setEmployerId(workerReceipt.getEmployerId());
             employerReceipt.setToliId(workerReceipt.getToliId());
@@ -184,19 +206,12 @@ public class EmployerPaymentReceiptService {
         // Update worker receipt status using the proper service method
         workerReceiptService.updateStatus(workerReceiptNumber, "VALIDATED");
         
-        // Update all worker payments with this receipt number to PAYMENT_INITIATED
-        // Use WorkerPaymentService method that uses the query DAO
-        Page<WorkerPayment> paymentsPage = workerPaymentService.findByReceiptNumber(workerReceiptNumber, PageRequest.of(0, 1000));
-        List<WorkerPayment> workerPayments = paymentsPage.getContent();
-        for (WorkerPayment payment : workerPayments) {
-            if ("PAYMENT_REQUESTED".equals(payment.getStatus())) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
-            }
-        }
+        // Move every requested payment of the worker receipt to PAYMENT_INITIATED in one statement
+        WorkerPaymentStatusTransitionService.TransitionResult transition =
+                statusTransitions.initiateReceiptPayments(workerReceiptNumber);
         
         log.info("Validated employer receipt {} for worker receipt {}, created board receipt, and updated {} worker payments to PAYMENT_INITIATED", 
-                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, workerPayments.size());
+                savedReceipt.getEmployerReceiptNumber(), workerReceiptNumber, transition.affectedRows());
         
         return savedReceipt;
     }
@@ -213,7 +228,7 @@ public class EmployerPaymentReceiptService {
         
         // Create employer receipt with PENDING status
         EmployerPaymentReceipt employerReceipt = new EmployerPaymentReceipt();
-        employerReceipt.setEmployerReceiptNumber(generateEmployerReceiptNumber());
+        employerReceipt.setEmployerReceiptNumber(referenceNumbers.next(ReferenceType.EMPLOYER_RECEIPT));
         employerReceipt.setWorkerReceiptNumber(workerReceipt.getReceiptNumber());
         employerReceipt.setEmployerId(workerReceipt.getEmployerId());
         employerReceipt.setToliId(workerReceipt.getToliId());
@@ -232,13 +247,4 @@ public class EmployerPaymentReceiptService {
         
         return savedReceipt;
     }
-    
-    private String generateEmployerReceiptNumber() {
-        // Generate employer receipt number in format: EMP-YYYYMMDD-HHMMSS-XXX
-        LocalDateTime now = LocalDateTime.now();
-        String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        
-        return "EMP-" + dateTime + "-" + sequence;
-    }
 }
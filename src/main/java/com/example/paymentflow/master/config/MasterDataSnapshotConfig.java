@@ -0,0 +1,35 @@
+package com.example.paymentflow.master.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "master.snapshot")
+public class MasterDataSnapshotConfig {
+    /**
+     * Seconds a board snapshot is served before it is topped up with rows changed since the last
+     * load. Changes made through master uploads are picked up immediately.
+     */
+    private int refreshSeconds = 60;
+    /**
+     * Minutes after which a board snapshot is rebuilt from scratch, which also drops rows deleted
+     * from the master tables.
+     */
+    private int fullReloadMinutes = 60;
+
+    public int getRefreshSeconds() {
+        return refreshSeconds;
+    }
+
+    public void setRefreshSeconds(int refreshSeconds) {
+        this.refreshSeconds = refreshSeconds;
+    }
+
+    public int getFullReloadMinutes() {
+        return fullReloadMinutes;
+    }
+
+    public void setFullReloadMinutes(int fullReloadMinutes) {
+        this.fullReloadMinutes = fullReloadMinutes;
+    }
+}
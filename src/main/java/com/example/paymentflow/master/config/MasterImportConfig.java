@@ -0,0 +1,46 @@
+package com.example.paymentflow.master.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "master.import")
+public class MasterImportConfig {
+    /**
+     * Rows written per transaction.
+     */
+    private int chunkSize = 1000;
+    /**
+     * Row-level errors returned in the upload response; further errors are only counted.
+     */
+    private int maxReportedErrors = 1000;
+    /**
+     * Write master rows as raw JDBC batches instead of saving them through JPA. Rows written this
+     * way do not emit entity audit events, so this is off by default.
+     */
+    private boolean bulkWriteEnabled = false;
+
+    public int getChunkSize() {
+        return chunkSize;
+    }
+
+    public void setChunkSize(int chunkSize) {
+        this.chunkSize = chunkSize;
+    }
+
+    public int getMaxReportedErrors() {
+        return maxReportedErrors;
+    }
+
+    public void setMaxReportedErrors(int maxReportedErrors) {
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    public boolean isBulkWriteEnabled() {
+        return bulkWriteEnabled;
+    }
+
+    public void setBulkWriteEnabled(boolean bulkWriteEnabled) {
+        this.bulkWriteEnabled = bulkWriteEnabled;
+    }
+}
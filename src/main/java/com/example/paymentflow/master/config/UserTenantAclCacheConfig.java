@@ -0,0 +1,34 @@
+package com.example.paymentflow.master.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "master.acl-cache")
+public class UserTenantAclCacheConfig {
+    /**
+     * How long a user's board/employer assignment is served from the cache before it is
+     * fetched from the auth service again. Zero or less disables caching.
+     */
+    private long ttlSeconds = 300;
+    /**
+     * Upper bound on cached users; the oldest entries are evicted beyond it.
+     */
+    private int maxEntries = 10000;
+
+    public long getTtlSeconds() {
+        return ttlSeconds;
+    }
+
+    public void setTtlSeconds(long ttlSeconds) {
+        this.ttlSeconds = ttlSeconds;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
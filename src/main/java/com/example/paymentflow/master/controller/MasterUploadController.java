@@ -8,6 +8,7 @@ import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.paymentflow.master.service.MasterImportMode;
 import com.example.paymentflow.master.service.MasterUploadService;
 import com.shared.common.annotation.Auditable;
 
@@ -29,31 +30,35 @@ public class MasterUploadController {
     @Operation(summary = "Upload Employer Master", description = "Upload employer master data as a file")
     @Auditable(action = "EMPLOYER_MASTER_UPLOAD", resourceType = "EMPLOYER_MASTER")
     public ResponseEntity<?> uploadEmployerMaster(
-            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file) {
-        return masterUploadService.uploadEmployerMaster(file);
+            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "INSERT adds every row; DELTA upserts on the natural key and skips unchanged rows") @RequestParam(value = "mode", defaultValue = "INSERT") MasterImportMode mode) {
+        return masterUploadService.uploadEmployerMaster(file, mode);
     }
 
     @PostMapping(value = "/toli", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload Toli Master", description = "Upload toli master data as a file")
     @Auditable(action = "TOLI_MASTER_UPLOAD", resourceType = "TOLI_MASTER")
     public ResponseEntity<?> uploadToliMaster(
-            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file) {
-        return masterUploadService.uploadToliMaster(file);
+            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "INSERT adds every row; DELTA upserts on the natural key and skips unchanged rows") @RequestParam(value = "mode", defaultValue = "INSERT") MasterImportMode mode) {
+        return masterUploadService.uploadToliMaster(file, mode);
     }
 
     @PostMapping(value = "/workers", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload Worker Master", description = "Upload worker master data as a file")
     @Auditable(action = "WORKER_MASTER_UPLOAD", resourceType = "WORKER_MASTER")
     public ResponseEntity<?> uploadWorkerMaster(
-            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file) {
-        return masterUploadService.uploadWorkerMaster(file);
+            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "INSERT adds every row; DELTA upserts on the natural key and skips unchanged rows") @RequestParam(value = "mode", defaultValue = "INSERT") MasterImportMode mode) {
+        return masterUploadService.uploadWorkerMaster(file, mode);
     }
 
     @PostMapping(value = "/boards", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
     @Operation(summary = "Upload Board Master", description = "Upload board master data as a file")
     @Auditable(action = "BOARD_MASTER_UPLOAD", resourceType = "BOARD_MASTER")
     public ResponseEntity<?> uploadBoardMaster(
-            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file) {
-        return masterUploadService.uploadBoardMaster(file);
+            @Parameter(description = "File to upload", content = @Content(mediaType = MediaType.MULTIPART_FORM_DATA_VALUE)) @RequestParam("file") MultipartFile file,
+            @Parameter(description = "INSERT adds every row; DELTA upserts on the natural key and skips unchanged rows") @RequestParam(value = "mode", defaultValue = "INSERT") MasterImportMode mode) {
+        return masterUploadService.uploadBoardMaster(file, mode);
     }
 }
@@ -0,0 +1,304 @@
+package com.example.paymentflow.master.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.master.entity.BoardMaster;
+import com.example.paymentflow.master.entity.EmployerMaster;
+import com.example.paymentflow.master.entity.ToliMaster;
+import com.example.paymentflow.master.entity.WorkerMaster;
+import com.example.paymentflow.master.util.MasterContentHasher;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * DAO for bulk inserts and delta upserts into the master tables. Rows are written as JDBC batches
+ * outside the JPA persistence context, so they do not pass through the entity audit listener and
+ * no entity audit events are recorded for them; this writer is only used when
+ * {@code master.import.bulk-write-enabled} is set. Timestamps default the same way the entities'
+ * PrePersist hooks do, and every row is stored with the content hash of its business columns.
+ */
+@Repository
+public class MasterDataBulkDao {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(MasterDataBulkDao.class);
+
+    private static final DataType<?>[] WORKER_TYPES = {
+            SQLDataType.VARCHAR,       // board_id
+            SQLDataType.VARCHAR,       // worker_name_marathi
+            SQLDataType.VARCHAR,       // worker_name_english
+            SQLDataType.VARCHAR,       // witness_name_1
+            SQLDataType.VARCHAR,       // witness_name_2
+            SQLDataType.VARCHAR,       // toli_number
+            SQLDataType.VARCHAR,       // registration_number
+            SQLDataType.VARCHAR,       // pan_number
+            SQLDataType.VARCHAR,       // nationality
+            SQLDataType.VARCHAR,       // mother_name
+            SQLDataType.VARCHAR,       // mobile_number
+            SQLDataType.VARCHAR,       // mobile_number_1
+            SQLDataType.VARCHAR,       // marital_status
+            SQLDataType.VARCHAR,       // ifsc_code
+            SQLDataType.VARCHAR,       // branch_address
+            SQLDataType.VARCHAR,       // bank_name
+            SQLDataType.INTEGER,       // age
+            SQLDataType.VARCHAR,       // address1
+            SQLDataType.VARCHAR,       // address2
+            SQLDataType.VARCHAR,       // account_number
+            SQLDataType.VARCHAR,       // aadhar_number
+            SQLDataType.VARCHAR,       // status
+            SQLDataType.LOCALDATETIME, // created_at
+            SQLDataType.LOCALDATETIME, // updated_at
+            SQLDataType.VARCHAR        // content_hash
+    };
+
+    private static final DataType<?>[] EMPLOYER_TYPES = {
+            SQLDataType.VARCHAR,       // board_id
+            SQLDataType.VARCHAR,       // serial_no
+            SQLDataType.VARCHAR,       // registration_number
+            SQLDataType.VARCHAR,       // establishment_name
+            SQLDataType.VARCHAR,       // employer_name
+            SQLDataType.VARCHAR,       // address
+            SQLDataType.VARCHAR,       // owner_name
+            SQLDataType.VARCHAR,       // mobile_number
+            SQLDataType.VARCHAR,       // email_id
+            SQLDataType.VARCHAR,       // aadhar_number
+            SQLDataType.VARCHAR,       // aadhaar_number
+            SQLDataType.VARCHAR,       // pan_number
+            SQLDataType.VARCHAR,       // tan_number
+            SQLDataType.VARCHAR,       // virtual_bank_account_number
+            SQLDataType.VARCHAR,       // status
+            SQLDataType.LOCALDATETIME, // created_at
+            SQLDataType.LOCALDATETIME, // updated_at
+            SQLDataType.VARCHAR        // content_hash
+    };
+
+    private static final DataType<?>[] TOLI_TYPES = {
+            SQLDataType.VARCHAR,       // board_id
+            SQLDataType.VARCHAR,       // employer_id
+            SQLDataType.VARCHAR,       // registration_number
+            SQLDataType.VARCHAR,       // employer_name_marathi
+            SQLDataType.VARCHAR,       // address
+            SQLDataType.VARCHAR,       // employer_name_english
+            SQLDataType.VARCHAR,       // mobile_number
+            SQLDataType.VARCHAR,       // email_id
+            SQLDataType.VARCHAR,       // status
+            SQLDataType.LOCALDATETIME, // created_at
+            SQLDataType.LOCALDATETIME, // updated_at
+            SQLDataType.VARCHAR        // content_hash
+    };
+
+    private static final DataType<?>[] BOARD_TYPES = {
+            SQLDataType.VARCHAR,       // board_id
+            SQLDataType.VARCHAR,       // board_name
+            SQLDataType.VARCHAR,       // board_code
+            SQLDataType.VARCHAR,       // state_name
+            SQLDataType.VARCHAR,       // district_name
+            SQLDataType.CLOB,          // address
+            SQLDataType.VARCHAR,       // contact_person
+            SQLDataType.VARCHAR,       // contact_email
+            SQLDataType.VARCHAR,       // contact_phone
+            SQLDataType.VARCHAR,       // status
+            SQLDataType.LOCALDATETIME, // created_at
+            SQLDataType.LOCALDATETIME, // updated_at
+            SQLDataType.VARCHAR        // content_hash
+    };
+
+    /**
+     * Rows written by one chunk. Plain inserts only ever report inserted rows; delta upserts
+     * also report rows updated in place and rows skipped because their content hash matched.
+     */
+    public record WriteCounts(int inserted, int updated, int unchanged) {
+
+        public static final WriteCounts NONE = new WriteCounts(0, 0, 0);
+
+        public WriteCounts plus(WriteCounts other) {
+            return new WriteCounts(inserted + other.inserted, updated + other.updated, unchanged + other.unchanged);
+        }
+
+        public int written() {
+            return inserted + updated;
+        }
+    }
+
+    /**
+     * How one master table is written: its templates, bind types, natural key and the business
+     * columns that feed the content hash, in template order. Timestamps and the hash itself are
+     * appended after the business columns.
+     */
+    private record MasterTable<T>(String name, String insertTemplate, String upsertTemplate, String hashesTemplate,
+            DataType<?>[] types, Function<T, String> naturalKey, Function<T, Object[]> businessValues,
+            Consumer<T> prePersist, Function<T, LocalDateTime> createdAt, Function<T, LocalDateTime> updatedAt) {
+    }
+
+    private static final MasterTable<WorkerMaster> WORKERS = new MasterTable<>("worker_master",
+            "sql/master/worker_master_insert.sql", "sql/master/worker_master_upsert.sql",
+            "sql/master/worker_master_hashes.sql", WORKER_TYPES, WorkerMaster::getRegistrationNumber,
+            MasterContentHasher::workerValues, WorkerMaster::prePersist,
+            WorkerMaster::getCreatedAt, WorkerMaster::getUpdatedAt);
+
+    private static final MasterTable<EmployerMaster> EMPLOYERS = new MasterTable<>("employer_master",
+            "sql/master/employer_master_insert.sql", "sql/master/employer_master_upsert.sql",
+            "sql/master/employer_master_hashes.sql", EMPLOYER_TYPES, EmployerMaster::getRegistrationNo,
+            MasterContentHasher::employerValues, EmployerMaster::prePersist,
+            EmployerMaster::getCreatedAt, EmployerMaster::getUpdatedAt);
+
+    private static final MasterTable<ToliMaster> TOLIS = new MasterTable<>("toli_master",
+            "sql/master/toli_master_insert.sql", "sql/master/toli_master_upsert.sql",
+            "sql/master/toli_master_hashes.sql", TOLI_TYPES, ToliMaster::getRegistrationNumber,
+            MasterContentHasher::toliValues, ToliMaster::prePersist,
+            ToliMaster::getCreatedAt, ToliMaster::getUpdatedAt);
+
+    private static final MasterTable<BoardMaster> BOARDS = new MasterTable<>("board_master",
+            "sql/master/board_master_insert.sql", "sql/master/board_master_upsert.sql",
+            "sql/master/board_master_hashes.sql", BOARD_TYPES, BoardMaster::getBoardId,
+            MasterContentHasher::boardValues, BoardMaster::prePersist,
+            BoardMaster::getCreatedAt, BoardMaster::getUpdatedAt);
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public MasterDataBulkDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    public WriteCounts insertWorkers(List<WorkerMaster> rows) {
+        return insert(WORKERS, rows);
+    }
+
+    public WriteCounts insertEmployers(List<EmployerMaster> rows) {
+        return insert(EMPLOYERS, rows);
+    }
+
+    public WriteCounts insertTolis(List<ToliMaster> rows) {
+        return insert(TOLIS, rows);
+    }
+
+    public WriteCounts insertBoards(List<BoardMaster> rows) {
+        return insert(BOARDS, rows);
+    }
+
+    public WriteCounts upsertWorkers(List<WorkerMaster> rows) {
+        return upsert(WORKERS, rows);
+    }
+
+    public WriteCounts upsertEmployers(List<EmployerMaster> rows) {
+        return upsert(EMPLOYERS, rows);
+    }
+
+    public WriteCounts upsertTolis(List<ToliMaster> rows) {
+        return upsert(TOLIS, rows);
+    }
+
+    public WriteCounts upsertBoards(List<BoardMaster> rows) {
+        return upsert(BOARDS, rows);
+    }
+
+    /**
+     * Scope row-level security to the board for the rest of the current transaction.
+     */
+    public void setBoardContext(String boardId) {
+        dsl.resultQuery("SELECT set_config('app.current_board_id', ?, true)", boardId).fetch();
+    }
+
+    private <T> WriteCounts insert(MasterTable<T> table, List<T> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return WriteCounts.NONE;
+        }
+        List<Object[]> binds = new ArrayList<>(rows.size());
+        for (T row : rows) {
+            table.prePersist().accept(row);
+            Object[] business = table.businessValues().apply(row);
+            binds.add(bindValues(table, row, business, MasterContentHasher.hash(business)));
+        }
+        executeBatch(table.insertTemplate(), table.types(), binds);
+        return new WriteCounts(rows.size(), 0, 0);
+    }
+
+    /**
+     * Upsert on the natural key, sending only rows that are new or whose content hash differs from
+     * the stored one. The upsert repeats the hash comparison so a concurrent writer cannot make it
+     * overwrite an identical row.
+     */
+    private <T> WriteCounts upsert(MasterTable<T> table, List<T> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return WriteCounts.NONE;
+        }
+        Map<String, String> storedHashes = findStoredHashes(table, rows);
+
+        List<Object[]> binds = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (T row : rows) {
+            table.prePersist().accept(row);
+            Object[] business = table.businessValues().apply(row);
+            String hash = MasterContentHasher.hash(business);
+            String key = table.naturalKey().apply(row);
+            if (!storedHashes.containsKey(key)) {
+                inserted++;
+            } else if (!hash.equals(storedHashes.get(key))) {
+                updated++;
+            } else {
+                unchanged++;
+                continue;
+            }
+            binds.add(bindValues(table, row, business, hash));
+        }
+        executeBatch(table.upsertTemplate(), table.types(), binds);
+        log.debug("Delta upsert into {}: {} inserted, {} updated, {} unchanged",
+                table.name(), inserted, updated, unchanged);
+        return new WriteCounts(inserted, updated, unchanged);
+    }
+
+    /**
+     * Stored content hash per natural key for the keys in this chunk. Keys with a NULL hash, i.e.
+     * rows written before hashes existed, map to null and are treated as changed.
+     */
+    private <T> Map<String, String> findStoredHashes(MasterTable<T> table, List<T> rows) {
+        String[] keys = rows.stream().map(table.naturalKey()).distinct().toArray(String[]::new);
+        Map<String, String> hashes = new HashMap<>();
+        dsl.resultQuery(sqlTemplates.load(table.hashesTemplate()),
+                        DSL.val(keys, SQLDataType.VARCHAR.getArrayDataType()))
+                .fetch()
+                .forEach(record -> hashes.put(record.get("natural_key", String.class),
+                        record.get("content_hash", String.class)));
+        return hashes;
+    }
+
+    private static <T> Object[] bindValues(MasterTable<T> table, T row, Object[] business, String hash) {
+        Object[] values = Arrays.copyOf(business, business.length + 3);
+        values[business.length] = table.createdAt().apply(row);
+        values[business.length + 1] = table.updatedAt().apply(row);
+        values[business.length + 2] = hash;
+        return values;
+    }
+
+    private void executeBatch(String template, DataType<?>[] types, List<Object[]> binds) {
+        if (binds.isEmpty()) {
+            return;
+        }
+        Object[] placeholders = new Object[types.length];
+        for (int i = 0; i < types.length; i++) {
+            placeholders[i] = DSL.val(null, types[i]);
+        }
+        BatchBindStep batch = dsl.batch(dsl.query(sqlTemplates.load(template), placeholders));
+        for (Object[] values : binds) {
+            batch = batch.bind(values);
+        }
+        batch.execute();
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.paymentflow.master.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.springframework.dao.DataRetrievalFailureException;
+import org.springframework.stereotype.Repository;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.function.Consumer;
+
+/**
+ * Streams the master rows that back the in-memory master-data snapshot. Every query takes a
+ * {@code since} watermark so a snapshot can be topped up with only the rows changed since its
+ * last load; inactive rows are returned too, so the snapshot can drop them.
+ */
+@Repository
+public class MasterDataSnapshotDao {
+
+    private static final String EMPLOYER_BOARDS_TEMPLATE = "sql/master/snapshot_employer_boards.sql";
+    private static final String WORKERS_TEMPLATE = "sql/master/snapshot_workers.sql";
+    private static final String EMPLOYER_TOLIS_TEMPLATE = "sql/master/snapshot_employer_tolis.sql";
+    private static final int STREAM_FETCH_SIZE = 5000;
+    private static final String ACTIVE = "ACTIVE";
+
+    public record EmployerBoardRow(String employerId, String boardId, boolean active, LocalDateTime updatedAt) {
+    }
+
+    public record WorkerRow(String registrationNumber, String accountNumber, boolean active,
+            LocalDateTime updatedAt) {
+    }
+
+    public record EmployerToliRow(String employerId, String toliId, boolean active, LocalDateTime updatedAt) {
+    }
+
+    @FunctionalInterface
+    private interface RowMapper<T> {
+        T map(ResultSet rs) throws SQLException;
+    }
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public MasterDataSnapshotDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    public long streamEmployerBoards(LocalDateTime since, Consumer<EmployerBoardRow> consumer) {
+        return stream(EMPLOYER_BOARDS_TEMPLATE, consumer, rs -> new EmployerBoardRow(
+                rs.getString("registration_number"), rs.getString("board_id"),
+                ACTIVE.equals(rs.getString("status")), rs.getObject("updated_at", LocalDateTime.class)),
+                since);
+    }
+
+    public long streamWorkers(String boardId, LocalDateTime since, Consumer<WorkerRow> consumer) {
+        return stream(WORKERS_TEMPLATE, consumer, rs -> new WorkerRow(
+                rs.getString("registration_number"), rs.getString("account_number"),
+                ACTIVE.equals(rs.getString("status")), rs.getObject("updated_at", LocalDateTime.class)),
+                boardId, since);
+    }
+
+    public long streamEmployerTolis(String boardId, LocalDateTime since, Consumer<EmployerToliRow> consumer) {
+        return stream(EMPLOYER_TOLIS_TEMPLATE, consumer, rs -> new EmployerToliRow(
+                rs.getString("employer_id"), rs.getString("toli_id"),
+                ACTIVE.equals(rs.getString("status")), rs.getObject("updated_at", LocalDateTime.class)),
+                boardId, since);
+    }
+
+    private <T> long stream(String template, Consumer<T> consumer, RowMapper<T> mapper, Object... binds) {
+        long rows = 0;
+        try (Cursor<Record> cursor = dsl.resultQuery(sqlTemplates.load(template), binds)
+                .fetchSize(STREAM_FETCH_SIZE)
+                .fetchLazy()) {
+            ResultSet rs = cursor.resultSet();
+            while (rs.next()) {
+                consumer.accept(mapper.map(rs));
+                rows++;
+            }
+        } catch (SQLException e) {
+            throw new DataRetrievalFailureException("Failed to stream master snapshot rows from " + template, e);
+        }
+        return rows;
+    }
+}
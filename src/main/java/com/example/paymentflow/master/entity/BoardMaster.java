@@ -63,6 +63,9 @@ public class BoardMaster extends AbstractAuditableEntity<Long> {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     // Constructors
     public BoardMaster() {
     }
@@ -186,6 +189,14 @@ public class BoardMaster extends AbstractAuditableEntity<Long> {
         this.updatedAt = updatedAt;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String entityType() {
         return "BOARD_MASTER";
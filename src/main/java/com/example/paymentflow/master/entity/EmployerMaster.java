@@ -89,6 +89,9 @@ public class EmployerMaster extends AbstractAuditableEntity<Long> {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     // Constructors
     public EmployerMaster() {
     }
@@ -255,6 +258,14 @@ public class EmployerMaster extends AbstractAuditableEntity<Long> {
         this.updatedAt = updatedAt;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String entityType() {
         return "EMPLOYER_MASTER";
@@ -69,6 +69,9 @@ public class ToliMaster extends AbstractAuditableEntity<Long> {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     public String getEmployerId() {
         return employerId;
     }
@@ -182,6 +185,14 @@ public class ToliMaster extends AbstractAuditableEntity<Long> {
         this.updatedAt = updatedAt;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Override
     public String entityType() {
         return "TOLI_MASTER";
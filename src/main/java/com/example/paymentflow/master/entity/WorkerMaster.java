@@ -112,6 +112,9 @@ public class WorkerMaster extends AbstractAuditableEntity<Long> {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    @Column(name = "content_hash", length = 64)
+    private String contentHash;
+
     public WorkerMaster() {
     }
 
@@ -329,6 +332,14 @@ public class WorkerMaster extends AbstractAuditableEntity<Long> {
         this.updatedAt = updatedAt;
     }
 
+    public String getContentHash() {
+        return contentHash;
+    }
+
+    public void setContentHash(String contentHash) {
+        this.contentHash = contentHash;
+    }
+
     @Deprecated(forRemoval = false)
     public String getWorkerName() {
         return workerNameMarathi;
@@ -0,0 +1,10 @@
+package com.example.paymentflow.master.event;
+
+/**
+ * Published after master rows of a board have been written, so cached snapshots of that board
+ * are refreshed before their next use.
+ *
+ * @param boardId board whose master data changed, or null when the board is not known
+ */
+public record MasterDataChangedEvent(String boardId) {
+}
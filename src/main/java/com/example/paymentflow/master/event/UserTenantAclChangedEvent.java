@@ -0,0 +1,12 @@
+package com.example.paymentflow.master.event;
+
+/**
+ * Published when a user's tenant assignment (board or employer) changes so cached ACLs are
+ * dropped. A null user id means every user's assignment may have changed.
+ */
+public record UserTenantAclChangedEvent(Long userId) {
+
+    public static UserTenantAclChangedEvent allUsers() {
+        return new UserTenantAclChangedEvent(null);
+    }
+}
@@ -1,5 +1,8 @@
 package com.example.paymentflow.master.repository;
 
+import java.util.Collection;
+import java.util.List;
+
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
@@ -7,4 +10,6 @@ import com.example.paymentflow.master.entity.BoardMaster;
 
 @Repository
 public interface BoardMasterRepository extends JpaRepository<BoardMaster, Long> {
+
+    List<BoardMaster> findByBoardIdIn(Collection<String> keys);
 }
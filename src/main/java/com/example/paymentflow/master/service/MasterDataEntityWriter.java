@@ -0,0 +1,227 @@
+package com.example.paymentflow.master.service;
+
+import com.example.paymentflow.master.dao.MasterDataBulkDao.WriteCounts;
+import com.example.paymentflow.master.entity.BoardMaster;
+import com.example.paymentflow.master.entity.EmployerMaster;
+import com.example.paymentflow.master.entity.ToliMaster;
+import com.example.paymentflow.master.entity.WorkerMaster;
+import com.example.paymentflow.master.repository.BoardMasterRepository;
+import com.example.paymentflow.master.repository.EmployerMasterRepository;
+import com.example.paymentflow.master.repository.ToliMasterRepository;
+import com.example.paymentflow.master.repository.WorkerMasterRepository;
+import com.example.paymentflow.master.util.MasterContentHasher;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+
+/**
+ * Writes master rows through the JPA repositories, so every row passes through the entity audit
+ * listener. This is the default import writer; {@code master.import.bulk-write-enabled} switches
+ * imports to the unaudited JDBC batches of {@link com.example.paymentflow.master.dao.MasterDataBulkDao}.
+ * <p>
+ * Each chunk is saved and flushed in the caller's transaction, so a constraint violation surfaces
+ * while the import engine can still retry the chunk row by row. Rows are stored with the same
+ * content hash the JDBC writer computes.
+ * <p>
+ * Delta writes load the chunk's stored rows by natural key and compare content hashes: new rows
+ * are inserted, changed rows are copied onto the stored entity and updated, and unchanged rows
+ * are not touched, so only new and changed rows produce audit events.
+ */
+@Component
+public class MasterDataEntityWriter {
+
+    /**
+     * How one master entity is written: its repository, id setter, natural key lookup, how its
+     * content hash is computed and stored, and how a changed row's business columns are copied
+     * onto the stored entity.
+     */
+    private record MasterEntity<T>(JpaRepository<T, Long> repository, BiConsumer<T, Long> id,
+            Function<T, String> naturalKey, Function<Collection<String>, List<T>> findByNaturalKeys,
+            Function<T, Object[]> businessValues, Function<T, String> storedHash, BiConsumer<T, String> contentHash,
+            BiConsumer<T, T> copyContent) {
+    }
+
+    private final MasterEntity<WorkerMaster> workers;
+    private final MasterEntity<EmployerMaster> employers;
+    private final MasterEntity<ToliMaster> tolis;
+    private final MasterEntity<BoardMaster> boards;
+
+    public MasterDataEntityWriter(WorkerMasterRepository workerRepository,
+            EmployerMasterRepository employerRepository,
+            ToliMasterRepository toliRepository,
+            BoardMasterRepository boardRepository) {
+        this.workers = new MasterEntity<>(workerRepository, WorkerMaster::setId,
+                WorkerMaster::getRegistrationNumber, workerRepository::findByRegistrationNumberIn,
+                MasterContentHasher::workerValues, WorkerMaster::getContentHash, WorkerMaster::setContentHash,
+                MasterDataEntityWriter::copyWorker);
+        this.employers = new MasterEntity<>(employerRepository, EmployerMaster::setId,
+                EmployerMaster::getRegistrationNo, employerRepository::findByRegistrationNoIn,
+                MasterContentHasher::employerValues, EmployerMaster::getContentHash, EmployerMaster::setContentHash,
+                MasterDataEntityWriter::copyEmployer);
+        this.tolis = new MasterEntity<>(toliRepository, ToliMaster::setId,
+                ToliMaster::getRegistrationNumber, toliRepository::findByRegistrationNumberIn,
+                MasterContentHasher::toliValues, ToliMaster::getContentHash, ToliMaster::setContentHash,
+                MasterDataEntityWriter::copyToli);
+        this.boards = new MasterEntity<>(boardRepository, BoardMaster::setId,
+                BoardMaster::getBoardId, boardRepository::findByBoardIdIn,
+                MasterContentHasher::boardValues, BoardMaster::getContentHash, BoardMaster::setContentHash,
+                MasterDataEntityWriter::copyBoard);
+    }
+
+    public WriteCounts insertWorkers(List<WorkerMaster> rows) {
+        return insert(workers, rows);
+    }
+
+    public WriteCounts insertEmployers(List<EmployerMaster> rows) {
+        return insert(employers, rows);
+    }
+
+    public WriteCounts insertTolis(List<ToliMaster> rows) {
+        return insert(tolis, rows);
+    }
+
+    public WriteCounts insertBoards(List<BoardMaster> rows) {
+        return insert(boards, rows);
+    }
+
+    public WriteCounts upsertWorkers(List<WorkerMaster> rows) {
+        return upsert(workers, rows);
+    }
+
+    public WriteCounts upsertEmployers(List<EmployerMaster> rows) {
+        return upsert(employers, rows);
+    }
+
+    public WriteCounts upsertTolis(List<ToliMaster> rows) {
+        return upsert(tolis, rows);
+    }
+
+    public WriteCounts upsertBoards(List<BoardMaster> rows) {
+        return upsert(boards, rows);
+    }
+
+    private <T> WriteCounts insert(MasterEntity<T> entity, List<T> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return WriteCounts.NONE;
+        }
+        for (T row : rows) {
+            // A chunk retried row by row after a rollback still carries the ids of its undone inserts
+            entity.id().accept(row, null);
+            entity.contentHash().accept(row, MasterContentHasher.hash(entity.businessValues().apply(row)));
+        }
+        entity.repository().saveAllAndFlush(rows);
+        return new WriteCounts(rows.size(), 0, 0);
+    }
+
+    /**
+     * Insert new natural keys and update stored rows whose content hash differs. Rows stored
+     * before hashes existed have a NULL hash and are treated as changed.
+     */
+    private <T> WriteCounts upsert(MasterEntity<T> entity, List<T> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return WriteCounts.NONE;
+        }
+        List<String> keys = rows.stream().map(entity.naturalKey()).distinct().toList();
+        Map<String, T> stored = new HashMap<>();
+        for (T existing : entity.findByNaturalKeys().apply(keys)) {
+            stored.put(entity.naturalKey().apply(existing), existing);
+        }
+
+        List<T> changed = new ArrayList<>();
+        int inserted = 0;
+        int updated = 0;
+        int unchanged = 0;
+        for (T row : rows) {
+            String hash = MasterContentHasher.hash(entity.businessValues().apply(row));
+            String key = entity.naturalKey().apply(row);
+            T existing = stored.get(key);
+            if (existing == null) {
+                entity.id().accept(row, null);
+                entity.contentHash().accept(row, hash);
+                stored.put(key, row);
+                changed.add(row);
+                inserted++;
+            } else if (!hash.equals(entity.storedHash().apply(existing))) {
+                entity.copyContent().accept(existing, row);
+                entity.contentHash().accept(existing, hash);
+                changed.add(existing);
+                updated++;
+            } else {
+                unchanged++;
+            }
+        }
+        entity.repository().saveAllAndFlush(changed);
+        return new WriteCounts(inserted, updated, unchanged);
+    }
+
+    private static void copyWorker(WorkerMaster target, WorkerMaster source) {
+        target.setBoardId(source.getBoardId());
+        target.setWorkerNameMarathi(source.getWorkerNameMarathi());
+        target.setWorkerNameEnglish(source.getWorkerNameEnglish());
+        target.setWitnessName1(source.getWitnessName1());
+        target.setWitnessName2(source.getWitnessName2());
+        target.setToliNumber(source.getToliNumber());
+        target.setPanNumber(source.getPanNumber());
+        target.setNationality(source.getNationality());
+        target.setMotherName(source.getMotherName());
+        target.setMobileNumber(source.getMobileNumber());
+        target.setMobileNumber1(source.getMobileNumber1());
+        target.setMaritalStatus(source.getMaritalStatus());
+        target.setIfscCode(source.getIfscCode());
+        target.setBranchAddress(source.getBranchAddress());
+        target.setBankName(source.getBankName());
+        target.setAge(source.getAge());
+        target.setAddress1(source.getAddress1());
+        target.setAddress2(source.getAddress2());
+        target.setAccountNumber(source.getAccountNumber());
+        target.setAadharNumber(source.getAadharNumber());
+        target.setStatus(source.getStatus());
+    }
+
+    private static void copyEmployer(EmployerMaster target, EmployerMaster source) {
+        target.setBoardId(source.getBoardId());
+        target.setSerialNo(source.getSerialNo());
+        target.setEstablishmentName(source.getEstablishmentName());
+        target.setEmployerName(source.getEmployerName());
+        target.setAddress(source.getAddress());
+        target.setOwnerName(source.getOwnerName());
+        target.setMobileNumber(source.getMobileNumber());
+        target.setEmailId(source.getEmailId());
+        target.setAadharNumber(source.getAadharNumber());
+        target.setAadhaarNumber(source.getAadhaarNumber());
+        target.setPanNumber(source.getPanNumber());
+        target.setTanNumber(source.getTanNumber());
+        target.setVirtualBankAccountNumber(source.getVirtualBankAccountNumber());
+        target.setStatus(source.getStatus());
+    }
+
+    private static void copyToli(ToliMaster target, ToliMaster source) {
+        target.setBoardId(source.getBoardId());
+        target.setEmployerId(source.getEmployerId());
+        target.setEmployerNameMarathi(source.getEmployerNameMarathi());
+        target.setAddress(source.getAddress());
+        target.setEmployerNameEnglish(source.getEmployerNameEnglish());
+        target.setMobileNumber(source.getMobileNumber());
+        target.setEmailId(source.getEmailId());
+        target.setStatus(source.getStatus());
+    }
+
+    private static void copyBoard(BoardMaster target, BoardMaster source) {
+        target.setBoardName(source.getBoardName());
+        target.setBoardCode(source.getBoardCode());
+        target.setStateName(source.getStateName());
+        target.setDistrictName(source.getDistrictName());
+        target.setAddress(source.getAddress());
+        target.setContactPerson(source.getContactPerson());
+        target.setContactEmail(source.getContactEmail());
+        target.setContactPhone(source.getContactPhone());
+        target.setStatus(source.getStatus());
+    }
+}
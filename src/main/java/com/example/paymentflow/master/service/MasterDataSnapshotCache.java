@@ -0,0 +1,308 @@
+package com.example.paymentflow.master.service;
+
+import com.example.paymentflow.master.config.MasterDataSnapshotConfig;
+import com.example.paymentflow.master.dao.MasterDataSnapshotDao;
+import com.example.paymentflow.master.event.MasterDataChangedEvent;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * In-memory index of the master data that uploaded worker rows are cross-checked against, so
+ * validation does hash lookups instead of one query per row.
+ * <p>
+ * A directory maps every active employer to its board. Each board then has its own snapshot,
+ * loaded the first time a row of that board is validated: active workers keyed by registration
+ * number with their account number, and active employer-toli relations. Snapshots are topped up
+ * with rows whose {@code updated_at} moved past the last load once they are older than
+ * {@code master.snapshot.refresh-seconds}, or straight away after a {@link MasterDataChangedEvent},
+ * and are rebuilt from scratch every {@code master.snapshot.full-reload-minutes} so deleted rows
+ * eventually disappear.
+ * <p>
+ * Readers never block on a refresh of another board; a full reload builds new maps and swaps them
+ * in, so lookups see either the old or the new snapshot.
+ */
+@Component
+public class MasterDataSnapshotCache {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(MasterDataSnapshotCache.class);
+
+    /** Watermark used for a full load. */
+    private static final LocalDateTime BEGINNING = LocalDateTime.of(1970, 1, 1, 0, 0);
+    /**
+     * Incremental loads re-read this far behind the watermark, so rows committed late with an
+     * earlier updated_at (e.g. by a long-running import chunk) are not missed. Re-applying a row
+     * is idempotent.
+     */
+    private static final long WATERMARK_OVERLAP_SECONDS = 120;
+    private static final char KEY_SEPARATOR = '\u001F';
+
+    /**
+     * One refreshable index. Reads go through the volatile map references; loads are serialized
+     * on the instance.
+     */
+    private abstract static class Snapshot {
+        volatile LocalDateTime watermark;
+        volatile long refreshedAtNanos;
+        volatile long fullyLoadedAtNanos;
+        volatile boolean stale = true;
+
+        abstract void replace(LocalDateTime since);
+
+        abstract void apply(LocalDateTime since);
+
+        abstract String describe();
+    }
+
+    private final class EmployerDirectory extends Snapshot {
+        volatile Map<String, String> boardByEmployer = new ConcurrentHashMap<>();
+
+        @Override
+        void replace(LocalDateTime since) {
+            Map<String, String> employers = new ConcurrentHashMap<>();
+            load(employers, since);
+            boardByEmployer = employers;
+        }
+
+        @Override
+        void apply(LocalDateTime since) {
+            load(boardByEmployer, since);
+        }
+
+        private void load(Map<String, String> employers, LocalDateTime since) {
+            snapshotDao.streamEmployerBoards(since, row -> {
+                advance(this, row.updatedAt());
+                String employerId = normalize(row.employerId());
+                if (row.active() && row.boardId() != null) {
+                    employers.put(employerId, row.boardId());
+                } else {
+                    employers.remove(employerId);
+                }
+            });
+        }
+
+        @Override
+        String describe() {
+            return "employer directory (" + boardByEmployer.size() + " employers)";
+        }
+    }
+
+    private final class BoardSnapshot extends Snapshot {
+        final String boardId;
+        /** Worker registration number to trimmed account number, "" when the master has none. */
+        volatile Map<String, String> accountByWorker = new ConcurrentHashMap<>();
+        /** {@link #relationKey} of every active employer-toli pair. */
+        volatile Set<String> employerTolis = ConcurrentHashMap.newKeySet();
+
+        BoardSnapshot(String boardId) {
+            this.boardId = boardId;
+        }
+
+        @Override
+        void replace(LocalDateTime since) {
+            Map<String, String> workers = new ConcurrentHashMap<>();
+            Set<String> relations = ConcurrentHashMap.newKeySet();
+            load(workers, relations, since);
+            accountByWorker = workers;
+            employerTolis = relations;
+        }
+
+        @Override
+        void apply(LocalDateTime since) {
+            load(accountByWorker, employerTolis, since);
+        }
+
+        private void load(Map<String, String> workers, Set<String> relations, LocalDateTime since) {
+            snapshotDao.streamWorkers(boardId, since, row -> {
+                advance(this, row.updatedAt());
+                String registrationNumber = normalize(row.registrationNumber());
+                if (row.active()) {
+                    workers.put(registrationNumber, row.accountNumber() != null ? row.accountNumber().trim() : "");
+                } else {
+                    workers.remove(registrationNumber);
+                }
+            });
+            snapshotDao.streamEmployerTolis(boardId, since, row -> {
+                advance(this, row.updatedAt());
+                String key = relationKey(row.employerId(), row.toliId());
+                if (row.active()) {
+                    relations.add(key);
+                } else {
+                    relations.remove(key);
+                }
+            });
+        }
+
+        @Override
+        String describe() {
+            return "board " + boardId + " snapshot (" + accountByWorker.size() + " workers, "
+                    + employerTolis.size() + " employer-toli relations)";
+        }
+    }
+
+    /**
+     * Lookups for one validation run. The employer directory and each board snapshot are brought
+     * up to date at most once per run, the first time they are needed; after that every lookup
+     * is a couple of hash probes. Safe to share between the threads of a parallel run.
+     */
+    public final class Lookup {
+        private final Map<String, BoardSnapshot> boards = new ConcurrentHashMap<>();
+        private final Map<String, String> boardByEmployer;
+
+        private Lookup() {
+            ensureFresh(directory);
+            this.boardByEmployer = directory.boardByEmployer;
+        }
+
+        /**
+         * @return whether the worker is an active worker of the board the employer belongs to
+         */
+        public boolean isWorkerRegistered(String employerId, String workerId) {
+            BoardSnapshot board = boardOf(employerId);
+            return board != null && board.accountByWorker.containsKey(normalize(workerId));
+        }
+
+        /**
+         * @return whether the toli is actively related to the employer
+         */
+        public boolean isEmployerToliRelated(String employerId, String toliId) {
+            BoardSnapshot board = boardOf(employerId);
+            return board != null && board.employerTolis.contains(relationKey(employerId, toliId));
+        }
+
+        /**
+         * @return false only when the worker is known and the master holds a different account
+         *         number; unknown workers and workers without an account on file are not mismatches
+         */
+        public boolean bankAccountMatches(String employerId, String workerId, String bankAccount) {
+            BoardSnapshot board = boardOf(employerId);
+            if (board == null) {
+                return true;
+            }
+            String masterAccount = board.accountByWorker.get(normalize(workerId));
+            return masterAccount == null || masterAccount.isEmpty()
+                    || masterAccount.equalsIgnoreCase(bankAccount.trim());
+        }
+
+        private BoardSnapshot boardOf(String employerId) {
+            String boardId = boardByEmployer.get(normalize(employerId));
+            if (boardId == null) {
+                return null;
+            }
+            BoardSnapshot board = boards.get(boardId);
+            if (board == null) {
+                // Loaded outside computeIfAbsent so a slow load does not hold a map bin
+                board = boardSnapshots.computeIfAbsent(boardId, BoardSnapshot::new);
+                ensureFresh(board);
+                boards.putIfAbsent(boardId, board);
+            }
+            return board;
+        }
+    }
+
+    private final MasterDataSnapshotDao snapshotDao;
+    private final TransactionTemplate readOnlyTransaction;
+    private final long refreshNanos;
+    private final long fullReloadNanos;
+    private final EmployerDirectory directory = new EmployerDirectory();
+    private final Map<String, BoardSnapshot> boardSnapshots = new ConcurrentHashMap<>();
+
+    public MasterDataSnapshotCache(MasterDataSnapshotDao snapshotDao, MasterDataSnapshotConfig config,
+            PlatformTransactionManager transactionManager) {
+        this.snapshotDao = snapshotDao;
+        this.refreshNanos = TimeUnit.SECONDS.toNanos(Math.max(0, config.getRefreshSeconds()));
+        this.fullReloadNanos = TimeUnit.MINUTES.toNanos(Math.max(1, config.getFullReloadMinutes()));
+        // PostgreSQL only honours the fetch size inside a transaction, so loads stream in one
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * Start a validation run.
+     */
+    public Lookup lookup() {
+        return new Lookup();
+    }
+
+    /**
+     * Drop every snapshot; they are rebuilt on next use.
+     */
+    public void invalidateAll() {
+        boardSnapshots.clear();
+        directory.watermark = null;
+        directory.stale = true;
+    }
+
+    @EventListener
+    public void onMasterDataChanged(MasterDataChangedEvent event) {
+        directory.stale = true;
+        if (event.boardId() == null) {
+            boardSnapshots.values().forEach(board -> board.stale = true);
+        } else {
+            BoardSnapshot board = boardSnapshots.get(event.boardId());
+            if (board != null) {
+                board.stale = true;
+            }
+        }
+        log.debug("Master data changed for board {}, snapshot marked for refresh", event.boardId());
+    }
+
+    private void ensureFresh(Snapshot snapshot) {
+        if (!needsRefresh(snapshot, System.nanoTime())) {
+            return;
+        }
+        synchronized (snapshot) {
+            long now = System.nanoTime();
+            if (!needsRefresh(snapshot, now)) {
+                return;
+            }
+            boolean full = snapshot.watermark == null || now - snapshot.fullyLoadedAtNanos > fullReloadNanos;
+            LocalDateTime since = full ? BEGINNING : snapshot.watermark.minusSeconds(WATERMARK_OVERLAP_SECONDS);
+            // Cleared before loading so a change event that arrives mid-load triggers another refresh
+            snapshot.stale = false;
+            readOnlyTransaction.executeWithoutResult(status -> {
+                if (full) {
+                    snapshot.replace(since);
+                } else {
+                    snapshot.apply(since);
+                }
+            });
+            snapshot.refreshedAtNanos = now;
+            if (full) {
+                snapshot.fullyLoadedAtNanos = now;
+                if (snapshot.watermark == null) {
+                    snapshot.watermark = BEGINNING;
+                }
+            }
+            log.info("{} {} in {} ms", full ? "Loaded" : "Refreshed", snapshot.describe(),
+                    TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - now));
+        }
+    }
+
+    private boolean needsRefresh(Snapshot snapshot, long now) {
+        return snapshot.stale || snapshot.watermark == null || now - snapshot.refreshedAtNanos > refreshNanos;
+    }
+
+    private static void advance(Snapshot snapshot, LocalDateTime updatedAt) {
+        if (updatedAt != null && (snapshot.watermark == null || updatedAt.isAfter(snapshot.watermark))) {
+            snapshot.watermark = updatedAt;
+        }
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim();
+    }
+
+    private static String relationKey(String employerId, String toliId) {
+        return normalize(employerId) + KEY_SEPARATOR + normalize(toliId);
+    }
+}
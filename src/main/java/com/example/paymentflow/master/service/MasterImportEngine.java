@@ -0,0 +1,222 @@
+package com.example.paymentflow.master.service;
+
+import com.example.paymentflow.master.config.MasterImportConfig;
+import com.example.paymentflow.master.dao.MasterDataBulkDao;
+import com.example.paymentflow.master.util.MasterFileParser;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Streams parsed master rows into the database in fixed-size chunks. Each row is bean-validated
+ * as it arrives; valid rows are buffered and every {@code master.import.chunk-size} rows are
+ * handed to the chunk writer in their own transaction. Heap use is bounded by the chunk size, not
+ * the file size.
+ * <p>
+ * Chunks commit independently, so rows imported before a failure stay imported. If a chunk's
+ * batch is rejected, e.g. by a unique constraint, its rows are retried one per transaction and
+ * only the offending rows are reported as errors.
+ * <p>
+ * In {@link MasterImportMode#DELTA} mode the writer upserts on the natural key and skips rows
+ * whose content hash matches the stored row, so re-uploading a mostly unchanged master file only
+ * writes the rows that changed.
+ */
+@Service
+public class MasterImportEngine {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(MasterImportEngine.class);
+
+    @FunctionalInterface
+    public interface RowSource<T> {
+        long stream(MasterFileParser.RowHandler<T> handler) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface ChunkWriter<T> {
+        MasterDataBulkDao.WriteCounts write(List<T> rows);
+    }
+
+    public record RowError(long row, String message) {
+    }
+
+    public record ChunkProgress(int chunk, long firstRow, long lastRow, int importedRows, int unchangedRows,
+            int rejectedRows, long durationMillis) {
+    }
+
+    /**
+     * Outcome of an import. {@code rowsImported} is every row written, i.e. inserted plus updated;
+     * in {@link MasterImportMode#DELTA} mode rows whose content was already stored are counted as
+     * unchanged instead.
+     */
+    public record ImportResult(String masterType, MasterImportMode mode, long rowsRead, long rowsInserted,
+            long rowsUpdated, long rowsUnchanged, long rowsRejected, List<ChunkProgress> chunks,
+            List<RowError> errors, boolean errorsTruncated) {
+
+        public long rowsImported() {
+            return rowsInserted + rowsUpdated;
+        }
+
+        public Map<String, Object> toResponse() {
+            Map<String, Object> response = new LinkedHashMap<>();
+            response.put("message", masterType + " master upload processed: " + rowsImported() + " imported, "
+                    + rowsUnchanged + " unchanged, " + rowsRejected + " rejected");
+            response.put("masterType", masterType);
+            response.put("mode", mode);
+            response.put("rowsRead", rowsRead);
+            response.put("rowsImported", rowsImported());
+            response.put("rowsInserted", rowsInserted);
+            response.put("rowsUpdated", rowsUpdated);
+            response.put("rowsUnchanged", rowsUnchanged);
+            response.put("rowsRejected", rowsRejected);
+            response.put("chunks", chunks);
+            response.put("errors", errors);
+            response.put("errorsTruncated", errorsTruncated);
+            return response;
+        }
+    }
+
+    private record NumberedRow<T>(long rowNumber, T entity) {
+    }
+
+    private final MasterDataBulkDao bulkDao;
+    private final MasterImportConfig importConfig;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
+
+    public MasterImportEngine(MasterDataBulkDao bulkDao,
+            MasterImportConfig importConfig,
+            Validator validator,
+            PlatformTransactionManager transactionManager) {
+        this.bulkDao = bulkDao;
+        this.importConfig = importConfig;
+        this.validator = validator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Run an import to completion.
+     *
+     * @param boardContext board to scope row-level security to in each chunk transaction, or null
+     */
+    public <T> ImportResult run(String masterType, MasterImportMode mode, String boardContext, RowSource<T> source,
+            ChunkWriter<T> writer) throws IOException {
+        ImportRun<T> run = new ImportRun<>(masterType, boardContext, writer);
+        long rowsRead = source.stream(run);
+        run.flush();
+        log.info("{} master import ({}) finished: {} rows read, {} inserted, {} updated, {} unchanged, "
+                + "{} rejected in {} chunks", masterType, mode, rowsRead, run.totals.inserted(),
+                run.totals.updated(), run.totals.unchanged(), run.rejected, run.chunks.size());
+        return new ImportResult(masterType, mode, rowsRead, run.totals.inserted(), run.totals.updated(),
+                run.totals.unchanged(), run.rejected, run.chunks, run.errors, run.rejected > run.errors.size());
+    }
+
+    private final class ImportRun<T> implements MasterFileParser.RowHandler<T> {
+        private final String masterType;
+        private final String boardContext;
+        private final ChunkWriter<T> writer;
+        private final int chunkSize = Math.max(1, importConfig.getChunkSize());
+        private final List<NumberedRow<T>> buffer = new ArrayList<>();
+        private final List<ChunkProgress> chunks = new ArrayList<>();
+        private final List<RowError> errors = new ArrayList<>();
+        private MasterDataBulkDao.WriteCounts totals = MasterDataBulkDao.WriteCounts.NONE;
+        private long rejected;
+        private int chunkRejected;
+
+        ImportRun(String masterType, String boardContext, ChunkWriter<T> writer) {
+            this.masterType = masterType;
+            this.boardContext = boardContext;
+            this.writer = writer;
+        }
+
+        @Override
+        public void onRow(long rowNumber, T entity) {
+            Set<ConstraintViolation<T>> violations = validator.validate(entity);
+            if (!violations.isEmpty()) {
+                onRowError(rowNumber, violations.stream()
+                        .map(ConstraintViolation::getMessage)
+                        .sorted()
+                        .collect(Collectors.joining("; ")));
+                return;
+            }
+            buffer.add(new NumberedRow<>(rowNumber, entity));
+            if (buffer.size() >= chunkSize) {
+                flush();
+            }
+        }
+
+        @Override
+        public void onRowError(long rowNumber, String message) {
+            rejected++;
+            chunkRejected++;
+            if (errors.size() < importConfig.getMaxReportedErrors()) {
+                errors.add(new RowError(rowNumber, message));
+            }
+        }
+
+        void flush() {
+            if (buffer.isEmpty()) {
+                return;
+            }
+            long started = System.nanoTime();
+            MasterDataBulkDao.WriteCounts chunkCounts;
+            try {
+                List<T> entities = buffer.stream().map(NumberedRow::entity).toList();
+                chunkCounts = writeInTransaction(entities);
+            } catch (DataAccessException | org.jooq.exception.DataAccessException e) {
+                log.warn("{} import chunk {} rejected by the database, retrying its rows individually: {}",
+                        masterType, chunks.size() + 1, e.getMessage());
+                chunkCounts = writeRowByRow();
+            }
+
+            totals = totals.plus(chunkCounts);
+            ChunkProgress progress = new ChunkProgress(chunks.size() + 1, buffer.get(0).rowNumber(),
+                    buffer.get(buffer.size() - 1).rowNumber(), chunkCounts.written(), chunkCounts.unchanged(),
+                    chunkRejected, (System.nanoTime() - started) / 1_000_000);
+            chunks.add(progress);
+            log.info("{} import chunk {}: rows {}-{}, {} imported, {} unchanged, {} rejected in {} ms "
+                    + "({} imported so far)", masterType, progress.chunk(), progress.firstRow(), progress.lastRow(),
+                    progress.importedRows(), progress.unchangedRows(), progress.rejectedRows(),
+                    progress.durationMillis(), totals.written());
+            buffer.clear();
+            chunkRejected = 0;
+        }
+
+        private MasterDataBulkDao.WriteCounts writeRowByRow() {
+            MasterDataBulkDao.WriteCounts written = MasterDataBulkDao.WriteCounts.NONE;
+            for (NumberedRow<T> row : buffer) {
+                try {
+                    written = written.plus(writeInTransaction(List.of(row.entity())));
+                } catch (DataAccessException e) {
+                    onRowError(row.rowNumber(), e.getMostSpecificCause().getMessage());
+                } catch (org.jooq.exception.DataAccessException e) {
+                    Throwable cause = e.getCause() != null ? e.getCause() : e;
+                    onRowError(row.rowNumber(), cause.getMessage());
+                }
+            }
+            return written;
+        }
+
+        private MasterDataBulkDao.WriteCounts writeInTransaction(List<T> entities) {
+            MasterDataBulkDao.WriteCounts written = transactionTemplate.execute(status -> {
+                if (boardContext != null) {
+                    bulkDao.setBoardContext(boardContext);
+                }
+                return writer.write(entities);
+            });
+            return written != null ? written : MasterDataBulkDao.WriteCounts.NONE;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package com.example.paymentflow.master.service;
+
+/**
+ * How an uploaded master file is applied to its table.
+ */
+public enum MasterImportMode {
+    /** Insert every row; a natural key that already exists rejects the row. */
+    INSERT,
+    /**
+     * Upsert on the natural key. New rows are inserted, rows whose content differs are updated in
+     * place and rows identical to the stored ones are skipped.
+     */
+    DELTA
+}
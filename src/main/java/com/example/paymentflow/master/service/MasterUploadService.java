@@ -4,11 +4,11 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.web.multipart.MultipartFile;
 
 public interface MasterUploadService {
-    ResponseEntity<?> uploadEmployerMaster(MultipartFile file);
+    ResponseEntity<?> uploadEmployerMaster(MultipartFile file, MasterImportMode mode);
 
-    ResponseEntity<?> uploadToliMaster(MultipartFile file);
+    ResponseEntity<?> uploadToliMaster(MultipartFile file, MasterImportMode mode);
 
-    ResponseEntity<?> uploadWorkerMaster(MultipartFile file);
+    ResponseEntity<?> uploadWorkerMaster(MultipartFile file, MasterImportMode mode);
 
-    ResponseEntity<?> uploadBoardMaster(MultipartFile file);
+    ResponseEntity<?> uploadBoardMaster(MultipartFile file, MasterImportMode mode);
 }
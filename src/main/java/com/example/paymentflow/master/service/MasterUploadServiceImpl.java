@@ -1,29 +1,20 @@
 package com.example.paymentflow.master.service;
 
-import java.util.List;
-
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 import org.springframework.web.server.ResponseStatusException;
 
-import com.example.paymentflow.master.entity.BoardMaster;
-import com.example.paymentflow.master.entity.EmployerMaster;
-import com.example.paymentflow.master.entity.ToliMaster;
-import com.example.paymentflow.master.entity.WorkerMaster;
-import com.example.paymentflow.master.repository.BoardMasterRepository;
-import com.example.paymentflow.master.repository.EmployerMasterRepository;
-import com.example.paymentflow.master.repository.ToliMasterRepository;
-import com.example.paymentflow.master.repository.WorkerMasterRepository;
+import com.example.paymentflow.master.config.MasterImportConfig;
+import com.example.paymentflow.master.dao.MasterDataBulkDao;
+import com.example.paymentflow.master.event.MasterDataChangedEvent;
 import com.example.paymentflow.master.util.MasterFileParser;
 import com.shared.security.JwtAuthenticationDetails;
-import jakarta.persistence.EntityManager;
-import jakarta.persistence.PersistenceContext;
 
 // Placeholder for shared-lib upload utility import
 // import com.shared.common.upload.GenericUploadService;
@@ -31,26 +22,27 @@ import jakarta.persistence.PersistenceContext;
 @Service
 
 public class MasterUploadServiceImpl implements MasterUploadService {
-    private final UserTenantAclClient userTenantAclClient;
-    private final EmployerMasterRepository employerMasterRepository;
-    private final ToliMasterRepository toliMasterRepository;
-    private final WorkerMasterRepository workerMasterRepository;
-    private final BoardMasterRepository boardMasterRepository;
-    @PersistenceContext
-    private EntityManager entityManager;
+    private final UserTenantAclCache userTenantAclCache;
+    private final MasterImportEngine importEngine;
+    private final MasterDataBulkDao bulkDao;
+    private final MasterDataEntityWriter entityWriter;
+    private final MasterImportConfig importConfig;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Autowired
     public MasterUploadServiceImpl(
-            UserTenantAclClient userTenantAclClient,
-            EmployerMasterRepository employerMasterRepository,
-            ToliMasterRepository toliMasterRepository,
-            WorkerMasterRepository workerMasterRepository,
-            BoardMasterRepository boardMasterRepository) {
-        this.userTenantAclClient = userTenantAclClient;
-        this.employerMasterRepository = employerMasterRepository;
-        this.toliMasterRepository = toliMasterRepository;
-        this.workerMasterRepository = workerMasterRepository;
-        this.boardMasterRepository = boardMasterRepository;
+            UserTenantAclCache userTenantAclCache,
+            MasterImportEngine importEngine,
+            MasterDataBulkDao bulkDao,
+            MasterDataEntityWriter entityWriter,
+            MasterImportConfig importConfig,
+            ApplicationEventPublisher eventPublisher) {
+        this.userTenantAclCache = userTenantAclCache;
+        this.importEngine = importEngine;
+        this.bulkDao = bulkDao;
+        this.entityWriter = entityWriter;
+        this.importConfig = importConfig;
+        this.eventPublisher = eventPublisher;
     }
 
     // Inject the shared-lib upload utility/service here when available
@@ -71,99 +63,102 @@ public class MasterUploadServiceImpl implements MasterUploadService {
         if (userId == null) {
             throw new IllegalStateException("User ID not found in authentication context");
         }
-        UserTenantAclClient.UserTenantAclInfo acl = userTenantAclClient.getAclForUser(userId);
+        UserTenantAclClient.UserTenantAclInfo acl = userTenantAclCache.getAclForUser(userId);
         return new UserContext(userId.toString(), acl.getBoardId(), acl.getEmployerId());
     }
 
     @Override
-    public ResponseEntity<?> uploadEmployerMaster(MultipartFile file) {
+    public ResponseEntity<?> uploadEmployerMaster(MultipartFile file, MasterImportMode mode) {
         UserContext userContext = getUserContext();
-        String filename = file.getOriginalFilename();
-        try {
-            List<EmployerMaster> entities;
-            if (filename != null && filename.toLowerCase().endsWith(".csv")) {
-                entities = MasterFileParser.parseEmployerCsv(file, userContext.getBoardId(),
-                        userContext.getEmployerId());
-            } else if (filename != null
-                    && (filename.toLowerCase().endsWith(".xls") || filename.toLowerCase().endsWith(".xlsx"))) {
-                entities = MasterFileParser.parseEmployerXls(file, userContext.getBoardId(),
-                        userContext.getEmployerId());
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported file type");
-            }
-            employerMasterRepository.saveAll(entities);
-            return ResponseEntity.ok("Employer master upload successful: " + entities.size() + " records");
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Upload failed: " + e.getMessage(), e);
-        }
+        return importMaster("Employer", mode, file, userContext.getBoardId(), null,
+                handler -> MasterFileParser.streamEmployerCsv(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                handler -> MasterFileParser.streamEmployerSheet(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                mode == MasterImportMode.DELTA
+                        ? writer(bulkDao::upsertEmployers, entityWriter::upsertEmployers)
+                        : writer(bulkDao::insertEmployers, entityWriter::insertEmployers));
     }
 
     @Override
-    public ResponseEntity<?> uploadToliMaster(MultipartFile file) {
+    public ResponseEntity<?> uploadToliMaster(MultipartFile file, MasterImportMode mode) {
         UserContext userContext = getUserContext();
-        String filename = file.getOriginalFilename();
-        try {
-            List<ToliMaster> entities;
-            if (filename != null && filename.toLowerCase().endsWith(".csv")) {
-                entities = MasterFileParser.parseToliCsv(file, userContext.getBoardId(), userContext.getEmployerId());
-            } else if (filename != null
-                    && (filename.toLowerCase().endsWith(".xls") || filename.toLowerCase().endsWith(".xlsx"))) {
-                entities = MasterFileParser.parseToliXls(file, userContext.getBoardId(), userContext.getEmployerId());
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported file type");
-            }
-            toliMasterRepository.saveAll(entities);
-            return ResponseEntity.ok("Toli master upload successful: " + entities.size() + " records");
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Upload failed: " + e.getMessage(), e);
-        }
+        return importMaster("Toli", mode, file, userContext.getBoardId(), null,
+                handler -> MasterFileParser.streamToliCsv(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                handler -> MasterFileParser.streamToliSheet(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                mode == MasterImportMode.DELTA
+                        ? writer(bulkDao::upsertTolis, entityWriter::upsertTolis)
+                        : writer(bulkDao::insertTolis, entityWriter::insertTolis));
     }
 
     @Override
-    public ResponseEntity<?> uploadWorkerMaster(MultipartFile file) {
+    public ResponseEntity<?> uploadWorkerMaster(MultipartFile file, MasterImportMode mode) {
         UserContext userContext = getUserContext();
-        String filename = file.getOriginalFilename();
-        try {
-            List<WorkerMaster> entities;
-            if (filename != null && filename.toLowerCase().endsWith(".csv")) {
-                entities = MasterFileParser.parseWorkerCsv(file, userContext.getBoardId(), userContext.getEmployerId());
-            } else if (filename != null
-                    && (filename.toLowerCase().endsWith(".xls") || filename.toLowerCase().endsWith(".xlsx"))) {
-                entities = MasterFileParser.parseWorkerXls(file, userContext.getBoardId(), userContext.getEmployerId());
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported file type");
-            }
-            workerMasterRepository.saveAll(entities);
-            return ResponseEntity.ok("Worker master upload successful: " + entities.size() + " records");
-        } catch (Exception e) {
-            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Upload failed: " + e.getMessage(), e);
-        }
+        return importMaster("Worker", mode, file, userContext.getBoardId(), null,
+                handler -> MasterFileParser.streamWorkerCsv(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                handler -> MasterFileParser.streamWorkerSheet(file, userContext.getBoardId(),
+                        userContext.getEmployerId(), handler),
+                mode == MasterImportMode.DELTA
+                        ? writer(bulkDao::upsertWorkers, entityWriter::upsertWorkers)
+                        : writer(bulkDao::insertWorkers, entityWriter::insertWorkers));
     }
 
     @Override
-    @Transactional
-    public ResponseEntity<?> uploadBoardMaster(MultipartFile file) {
+    public ResponseEntity<?> uploadBoardMaster(MultipartFile file, MasterImportMode mode) {
         UserContext userContext = getUserContext();
         String boardId = requireBoardId(userContext);
-        setBoardContext(boardId);
+        return importMaster("Board", mode, file, boardId, boardId,
+                handler -> MasterFileParser.streamBoardCsv(file, boardId, userContext.getEmployerId(), handler),
+                handler -> MasterFileParser.streamBoardSheet(file, boardId, userContext.getEmployerId(), handler),
+                mode == MasterImportMode.DELTA
+                        ? writer(bulkDao::upsertBoards, entityWriter::upsertBoards)
+                        : writer(bulkDao::insertBoards, entityWriter::insertBoards));
+    }
+
+    /**
+     * Pick the CSV or spreadsheet parser by extension and stream the file through the import engine.
+     *
+     * @param boardId board the uploaded rows belong to, announced in a {@link MasterDataChangedEvent}
+     * @param boardContext board to scope row-level security to while writing, or null
+     */
+    private <T> ResponseEntity<?> importMaster(String masterType, MasterImportMode mode, MultipartFile file,
+            String boardId, String boardContext,
+            MasterImportEngine.RowSource<T> csvSource, MasterImportEngine.RowSource<T> sheetSource,
+            MasterImportEngine.ChunkWriter<T> writer) {
         String filename = file.getOriginalFilename();
+        MasterImportEngine.RowSource<T> source;
+        if (filename != null && filename.toLowerCase().endsWith(".csv")) {
+            source = csvSource;
+        } else if (filename != null
+                && (filename.toLowerCase().endsWith(".xls") || filename.toLowerCase().endsWith(".xlsx"))) {
+            source = sheetSource;
+        } else {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported file type");
+        }
         try {
-            List<BoardMaster> entities;
-            if (filename != null && filename.toLowerCase().endsWith(".csv")) {
-                entities = MasterFileParser.parseBoardCsv(file, boardId, userContext.getEmployerId());
-            } else if (filename != null
-                    && (filename.toLowerCase().endsWith(".xls") || filename.toLowerCase().endsWith(".xlsx"))) {
-                entities = MasterFileParser.parseBoardXls(file, boardId, userContext.getEmployerId());
-            } else {
-                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unsupported file type");
+            MasterImportEngine.ImportResult result = importEngine.run(masterType, mode, boardContext, source,
+                    writer);
+            if (result.rowsImported() > 0) {
+                eventPublisher.publishEvent(new MasterDataChangedEvent(boardId));
             }
-            boardMasterRepository.saveAll(entities);
-            return ResponseEntity.ok("Board master upload successful: " + entities.size() + " records");
+            return ResponseEntity.ok(result.toResponse());
         } catch (Exception e) {
             throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Upload failed: " + e.getMessage(), e);
         }
     }
 
+    /**
+     * The audited JPA writer, or the JDBC batch writer when {@code master.import.bulk-write-enabled}
+     * is set.
+     */
+    private <T> MasterImportEngine.ChunkWriter<T> writer(MasterImportEngine.ChunkWriter<T> bulkWriter,
+            MasterImportEngine.ChunkWriter<T> entityWriter) {
+        return importConfig.isBulkWriteEnabled() ? bulkWriter : entityWriter;
+    }
+
     // Simple user context holder for demonstration
     private static class UserContext {
         private final String userId;
@@ -189,12 +184,6 @@ public class MasterUploadServiceImpl implements MasterUploadService {
         }
     }
 
-    private void setBoardContext(String boardId) {
-        entityManager.createNativeQuery("SELECT set_config('app.current_board_id', :boardId, false)")
-                .setParameter("boardId", boardId)
-                .getSingleResult();
-    }
-
     private String requireBoardId(UserContext userContext) {
         String boardId = userContext.getBoardId();
         if (boardId == null || boardId.isBlank()) {
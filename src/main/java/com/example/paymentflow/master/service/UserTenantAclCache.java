@@ -0,0 +1,202 @@
+package com.example.paymentflow.master.service;
+
+import com.example.paymentflow.master.config.UserTenantAclCacheConfig;
+import com.example.paymentflow.master.event.UserTenantAclChangedEvent;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Read-through cache in front of {@link UserTenantAclClient}. Entries expire after
+ * {@code master.acl-cache.ttl-seconds} and the cache holds at most
+ * {@code master.acl-cache.max-entries} users.
+ * <p>
+ * Each user maps to a future. The first caller to miss installs it and calls the client, and
+ * concurrent callers for the same user wait on that future, so a burst of uploads from one user
+ * costs a single remote call. Failed lookups are not cached.
+ * <p>
+ * Publish a {@link UserTenantAclChangedEvent} when tenant assignments change.
+ */
+@Component
+public class UserTenantAclCache {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(UserTenantAclCache.class);
+
+    private record CachedAcl(UserTenantAclClient.UserTenantAclInfo acl, long loadedAtNanos) {
+    }
+
+    private final UserTenantAclClient client;
+    private final LongSupplier nanoClock;
+    private final long ttlNanos;
+    private final int maxEntries;
+    private final Map<Long, CompletableFuture<CachedAcl>> entries = new ConcurrentHashMap<>();
+
+    private final Counter hitCounter;
+    private final Counter coalescedCounter;
+    private final Counter missCounter;
+    private final Counter expiredCounter;
+    private final Counter sizeEvictionCounter;
+    private final Counter invalidatedCounter;
+
+    @Autowired
+    public UserTenantAclCache(UserTenantAclClient client, UserTenantAclCacheConfig config,
+            MeterRegistry meterRegistry) {
+        this(client, config, meterRegistry, System::nanoTime);
+    }
+
+    /**
+     * @param nanoClock monotonic time source in nanoseconds, {@link System#nanoTime()} outside tests
+     */
+    UserTenantAclCache(UserTenantAclClient client, UserTenantAclCacheConfig config, MeterRegistry meterRegistry,
+            LongSupplier nanoClock) {
+        this.client = client;
+        this.nanoClock = nanoClock;
+        this.ttlNanos = TimeUnit.SECONDS.toNanos(Math.max(0, config.getTtlSeconds()));
+        this.maxEntries = Math.max(1, config.getMaxEntries());
+
+        this.hitCounter = requestCounter(meterRegistry, "hit");
+        this.coalescedCounter = requestCounter(meterRegistry, "coalesced");
+        this.missCounter = requestCounter(meterRegistry, "miss");
+        this.expiredCounter = evictionCounter(meterRegistry, "expired");
+        this.sizeEvictionCounter = evictionCounter(meterRegistry, "size");
+        this.invalidatedCounter = evictionCounter(meterRegistry, "invalidated");
+        Gauge.builder("master.acl.cache.size", entries, Map::size)
+                .description("Users currently held in the tenant ACL cache")
+                .register(meterRegistry);
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("master.acl.cache.requests")
+                .description("Tenant ACL lookups by cache outcome")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private static Counter evictionCounter(MeterRegistry meterRegistry, String cause) {
+        return Counter.builder("master.acl.cache.evictions")
+                .description("Tenant ACL cache entries removed, by cause")
+                .tag("cause", cause)
+                .register(meterRegistry);
+    }
+
+    public UserTenantAclClient.UserTenantAclInfo getAclForUser(Long userId) {
+        if (ttlNanos == 0) {
+            missCounter.increment();
+            return client.getAclForUser(userId);
+        }
+
+        CompletableFuture<CachedAcl> future = entries.get(userId);
+        if (future != null && isExpired(future)) {
+            if (entries.remove(userId, future)) {
+                expiredCounter.increment();
+            }
+            future = null;
+        }
+        if (future == null) {
+            CompletableFuture<CachedAcl> created = new CompletableFuture<>();
+            future = entries.putIfAbsent(userId, created);
+            if (future == null) {
+                missCounter.increment();
+                return load(userId, created);
+            }
+        }
+
+        (future.isDone() ? hitCounter : coalescedCounter).increment();
+        try {
+            return future.join().acl();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private UserTenantAclClient.UserTenantAclInfo load(Long userId, CompletableFuture<CachedAcl> future) {
+        UserTenantAclClient.UserTenantAclInfo acl;
+        try {
+            acl = client.getAclForUser(userId);
+        } catch (RuntimeException e) {
+            entries.remove(userId, future);
+            future.completeExceptionally(e);
+            throw e;
+        }
+        future.complete(new CachedAcl(acl, nanoClock.getAsLong()));
+        if (entries.size() > maxEntries) {
+            evictOverflow();
+        }
+        return acl;
+    }
+
+    private boolean isExpired(CompletableFuture<CachedAcl> future) {
+        if (!future.isDone() || future.isCompletedExceptionally()) {
+            return false;
+        }
+        return nanoClock.getAsLong() - future.join().loadedAtNanos() > ttlNanos;
+    }
+
+    /**
+     * Drop expired entries, then the oldest ones, until the cache is back within bounds.
+     * Only one thread scans at a time; others keep serving from the map meanwhile.
+     */
+    private synchronized void evictOverflow() {
+        entries.forEach((userId, future) -> {
+            if (isExpired(future) && entries.remove(userId, future)) {
+                expiredCounter.increment();
+            }
+        });
+        int excess = entries.size() - maxEntries;
+        if (excess <= 0) {
+            return;
+        }
+        entries.entrySet().stream()
+                .filter(entry -> entry.getValue().isDone() && !entry.getValue().isCompletedExceptionally())
+                .sorted(Comparator.comparingLong(entry -> entry.getValue().join().loadedAtNanos()))
+                .limit(excess)
+                .forEach(entry -> {
+                    if (entries.remove(entry.getKey(), entry.getValue())) {
+                        sizeEvictionCounter.increment();
+                    }
+                });
+    }
+
+    /**
+     * Forget one user's ACL. A lookup already in flight still answers its waiting callers but is
+     * not kept.
+     */
+    public void invalidate(Long userId) {
+        if (entries.remove(userId) != null) {
+            invalidatedCounter.increment();
+        }
+    }
+
+    public void invalidateAll() {
+        int size = entries.size();
+        entries.clear();
+        invalidatedCounter.increment(size);
+    }
+
+    @EventListener
+    public void onAclChanged(UserTenantAclChangedEvent event) {
+        if (event.userId() == null) {
+            log.info("Tenant assignments changed, clearing ACL cache");
+            invalidateAll();
+        } else {
+            log.info("Tenant assignment changed for user {}, evicting cached ACL", event.userId());
+            invalidate(event.userId());
+        }
+    }
+}
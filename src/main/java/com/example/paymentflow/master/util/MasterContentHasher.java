@@ -0,0 +1,79 @@
+package com.example.paymentflow.master.util;
+
+import com.example.paymentflow.master.entity.BoardMaster;
+import com.example.paymentflow.master.entity.EmployerMaster;
+import com.example.paymentflow.master.entity.ToliMaster;
+import com.example.paymentflow.master.entity.WorkerMaster;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * SHA-256 over the business columns of a master row, stored as content_hash so a delta
+ * re-upload can tell unchanged rows apart without comparing every column. Values are joined
+ * with a unit separator and nulls get their own marker, so {@code ("a", null)} and
+ * {@code (null, "a")} hash differently.
+ * <p>
+ * The business columns of each master type are listed here once, in the order of its insert
+ * template, so the JPA and JDBC import paths hash rows identically.
+ */
+public final class MasterContentHasher {
+
+    private static final char FIELD_SEPARATOR = '\u001F';
+    private static final char NULL_MARKER = '\u0000';
+
+    private MasterContentHasher() {
+    }
+
+    public static Object[] workerValues(WorkerMaster row) {
+        return new Object[] {
+                row.getBoardId(), row.getWorkerNameMarathi(), row.getWorkerNameEnglish(), row.getWitnessName1(),
+                row.getWitnessName2(), row.getToliNumber(), row.getRegistrationNumber(), row.getPanNumber(),
+                row.getNationality(), row.getMotherName(), row.getMobileNumber(), row.getMobileNumber1(),
+                row.getMaritalStatus(), row.getIfscCode(), row.getBranchAddress(), row.getBankName(),
+                row.getAge(), row.getAddress1(), row.getAddress2(), row.getAccountNumber(),
+                row.getAadharNumber(), row.getStatus() };
+    }
+
+    public static Object[] employerValues(EmployerMaster row) {
+        return new Object[] {
+                row.getBoardId(), row.getSerialNo(), row.getRegistrationNo(), row.getEstablishmentName(),
+                row.getEmployerName(), row.getAddress(), row.getOwnerName(), row.getMobileNumber(),
+                row.getEmailId(), row.getAadharNumber(), row.getAadhaarNumber(), row.getPanNumber(),
+                row.getTanNumber(), row.getVirtualBankAccountNumber(), row.getStatus() };
+    }
+
+    public static Object[] toliValues(ToliMaster row) {
+        return new Object[] {
+                row.getBoardId(), row.getEmployerId(), row.getRegistrationNumber(), row.getEmployerNameMarathi(),
+                row.getAddress(), row.getEmployerNameEnglish(), row.getMobileNumber(), row.getEmailId(),
+                row.getStatus() };
+    }
+
+    public static Object[] boardValues(BoardMaster row) {
+        return new Object[] {
+                row.getBoardId(), row.getBoardName(), row.getBoardCode(), row.getStateName(),
+                row.getDistrictName(), row.getAddress(), row.getContactPerson(), row.getContactEmail(),
+                row.getContactPhone(), row.getStatus() };
+    }
+
+    public static String hash(Object... values) {
+        StringBuilder content = new StringBuilder(256);
+        for (Object value : values) {
+            if (value == null) {
+                content.append(NULL_MARKER);
+            } else {
+                content.append(value);
+            }
+            content.append(FIELD_SEPARATOR);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(content.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
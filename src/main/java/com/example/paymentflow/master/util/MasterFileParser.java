@@ -1,15 +1,16 @@
 package com.example.paymentflow.master.util;
 
+import java.io.IOException;
 import java.io.InputStream;
 import java.io.InputStreamReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeParseException;
-import java.util.ArrayList;
 import java.util.HashMap;
-import java.util.Iterator;
-import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 
 import org.apache.commons.csv.CSVFormat;
 import org.apache.commons.csv.CSVParser;
@@ -17,7 +18,6 @@ import org.apache.commons.csv.CSVRecord;
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.springframework.web.multipart.MultipartFile;
@@ -26,360 +26,409 @@ import com.example.paymentflow.master.entity.BoardMaster;
 import com.example.paymentflow.master.entity.EmployerMaster;
 import com.example.paymentflow.master.entity.ToliMaster;
 import com.example.paymentflow.master.entity.WorkerMaster;
+import com.example.paymentflow.utilities.file.StreamingXlsxReader;
 
+/**
+ * Parses master data uploads one row at a time. Each row is mapped to an entity and handed to a
+ * {@link RowHandler} before the next is read, so the file is never held in memory as a list.
+ * .xlsx sheets are read with the streaming event-model reader; legacy .xls files still use the
+ * DOM reader. A row that cannot be mapped is reported to the handler and parsing continues.
+ */
 public class MasterFileParser {
 
     private static final DataFormatter DATA_FORMATTER = new DataFormatter();
 
-    public static List<ToliMaster> parseToliCsv(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<ToliMaster> list = new ArrayList<>();
+    public interface RowHandler<T> {
+        /**
+         * @param rowNumber one-based position of the row in the file, header included
+         */
+        void onRow(long rowNumber, T entity);
+
+        void onRowError(long rowNumber, String message);
+    }
+
+    @FunctionalInterface
+    private interface SheetRowMapper<T> {
+        T map(String[] row, Map<String, Integer> headerIndex);
+    }
+
+    public static long streamToliCsv(MultipartFile file, String boardId, String employerId,
+            RowHandler<ToliMaster> handler) throws IOException {
+        return streamCsv(file, record -> mapToliRecord(record, boardId, employerId), handler);
+    }
+
+    public static long streamToliSheet(MultipartFile file, String boardId, String employerId,
+            RowHandler<ToliMaster> handler) throws IOException {
+        return streamSheet(file, (row, headerIndex) -> mapToliRow(row, boardId, employerId), handler);
+    }
+
+    public static long streamWorkerCsv(MultipartFile file, String boardId, String employerId,
+            RowHandler<WorkerMaster> handler) throws IOException {
+        return streamCsv(file, record -> mapWorkerRecord(record, boardId), handler);
+    }
+
+    public static long streamWorkerSheet(MultipartFile file, String boardId, String employerId,
+            RowHandler<WorkerMaster> handler) throws IOException {
+        return streamSheet(file, (row, headerIndex) -> mapWorkerRow(row, headerIndex, boardId), handler);
+    }
+
+    public static long streamBoardCsv(MultipartFile file, String boardId, String employerId,
+            RowHandler<BoardMaster> handler) throws IOException {
+        return streamCsv(file, record -> mapBoardRecord(record, boardId), handler);
+    }
+
+    public static long streamBoardSheet(MultipartFile file, String boardId, String employerId,
+            RowHandler<BoardMaster> handler) throws IOException {
+        return streamSheet(file, (row, headerIndex) -> mapBoardRow(row, boardId), handler);
+    }
+
+    public static long streamEmployerCsv(MultipartFile file, String boardId, String employerId,
+            RowHandler<EmployerMaster> handler) throws IOException {
+        return streamCsv(file, record -> mapEmployerRecord(record, boardId), handler);
+    }
+
+    public static long streamEmployerSheet(MultipartFile file, String boardId, String employerId,
+            RowHandler<EmployerMaster> handler) throws IOException {
+        return streamSheet(file, (row, headerIndex) -> mapEmployerRow(row, boardId), handler);
+    }
+
+    /**
+     * @return number of data rows read, rejected rows included
+     */
+    private static <T> long streamCsv(MultipartFile file, Function<CSVRecord, T> mapper, RowHandler<T> handler)
+            throws IOException {
+        long rows = 0;
         try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
                 CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
                         .parse(reader)) {
             for (CSVRecord record : parser) {
-                ToliMaster entity = new ToliMaster();
-                entity.setBoardId(boardId);
-                entity.setEmployerId(employerId);
-                entity.setRegistrationNumber(getValue(record, "registration_number", "registration_no"));
-                entity.setEmployerNameMarathi(getValue(record,
-                        "employer_name_marathi",
-                        "toli_name_marathi",
-                        "employer_name",
-                        "establishment_name"));
-                entity.setAddress(getOptionalValue(record, "address", "address1", "address_line_1"));
-                entity.setEmployerNameEnglish(getOptionalValue(record,
-                        "employer_name_english",
-                        "toli_name_english",
-                        "establishment_name_english",
-                        "establishment_name_secondary",
-                        "employer_name_english_text"));
-                entity.setMobileNumber(getOptionalValue(record, "mobile_number", "mobile_no", "phone_number"));
-                entity.setEmailId(getOptionalValue(record, "email_id", "email"));
-                String status = getOptionalValue(record, "status");
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
+                rows++;
+                long rowNumber = rows + 1;
+                T entity;
+                try {
+                    entity = mapper.apply(record);
+                } catch (IllegalArgumentException e) {
+                    handler.onRowError(rowNumber, e.getMessage());
+                    continue;
                 }
-                list.add(entity);
+                handler.onRow(rowNumber, entity);
             }
         }
-        return list;
+        return rows;
     }
 
-    public static List<ToliMaster> parseToliXls(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<ToliMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                ToliMaster entity = new ToliMaster();
-                entity.setBoardId(boardId);
-                entity.setEmployerId(employerId);
-                entity.setRegistrationNumber(requireCellValue(row, 0, "registration_number"));
-                entity.setEmployerNameMarathi(requireCellValue(row, 1, "employer_name_marathi"));
-                entity.setAddress(getCellValue(row, 2));
-                entity.setEmployerNameEnglish(getCellValue(row, 3));
-                entity.setMobileNumber(getCellValue(row, 4));
-                entity.setEmailId(getCellValue(row, 5));
-                String status = getCellValue(row, 6);
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getCellValue(row, 7));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getCellValue(row, 8));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
-                }
-                list.add(entity);
+    /**
+     * The first row of the sheet is the header; blank rows are skipped.
+     *
+     * @return number of data rows read, rejected rows included
+     */
+    private static <T> long streamSheet(MultipartFile file, SheetRowMapper<T> mapper, RowHandler<T> handler)
+            throws IOException {
+        SheetRowDispatcher<T> dispatcher = new SheetRowDispatcher<>(mapper, handler);
+        String filename = file.getOriginalFilename();
+        if (filename != null && filename.toLowerCase().endsWith(".xlsx")) {
+            Path workbookFile = Files.createTempFile("master-upload-", ".xlsx");
+            try {
+                file.transferTo(workbookFile);
+                StreamingXlsxReader.readFirstSheet(workbookFile.toFile(), 0, dispatcher::accept);
+            } finally {
+                Files.deleteIfExists(workbookFile);
             }
+            return dispatcher.dataRows;
         }
-        return list;
-    }
 
-    public static List<WorkerMaster> parseWorkerCsv(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<WorkerMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
-                WorkerMaster entity = new WorkerMaster();
-                String boardIdFromFile = getOptionalValue(record, "board_id");
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setWorkerNameMarathi(getValue(record,
-                        "worker_name_marathi",
-                        "workers_name_marathi",
-                        "worker_name",
-                        "labor_name_marathi"));
-                entity.setWorkerNameEnglish(getOptionalValue(record,
-                        "worker_name_english",
-                        "workers_name_english",
-                        "labor_name_english"));
-                entity.setWitnessName1(getOptionalValue(record, "witness_name_1", "wit_name_1"));
-                entity.setWitnessName2(getOptionalValue(record, "witness_name_2", "wit_name_2"));
-                entity.setToliNumber(getOptionalValue(record, "toli_number", "toli_id"));
-                entity.setRegistrationNumber(getValue(record, "registration_number", "registration_no"));
-                entity.setPanNumber(getOptionalValue(record, "pan_number", "pan"));
-                entity.setNationality(getOptionalValue(record, "nationality"));
-                entity.setMotherName(getOptionalValue(record, "mother_name"));
-                entity.setMobileNumber(getOptionalValue(record, "mobile_number", "mobile_no", "phone_number"));
-                entity.setMobileNumber1(getOptionalValue(record, "mobile_number_1", "alternate_mobile_number"));
-                entity.setMaritalStatus(getOptionalValue(record, "marital_status"));
-                entity.setIfscCode(getOptionalValue(record, "ifsc_code"));
-                entity.setBranchAddress(getOptionalValue(record, "branch_address"));
-                entity.setBankName(getOptionalValue(record, "bank_name"));
-                String age = getOptionalValue(record, "age");
-                if (age != null) {
-                    entity.setAge(parseInteger(age));
-                }
-                entity.setAddress1(getOptionalValue(record, "address1", "address_line_1"));
-                entity.setAddress2(getOptionalValue(record, "address2", "address_line_2"));
-                entity.setAccountNumber(getOptionalValue(record, "account_number", "bank_account_number"));
-                entity.setAadharNumber(getValue(record,
-                        "aadhar_number",
-                        "aadhaar_number",
-                        "aadhar_no",
-                        "aadhaar_no",
-                        "uid"));
-                String status = getOptionalValue(record, "status", "worker_status", "current_status", "state");
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
-                }
-                list.add(entity);
+        try (InputStream is = file.getInputStream(); Workbook workbook = WorkbookFactory.create(is)) {
+            for (Row row : workbook.getSheetAt(0)) {
+                dispatcher.accept(row.getRowNum(), toCells(row));
             }
         }
-        return list;
+        return dispatcher.dataRows;
     }
 
-    public static List<WorkerMaster> parseWorkerXls(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<WorkerMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (!rowIterator.hasNext()) {
-                return list;
+    private static final class SheetRowDispatcher<T> {
+        private final SheetRowMapper<T> mapper;
+        private final RowHandler<T> handler;
+        private Map<String, Integer> headerIndex;
+        private long dataRows;
+
+        SheetRowDispatcher(SheetRowMapper<T> mapper, RowHandler<T> handler) {
+            this.mapper = mapper;
+            this.handler = handler;
+        }
+
+        void accept(int rowIndex, String[] row) {
+            if (headerIndex == null) {
+                headerIndex = buildHeaderIndex(row);
+                return;
             }
-            Row headerRow = rowIterator.next();
-            Map<String, Integer> headerIndex = buildHeaderIndex(headerRow);
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                if (isRowBlank(row)) {
-                    continue;
-                }
-                WorkerMaster entity = new WorkerMaster();
-                String boardIdFromFile = getOptionalCellValue(row, headerIndex, "board_id");
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setWorkerNameMarathi(requireCellValue(row, headerIndex,
-                        "worker_name_marathi",
-                        "workers_name_marathi",
-                        "worker_name"));
-                entity.setWorkerNameEnglish(getOptionalCellValue(row, headerIndex,
-                        "worker_name_english",
-                        "workers_name_english"));
-                entity.setWitnessName1(getOptionalCellValue(row, headerIndex, "witness_name_1", "wit_name_1"));
-                entity.setWitnessName2(getOptionalCellValue(row, headerIndex, "witness_name_2", "wit_name_2"));
-                entity.setToliNumber(getOptionalCellValue(row, headerIndex, "toli_number", "toli_id"));
-                entity.setRegistrationNumber(
-                        requireCellValue(row, headerIndex, "registration_number", "registration_no"));
-                entity.setPanNumber(getOptionalCellValue(row, headerIndex, "pan_number", "pan"));
-                entity.setNationality(getOptionalCellValue(row, headerIndex, "nationality"));
-                entity.setMotherName(getOptionalCellValue(row, headerIndex, "mother_name"));
-                entity.setMobileNumber(getOptionalCellValue(row, headerIndex, "mobile_number", "phone_number"));
-                entity.setMobileNumber1(getOptionalCellValue(row, headerIndex, "mobile_number_1"));
-                entity.setMaritalStatus(getOptionalCellValue(row, headerIndex, "marital_status"));
-                entity.setIfscCode(getOptionalCellValue(row, headerIndex, "ifsc_code"));
-                entity.setBranchAddress(getOptionalCellValue(row, headerIndex, "branch_address"));
-                entity.setBankName(getOptionalCellValue(row, headerIndex, "bank_name"));
-                String age = getOptionalCellValue(row, headerIndex, "age");
-                if (age != null) {
-                    entity.setAge(parseInteger(age));
-                }
-                entity.setAddress1(getOptionalCellValue(row, headerIndex, "address1", "address_line_1"));
-                entity.setAddress2(getOptionalCellValue(row, headerIndex, "address2", "address_line_2"));
-                entity.setAccountNumber(getOptionalCellValue(row, headerIndex, "account_number", "bank_account"));
-                entity.setAadharNumber(requireCellValue(row, headerIndex,
-                        "aadhar_number",
-                        "aadhaar_number",
-                        "aadhar_no",
-                        "aadhaar_no",
-                        "uid"));
-                String status = getOptionalCellValue(row, headerIndex, "status", "worker_status", "current_status");
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getOptionalCellValue(row, headerIndex, "created_at"));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getOptionalCellValue(row, headerIndex, "updated_at"));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
-                }
-                list.add(entity);
+            if (isRowBlank(row)) {
+                return;
+            }
+            dataRows++;
+            long rowNumber = rowIndex + 1L;
+            T entity;
+            try {
+                entity = mapper.map(row, headerIndex);
+            } catch (IllegalArgumentException e) {
+                handler.onRowError(rowNumber, e.getMessage());
+                return;
             }
+            handler.onRow(rowNumber, entity);
         }
-        return list;
     }
 
-    public static List<BoardMaster> parseBoardCsv(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<BoardMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
-                BoardMaster entity = new BoardMaster();
-                String boardIdFromFile = getOptionalValue(record, "board_id");
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setBoardName(getValue(record, "board_name"));
-                entity.setBoardCode(getOptionalValue(record, "board_code"));
-                entity.setStateName(getOptionalValue(record, "state_name"));
-                entity.setDistrictName(getOptionalValue(record, "district_name"));
-                entity.setAddress(getOptionalValue(record, "address"));
-                // ... map other fields as needed ...
-                list.add(entity);
-            }
+    private static ToliMaster mapToliRecord(CSVRecord record, String boardId, String employerId) {
+        ToliMaster entity = new ToliMaster();
+        entity.setBoardId(boardId);
+        entity.setEmployerId(employerId);
+        entity.setRegistrationNumber(getValue(record, "registration_number", "registration_no"));
+        entity.setEmployerNameMarathi(getValue(record,
+                "employer_name_marathi",
+                "toli_name_marathi",
+                "employer_name",
+                "establishment_name"));
+        entity.setAddress(getOptionalValue(record, "address", "address1", "address_line_1"));
+        entity.setEmployerNameEnglish(getOptionalValue(record,
+                "employer_name_english",
+                "toli_name_english",
+                "establishment_name_english",
+                "establishment_name_secondary",
+                "employer_name_english_text"));
+        entity.setMobileNumber(getOptionalValue(record, "mobile_number", "mobile_no", "phone_number"));
+        entity.setEmailId(getOptionalValue(record, "email_id", "email"));
+        String status = getOptionalValue(record, "status");
+        if (status != null) {
+            entity.setStatus(status);
+        }
+        LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
+        }
+        LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
         }
-        return list;
+        return entity;
     }
 
-    public static List<BoardMaster> parseBoardXls(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<BoardMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                BoardMaster entity = new BoardMaster();
-                String boardIdFromFile = getCellValue(row, 0);
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setBoardName(requireCellValue(row, 1, "board_name"));
-                entity.setBoardCode(getCellValue(row, 2));
-                entity.setStateName(getCellValue(row, 3));
-                entity.setDistrictName(getCellValue(row, 4));
-                entity.setAddress(getCellValue(row, 5));
-                // ... map other fields as needed ...
-                list.add(entity);
-            }
+    private static ToliMaster mapToliRow(String[] row, String boardId, String employerId) {
+        ToliMaster entity = new ToliMaster();
+        entity.setBoardId(boardId);
+        entity.setEmployerId(employerId);
+        entity.setRegistrationNumber(requireCellValue(row, 0, "registration_number"));
+        entity.setEmployerNameMarathi(requireCellValue(row, 1, "employer_name_marathi"));
+        entity.setAddress(getCellValue(row, 2));
+        entity.setEmployerNameEnglish(getCellValue(row, 3));
+        entity.setMobileNumber(getCellValue(row, 4));
+        entity.setEmailId(getCellValue(row, 5));
+        String status = getCellValue(row, 6);
+        if (status != null) {
+            entity.setStatus(status);
+        }
+        LocalDateTime createdAt = parseDateTime(getCellValue(row, 7));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
         }
-        return list;
+        LocalDateTime updatedAt = parseDateTime(getCellValue(row, 8));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
+        }
+        return entity;
     }
 
-    public static List<EmployerMaster> parseEmployerCsv(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<EmployerMaster> list = new ArrayList<>();
-        try (InputStreamReader reader = new InputStreamReader(file.getInputStream());
-                CSVParser parser = CSVFormat.DEFAULT.builder().setHeader().setSkipHeaderRecord(true).build()
-                        .parse(reader)) {
-            for (CSVRecord record : parser) {
-                EmployerMaster entity = new EmployerMaster();
-                String boardIdFromFile = getOptionalValue(record, "board_id");
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setRegistrationNo(getValue(record, "registration_number", "registration_no"));
-                entity.setEstablishmentName(getValue(record, "establishment_name", "employer_name"));
-                entity.setEmployerName(getOptionalValue(record, "employer_name"));
-                entity.setAddress(getOptionalValue(record, "address"));
-                entity.setOwnerName(getOptionalValue(record, "owner_name"));
-                entity.setMobileNumber(getOptionalValue(record, "mobile_number"));
-                entity.setEmailId(getOptionalValue(record, "email_id"));
-                entity.setAadharNumber(getOptionalValue(record, "aadhar_number"));
-                entity.setAadhaarNumber(getOptionalValue(record, "aadhaar_number", "aadhar_number"));
-                entity.setPanNumber(getOptionalValue(record, "pan_number"));
-                entity.setTanNumber(getOptionalValue(record, "tan_number"));
-                entity.setVirtualBankAccountNumber(getOptionalValue(record, "virtual_bank_account_number"));
-                String status = getOptionalValue(record, "status");
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
-                }
-                list.add(entity);
-            }
+    private static WorkerMaster mapWorkerRecord(CSVRecord record, String boardId) {
+        WorkerMaster entity = new WorkerMaster();
+        String boardIdFromFile = getOptionalValue(record, "board_id");
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setWorkerNameMarathi(getValue(record,
+                "worker_name_marathi",
+                "workers_name_marathi",
+                "worker_name",
+                "labor_name_marathi"));
+        entity.setWorkerNameEnglish(getOptionalValue(record,
+                "worker_name_english",
+                "workers_name_english",
+                "labor_name_english"));
+        entity.setWitnessName1(getOptionalValue(record, "witness_name_1", "wit_name_1"));
+        entity.setWitnessName2(getOptionalValue(record, "witness_name_2", "wit_name_2"));
+        entity.setToliNumber(getOptionalValue(record, "toli_number", "toli_id"));
+        entity.setRegistrationNumber(getValue(record, "registration_number", "registration_no"));
+        entity.setPanNumber(getOptionalValue(record, "pan_number", "pan"));
+        entity.setNationality(getOptionalValue(record, "nationality"));
+        entity.setMotherName(getOptionalValue(record, "mother_name"));
+        entity.setMobileNumber(getOptionalValue(record, "mobile_number", "mobile_no", "phone_number"));
+        entity.setMobileNumber1(getOptionalValue(record, "mobile_number_1", "alternate_mobile_number"));
+        entity.setMaritalStatus(getOptionalValue(record, "marital_status"));
+        entity.setIfscCode(getOptionalValue(record, "ifsc_code"));
+        entity.setBranchAddress(getOptionalValue(record, "branch_address"));
+        entity.setBankName(getOptionalValue(record, "bank_name"));
+        String age = getOptionalValue(record, "age");
+        if (age != null) {
+            entity.setAge(parseInteger(age));
         }
-        return list;
+        entity.setAddress1(getOptionalValue(record, "address1", "address_line_1"));
+        entity.setAddress2(getOptionalValue(record, "address2", "address_line_2"));
+        entity.setAccountNumber(getOptionalValue(record, "account_number", "bank_account_number"));
+        entity.setAadharNumber(getValue(record,
+                "aadhar_number",
+                "aadhaar_number",
+                "aadhar_no",
+                "aadhaar_no",
+                "uid"));
+        String status = getOptionalValue(record, "status", "worker_status", "current_status", "state");
+        if (status != null) {
+            entity.setStatus(status);
+        }
+        LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
+        }
+        LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
+        }
+        return entity;
     }
 
-    public static List<EmployerMaster> parseEmployerXls(MultipartFile file, String boardId, String employerId)
-            throws Exception {
-        List<EmployerMaster> list = new ArrayList<>();
-        try (InputStream is = file.getInputStream()) {
-            Workbook workbook = WorkbookFactory.create(is);
-            Sheet sheet = workbook.getSheetAt(0);
-            Iterator<Row> rowIterator = sheet.iterator();
-            if (rowIterator.hasNext()) {
-                rowIterator.next();
-            }
-            while (rowIterator.hasNext()) {
-                Row row = rowIterator.next();
-                EmployerMaster entity = new EmployerMaster();
-                String boardIdFromFile = getCellValue(row, 14);
-                entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
-                entity.setRegistrationNo(requireCellValue(row, 1, "registration_number"));
-                entity.setEstablishmentName(requireCellValue(row, 2, "establishment_name"));
-                entity.setEmployerName(getCellValue(row, 4));
-                entity.setAddress(getCellValue(row, 3));
-                entity.setOwnerName(getCellValue(row, 16));
-                entity.setMobileNumber(getCellValue(row, 5));
-                entity.setEmailId(getCellValue(row, 6));
-                entity.setAadharNumber(getCellValue(row, 7));
-                entity.setAadhaarNumber(getCellValue(row, 15));
-                entity.setPanNumber(getCellValue(row, 8));
-                entity.setTanNumber(getCellValue(row, 9));
-                entity.setVirtualBankAccountNumber(getCellValue(row, 10));
-                String status = getCellValue(row, 11);
-                if (status != null) {
-                    entity.setStatus(status);
-                }
-                LocalDateTime createdAt = parseDateTime(getCellValue(row, 12));
-                if (createdAt != null) {
-                    entity.setCreatedAt(createdAt);
-                }
-                LocalDateTime updatedAt = parseDateTime(getCellValue(row, 13));
-                if (updatedAt != null) {
-                    entity.setUpdatedAt(updatedAt);
-                }
-                list.add(entity);
-            }
+    private static WorkerMaster mapWorkerRow(String[] row, Map<String, Integer> headerIndex, String boardId) {
+        WorkerMaster entity = new WorkerMaster();
+        String boardIdFromFile = getOptionalCellValue(row, headerIndex, "board_id");
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setWorkerNameMarathi(requireCellValue(row, headerIndex,
+                "worker_name_marathi",
+                "workers_name_marathi",
+                "worker_name"));
+        entity.setWorkerNameEnglish(getOptionalCellValue(row, headerIndex,
+                "worker_name_english",
+                "workers_name_english"));
+        entity.setWitnessName1(getOptionalCellValue(row, headerIndex, "witness_name_1", "wit_name_1"));
+        entity.setWitnessName2(getOptionalCellValue(row, headerIndex, "witness_name_2", "wit_name_2"));
+        entity.setToliNumber(getOptionalCellValue(row, headerIndex, "toli_number", "toli_id"));
+        entity.setRegistrationNumber(
+                requireCellValue(row, headerIndex, "registration_number", "registration_no"));
+        entity.setPanNumber(getOptionalCellValue(row, headerIndex, "pan_number", "pan"));
+        entity.setNationality(getOptionalCellValue(row, headerIndex, "nationality"));
+        entity.setMotherName(getOptionalCellValue(row, headerIndex, "mother_name"));
+        entity.setMobileNumber(getOptionalCellValue(row, headerIndex, "mobile_number", "phone_number"));
+        entity.setMobileNumber1(getOptionalCellValue(row, headerIndex, "mobile_number_1"));
+        entity.setMaritalStatus(getOptionalCellValue(row, headerIndex, "marital_status"));
+        entity.setIfscCode(getOptionalCellValue(row, headerIndex, "ifsc_code"));
+        entity.setBranchAddress(getOptionalCellValue(row, headerIndex, "branch_address"));
+        entity.setBankName(getOptionalCellValue(row, headerIndex, "bank_name"));
+        String age = getOptionalCellValue(row, headerIndex, "age");
+        if (age != null) {
+            entity.setAge(parseInteger(age));
+        }
+        entity.setAddress1(getOptionalCellValue(row, headerIndex, "address1", "address_line_1"));
+        entity.setAddress2(getOptionalCellValue(row, headerIndex, "address2", "address_line_2"));
+        entity.setAccountNumber(getOptionalCellValue(row, headerIndex, "account_number", "bank_account"));
+        entity.setAadharNumber(requireCellValue(row, headerIndex,
+                "aadhar_number",
+                "aadhaar_number",
+                "aadhar_no",
+                "aadhaar_no",
+                "uid"));
+        String status = getOptionalCellValue(row, headerIndex, "status", "worker_status", "current_status");
+        if (status != null) {
+            entity.setStatus(status);
         }
-        return list;
+        LocalDateTime createdAt = parseDateTime(getOptionalCellValue(row, headerIndex, "created_at"));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
+        }
+        LocalDateTime updatedAt = parseDateTime(getOptionalCellValue(row, headerIndex, "updated_at"));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
+        }
+        return entity;
+    }
+
+    private static BoardMaster mapBoardRecord(CSVRecord record, String boardId) {
+        BoardMaster entity = new BoardMaster();
+        String boardIdFromFile = getOptionalValue(record, "board_id");
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setBoardName(getValue(record, "board_name"));
+        entity.setBoardCode(getOptionalValue(record, "board_code"));
+        entity.setStateName(getOptionalValue(record, "state_name"));
+        entity.setDistrictName(getOptionalValue(record, "district_name"));
+        entity.setAddress(getOptionalValue(record, "address"));
+        // ... map other fields as needed ...
+        return entity;
+    }
+
+    private static BoardMaster mapBoardRow(String[] row, String boardId) {
+        BoardMaster entity = new BoardMaster();
+        String boardIdFromFile = getCellValue(row, 0);
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setBoardName(requireCellValue(row, 1, "board_name"));
+        entity.setBoardCode(getCellValue(row, 2));
+        entity.setStateName(getCellValue(row, 3));
+        entity.setDistrictName(getCellValue(row, 4));
+        entity.setAddress(getCellValue(row, 5));
+        // ... map other fields as needed ...
+        return entity;
+    }
+
+    private static EmployerMaster mapEmployerRecord(CSVRecord record, String boardId) {
+        EmployerMaster entity = new EmployerMaster();
+        String boardIdFromFile = getOptionalValue(record, "board_id");
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setRegistrationNo(getValue(record, "registration_number", "registration_no"));
+        entity.setEstablishmentName(getValue(record, "establishment_name", "employer_name"));
+        entity.setEmployerName(getOptionalValue(record, "employer_name"));
+        entity.setAddress(getOptionalValue(record, "address"));
+        entity.setOwnerName(getOptionalValue(record, "owner_name"));
+        entity.setMobileNumber(getOptionalValue(record, "mobile_number"));
+        entity.setEmailId(getOptionalValue(record, "email_id"));
+        entity.setAadharNumber(getOptionalValue(record, "aadhar_number"));
+        entity.setAadhaarNumber(getOptionalValue(record, "aadhaar_number", "aadhar_number"));
+        entity.setPanNumber(getOptionalValue(record, "pan_number"));
+        entity.setTanNumber(getOptionalValue(record, "tan_number"));
+        entity.setVirtualBankAccountNumber(getOptionalValue(record, "virtual_bank_account_number"));
+        String status = getOptionalValue(record, "status");
+        if (status != null) {
+            entity.setStatus(status);
+        }
+        LocalDateTime createdAt = parseDateTime(getOptionalValue(record, "created_at"));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
+        }
+        LocalDateTime updatedAt = parseDateTime(getOptionalValue(record, "updated_at"));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
+        }
+        return entity;
+    }
+
+    private static EmployerMaster mapEmployerRow(String[] row, String boardId) {
+        EmployerMaster entity = new EmployerMaster();
+        String boardIdFromFile = getCellValue(row, 14);
+        entity.setBoardId(resolveBoardId(boardId, boardIdFromFile));
+        entity.setRegistrationNo(requireCellValue(row, 1, "registration_number"));
+        entity.setEstablishmentName(requireCellValue(row, 2, "establishment_name"));
+        entity.setEmployerName(getCellValue(row, 4));
+        entity.setAddress(getCellValue(row, 3));
+        entity.setOwnerName(getCellValue(row, 16));
+        entity.setMobileNumber(getCellValue(row, 5));
+        entity.setEmailId(getCellValue(row, 6));
+        entity.setAadharNumber(getCellValue(row, 7));
+        entity.setAadhaarNumber(getCellValue(row, 15));
+        entity.setPanNumber(getCellValue(row, 8));
+        entity.setTanNumber(getCellValue(row, 9));
+        entity.setVirtualBankAccountNumber(getCellValue(row, 10));
+        String status = getCellValue(row, 11);
+        if (status != null) {
+            entity.setStatus(status);
+        }
+        LocalDateTime createdAt = parseDateTime(getCellValue(row, 12));
+        if (createdAt != null) {
+            entity.setCreatedAt(createdAt);
+        }
+        LocalDateTime updatedAt = parseDateTime(getCellValue(row, 13));
+        if (updatedAt != null) {
+            entity.setUpdatedAt(updatedAt);
+        }
+        return entity;
     }
 
     private static String getValue(CSVRecord record, String... headerOptions) {
@@ -439,19 +488,25 @@ public class MasterFileParser {
         throw new IllegalArgumentException("Unable to parse date value: " + value);
     }
 
-    private static String getCellValue(Row row, int cellIndex) {
-        if (row == null) {
-            return null;
+    private static String[] toCells(Row row) {
+        int width = Math.max(row.getLastCellNum(), 0);
+        String[] cells = new String[width];
+        for (int i = 0; i < width; i++) {
+            Cell cell = row.getCell(i);
+            cells[i] = cell != null ? DATA_FORMATTER.formatCellValue(cell) : null;
         }
-        Cell cell = row.getCell(cellIndex);
-        if (cell == null) {
+        return cells;
+    }
+
+    private static String getCellValue(String[] row, int cellIndex) {
+        if (row == null || cellIndex >= row.length) {
             return null;
         }
-        String value = DATA_FORMATTER.formatCellValue(cell);
+        String value = row[cellIndex];
         return value != null && !value.isBlank() ? value.trim() : null;
     }
 
-    private static String requireCellValue(Row row, int cellIndex, String columnName) {
+    private static String requireCellValue(String[] row, int cellIndex, String columnName) {
         String value = getCellValue(row, cellIndex);
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(
@@ -460,13 +515,12 @@ public class MasterFileParser {
         return value;
     }
 
-    private static Map<String, Integer> buildHeaderIndex(Row headerRow) {
+    private static Map<String, Integer> buildHeaderIndex(String[] headerRow) {
         Map<String, Integer> headerIndex = new HashMap<>();
         if (headerRow == null) {
             return headerIndex;
         }
-        short lastCellNum = headerRow.getLastCellNum();
-        for (int i = 0; i < lastCellNum; i++) {
+        for (int i = 0; i < headerRow.length; i++) {
             String header = getCellValue(headerRow, i);
             if (header == null || header.isBlank()) {
                 continue;
@@ -484,7 +538,8 @@ public class MasterFileParser {
         return header.trim().toLowerCase().replaceAll("[^a-z0-9]+", "_");
     }
 
-    private static String getOptionalCellValue(Row row, Map<String, Integer> headerIndex, String... headerOptions) {
+    private static String getOptionalCellValue(String[] row, Map<String, Integer> headerIndex,
+            String... headerOptions) {
         if (headerIndex == null || headerIndex.isEmpty()) {
             return null;
         }
@@ -500,7 +555,7 @@ public class MasterFileParser {
         return null;
     }
 
-    private static String requireCellValue(Row row, Map<String, Integer> headerIndex, String... headerOptions) {
+    private static String requireCellValue(String[] row, Map<String, Integer> headerIndex, String... headerOptions) {
         String value = getOptionalCellValue(row, headerIndex, headerOptions);
         if (value == null || value.isBlank()) {
             throw new IllegalArgumentException(
@@ -509,14 +564,12 @@ public class MasterFileParser {
         return value;
     }
 
-    private static boolean isRowBlank(Row row) {
+    private static boolean isRowBlank(String[] row) {
         if (row == null) {
             return true;
         }
-        short lastCellNum = row.getLastCellNum();
-        for (int i = 0; i < lastCellNum; i++) {
-            String value = getCellValue(row, i);
-            if (value != null && !value.isBlank()) {
+        for (int i = 0; i < row.length; i++) {
+            if (getCellValue(row, i) != null) {
                 return false;
             }
         }
@@ -0,0 +1,186 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Single-pass RFC 4180 CSV tokenizer that reads a file through a {@link FileChannel} and a
+ * reusable {@link ByteBuffer}. Bytes are scanned with a small state machine and only each
+ * completed field is decoded, so no String is built per line and quoted fields may contain
+ * commas, doubled quotes and line breaks. Input is expected to be UTF-8; the delimiter, quote
+ * and line terminators are all single-byte in UTF-8 so multi-byte characters pass through intact.
+ */
+public final class CsvFieldTokenizer {
+
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    private static final byte COMMA = ',';
+    private static final byte QUOTE = '"';
+    private static final byte CR = '\r';
+    private static final byte LF = '\n';
+
+    @FunctionalInterface
+    public interface RecordHandler {
+        /**
+         * @param recordIndex zero-based index of the record in the file, header included
+         * @param fields      decoded field values; a fresh array the handler may keep
+         */
+        void handleRecord(long recordIndex, String[] fields);
+    }
+
+    private enum State {
+        FIELD_START,
+        UNQUOTED,
+        QUOTED,
+        QUOTE_IN_QUOTED
+    }
+
+    private final List<String> fields = new ArrayList<>();
+    private byte[] fieldBytes = new byte[256];
+    private int fieldLength;
+    private State state = State.FIELD_START;
+    private boolean inRecord;
+    private boolean skipNextLf;
+    private long recordIndex;
+
+    private CsvFieldTokenizer() {
+    }
+
+    /**
+     * Tokenize every record of the file, including the header, in file order.
+     *
+     * @return number of records emitted
+     */
+    public static long tokenize(Path path, RecordHandler handler) throws IOException {
+        CsvFieldTokenizer tokenizer = new CsvFieldTokenizer();
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            ByteBuffer buffer = ByteBuffer.allocate(READ_BUFFER_SIZE);
+            boolean firstRead = true;
+            while (channel.read(buffer) != -1) {
+                buffer.flip();
+                int start = 0;
+                if (firstRead) {
+                    start = utf8BomLength(buffer);
+                    firstRead = false;
+                }
+                tokenizer.consume(buffer.array(), start, buffer.limit(), handler);
+                buffer.clear();
+            }
+        }
+        tokenizer.finish(handler);
+        return tokenizer.recordIndex;
+    }
+
+    private static int utf8BomLength(ByteBuffer buffer) {
+        if (buffer.limit() >= 3 && (buffer.get(0) & 0xFF) == 0xEF && (buffer.get(1) & 0xFF) == 0xBB
+                && (buffer.get(2) & 0xFF) == 0xBF) {
+            return 3;
+        }
+        return 0;
+    }
+
+    private void consume(byte[] bytes, int from, int to, RecordHandler handler) {
+        for (int i = from; i < to; i++) {
+            byte b = bytes[i];
+            if (skipNextLf) {
+                skipNextLf = false;
+                if (b == LF) {
+                    continue;
+                }
+            }
+
+            switch (state) {
+                case FIELD_START:
+                    if (b == QUOTE) {
+                        state = State.QUOTED;
+                        inRecord = true;
+                    } else if (b == COMMA) {
+                        endField();
+                        inRecord = true;
+                    } else if (b == CR || b == LF) {
+                        endRecord(handler, b);
+                    } else {
+                        append(b);
+                        state = State.UNQUOTED;
+                        inRecord = true;
+                    }
+                    break;
+                case UNQUOTED:
+                    if (b == COMMA) {
+                        endField();
+                        state = State.FIELD_START;
+                    } else if (b == CR || b == LF) {
+                        endRecord(handler, b);
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case QUOTED:
+                    if (b == QUOTE) {
+                        state = State.QUOTE_IN_QUOTED;
+                    } else {
+                        append(b);
+                    }
+                    break;
+                case QUOTE_IN_QUOTED:
+                    if (b == QUOTE) {
+                        // Doubled quote inside a quoted field is a literal quote
+                        append(b);
+                        state = State.QUOTED;
+                    } else if (b == COMMA) {
+                        endField();
+                        state = State.FIELD_START;
+                    } else if (b == CR || b == LF) {
+                        endRecord(handler, b);
+                    } else {
+                        // Lenient: text after a closing quote is kept as part of the field
+                        append(b);
+                        state = State.UNQUOTED;
+                    }
+                    break;
+                default:
+                    throw new IllegalStateException("Unexpected tokenizer state " + state);
+            }
+        }
+    }
+
+    private void finish(RecordHandler handler) {
+        if (inRecord || fieldLength > 0 || !fields.isEmpty()) {
+            endField();
+            emit(handler);
+        }
+    }
+
+    private void append(byte b) {
+        if (fieldLength == fieldBytes.length) {
+            fieldBytes = Arrays.copyOf(fieldBytes, fieldBytes.length * 2);
+        }
+        fieldBytes[fieldLength++] = b;
+    }
+
+    private void endField() {
+        fields.add(new String(fieldBytes, 0, fieldLength, StandardCharsets.UTF_8));
+        fieldLength = 0;
+    }
+
+    private void endRecord(RecordHandler handler, byte terminator) {
+        endField();
+        emit(handler);
+        skipNextLf = terminator == CR;
+    }
+
+    private void emit(RecordHandler handler) {
+        String[] record = fields.toArray(new String[0]);
+        fields.clear();
+        state = State.FIELD_START;
+        inRecord = false;
+        handler.handleRecord(recordIndex++, record);
+    }
+}
@@ -0,0 +1,63 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writes RFC 4180 CSV records to a {@link Writer}, one row at a time, so exports never hold
+ * more than the current row. Fields containing a comma, quote or line break are quoted and
+ * embedded quotes doubled, matching what {@link CsvFieldTokenizer} reads back. Null values
+ * are written as empty fields.
+ */
+public final class CsvRowWriter {
+
+    private static final char COMMA = ',';
+    private static final char QUOTE = '"';
+    private static final String LINE_END = "\r\n";
+
+    private final Writer out;
+
+    public CsvRowWriter(Writer out) {
+        this.out = out;
+    }
+
+    public void writeRow(Object... fields) throws IOException {
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) {
+                out.write(COMMA);
+            }
+            writeField(fields[i]);
+        }
+        out.write(LINE_END);
+    }
+
+    private void writeField(Object value) throws IOException {
+        if (value == null) {
+            return;
+        }
+        String text = value.toString();
+        if (!needsQuoting(text)) {
+            out.write(text);
+            return;
+        }
+        out.write(QUOTE);
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == QUOTE) {
+                out.write(QUOTE);
+            }
+            out.write(c);
+        }
+        out.write(QUOTE);
+    }
+
+    private static boolean needsQuoting(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == COMMA || c == QUOTE || c == '\r' || c == '\n') {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -2,11 +2,18 @@
 package com.example.paymentflow.utilities.file;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
 
 import org.slf4j.Logger;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.stereotype.Component;
 import org.springframework.web.multipart.MultipartFile;
 
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator.ReferenceType;
 import com.shared.utilities.fileupload.FileMetadata;
 import com.shared.utilities.fileupload.FileStorageService;
 import com.shared.utilities.logger.LoggerFactoryProvider;
@@ -16,10 +23,17 @@ public class FileStorageUtil {
     private static final Logger log = LoggerFactoryProvider.getLogger(FileStorageUtil.class);
     private final FileStorageService fileStorageService;
     private final UploadedFileRepository uploadedFileRepository;
+    private final ReferenceNumberGenerator referenceNumbers;
+    private final UploadedFileHashIndex hashIndex;
 
-    public FileStorageUtil(FileStorageService fileStorageService, UploadedFileRepository uploadedFileRepository) {
+    private static final int HASH_BUFFER_SIZE = 64 * 1024;
+
+    public FileStorageUtil(FileStorageService fileStorageService, UploadedFileRepository uploadedFileRepository,
+            ReferenceNumberGenerator referenceNumbers, UploadedFileHashIndex hashIndex) {
         this.fileStorageService = fileStorageService;
         this.uploadedFileRepository = uploadedFileRepository;
+        this.referenceNumbers = referenceNumbers;
+        this.hashIndex = hashIndex;
     }
 
     /**
@@ -46,25 +60,30 @@ public class FileStorageUtil {
         return storeFileInternal(file, category, fileName);
     }
 
+    /**
+     * Reject duplicates before anything is written to the upload directory: the content hash is
+     * computed from the multipart data the container has already spooled, checked against the
+     * in-memory filter and, only when the filter cannot rule it out, confirmed with an indexed
+     * lookup. Two concurrent uploads of the same content can both pass that check; the unique
+     * index on file_hash then rejects the second record and its stored copy is removed.
+     */
     private UploadedFile storeFileInternal(MultipartFile file, String category, String fileName) throws IOException {
         String originalFilename = file.getOriginalFilename();
-        if (originalFilename != null && uploadedFileRepository.findByFilename(originalFilename).isPresent()) {
+        if (originalFilename != null && uploadedFileRepository.existsByFilename(originalFilename)) {
             throw new IOException("Duplicate file: a file with the same name already exists.");
         }
 
-        FileMetadata metadata = fileStorageService.storeFile(file, category, fileName);
-
-        if (!metadata.getFileHash().isEmpty()
-                && uploadedFileRepository.findByFileHash(metadata.getFileHash()).isPresent()) {
-            // Delegate file deletion to FileStorageService
-            fileStorageService.deleteFileByPath(metadata.getStoredPath());
+        String fileHash = sha256(file);
+        if (hashIndex.mightContain(fileHash) && uploadedFileRepository.existsByFileHash(fileHash)) {
             throw new IOException("Duplicate file: a file with the same content already exists.");
         }
 
+        FileMetadata metadata = fileStorageService.storeFile(file, category, fileName);
+
         UploadedFile uploadedFile = new UploadedFile();
         uploadedFile.setFilename(metadata.getFilename());
         uploadedFile.setStoredPath(metadata.getStoredPath());
-        uploadedFile.setFileHash(metadata.getFileHash());
+        uploadedFile.setFileHash(fileHash);
         uploadedFile.setFileType(metadata.getFileType());
         uploadedFile.setUploadDate(metadata.getUploadDate());
         uploadedFile.setUploadedBy(null);
@@ -72,18 +91,41 @@ public class FileStorageUtil {
         uploadedFile.setSuccessCount(0);
         uploadedFile.setFailureCount(0);
         uploadedFile.setStatus("UPLOADED");
-        uploadedFile.setFileReferenceNumber(generateRequestReferenceNumber());
+        uploadedFile.setFileReferenceNumber(referenceNumbers.next(ReferenceType.REQUEST));
 
-        UploadedFile savedFile = uploadedFileRepository.save(uploadedFile);
+        UploadedFile savedFile;
+        try {
+            savedFile = uploadedFileRepository.saveAndFlush(uploadedFile);
+        } catch (DataIntegrityViolationException e) {
+            fileStorageService.deleteFileByPath(metadata.getStoredPath());
+            if (uploadedFileRepository.existsByFileHash(fileHash)) {
+                hashIndex.add(fileHash);
+                throw new IOException("Duplicate file: a file with the same content already exists.");
+            }
+            throw e;
+        }
+        hashIndex.add(fileHash);
         log.info("Saved UploadedFile with ID: {}", savedFile.getId());
         return savedFile;
     }
 
-    private String generateRequestReferenceNumber() {
-        // Generate request reference number in format: REQ-YYYYMMDD-HHMMSS-XXX
-        java.time.LocalDateTime now = java.time.LocalDateTime.now();
-        String dateTime = now.format(java.time.format.DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-        String sequence = String.format("%03d", (System.currentTimeMillis() % 1000));
-        return "REQ-" + dateTime + "-" + sequence;
+    /**
+     * Lower-case hex SHA-256 of the upload, the 64-character form file_hash is sized for.
+     */
+    private static String sha256(MultipartFile file) throws IOException {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        byte[] buffer = new byte[HASH_BUFFER_SIZE];
+        try (InputStream in = file.getInputStream()) {
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                digest.update(buffer, 0, read);
+            }
+        }
+        return HexFormat.of().formatHex(digest.digest());
     }
 }
@@ -0,0 +1,200 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+import javax.xml.parsers.ParserConfigurationException;
+
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.openxml4j.opc.PackageAccess;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.slf4j.Logger;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+import com.shared.utilities.logger.LoggerFactoryProvider;
+
+/**
+ * Streams rows out of an .xlsx workbook using the OOXML event model (SAX) so heap usage
+ * stays flat regardless of sheet size. Only the shared strings table and styles are kept
+ * in memory; each row is handed to the caller as a String[] and then discarded.
+ * Date-formatted cells are emitted as ISO-8601 dates, matching what the DOM path produces
+ * for the work_date column.
+ */
+public final class StreamingXlsxReader {
+    private static final Logger log = LoggerFactoryProvider.getLogger(StreamingXlsxReader.class);
+
+    @FunctionalInterface
+    public interface RowHandler {
+        /**
+         * @param rowIndex zero-based physical row index within the sheet
+         * @param cells    cell values, padded with nulls up to the requested minimum width
+         */
+        void handleRow(int rowIndex, String[] cells);
+    }
+
+    /**
+     * Receives the rows of every sheet in a workbook.
+     */
+    @FunctionalInterface
+    public interface SheetRowHandler {
+        /**
+         * @param sheetIndex zero-based position of the sheet in the workbook
+         * @param rowIndex   zero-based physical row index within the sheet
+         * @param cells      cell values, padded with nulls up to the requested minimum width
+         */
+        void handleRow(int sheetIndex, int rowIndex, String[] cells);
+    }
+
+    private StreamingXlsxReader() {
+    }
+
+    /**
+     * Stream every row of the first sheet in the workbook to the given handler.
+     *
+     * @param file       the .xlsx file on disk
+     * @param minColumns minimum width of the emitted row arrays
+     * @param handler    callback invoked once per physical row, in sheet order
+     * @return the number of rows emitted
+     */
+    public static int readFirstSheet(File file, int minColumns, RowHandler handler) throws IOException {
+        return read(file, minColumns, false, (sheetIndex, rowIndex, cells) -> handler.handleRow(rowIndex, cells));
+    }
+
+    /**
+     * Stream every row of every sheet, one sheet after the other in workbook order. Each sheet
+     * is parsed and released before the next one is opened.
+     *
+     * @return the number of rows emitted across all sheets
+     */
+    public static int readAllSheets(File file, int minColumns, SheetRowHandler handler) throws IOException {
+        return read(file, minColumns, true, handler);
+    }
+
+    private static int read(File file, int minColumns, boolean allSheets, SheetRowHandler handler)
+            throws IOException {
+        OPCPackage pkg = null;
+        try {
+            pkg = OPCPackage.open(file, PackageAccess.READ);
+            XSSFReader reader = new XSSFReader(pkg);
+            ReadOnlySharedStringsTable strings = new ReadOnlySharedStringsTable(pkg);
+            StylesTable styles = reader.getStylesTable();
+            Iterator<InputStream> sheets = reader.getSheetsData();
+            if (!sheets.hasNext()) {
+                throw new IOException("No sheet found in uploaded workbook");
+            }
+            int emittedRows = 0;
+            int sheetIndex = 0;
+            do {
+                int currentSheet = sheetIndex++;
+                try (InputStream sheet = sheets.next()) {
+                    emittedRows += processSheet(styles, strings, sheet, minColumns,
+                            (rowIndex, cells) -> handler.handleRow(currentSheet, rowIndex, cells));
+                }
+            } while (allSheets && sheets.hasNext());
+            return emittedRows;
+        } catch (OpenXML4JException | SAXException | ParserConfigurationException e) {
+            throw new IOException("Failed to stream Excel file: " + e.getMessage(), e);
+        } finally {
+            if (pkg != null) {
+                // Read-only packages must be reverted rather than closed, otherwise POI tries to save them
+                pkg.revert();
+            }
+        }
+    }
+
+    private static int processSheet(StylesTable styles, ReadOnlySharedStringsTable strings, InputStream sheet,
+            int minColumns, RowHandler handler) throws IOException, SAXException, ParserConfigurationException {
+        RowCollector collector = new RowCollector(minColumns, handler);
+        XMLReader parser = XMLHelper.newXMLReader();
+        parser.setContentHandler(new XSSFSheetXMLHandler(styles, null, strings, collector,
+                new IsoDateDataFormatter(), false));
+        parser.parse(new InputSource(sheet));
+        log.debug("Streamed {} rows from worksheet", collector.emittedRows);
+        return collector.emittedRows;
+    }
+
+    /**
+     * Converts an A1-style cell reference into a zero-based column index without
+     * allocating a CellReference per cell.
+     */
+    static int columnIndex(String cellReference) {
+        int column = 0;
+        for (int i = 0; i < cellReference.length(); i++) {
+            char ch = cellReference.charAt(i);
+            if (ch < 'A' || ch > 'Z') {
+                break;
+            }
+            column = column * 26 + (ch - 'A' + 1);
+        }
+        return column - 1;
+    }
+
+    private static final class RowCollector implements XSSFSheetXMLHandler.SheetContentsHandler {
+        private final int minColumns;
+        private final RowHandler handler;
+        private final List<String> cells = new ArrayList<>();
+        private int currentColumn;
+        private int emittedRows;
+
+        RowCollector(int minColumns, RowHandler handler) {
+            this.minColumns = minColumns;
+            this.handler = handler;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            cells.clear();
+            currentColumn = -1;
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            String[] row = new String[Math.max(minColumns, cells.size())];
+            for (int i = 0; i < cells.size(); i++) {
+                row[i] = cells.get(i);
+            }
+            handler.handleRow(rowNum, row);
+            emittedRows++;
+        }
+
+        @Override
+        public void cell(String cellReference, String formattedValue, XSSFComment comment) {
+            // Missing cells are not reported by the event model, so pad the gap with nulls
+            int column = cellReference != null ? columnIndex(cellReference) : currentColumn + 1;
+            while (cells.size() < column) {
+                cells.add(null);
+            }
+            cells.add(formattedValue);
+            currentColumn = column;
+        }
+    }
+
+    /**
+     * Formats date cells as yyyy-MM-dd so downstream parsing does not depend on the
+     * locale-specific display format stored in the workbook.
+     */
+    private static final class IsoDateDataFormatter extends DataFormatter {
+        @Override
+        public String formatRawCellContents(double value, int formatIndex, String formatString,
+                boolean use1904Windowing) {
+            if (DateUtil.isADateFormat(formatIndex, formatString) && DateUtil.isValidExcelDate(value)) {
+                return DateUtil.getLocalDateTime(value, use1904Windowing).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(value, formatIndex, formatString, use1904Windowing);
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.example.paymentflow.utilities.file;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Bloom filter over the content hashes of stored uploads, so a new upload only costs a database
+ * lookup when its hash may already be stored.
+ * <p>
+ * A negative answer is only as complete as this instance's view: the filter is seeded from
+ * {@code uploaded_files} on first use and then learns the uploads stored through this instance,
+ * so a file stored by another instance since startup can be missed. The unique index on
+ * {@code uploaded_files.file_hash} catches those when the record is inserted.
+ */
+@Component
+public class UploadedFileHashIndex {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(UploadedFileHashIndex.class);
+
+    private static final String HASHES_TEMPLATE = "sql/file/uploaded_file_hashes.sql";
+    private static final int STREAM_FETCH_SIZE = 10_000;
+
+    private static final class BloomFilter {
+        private final AtomicLongArray words;
+        private final long bitCount;
+        private final int hashFunctions;
+        private final int capacity;
+        private final AtomicLong insertions = new AtomicLong();
+
+        BloomFilter(int capacity, double falsePositiveRate) {
+            this.capacity = capacity;
+            long bits = (long) Math.ceil(-capacity * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+            this.words = new AtomicLongArray((int) Math.max(1, (bits + 63) / 64));
+            this.bitCount = words.length() * 64L;
+            this.hashFunctions = Math.max(1, (int) Math.round((double) bitCount / capacity * Math.log(2)));
+        }
+
+        void add(String hash) {
+            long h1 = primaryHash(hash);
+            long h2 = secondaryHash(hash);
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                int word = (int) (bit >>> 6);
+                long mask = 1L << bit;
+                long current;
+                do {
+                    current = words.get(word);
+                } while ((current & mask) == 0 && !words.compareAndSet(word, current, current | mask));
+            }
+            insertions.incrementAndGet();
+        }
+
+        boolean mightContain(String hash) {
+            long h1 = primaryHash(hash);
+            long h2 = secondaryHash(hash);
+            for (int i = 0; i < hashFunctions; i++) {
+                long bit = Math.floorMod(h1 + i * h2, bitCount);
+                if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        boolean isOverCapacity() {
+            return insertions.get() > capacity;
+        }
+    }
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+    private final UploadedFileHashIndexConfig config;
+    private final TransactionTemplate readOnlyTransaction;
+
+    private volatile BloomFilter filter;
+    /** Starts at the configured size and doubles whenever the filter fills up. */
+    private int capacity;
+
+    public UploadedFileHashIndex(DSLContext dsl, SqlTemplateLoader sqlTemplates, UploadedFileHashIndexConfig config,
+            PlatformTransactionManager transactionManager) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+        this.config = config;
+        this.capacity = Math.max(1_000, config.getExpectedFiles());
+        // PostgreSQL only honours the fetch size inside a transaction, so seeding streams in one
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    /**
+     * @return false when no upload with this content hash is stored; true when one may be
+     */
+    public boolean mightContain(String fileHash) {
+        return filter().mightContain(fileHash);
+    }
+
+    /**
+     * Record a stored upload's content hash.
+     */
+    public void add(String fileHash) {
+        BloomFilter current = filter();
+        current.add(fileHash);
+        if (current.isOverCapacity()) {
+            // Rebuilt on next use, twice as large, so the false-positive rate stays near its target
+            synchronized (this) {
+                if (filter == current) {
+                    capacity = (int) Math.min(Integer.MAX_VALUE, 2L * current.capacity);
+                    filter = null;
+                }
+            }
+        }
+    }
+
+    private BloomFilter filter() {
+        BloomFilter current = filter;
+        if (current == null) {
+            synchronized (this) {
+                current = filter;
+                if (current == null) {
+                    current = load();
+                    filter = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private BloomFilter load() {
+        long started = System.nanoTime();
+        double falsePositiveRate = Math.min(0.5, Math.max(1e-6, config.getFalsePositiveRate()));
+        BloomFilter loaded = new BloomFilter(capacity, falsePositiveRate);
+        Long seeded = readOnlyTransaction.execute(status -> {
+            long rows = 0;
+            try (Cursor<Record> cursor = dsl.resultQuery(sqlTemplates.load(HASHES_TEMPLATE))
+                    .fetchSize(STREAM_FETCH_SIZE)
+                    .fetchLazy()) {
+                for (Record record : cursor) {
+                    loaded.add(record.get(0, String.class));
+                    rows++;
+                }
+            }
+            return rows;
+        });
+        log.info("Seeded upload hash filter with {} hashes ({} bits, {} hash functions) in {} ms",
+                seeded, loaded.bitCount, loaded.hashFunctions, (System.nanoTime() - started) / 1_000_000);
+        return loaded;
+    }
+
+    /**
+     * Hashes are hex SHA-256 digests, so their leading hex digits are already uniformly
+     * distributed; other values fall back to mixing {@link String#hashCode()}.
+     */
+    private static long primaryHash(String hash) {
+        if (hash.length() >= 32) {
+            try {
+                return Long.parseUnsignedLong(hash, 0, 16, 16);
+            } catch (NumberFormatException e) {
+                // not hex
+            }
+        }
+        return mix(hash.hashCode());
+    }
+
+    private static long secondaryHash(String hash) {
+        if (hash.length() >= 32) {
+            try {
+                return Long.parseUnsignedLong(hash, 16, 32, 16) | 1L;
+            } catch (NumberFormatException e) {
+                // not hex
+            }
+        }
+        return mix(~hash.hashCode()) | 1L;
+    }
+
+    private static long mix(long value) {
+        value ^= value >>> 33;
+        value *= 0xff51afd7ed558ccdL;
+        value ^= value >>> 33;
+        value *= 0xc4ceb9fe1a85ec53L;
+        return value ^ (value >>> 33);
+    }
+}
@@ -0,0 +1,36 @@
+package com.example.paymentflow.utilities.file;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConfigurationProperties(prefix = "upload.hash-index")
+public class UploadedFileHashIndexConfig {
+    /**
+     * Number of stored uploads the duplicate filter is sized for. Memory use is about
+     * 1.2 bytes per expected file at the default false-positive rate; the filter is rebuilt
+     * twice as large once more files than this have been added.
+     */
+    private int expectedFiles = 1_000_000;
+    /**
+     * Target share of new uploads that the filter wrongly reports as possibly stored, each of
+     * which costs one indexed lookup.
+     */
+    private double falsePositiveRate = 0.01;
+
+    public int getExpectedFiles() {
+        return expectedFiles;
+    }
+
+    public void setExpectedFiles(int expectedFiles) {
+        this.expectedFiles = expectedFiles;
+    }
+
+    public double getFalsePositiveRate() {
+        return falsePositiveRate;
+    }
+
+    public void setFalsePositiveRate(double falsePositiveRate) {
+        this.falsePositiveRate = falsePositiveRate;
+    }
+}
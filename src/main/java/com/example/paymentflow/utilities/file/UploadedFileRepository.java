@@ -12,6 +12,8 @@ import java.time.LocalDateTime;
 public interface UploadedFileRepository extends JpaRepository<UploadedFile, Long> {
     // READ operations - to be moved to UploadedFileQueryDao in future
     Optional<UploadedFile> findByFileHash(String fileHash);
+    boolean existsByFileHash(String fileHash);
+    boolean existsByFilename(String filename);
     Optional<UploadedFile> findByFilename(String filename);
     Optional<UploadedFile> findByStoredPath(String storedPath);
     List<UploadedFile> findByFileType(String fileType);
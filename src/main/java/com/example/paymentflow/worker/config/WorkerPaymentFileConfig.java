@@ -7,6 +7,89 @@ import org.springframework.context.annotation.Configuration;
 @ConfigurationProperties(prefix = "workerpayment.file")
 public class WorkerPaymentFileConfig {
     private String uploadDir = "upload-dir";
+    /**
+     * Read .xlsx uploads with the streaming event-model reader instead of loading the
+     * whole workbook into memory. Legacy .xls files always use the DOM reader.
+     */
+    private boolean xlsxStreamingEnabled = true;
+    /**
+     * Number of rows sent per JDBC batch when bulk-loading parsed uploads.
+     */
+    private int insertBatchSize = 1000;
+    /**
+     * Capacity of each bounded queue between the parse, map and write stages of an upload.
+     */
+    private int pipelineQueueCapacity = 5000;
+    /**
+     * Size of the thread pool that runs the parse and map stages of uploads.
+     */
+    private int pipelineThreads = 8;
+    /**
+     * How uploaded rows are validated: IN_MEMORY runs the Java rules over loaded entities,
+     * SQL runs the same rules as a single UPDATE inside the database, PARALLEL runs the Java
+     * rules over id-range chunks concurrently, one transaction per chunk.
+     */
+    private ValidationMode validationMode = ValidationMode.IN_MEMORY;
+    /**
+     * Width of the id range validated by one chunk in PARALLEL mode.
+     */
+    private int validationChunkSize = 10000;
+    /**
+     * Threads used for PARALLEL validation. Each busy thread holds a pooled connection, so keep
+     * this below the datasource pool size.
+     */
+    private int validationThreads = Runtime.getRuntime().availableProcessors();
+    /**
+     * Also check uploaded rows against the master tables: the worker must be registered on the
+     * employer's board, the toli must belong to the employer and the bank account must match the
+     * worker master. In-memory modes use the cached master-data snapshot; SQL mode checks in the
+     * same UPDATE.
+     */
+    private boolean masterValidationEnabled = false;
+    /**
+     * Reject rows that repeat the worker, employer, toli, work date and amount of a row already
+     * validated in this or an earlier file. Fingerprints of validated rows are kept in
+     * worker_payment_fingerprints.
+     */
+    private boolean duplicateDetectionEnabled = true;
+    /**
+     * Generate payment requests with set-based SQL (one receipt, one UPDATE, one INSERT ... SELECT)
+     * instead of saving each WorkerPayment through JPA. Payments inserted this way do not emit
+     * entity audit events, so this is off by default.
+     */
+    private boolean bulkRequestGenerationEnabled = false;
+    /**
+     * Move worker payments between statuses (requested, initiated) with one UPDATE per
+     * transition instead of saving each WorkerPayment through JPA. Payments moved this way do not
+     * emit entity audit events, so this is off by default.
+     */
+    private boolean bulkStatusTransitionsEnabled = false;
+    /**
+     * Number of asynchronous upload jobs that may run at the same time, which also bounds how many
+     * files of a batch upload are parsed and inserted concurrently. Each running job borrows two
+     * pipeline threads.
+     */
+    private int uploadJobThreads = 2;
+    /**
+     * Minutes without a heartbeat after which an unfinished upload job is considered abandoned and
+     * is marked failed at startup, to be resumed by its user. Running jobs beat four times per window.
+     */
+    private int uploadJobStaleMinutes = 10;
+    /**
+     * Maximum number of workbooks accepted in one batch upload archive.
+     */
+    private int batchUploadMaxFiles = 200;
+    /**
+     * Maximum total uncompressed size of a batch upload archive, checked while it is extracted
+     * so a compressed archive cannot expand without bound.
+     */
+    private long batchUploadMaxBytes = 2L * 1024 * 1024 * 1024;
+
+    public enum ValidationMode {
+        IN_MEMORY,
+        SQL,
+        PARALLEL
+    }
 
     public String getUploadDir() {
         return uploadDir;
@@ -15,4 +98,124 @@ public class WorkerPaymentFileConfig {
     public void setUploadDir(String uploadDir) {
         this.uploadDir = uploadDir;
     }
+
+    public boolean isXlsxStreamingEnabled() {
+        return xlsxStreamingEnabled;
+    }
+
+    public void setXlsxStreamingEnabled(boolean xlsxStreamingEnabled) {
+        this.xlsxStreamingEnabled = xlsxStreamingEnabled;
+    }
+
+    public int getInsertBatchSize() {
+        return insertBatchSize;
+    }
+
+    public void setInsertBatchSize(int insertBatchSize) {
+        this.insertBatchSize = insertBatchSize;
+    }
+
+    public int getPipelineQueueCapacity() {
+        return pipelineQueueCapacity;
+    }
+
+    public void setPipelineQueueCapacity(int pipelineQueueCapacity) {
+        this.pipelineQueueCapacity = pipelineQueueCapacity;
+    }
+
+    public int getPipelineThreads() {
+        return pipelineThreads;
+    }
+
+    public void setPipelineThreads(int pipelineThreads) {
+        this.pipelineThreads = pipelineThreads;
+    }
+
+    public ValidationMode getValidationMode() {
+        return validationMode;
+    }
+
+    public void setValidationMode(ValidationMode validationMode) {
+        this.validationMode = validationMode;
+    }
+
+    public int getValidationChunkSize() {
+        return validationChunkSize;
+    }
+
+    public void setValidationChunkSize(int validationChunkSize) {
+        this.validationChunkSize = validationChunkSize;
+    }
+
+    public int getValidationThreads() {
+        return validationThreads;
+    }
+
+    public void setValidationThreads(int validationThreads) {
+        this.validationThreads = validationThreads;
+    }
+
+    public boolean isMasterValidationEnabled() {
+        return masterValidationEnabled;
+    }
+
+    public void setMasterValidationEnabled(boolean masterValidationEnabled) {
+        this.masterValidationEnabled = masterValidationEnabled;
+    }
+
+    public boolean isDuplicateDetectionEnabled() {
+        return duplicateDetectionEnabled;
+    }
+
+    public void setDuplicateDetectionEnabled(boolean duplicateDetectionEnabled) {
+        this.duplicateDetectionEnabled = duplicateDetectionEnabled;
+    }
+
+    public boolean isBulkRequestGenerationEnabled() {
+        return bulkRequestGenerationEnabled;
+    }
+
+    public void setBulkRequestGenerationEnabled(boolean bulkRequestGenerationEnabled) {
+        this.bulkRequestGenerationEnabled = bulkRequestGenerationEnabled;
+    }
+
+    public boolean isBulkStatusTransitionsEnabled() {
+        return bulkStatusTransitionsEnabled;
+    }
+
+    public void setBulkStatusTransitionsEnabled(boolean bulkStatusTransitionsEnabled) {
+        this.bulkStatusTransitionsEnabled = bulkStatusTransitionsEnabled;
+    }
+
+    public int getUploadJobThreads() {
+        return uploadJobThreads;
+    }
+
+    public void setUploadJobThreads(int uploadJobThreads) {
+        this.uploadJobThreads = uploadJobThreads;
+    }
+
+    public int getUploadJobStaleMinutes() {
+        return uploadJobStaleMinutes;
+    }
+
+    public void setUploadJobStaleMinutes(int uploadJobStaleMinutes) {
+        this.uploadJobStaleMinutes = uploadJobStaleMinutes;
+    }
+
+    public int getBatchUploadMaxFiles() {
+        return batchUploadMaxFiles;
+    }
+
+    public void setBatchUploadMaxFiles(int batchUploadMaxFiles) {
+        this.batchUploadMaxFiles = batchUploadMaxFiles;
+    }
+
+    public long getBatchUploadMaxBytes() {
+        return batchUploadMaxBytes;
+    }
+
+    public void setBatchUploadMaxBytes(long batchUploadMaxBytes) {
+        this.batchUploadMaxBytes = batchUploadMaxBytes;
+    }
 }
@@ -0,0 +1,70 @@
+package com.example.paymentflow.worker.config;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+/**
+ * Thread pools for worker upload processing. The upload pool runs the ingestion stages: each
+ * upload reserves two threads (parse and map) while the request thread performs the database
+ * writes, so half the pool size bounds how many uploads can stream concurrently. The validation
+ * pool runs chunks of PARALLEL validation, and the job pool runs asynchronous upload jobs end to end.
+ */
+@Configuration
+public class WorkerUploadExecutorConfig {
+
+    public static final String WORKER_UPLOAD_EXECUTOR = "workerUploadExecutor";
+    public static final String WORKER_VALIDATION_EXECUTOR = "workerValidationExecutor";
+    public static final String WORKER_UPLOAD_JOB_EXECUTOR = "workerUploadJobExecutor";
+
+    /**
+     * Size of the upload pool. One upload needs two threads at once, so the pool never has fewer.
+     */
+    public static int pipelineThreads(WorkerPaymentFileConfig fileConfig) {
+        return Math.max(2, fileConfig.getPipelineThreads());
+    }
+
+    @Bean(name = WORKER_UPLOAD_EXECUTOR)
+    public ThreadPoolTaskExecutor workerUploadExecutor(WorkerPaymentFileConfig fileConfig) {
+        int threads = pipelineThreads(fileConfig);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(threads * 4);
+        executor.setThreadNamePrefix("worker-upload-");
+        // Fail fast instead of running a stage on the caller: the caller is the write stage
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = WORKER_VALIDATION_EXECUTOR)
+    public ThreadPoolTaskExecutor workerValidationExecutor(WorkerPaymentFileConfig fileConfig) {
+        int threads = Math.max(1, fileConfig.getValidationThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("worker-validate-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(60);
+        executor.initialize();
+        return executor;
+    }
+
+    @Bean(name = WORKER_UPLOAD_JOB_EXECUTOR)
+    public ThreadPoolTaskExecutor workerUploadJobExecutor(WorkerPaymentFileConfig fileConfig) {
+        int threads = Math.max(1, fileConfig.getUploadJobThreads());
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("worker-upload-job-");
+        // Jobs left queued at shutdown are picked up again by the stale-job resume on startup
+        executor.setWaitForTasksToCompleteOnShutdown(false);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -1,12 +1,15 @@
 package com.example.paymentflow.worker.controller;
 
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.example.paymentflow.worker.service.WorkerPaymentExportService;
 import com.example.paymentflow.worker.service.WorkerPaymentService;
+import com.example.paymentflow.common.sql.TableChangeVersions.TrackedTable;
+import com.example.paymentflow.common.web.JsonETagResponder;
 import com.shared.common.annotation.Auditable;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
-import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import io.swagger.v3.oas.annotations.Operation;
@@ -21,8 +24,10 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.net.URI;
 import java.util.List;
@@ -37,11 +42,14 @@ public class WorkerPaymentController {
     private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentController.class);
 
     private final WorkerPaymentService service;
-    private final com.fasterxml.jackson.databind.ObjectMapper objectMapper;
+    private final JsonETagResponder eTags;
+    private final WorkerPaymentExportService exportService;
 
-    public WorkerPaymentController(WorkerPaymentService service, com.fasterxml.jackson.databind.ObjectMapper objectMapper) {
+    public WorkerPaymentController(WorkerPaymentService service, JsonETagResponder eTags,
+                                   WorkerPaymentExportService exportService) {
         this.service = service;
-        this.objectMapper = objectMapper;
+        this.eTags = eTags;
+        this.exportService = exportService;
     }
 
     @PostMapping
@@ -67,6 +75,9 @@ public class WorkerPaymentController {
             @Valid @RequestBody
             SecurePaginationRequest request,
             @Parameter(description = "Receipt number filter") @RequestParam(required = false) String receiptNumber,
+            @Parameter(description = "Keyset cursor (nextCursor of a previous response); switches to keyset paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Use keyset paging from the first page") @RequestParam(defaultValue = "false") boolean keyset,
+            @Parameter(description = "Total count for keyset paging: EXACT, CACHED, ESTIMATED or NONE (default)") @RequestParam(required = false) String count,
             HttpServletRequest httpRequest) {
         log.info("Fetching worker payments with secure pagination, status: {}, receiptNumber: {}, request: {}", 
                 request.getStatus(), receiptNumber, request);
@@ -79,6 +90,12 @@ public class WorkerPaymentController {
                 return ResponseEntity.badRequest().body(
                     SecurePaginationUtil.createErrorResponse(validation));
             }
+            // Answer an unchanged poll from the change version, before touching the table
+            String eTag = eTags.versionTag(httpRequest, request, TrackedTable.WORKER_PAYMENTS);
+            ResponseEntity<Object> notModified = eTags.checkNotModified(eTag, httpRequest);
+            if (notModified != null) {
+                return notModified;
+            }
             
             // Create sort object with secure field validation
             List<String> allowedSortFields = List.of("id", "name", "workerRef", "employerId", "paymentAmount", "status", "createdAt", "receiptNumber");
@@ -91,27 +108,61 @@ public class WorkerPaymentController {
                 sort
             );
             
-            // Fetch data using standard pagination
-            Page<WorkerPayment> paymentsPage =
-                service.findByStatusAndReceiptNumberAndDateRange(
-                    request.getStatus(), receiptNumber, 
-                    validation.getStartDateTime(), validation.getEndDateTime(), 
-                    pageable);
-            SecurePaginationResponse<WorkerPayment> response =
-                SecurePaginationUtil.createSecureResponse(paymentsPage, request);
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
+            Object response;
+            if (keyset || cursor != null) {
+                // Seek on (created_at, id) instead of OFFSET; sort parameters do not apply
+                response = service.findByStatusAndReceiptNumberAndDateRangeAfter(
+                    request.getStatus(), receiptNumber,
+                    validation.getStartDateTime(), validation.getEndDateTime(),
+                    cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor.trim()) : null,
+                    request.getSize(),
+                    RowCountEstimator.CountMode.from(count, RowCountEstimator.CountMode.NONE)).toResponse();
+            } else {
+                // Fetch data using standard pagination
+                Page<WorkerPayment> paymentsPage =
+                    service.findByStatusAndReceiptNumberAndDateRange(
+                        request.getStatus(), receiptNumber, 
+                        validation.getStartDateTime(), validation.getEndDateTime(), 
+                        pageable);
+                response = SecurePaginationUtil.createSecureResponse(paymentsPage, request);
             }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, eTag);
         } catch (Exception e) {
             log.error("Error fetching worker payments (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export all worker payments of a file or receipt",
+               description = "Streams every matching payment as CSV or NDJSON straight from a database cursor, so exports of any size run in constant memory")
+    public ResponseEntity<?> exportPayments(
+            @Parameter(description = "Uploaded file ID") @RequestParam(required = false) String fileId,
+            @Parameter(description = "Receipt number") @RequestParam(required = false) String receiptNumber,
+            @Parameter(description = "Optional status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "csv (default) or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        log.info("Exporting worker payments for fileId={}, receiptNumber={}, status={}, format={}",
+                fileId, receiptNumber, status, format);
+        if ((fileId == null || fileId.isBlank()) && (receiptNumber == null || receiptNumber.isBlank())) {
+            return ResponseEntity.badRequest().body(Map.of("error", "fileId or receiptNumber is required"));
+        }
+        WorkerPaymentExportService.Format exportFormat;
+        try {
+            exportFormat = WorkerPaymentExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        String scope = fileId != null && !fileId.isBlank() ? "file-" + fileId : "receipt-" + receiptNumber;
+        StreamingResponseBody body = out -> exportService.exportPayments(fileId, receiptNumber, status, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"worker-payments-" + scope.replaceAll("[^A-Za-z0-9._-]", "_")
+                                + "." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
     @GetMapping("/{id}")
     public ResponseEntity<WorkerPayment> findById(@PathVariable("id") Long id) {
         log.info("Fetching worker payment id={}", id);
@@ -175,14 +226,7 @@ public class WorkerPaymentController {
             response.put("hasPrevious", paymentsPage.hasPrevious());
             response.put("uploadedFileRef", uploadedFileRef);
 
-            // Generate ETag from response content
-            String responseJson = new com.fasterxml.jackson.databind.ObjectMapper().writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, request);
         } catch (Exception e) {
             log.error("Error fetching payments by uploadedFileRef: {}", uploadedFileRef, e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
@@ -1,17 +1,17 @@
 package com.example.paymentflow.worker.controller;
 
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
+import com.example.paymentflow.worker.service.WorkerPaymentExportService;
 import com.example.paymentflow.worker.service.WorkerPaymentReceiptService;
-import com.example.paymentflow.worker.service.WorkerPaymentService;
+import com.example.paymentflow.worker.service.WorkerPaymentStatusTransitionService;
 import com.example.paymentflow.employer.service.EmployerPaymentReceiptService;
+import com.example.paymentflow.common.web.JsonETagResponder;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.dto.SecurePaginationRequest;
-import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.utilities.logger.LoggerFactoryProvider;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -23,10 +23,16 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
 import java.util.Map;
 
 @RestController
@@ -43,7 +49,13 @@ public class WorkerPaymentReceiptController {
     private EmployerPaymentReceiptService employerReceiptService;
     
     @Autowired
-    private WorkerPaymentService workerPaymentService;
+    private WorkerPaymentStatusTransitionService statusTransitions;
+
+    @Autowired
+    private WorkerPaymentExportService exportService;
+
+    @Autowired
+    private JsonETagResponder eTags;
 
     public WorkerPaymentReceiptController(WorkerPaymentReceiptService service) {
         this.service = service;
@@ -68,6 +80,9 @@ public class WorkerPaymentReceiptController {
             )
             @Valid @RequestBody 
             SecurePaginationRequest request,
+            @Parameter(description = "Keyset cursor (nextCursor of a previous response); switches to keyset paging") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Use keyset paging from the first page") @RequestParam(defaultValue = "false") boolean keyset,
+            @Parameter(description = "Total count for keyset paging: EXACT, CACHED, ESTIMATED or NONE (default)") @RequestParam(required = false) String count,
             HttpServletRequest httpRequest) {
         log.info("Fetching worker receipts with secure pagination, status: {}, request: {}", request.getStatus(), request);
         try {
@@ -90,37 +105,73 @@ public class WorkerPaymentReceiptController {
                 )
             );
             
-            // Fetch data using standard pagination
-            Page<WorkerPaymentReceipt> receiptsPage;
-            if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
-                receiptsPage = service.findByStatusAndDateRangePaginated(
-                    request.getStatus().trim().toUpperCase(), 
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
+            Object response;
+            if (keyset || cursor != null) {
+                // Seek on (created_at, id) instead of OFFSET; sort parameters do not apply
+                String status = request.getStatus() != null ? request.getStatus().trim().toUpperCase() : null;
+                response = service.findByStatusAndDateRangeAfter(
+                    status,
+                    validation.getStartDateTime(),
+                    validation.getEndDateTime(),
+                    cursor != null && !cursor.isBlank() ? KeysetCursor.decode(cursor.trim()) : null,
+                    request.getSize(),
+                    RowCountEstimator.CountMode.from(count, RowCountEstimator.CountMode.NONE)).toResponse();
             } else {
-                receiptsPage = service.findByDateRangePaginated(
-                    validation.getStartDateTime(), 
-                    validation.getEndDateTime(), 
-                    pageable);
+                // Fetch data using standard pagination
+                Page<WorkerPaymentReceipt> receiptsPage;
+                if (request.getStatus() != null && !request.getStatus().trim().isEmpty()) {
+                    receiptsPage = service.findByStatusAndDateRangePaginated(
+                        request.getStatus().trim().toUpperCase(), 
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                } else {
+                    receiptsPage = service.findByDateRangePaginated(
+                        validation.getStartDateTime(), 
+                        validation.getEndDateTime(), 
+                        pageable);
+                }
+                response = SecurePaginationUtil.createSecureResponse(receiptsPage, request);
             }
-            SecurePaginationResponse<WorkerPaymentReceipt> response = 
-                SecurePaginationUtil.createSecureResponse(receiptsPage, request);
-            ObjectMapper objectMapper = new ObjectMapper();
-            objectMapper.registerModule(new JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, httpRequest);
         } catch (Exception e) {
             log.error("Error fetching worker receipts (secure)", e);
             return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
         }
     }
 
+    @GetMapping("/export")
+    @Operation(summary = "Export worker receipts",
+               description = "Streams every matching receipt as CSV or NDJSON straight from a database cursor, so exports of any size run in constant memory")
+    public ResponseEntity<?> exportReceipts(
+            @Parameter(description = "Optional status filter") @RequestParam(required = false) String status,
+            @Parameter(description = "Start date (inclusive, yyyy-MM-dd)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate startDate,
+            @Parameter(description = "End date (inclusive, yyyy-MM-dd)") @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate endDate,
+            @Parameter(description = "csv (default) or ndjson") @RequestParam(defaultValue = "csv") String format) {
+        log.info("Exporting worker receipts with status={}, startDate={}, endDate={}, format={}",
+                status, startDate, endDate, format);
+        if (startDate != null && endDate != null && startDate.isAfter(endDate)) {
+            return ResponseEntity.badRequest().body(Map.of("error", "startDate must not be after endDate"));
+        }
+        WorkerPaymentExportService.Format exportFormat;
+        try {
+            exportFormat = WorkerPaymentExportService.Format.from(format);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+
+        LocalDateTime from = startDate != null ? startDate.atStartOfDay() : null;
+        LocalDateTime to = endDate != null ? endDate.atTime(LocalTime.MAX) : null;
+        StreamingResponseBody body = out -> exportService.exportReceipts(status, from, to, exportFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(exportFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"worker-receipts." + exportFormat.getExtension() + "\"")
+                .body(body);
+    }
+
 
 
     @GetMapping("/{receiptNumber}")
@@ -136,15 +187,7 @@ public class WorkerPaymentReceiptController {
             return service.findByReceiptNumber(receiptNumber)
                     .map(receipt -> {
                         try {
-                            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-                            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-                            String responseJson = objectMapper.writeValueAsString(receipt);
-                            String eTag = ETagUtil.generateETag(responseJson);
-                            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-                            if (eTag.equals(ifNoneMatch)) {
-                                return ResponseEntity.status(304).eTag(eTag).build();
-                            }
-                            return ResponseEntity.ok().eTag(eTag).body(receipt);
+                            return eTags.respond(receipt, request);
                         } catch (Exception ex) {
                             return ResponseEntity.internalServerError().body(Map.of("error", ex.getMessage()));
                         }
@@ -189,17 +232,8 @@ public class WorkerPaymentReceiptController {
             service.updateStatus(receiptNumber, "PAYMENT_INITIATED");
             log.info("Updated worker receipt {} status to PAYMENT_INITIATED", receiptNumber);
             
-            // Update all related worker payment records to PAYMENT_INITIATED
-            java.util.List<com.example.paymentflow.worker.entity.WorkerPayment> workerPayments = 
-                workerPaymentService.findByReceiptNumber(receiptNumber, 
-                    PageRequest.of(0, 1000)).getContent();
-            
-            int updatedPayments = 0;
-            for (com.example.paymentflow.worker.entity.WorkerPayment payment : workerPayments) {
-                payment.setStatus("PAYMENT_INITIATED");
-                workerPaymentService.save(payment);
-                updatedPayments++;
-            }
+            // Update all related worker payment records to PAYMENT_INITIATED in one statement
+            int updatedPayments = statusTransitions.initiateReceiptPayments(receiptNumber).affectedRows();
             log.info("Updated {} worker payment records to PAYMENT_INITIATED for receipt {}", updatedPayments, receiptNumber);
             return ResponseEntity.ok(Map.of(
                 "message", "Worker receipt sent to employer successfully",
@@ -1,13 +1,17 @@
 package com.example.paymentflow.worker.controller;
 
 import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.example.paymentflow.worker.entity.WorkerUploadJob;
 import com.example.paymentflow.worker.service.WorkerPaymentFileService;
+import com.example.paymentflow.worker.service.WorkerUploadBatchService;
+import com.example.paymentflow.worker.service.WorkerUploadJobService;
 import com.example.paymentflow.worker.service.WorkerUploadedDataService;
+import com.example.paymentflow.common.sql.TableChangeVersions.TrackedTable;
+import com.example.paymentflow.common.web.JsonETagResponder;
 import com.shared.common.annotation.SecurePagination;
 import com.shared.common.annotation.UiType;
 import com.shared.common.dto.SecurePaginationRequest;
 import com.shared.common.dto.SecurePaginationResponse;
-import com.shared.common.util.ETagUtil;
 import com.shared.common.util.SecurePaginationUtil;
 import com.shared.common.util.UiTypes;
 import com.shared.utilities.logger.LoggerFactoryProvider;
@@ -23,7 +27,6 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
-import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -47,6 +50,15 @@ public class WorkerUploadedDataController {
     @Autowired
     private WorkerPaymentFileService fileService;
 
+    @Autowired
+    private WorkerUploadJobService uploadJobService;
+
+    @Autowired
+    private WorkerUploadBatchService uploadBatchService;
+
+    @Autowired
+    private JsonETagResponder eTags;
+
     public WorkerUploadedDataController(WorkerUploadedDataService service) {
         this.service = service;
     }
@@ -78,6 +90,12 @@ public class WorkerUploadedDataController {
                 return ResponseEntity.badRequest().body(
                     SecurePaginationUtil.createErrorResponse(validation));
             }
+            // Answer an unchanged poll from the change version, before touching the table
+            String eTag = eTags.versionTag(httpRequest, request, TrackedTable.WORKER_UPLOADED_DATA);
+            ResponseEntity<Object> notModified = eTags.checkNotModified(eTag, httpRequest);
+            if (notModified != null) {
+                return notModified;
+            }
             // Create pageable with secure field validation
             List<String> allowedSortFields = List.of("id", "workerName", "employerId", "paymentAmount", "status", "createdAt", "workDate", "receiptNumber");
             Sort sort = SecurePaginationUtil.createSecureSort(request, allowedSortFields);
@@ -89,15 +107,7 @@ public class WorkerUploadedDataController {
             // Create secure response with opaque tokens
             SecurePaginationResponse<WorkerUploadedData> response = 
                 SecurePaginationUtil.createSecureResponse(dataPage, request);
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = httpRequest.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, eTag);
         } catch (Exception e) {
             log.error("Error in secure paginated data retrieval", e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -163,6 +173,168 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @PostMapping(value = "/upload-async", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload worker payment file asynchronously",
+               description = "Stores the file and returns a job id immediately. Parsing, persisting and optional validation run in the background; poll /jobs/{jobId} for progress.")
+    @UiType(value = UiTypes.UPLOAD, usage = "Background upload of large worker payment files")
+    public ResponseEntity<?> uploadFileAsync(@RequestParam("file") MultipartFile file,
+            @Parameter(description = "Validate the records once they are persisted")
+            @RequestParam(defaultValue = "false") boolean validate) {
+        try {
+            String filename = file.getOriginalFilename();
+            if (filename == null || !(filename.toLowerCase().endsWith(".csv") || 
+                                    filename.toLowerCase().endsWith(".xls") || 
+                                    filename.toLowerCase().endsWith(".xlsx"))) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "status", "failed",
+                    "error", "Only .csv, .xls, and .xlsx files are allowed.",
+                    "message", "File upload failed due to unsupported file type"
+                ));
+            }
+            
+            long maxSize = 200L * 1024 * 1024; // 200MB
+            if (file.getSize() > maxSize) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "status", "failed",
+                    "error", "File size exceeds 200MB limit.",
+                    "message", "File upload failed due to size limit exceeded"
+                ));
+            }
+
+            if (file.isEmpty()) {
+                return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                    "status", "failed",
+                    "error", "Uploaded file is empty.",
+                    "message", "File upload failed due to empty file"
+                ));
+            }
+
+            WorkerUploadJob job = uploadJobService.submit(file, validate);
+            
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "jobId", job.getId(),
+                "fileId", job.getFileId(),
+                "phase", job.getPhase(),
+                "statusUrl", "/api/worker/uploaded-data/jobs/" + job.getId(),
+                "message", "File accepted for background processing"
+            ));
+            
+        } catch (Exception e) {
+            log.error("Async file upload failed", e);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "status", "failed",
+                "error", "File upload failed: " + e.getMessage(),
+                "message", "Internal server error during file upload"
+            ));
+        }
+    }
+
+    @GetMapping("/jobs/{jobId}")
+    @Operation(summary = "Get upload job status", 
+               description = "Returns phase, rows processed, failed rows and throughput of an asynchronous upload job")
+    public ResponseEntity<?> getUploadJobStatus(
+            @Parameter(description = "Upload job ID") @PathVariable Long jobId) {
+        log.info("Fetching status for upload job {}", jobId);
+        return uploadJobService.getJobStatus(jobId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Upload job not found: " + jobId)));
+    }
+
+    @PostMapping("/jobs/{jobId}/resume")
+    @Operation(summary = "Resume a failed upload job",
+               description = "Queues a failed asynchronous upload job again under the caller's security context, e.g. one interrupted by a restart. Rows already persisted are kept and parsing continues after them.")
+    public ResponseEntity<?> resumeUploadJob(
+            @Parameter(description = "Upload job ID") @PathVariable Long jobId) {
+        log.info("Resuming upload job {}", jobId);
+        try {
+            return uploadJobService.resume(jobId)
+                    .<ResponseEntity<?>>map(job -> ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                        "jobId", job.getId(),
+                        "fileId", job.getFileId(),
+                        "phase", job.getPhase(),
+                        "statusUrl", "/api/worker/uploaded-data/jobs/" + job.getId(),
+                        "message", "Upload job queued again")))
+                    .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                            .body(Map.of("error", "Upload job not found: " + jobId)));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    @PostMapping(value = "/batch-upload", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Upload a ZIP archive of worker payment files",
+               description = "Stores every .csv, .xls and .xlsx file in the archive as its own uploaded file and queues a background job for each; every sheet of a workbook is read. Poll /batch-upload/{batchId} for aggregate progress.")
+    @UiType(value = UiTypes.UPLOAD, usage = "Background upload of many employer workbooks at once")
+    public ResponseEntity<?> uploadBatch(@RequestParam("file") MultipartFile file,
+            @Parameter(description = "Validate the records of each file once they are persisted")
+            @RequestParam(defaultValue = "false") boolean validate) {
+        String filename = file.getOriginalFilename();
+        if (filename == null || !filename.toLowerCase().endsWith(".zip")) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", "failed",
+                "error", "Only .zip archives are allowed.",
+                "message", "Batch upload failed due to unsupported file type"
+            ));
+        }
+        if (file.isEmpty()) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", "failed",
+                "error", "Uploaded archive is empty.",
+                "message", "Batch upload failed due to empty file"
+            ));
+        }
+
+        try {
+            WorkerUploadBatchService.BatchSubmission batch = uploadBatchService.submit(file, validate);
+
+            List<Map<String, Object>> jobs = batch.jobs().stream()
+                .map(job -> Map.<String, Object>of(
+                    "jobId", job.getId(),
+                    "fileId", job.getFileId(),
+                    "fileName", job.getOriginalFilename()))
+                .toList();
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(Map.of(
+                "batchId", batch.batchId(),
+                "queuedFiles", jobs.size(),
+                "jobs", jobs,
+                "rejected", batch.rejected(),
+                "statusUrl", "/api/worker/uploaded-data/batch-upload/" + batch.batchId(),
+                "message", jobs.isEmpty()
+                    ? "No file in the archive could be stored"
+                    : "Archive accepted for background processing"
+            ));
+
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(Map.of(
+                "status", "failed",
+                "error", e.getMessage(),
+                "message", "Batch upload rejected"
+            ));
+        } catch (Exception e) {
+            log.error("Batch upload failed", e);
+
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(Map.of(
+                "status", "failed",
+                "error", "Batch upload failed: " + e.getMessage(),
+                "message", "Internal server error during batch upload"
+            ));
+        }
+    }
+
+    @GetMapping("/batch-upload/{batchId}")
+    @Operation(summary = "Get batch upload progress",
+               description = "Returns the overall phase, phase counts, rows processed and failed across the files of a batch upload, and the status of each file")
+    public ResponseEntity<?> getBatchUploadStatus(
+            @Parameter(description = "Batch ID") @PathVariable String batchId) {
+        log.info("Fetching status for upload batch {}", batchId);
+        return uploadBatchService.getBatchStatus(batchId)
+                .<ResponseEntity<?>>map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.status(HttpStatus.NOT_FOUND)
+                        .body(Map.of("error", "Upload batch not found: " + batchId)));
+    }
+
     @PostMapping("/files/secure-summaries")
     @Operation(summary = "Get secure paginated file summaries", 
                description = "Returns paginated list of all uploaded files with comprehensive summaries, validation counts, and total amounts. Uses secure pagination with mandatory date range and opaque tokens.")
@@ -173,7 +345,8 @@ public class WorkerUploadedDataController {
                 required = true
             )
             @Valid @RequestBody 
-            SecurePaginationRequest request) {
+            SecurePaginationRequest request,
+            HttpServletRequest httpRequest) {
         log.info("Secure paginated file summaries request: {}", request);
         
         // Apply pageToken if present (decodes token and sets page/size/sort)
@@ -186,6 +359,13 @@ public class WorkerUploadedDataController {
                 SecurePaginationUtil.createErrorResponse(validation));
         }
         try {
+            // Answer an unchanged poll from the change version, before touching the table
+            String eTag = eTags.versionTag(httpRequest, request, TrackedTable.UPLOADED_FILES,
+                    TrackedTable.WORKER_UPLOADED_DATA);
+            ResponseEntity<Object> notModified = eTags.checkNotModified(eTag, httpRequest);
+            if (notModified != null) {
+                return notModified;
+            }
             // Extract parameters from request (either from decoded token or direct)
             String status = request.getStatus();
             String startDate = validation.getStartDateTime().toLocalDate().toString();
@@ -198,7 +378,7 @@ public class WorkerUploadedDataController {
             // Use service to get paginated file summaries using standard pagination
             Map<String, Object> paginatedSummaries = service.getPaginatedFileSummaries(
                 page, size, null, status, startDate, endDate, sortBy, sortDir);
-            return ResponseEntity.ok(paginatedSummaries);
+            return eTags.respond(paginatedSummaries, eTag);
         } catch (Exception e) {
             log.error("Error in secure paginated file summaries retrieval", e);
             return ResponseEntity.badRequest().body(Map.of(
@@ -233,6 +413,34 @@ public class WorkerUploadedDataController {
         }
     }
 
+    @PostMapping("/file/{fileId}/validate/retry")
+    @Operation(summary = "Retry failed validation chunks", 
+               description = "Revalidates only the id-range chunks that failed during the last parallel validation run")
+    public ResponseEntity<?> retryFailedValidationChunks(
+            @Parameter(description = "File ID") 
+            @PathVariable String fileId) {
+        log.info("Retrying failed validation chunks for fileId: {}", fileId);
+        
+        Map<String, Object> result = fileService.retryFailedValidationChunks(fileId);
+        if (result.containsKey("error")) {
+            return ResponseEntity.badRequest().body(result);
+        }
+        return ResponseEntity.ok(result);
+    }
+
+    @GetMapping("/file/{fileId}/validation-progress")
+    @Operation(summary = "Get parallel validation progress", 
+               description = "Returns per-chunk progress of the last parallel validation run for a file")
+    public ResponseEntity<?> getValidationProgress(
+            @Parameter(description = "File ID") 
+            @PathVariable String fileId) {
+        Map<String, Object> progress = fileService.getValidationProgress(fileId);
+        if (progress.containsKey("error")) {
+            return ResponseEntity.status(404).body(progress);
+        }
+        return ResponseEntity.ok(progress);
+    }
+
     @GetMapping("/results/{fileId}")
     @Operation(summary = "Get uploaded data results with pagination and filtering", 
                description = "Returns paginated uploaded data results with optional status and date range filtering")
@@ -263,15 +471,7 @@ public class WorkerUploadedDataController {
                 return ResponseEntity.badRequest().body(result);
             }
             
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper2 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper2.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper2.writeValueAsString(result);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(result);
+            return eTags.respond(result, request);
             
         } catch (Exception e) {
             log.error("Error fetching validation results for fileId: {}", fileId, e);
@@ -364,15 +564,7 @@ public class WorkerUploadedDataController {
             response.put("hasPrevious", requestPage.hasPrevious());
             response.put("receiptNumber", receiptNumber);
             
-            com.fasterxml.jackson.databind.ObjectMapper objectMapper3 = new com.fasterxml.jackson.databind.ObjectMapper();
-            objectMapper3.registerModule(new com.fasterxml.jackson.datatype.jsr310.JavaTimeModule());
-            String responseJson = objectMapper3.writeValueAsString(response);
-            String eTag = ETagUtil.generateETag(responseJson);
-            String ifNoneMatch = request.getHeader(HttpHeaders.IF_NONE_MATCH);
-            if (eTag.equals(ifNoneMatch)) {
-                return ResponseEntity.status(304).eTag(eTag).build();
-            }
-            return ResponseEntity.ok().eTag(eTag).body(response);
+            return eTags.respond(response, request);
             
         } catch (Exception e) {
             log.error("Error fetching request details for receiptNumber: {}", receiptNumber, e);
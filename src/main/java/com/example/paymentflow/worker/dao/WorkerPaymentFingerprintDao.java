@@ -0,0 +1,75 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.DSLContext;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Repository;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * DAO for worker_payment_fingerprints, the persistent index of row fingerprints already claimed
+ * by a validated upload row. Claims are INSERT ... ON CONFLICT DO NOTHING on the fingerprint
+ * primary key, so checking and registering a fingerprint is one index probe and two concurrent
+ * validations can never both claim the same row.
+ * <p>
+ * Claims are released in the database: deleting an uploaded row cascades to its fingerprint,
+ * and a trigger drops the fingerprint of a row that is updated to REJECTED, so a file that is
+ * deleted and uploaded again in corrected form is not rejected against itself.
+ */
+@Repository
+public class WorkerPaymentFingerprintDao {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentFingerprintDao.class);
+
+    private static final String CLAIM_TEMPLATE = "sql/worker/worker_payment_fingerprints_claim.sql";
+    private static final String CLAIM_VALIDATED_TEMPLATE = "sql/worker/worker_payment_fingerprints_claim_validated.sql";
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerPaymentFingerprintDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * Claim the fingerprints of the given rows. When several rows share a fingerprint only one of
+     * them can win; a row that already owns its fingerprint, e.g. on a retried chunk, keeps it.
+     *
+     * @param uploadedDataIds row ids, parallel to {@code fingerprints}
+     * @param fingerprints    hex fingerprints from WorkerRowFingerprint
+     * @return ids of the rows that own their fingerprint; the others are duplicates
+     */
+    public Set<Long> claim(String fileId, List<Long> uploadedDataIds, List<String> fingerprints) {
+        if (uploadedDataIds.isEmpty()) {
+            return Set.of();
+        }
+        Set<Long> claimed = new HashSet<>();
+        dsl.resultQuery(sqlTemplates.load(CLAIM_TEMPLATE),
+                        fileId,
+                        DSL.val(fingerprints.toArray(String[]::new), SQLDataType.VARCHAR.getArrayDataType()),
+                        DSL.val(uploadedDataIds.toArray(Long[]::new), SQLDataType.BIGINT.getArrayDataType()))
+                .fetch()
+                .forEach(record -> claimed.add(record.get("uploaded_data_id", Long.class)));
+        log.debug("Claimed {} of {} row fingerprints for fileId {}", claimed.size(), uploadedDataIds.size(), fileId);
+        return claimed;
+    }
+
+    /**
+     * Set-based variant for SQL validation: claim the fingerprints of every VALIDATED row of the
+     * file and reject the rows that lost.
+     *
+     * @return number of rows rejected as duplicates
+     */
+    public int rejectUnclaimedValidated(String fileId, String rejectionReason) {
+        int rejected = dsl.execute(sqlTemplates.load(CLAIM_VALIDATED_TEMPLATE), fileId, rejectionReason);
+        log.debug("Rejected {} duplicate rows for fileId {}", rejected, fileId);
+        return rejected;
+    }
+}
@@ -1,19 +1,27 @@
 package com.example.paymentflow.worker.dao;
 
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.shared.common.dao.BaseQueryDao;
+import org.jooq.Cursor;
 import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -25,13 +33,16 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
     
     private static final String BASE_SELECT_TEMPLATE = "sql/worker/worker_payments_base_select.sql";
     private static final String BASE_COUNT_TEMPLATE = "sql/worker/worker_payments_count.sql";
+    private static final int STREAM_FETCH_SIZE = 1000;
 
     private final DSLContext dsl;
     private final SqlTemplateLoader sqlTemplates;
+    private final RowCountEstimator rowCountEstimator;
 
-    public WorkerPaymentQueryDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+    public WorkerPaymentQueryDao(DSLContext dsl, SqlTemplateLoader sqlTemplates, RowCountEstimator rowCountEstimator) {
         this.dsl = dsl;
         this.sqlTemplates = sqlTemplates;
+        this.rowCountEstimator = rowCountEstimator;
     }
     
     private String baseSelect() {
@@ -58,8 +69,96 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
                                                     String fileId, LocalDateTime startDate, 
                                                     LocalDateTime endDate, int page, int size) {
         
-        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         Map<String, Object> params = new HashMap<>();
+        String whereClause = buildFilterClause(status, receiptNumber, fileId, startDate, endDate, params);
+        
+        String baseSql = baseSelect() + whereClause + " ORDER BY created_at DESC";
+        String countSql = baseCount() + whereClause;
+        
+        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
+    }
+    
+    /**
+     * Find worker payments with filters using keyset pagination on (created_at, id), newest first.
+     * Pass the previous page's cursor to continue; the total is only computed as the count mode asks.
+     */
+    public KeysetPage<WorkerPayment> findWithFiltersAfter(String status, String receiptNumber,
+                                                          String fileId, LocalDateTime startDate,
+                                                          LocalDateTime endDate, KeysetCursor after,
+                                                          int size, RowCountEstimator.CountMode countMode) {
+        
+        Map<String, Object> params = new HashMap<>();
+        String whereClause = buildFilterClause(status, receiptNumber, fileId, startDate, endDate, params);
+        
+        Map<String, Object> pageParams = new HashMap<>(params);
+        StringBuilder pageSql = new StringBuilder(baseSelect()).append(whereClause);
+        if (after != null) {
+            pageSql.append(" AND (created_at, id) < (:afterCreatedAt, :afterId)");
+            pageParams.put("afterCreatedAt", after.sortKeyAsDateTime());
+            pageParams.put("afterId", after.id());
+        }
+        pageSql.append(" ORDER BY created_at DESC, id DESC LIMIT :limit");
+        pageParams.put("limit", size + 1);
+        
+        List<WorkerPayment> rows = queryForList(pageSql.toString(), pageParams, this::mapWorkerPayment);
+        Long total = rowCountEstimator.count(countMode, baseSelect() + whereClause, baseCount() + whereClause, params);
+        return KeysetPage.of(rows, size, payment -> KeysetCursor.of(payment.getCreatedAt(), payment.getId()),
+                total, countMode);
+    }
+    
+    /**
+     * Stream every worker payment matching the filters to the consumer, newest first, through a
+     * server-side cursor so memory stays flat however many rows match. Must run inside a transaction:
+     * the PostgreSQL driver only honours the fetch size when auto-commit is off.
+     *
+     * @return number of rows passed to the consumer
+     */
+    public long streamWithFilters(String status, String receiptNumber, String fileId,
+                                  LocalDateTime startDate, LocalDateTime endDate,
+                                  Consumer<WorkerPayment> consumer) {
+        StringBuilder sql = new StringBuilder(baseSelect()).append(" WHERE 1=1");
+        List<Object> binds = new ArrayList<>();
+        if (status != null && !status.trim().isEmpty()) {
+            sql.append(" AND status = ?");
+            binds.add(status);
+        }
+        if (receiptNumber != null && !receiptNumber.trim().isEmpty()) {
+            sql.append(" AND receipt_number = ?");
+            binds.add(receiptNumber);
+        }
+        if (fileId != null && !fileId.trim().isEmpty()) {
+            sql.append(" AND file_id = ?");
+            binds.add(fileId);
+        }
+        if (startDate != null) {
+            sql.append(" AND created_at >= ?");
+            binds.add(startDate);
+        }
+        if (endDate != null) {
+            sql.append(" AND created_at <= ?");
+            binds.add(endDate);
+        }
+        sql.append(" ORDER BY created_at DESC, id DESC");
+        
+        long rows = 0;
+        try (Cursor<Record> cursor = dsl.resultQuery(sql.toString(), binds.toArray())
+                .fetchSize(STREAM_FETCH_SIZE)
+                .fetchLazy()) {
+            ResultSet rs = cursor.resultSet();
+            while (rs.next()) {
+                consumer.accept(mapWorkerPayment(rs, (int) rows));
+                rows++;
+            }
+        } catch (SQLException e) {
+            throw new DataRetrievalFailureException("Failed to stream worker payments", e);
+        }
+        return rows;
+    }
+    
+    private String buildFilterClause(String status, String receiptNumber, String fileId,
+                                     LocalDateTime startDate, LocalDateTime endDate,
+                                     Map<String, Object> params) {
+        StringBuilder whereClause = new StringBuilder(" WHERE 1=1");
         
         // Build dynamic where clause
         if (status != null && !status.trim().isEmpty()) {
@@ -86,11 +185,7 @@ public class WorkerPaymentQueryDao extends BaseQueryDao {
             whereClause.append(" AND created_at <= :endDate");
             params.put("endDate", endDate);
         }
-        
-        String baseSql = baseSelect() + whereClause + " ORDER BY created_at DESC";
-        String countSql = baseCount() + whereClause;
-        
-        return queryForPage(baseSql, countSql, params, page, size, this::mapWorkerPayment);
+        return whereClause.toString();
     }
     
     /**
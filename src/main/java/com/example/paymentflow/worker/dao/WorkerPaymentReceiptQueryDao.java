@@ -1,17 +1,27 @@
 package com.example.paymentflow.worker.dao;
 
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.example.paymentflow.common.sql.SqlTemplateLoader;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.shared.common.dao.BaseQueryDao;
+import org.jooq.Cursor;
+import org.jooq.DSLContext;
+import org.jooq.Record;
+import org.springframework.dao.DataRetrievalFailureException;
 import org.springframework.stereotype.Repository;
 
 import java.sql.ResultSet;
 import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.function.Consumer;
 
 @Repository
 public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
@@ -21,10 +31,17 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
     private static final String COUNT_BY_STATUS_TEMPLATE = "sql/worker/worker_payment_receipts_count_by_status.sql";
     private static final String TOTAL_AMOUNT_BY_STATUS_TEMPLATE = "sql/worker/worker_payment_receipts_total_amount_by_status.sql";
 
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private final DSLContext dsl;
     private final SqlTemplateLoader sqlTemplates;
+    private final RowCountEstimator rowCountEstimator;
 
-    public WorkerPaymentReceiptQueryDao(SqlTemplateLoader sqlTemplates) {
+    public WorkerPaymentReceiptQueryDao(DSLContext dsl, SqlTemplateLoader sqlTemplates,
+                                        RowCountEstimator rowCountEstimator) {
+        this.dsl = dsl;
         this.sqlTemplates = sqlTemplates;
+        this.rowCountEstimator = rowCountEstimator;
     }
 
     private String baseSelect() {
@@ -69,6 +86,77 @@ public class WorkerPaymentReceiptQueryDao extends BaseQueryDao {
         return queryForPage(baseSql, countSql, params, page, size, this::mapReceipt);
     }
 
+    /**
+     * Keyset page ordered by (created_at, id), newest first, optionally filtered by status. Pass the
+     * previous page's cursor to continue; the total is only computed as the count mode asks.
+     */
+    public KeysetPage<WorkerPaymentReceipt> findByStatusAndDateRangeAfter(String status, LocalDateTime startDate,
+                                                                        LocalDateTime endDate, KeysetCursor after,
+                                                                        int size, RowCountEstimator.CountMode countMode) {
+        StringBuilder whereClause = new StringBuilder(" WHERE wpr.created_at BETWEEN :startDate AND :endDate");
+        Map<String, Object> params = new HashMap<>();
+        params.put("startDate", startDate);
+        params.put("endDate", endDate);
+        if (status != null && !status.isEmpty()) {
+            whereClause.append(" AND wpr.status = :status");
+            params.put("status", status);
+        }
+
+        Map<String, Object> pageParams = new HashMap<>(params);
+        StringBuilder pageSql = new StringBuilder(baseSelect()).append(whereClause);
+        if (after != null) {
+            pageSql.append(" AND (wpr.created_at, wpr.id) < (:afterCreatedAt, :afterId)");
+            pageParams.put("afterCreatedAt", after.sortKeyAsDateTime());
+            pageParams.put("afterId", after.id());
+        }
+        pageSql.append(" ORDER BY wpr.created_at DESC, wpr.id DESC LIMIT :limit");
+        pageParams.put("limit", size + 1);
+
+        List<WorkerPaymentReceipt> rows = queryForList(pageSql.toString(), pageParams, this::mapReceipt);
+        Long total = rowCountEstimator.count(countMode, baseSelect() + whereClause, baseCount() + whereClause, params);
+        return KeysetPage.of(rows, size, receipt -> KeysetCursor.of(receipt.getCreatedAt(), receipt.getId()),
+                total, countMode);
+    }
+
+    /**
+     * Stream receipts to the consumer, newest first, through a server-side cursor; every filter is
+     * optional. Must run inside a transaction so the driver honours the fetch size.
+     *
+     * @return number of rows passed to the consumer
+     */
+    public long streamByStatusAndDateRange(String status, LocalDateTime startDate, LocalDateTime endDate,
+                                           Consumer<WorkerPaymentReceipt> consumer) {
+        StringBuilder sql = new StringBuilder(baseSelect()).append(" WHERE 1=1");
+        List<Object> binds = new ArrayList<>();
+        if (status != null && !status.isEmpty()) {
+            sql.append(" AND wpr.status = ?");
+            binds.add(status);
+        }
+        if (startDate != null) {
+            sql.append(" AND wpr.created_at >= ?");
+            binds.add(startDate);
+        }
+        if (endDate != null) {
+            sql.append(" AND wpr.created_at <= ?");
+            binds.add(endDate);
+        }
+        sql.append(" ORDER BY wpr.created_at DESC, wpr.id DESC");
+
+        long rows = 0;
+        try (Cursor<Record> cursor = dsl.resultQuery(sql.toString(), binds.toArray())
+                .fetchSize(STREAM_FETCH_SIZE)
+                .fetchLazy()) {
+            ResultSet rs = cursor.resultSet();
+            while (rs.next()) {
+                consumer.accept(mapReceipt(rs, (int) rows));
+                rows++;
+            }
+        } catch (SQLException e) {
+            throw new DataRetrievalFailureException("Failed to stream worker payment receipts", e);
+        }
+        return rows;
+    }
+
     public Optional<WorkerPaymentReceipt> findById(Long id) {
         String sql = baseSelect() + " WHERE wpr.id = :id";
         return queryForObject(sql, Map.of("id", id), this::mapReceipt);
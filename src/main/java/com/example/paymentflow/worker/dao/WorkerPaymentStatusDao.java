@@ -0,0 +1,55 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import org.jooq.DSLContext;
+import org.jooq.Field;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+/**
+ * Set-based status updates on worker_payments. Each method is a single UPDATE guarded by the
+ * statuses a payment may move from, so it covers every payment in scope however many there are,
+ * and payments already moved on, e.g. by a retried request, are left alone.
+ * <p>
+ * These UPDATEs bypass the JPA entity audit listener on WorkerPayment, so they are only used
+ * when {@code workerpayment.file.bulk-status-transitions-enabled} is set.
+ */
+@Repository
+public class WorkerPaymentStatusDao {
+
+    private static final String BY_RECEIPT_TEMPLATE = "sql/worker/worker_payments_transition_by_receipt.sql";
+    private static final String BY_FILE_TEMPLATE = "sql/worker/worker_payments_transition_by_file.sql";
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerPaymentStatusDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * @return number of payments of the worker receipt moved to {@code toStatus}
+     */
+    public int transitionByReceiptNumber(String receiptNumber, List<String> fromStatuses, String toStatus) {
+        return dsl.execute(sqlTemplates.load(BY_RECEIPT_TEMPLATE), toStatus, receiptNumber, statuses(fromStatuses));
+    }
+
+    /**
+     * Move the payments of an uploaded file and assign them to a worker receipt in the same
+     * statement.
+     *
+     * @return number of payments moved
+     */
+    public int transitionByFileId(String fileId, List<String> fromStatuses, String toStatus, String receiptNumber) {
+        return dsl.execute(sqlTemplates.load(BY_FILE_TEMPLATE), toStatus, receiptNumber, fileId,
+                statuses(fromStatuses));
+    }
+
+    private static Field<String[]> statuses(List<String> statuses) {
+        return DSL.val(statuses.toArray(String[]::new), SQLDataType.VARCHAR.getArrayDataType());
+    }
+}
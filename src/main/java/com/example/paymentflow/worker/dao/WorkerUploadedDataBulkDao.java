@@ -0,0 +1,214 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.jooq.BatchBindStep;
+import org.jooq.DSLContext;
+import org.jooq.DataType;
+import org.jooq.Record;
+import org.jooq.impl.DSL;
+import org.jooq.impl.SQLDataType;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * DAO for bulk write operations on worker_uploaded_data.
+ * Bypasses the JPA persistence context so large uploads are written as JDBC batches
+ * and validated with set-based statements instead of row-by-row entity updates, and payment
+ * requests are generated with INSERT ... SELECT into worker_payments.
+ */
+@Repository
+public class WorkerUploadedDataBulkDao {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadedDataBulkDao.class);
+
+    private static final String INSERT_TEMPLATE = "sql/worker/worker_uploaded_data_insert.sql";
+    private static final String VALIDATE_TEMPLATE = "sql/worker/worker_uploaded_data_validate.sql";
+    private static final String ID_RANGE_TEMPLATE = "sql/worker/worker_uploaded_data_id_range.sql";
+    private static final String APPLY_VALIDATION_TEMPLATE = "sql/worker/worker_uploaded_data_apply_validation.sql";
+    private static final String REQUEST_AGGREGATE_TEMPLATE = "sql/worker/worker_uploaded_data_request_aggregate.sql";
+    private static final String MARK_REQUEST_GENERATED_TEMPLATE = "sql/worker/worker_uploaded_data_mark_request_generated.sql";
+    private static final String INSERT_PAYMENTS_TEMPLATE = "sql/worker/worker_payments_insert_from_uploaded.sql";
+
+    /**
+     * Column types in template order. Binding typed placeholders keeps nulls in the first
+     * row from degrading the whole batch to untyped parameters.
+     */
+    private static final DataType<?>[] INSERT_TYPES = {
+            SQLDataType.VARCHAR,       // file_id
+            SQLDataType.INTEGER,       // row_num
+            SQLDataType.VARCHAR,       // worker_id
+            SQLDataType.VARCHAR,       // worker_name
+            SQLDataType.VARCHAR,       // employer_id
+            SQLDataType.VARCHAR,       // toli_id
+            SQLDataType.VARCHAR,       // company_name
+            SQLDataType.VARCHAR,       // department
+            SQLDataType.VARCHAR,       // position
+            SQLDataType.LOCALDATE,     // work_date
+            SQLDataType.NUMERIC,       // hours_worked
+            SQLDataType.NUMERIC,       // hourly_rate
+            SQLDataType.NUMERIC,       // payment_amount
+            SQLDataType.VARCHAR,       // bank_account
+            SQLDataType.VARCHAR,       // phone_number
+            SQLDataType.VARCHAR,       // email
+            SQLDataType.CLOB,          // address
+            SQLDataType.VARCHAR,       // status
+            SQLDataType.CLOB,          // rejection_reason
+            SQLDataType.LOCALDATETIME  // created_at
+    };
+
+    private final DSLContext dsl;
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerUploadedDataBulkDao(DSLContext dsl, SqlTemplateLoader sqlTemplates) {
+        this.dsl = dsl;
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    /**
+     * Insert the given rows as a single JDBC batch. Generated ids are not read back;
+     * callers that need the persisted rows should query them by file id.
+     *
+     * @return number of rows sent to the database
+     */
+    public int insertBatch(List<WorkerUploadedData> rows) {
+        if (rows == null || rows.isEmpty()) {
+            return 0;
+        }
+
+        BatchBindStep batch = dsl.batch(dsl.query(sqlTemplates.load(INSERT_TEMPLATE), typedPlaceholders()));
+        for (WorkerUploadedData row : rows) {
+            batch = batch.bind(
+                    row.getFileId(),
+                    row.getRowNumber(),
+                    row.getWorkerId(),
+                    row.getWorkerName(),
+                    row.getEmployerId(),
+                    row.getToliId(),
+                    row.getCompanyName(),
+                    row.getDepartment(),
+                    row.getPosition(),
+                    row.getWorkDate(),
+                    row.getHoursWorked(),
+                    row.getHourlyRate(),
+                    row.getPaymentAmount(),
+                    row.getBankAccount(),
+                    row.getPhoneNumber(),
+                    row.getEmail(),
+                    row.getAddress(),
+                    row.getStatus(),
+                    row.getRejectionReason(),
+                    row.getCreatedAt());
+        }
+        batch.execute();
+        log.debug("Batch inserted {} worker uploaded data rows", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Validate every UPLOADED row of a file in a single UPDATE, setting status, rejection_reason
+     * and validated_at the same way the in-memory rules do. No rows are loaded into the JVM.
+     *
+     * @param today reference date for the work date rules, taken from the application clock
+     * @param masterChecks also cross-check rows against the worker, employer and employer-toli masters
+     * @return number of rows validated or rejected
+     */
+    public int validateByFileId(String fileId, LocalDate today, boolean masterChecks) {
+        int updated = dsl.execute(sqlTemplates.load(VALIDATE_TEMPLATE), today, today.minusYears(1), masterChecks,
+                fileId);
+        log.debug("Set-based validation updated {} rows for fileId {}", updated, fileId);
+        return updated;
+    }
+
+    /**
+     * Smallest and largest id of the file's rows in the given status, used to split a file into
+     * id-range chunks.
+     */
+    public Optional<IdRange> findIdRange(String fileId, String status) {
+        Record record = dsl.resultQuery(sqlTemplates.load(ID_RANGE_TEMPLATE), fileId, status).fetchOne();
+        if (record == null || record.get(0) == null) {
+            return Optional.empty();
+        }
+        return Optional.of(new IdRange(record.get(0, Long.class), record.get(1, Long.class)));
+    }
+
+    /**
+     * Write validation outcomes as one JDBC batch. Rows that are no longer UPLOADED are left
+     * untouched so a retried chunk cannot overwrite a concurrent result.
+     */
+    public int applyValidationResults(List<ValidationOutcome> outcomes) {
+        if (outcomes == null || outcomes.isEmpty()) {
+            return 0;
+        }
+
+        BatchBindStep batch = dsl.batch(dsl.query(sqlTemplates.load(APPLY_VALIDATION_TEMPLATE),
+                DSL.val(null, SQLDataType.VARCHAR),
+                DSL.val(null, SQLDataType.CLOB),
+                DSL.val(null, SQLDataType.LOCALDATETIME),
+                DSL.val(null, SQLDataType.BIGINT)));
+        for (ValidationOutcome outcome : outcomes) {
+            batch = batch.bind(outcome.status(), outcome.rejectionReason(), outcome.validatedAt(), outcome.id());
+        }
+        int updated = 0;
+        for (int count : batch.execute()) {
+            // The driver may report SUCCESS_NO_INFO (-2) for rewritten batches
+            updated += Math.max(count, 0);
+        }
+        return updated;
+    }
+
+    /**
+     * Count and total of the file's VALIDATED rows, with the employer/toli of the first row.
+     */
+    public RequestTotals aggregateValidated(String fileId) {
+        Record record = dsl.resultQuery(sqlTemplates.load(REQUEST_AGGREGATE_TEMPLATE), fileId, fileId).fetchOne();
+        if (record == null) {
+            return new RequestTotals(0, BigDecimal.ZERO, null, null);
+        }
+        return new RequestTotals(
+                record.get("total_records", Integer.class),
+                record.get("total_amount", BigDecimal.class),
+                record.get("employer_id", String.class),
+                record.get("toli_id", String.class));
+    }
+
+    /**
+     * Flip all VALIDATED rows of a file to REQUEST_GENERATED under the given receipt. Running this
+     * before the payment insert claims the rows, so a concurrent request for the same file finds none.
+     */
+    public int markRequestGenerated(String fileId, String receiptNumber, LocalDateTime processedAt) {
+        return dsl.execute(sqlTemplates.load(MARK_REQUEST_GENERATED_TEMPLATE), receiptNumber, processedAt, fileId);
+    }
+
+    /**
+     * Create one worker_payments row per uploaded row claimed by the receipt, in a single statement.
+     * Rows written this way do not pass through the JPA entity listeners.
+     */
+    public int insertPaymentsFromUploaded(String fileId, String receiptNumber, LocalDateTime createdAt) {
+        return dsl.execute(sqlTemplates.load(INSERT_PAYMENTS_TEMPLATE), createdAt, fileId, receiptNumber);
+    }
+
+    private static Object[] typedPlaceholders() {
+        Object[] placeholders = new Object[INSERT_TYPES.length];
+        for (int i = 0; i < INSERT_TYPES.length; i++) {
+            placeholders[i] = DSL.val(null, INSERT_TYPES[i]);
+        }
+        return placeholders;
+    }
+
+    public record IdRange(long minId, long maxId) {
+    }
+
+    public record RequestTotals(int totalRecords, BigDecimal totalAmount, String employerId, String toliId) {
+    }
+
+    public record ValidationOutcome(Long id, String status, String rejectionReason, LocalDateTime validatedAt) {
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.paymentflow.worker.dao;
+
+import com.example.paymentflow.common.sql.SqlTemplateLoader;
+import com.shared.common.dao.BaseQueryDao;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Read-side queries over worker_uploaded_data that aggregate in the database instead of loading
+ * rows into the persistence context.
+ */
+@Repository
+public class WorkerUploadedDataQueryDao extends BaseQueryDao {
+
+    private static final String FILES_WITH_ROWS_TEMPLATE = "sql/worker/worker_uploaded_files_with_rows.sql";
+    private static final String FILE_SUMMARIES_TEMPLATE = "sql/worker/worker_uploaded_file_summaries.sql";
+
+    /** Status filter values; anything else matches no file. */
+    private static final Set<String> FILTERABLE_STATUSES = Set.of(
+            "UPLOADED", "VALIDATED", "REJECTED", "REQUEST_GENERATED");
+
+    private final SqlTemplateLoader sqlTemplates;
+
+    public WorkerUploadedDataQueryDao(SqlTemplateLoader sqlTemplates) {
+        this.sqlTemplates = sqlTemplates;
+    }
+
+    public record FileSummaryRow(String fileId, String fileName, LocalDateTime uploadDate, int totalRecords,
+            int uploadedCount, int validatedCount, int rejectedCount, int requestGeneratedCount,
+            BigDecimal totalValidatedAmount) {
+    }
+
+    public record FileSummaryPage(List<FileSummaryRow> rows, long totalElements) {
+    }
+
+    /**
+     * One page of file summaries. The page of files is chosen first with index probes on
+     * (file_id, status), so it stops at the LIMIT; only those files are then aggregated. The
+     * total comes from a separate count over the same cheap filters.
+     * <p>
+     * Sorting by {@code totalRecords} still has to count every candidate file's rows before the
+     * limit can apply.
+     *
+     * @param sortBy {@code uploadDate} or {@code totalRecords}; anything else sorts by file id
+     */
+    public FileSummaryPage findFileSummaries(String fileId, String status, LocalDateTime startDate,
+            LocalDateTime endDate, String sortBy, boolean descending, int page, int size) {
+        StringBuilder where = new StringBuilder();
+        Map<String, Object> params = new HashMap<>();
+
+        if (fileId != null && !fileId.trim().isEmpty()) {
+            where.append(" AND CAST(uf.id AS VARCHAR) = :fileId");
+            params.put("fileId", fileId.trim());
+        }
+        if (startDate != null && endDate != null) {
+            where.append(" AND uf.created_at BETWEEN :startDate AND :endDate");
+            params.put("startDate", startDate);
+            params.put("endDate", endDate);
+        }
+        if (status != null && !status.trim().isEmpty()) {
+            String normalizedStatus = status.trim().toUpperCase();
+            if (!FILTERABLE_STATUSES.contains(normalizedStatus)) {
+                return new FileSummaryPage(List.of(), 0);
+            }
+            where.append(" AND EXISTS (SELECT 1 FROM worker_uploaded_data ws")
+                    .append(" WHERE ws.file_id = CAST(uf.id AS VARCHAR) AND ws.status = :status)");
+            params.put("status", normalizedStatus);
+        }
+
+        String filesSql = sqlTemplates.load(FILES_WITH_ROWS_TEMPLATE) + where;
+        String direction = descending ? "DESC" : "ASC";
+        String orderBy = switch (sortBy == null ? "" : sortBy) {
+            case "uploadDate" -> " ORDER BY uf.created_at " + direction + ", uf.id " + direction;
+            case "totalRecords" -> " ORDER BY (SELECT COUNT(*) FROM worker_uploaded_data wc"
+                    + " WHERE wc.file_id = CAST(uf.id AS VARCHAR)) " + direction + ", uf.id " + direction;
+            default -> " ORDER BY uf.id " + direction;
+        };
+
+        Long count = namedParameterJdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM (" + filesSql + ") files", params, Long.class);
+        long totalElements = count != null ? count : 0;
+        if (totalElements <= (long) page * size) {
+            return new FileSummaryPage(List.of(), totalElements);
+        }
+
+        Map<String, Object> pageParams = new HashMap<>(params);
+        pageParams.put("limit", size);
+        pageParams.put("offset", (long) page * size);
+        List<FileSummaryRow> files = queryForList(filesSql + orderBy + " LIMIT :limit OFFSET :offset",
+                pageParams, this::mapFile);
+
+        Map<String, FileSummaryRow> counts = new HashMap<>();
+        for (FileSummaryRow row : queryForList(sqlTemplates.load(FILE_SUMMARIES_TEMPLATE),
+                Map.of("fileIds", files.stream().map(FileSummaryRow::fileId).toList()),
+                this::mapFileCounts)) {
+            counts.put(row.fileId(), row);
+        }
+
+        List<FileSummaryRow> rows = new ArrayList<>(files.size());
+        for (FileSummaryRow file : files) {
+            FileSummaryRow fileCounts = counts.get(file.fileId());
+            rows.add(fileCounts == null ? file : new FileSummaryRow(file.fileId(), file.fileName(),
+                    file.uploadDate(), fileCounts.totalRecords(), fileCounts.uploadedCount(),
+                    fileCounts.validatedCount(), fileCounts.rejectedCount(), fileCounts.requestGeneratedCount(),
+                    fileCounts.totalValidatedAmount()));
+        }
+        return new FileSummaryPage(rows, totalElements);
+    }
+
+    private FileSummaryRow mapFile(ResultSet rs, int rowNum) throws SQLException {
+        java.sql.Timestamp createdAt = rs.getTimestamp("created_at");
+        return new FileSummaryRow(
+                rs.getString("id"),
+                rs.getString("filename"),
+                createdAt != null ? createdAt.toLocalDateTime() : null,
+                0, 0, 0, 0, 0, BigDecimal.ZERO);
+    }
+
+    private FileSummaryRow mapFileCounts(ResultSet rs, int rowNum) throws SQLException {
+        return new FileSummaryRow(
+                rs.getString("file_id"),
+                null,
+                null,
+                rs.getInt("total_records"),
+                rs.getInt("uploaded_count"),
+                rs.getInt("validated_count"),
+                rs.getInt("rejected_count"),
+                rs.getInt("request_generated_count"),
+                rs.getBigDecimal("total_validated_amount"));
+    }
+}
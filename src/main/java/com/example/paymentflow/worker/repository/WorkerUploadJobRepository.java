@@ -0,0 +1,61 @@
+package com.example.paymentflow.worker.repository;
+
+import com.example.paymentflow.worker.entity.WorkerUploadJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+public interface WorkerUploadJobRepository extends JpaRepository<WorkerUploadJob, Long> {
+
+    List<WorkerUploadJob> findByPhaseInAndUpdatedAtBefore(Collection<WorkerUploadJob.Phase> phases,
+                                                         LocalDateTime updatedBefore);
+
+    List<WorkerUploadJob> findByBatchIdOrderByIdAsc(String batchId);
+
+    /**
+     * Claim a job by moving it from {@code expectedPhase} to {@code claimedPhase}, only if it is
+     * still in that phase and nobody else has touched it since it was read. Returns 1 when this
+     * caller won the claim.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkerUploadJob j SET j.phase = :claimedPhase, j.updatedAt = :now, " +
+           "j.attempts = j.attempts + 1 " +
+           "WHERE j.id = :id AND j.phase = :expectedPhase AND j.updatedAt = :seenUpdatedAt")
+    int claim(@Param("id") Long id, @Param("expectedPhase") WorkerUploadJob.Phase expectedPhase,
+              @Param("claimedPhase") WorkerUploadJob.Phase claimedPhase,
+              @Param("seenUpdatedAt") LocalDateTime seenUpdatedAt, @Param("now") LocalDateTime now);
+
+    /**
+     * Queue a job again if it is still in {@code failedPhase}, clearing its outcome. Returns 1 only
+     * for the one caller that moved it.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkerUploadJob j SET j.phase = :queuedPhase, j.errorMessage = NULL, j.completedAt = NULL, " +
+           "j.updatedAt = :now WHERE j.id = :id AND j.phase = :failedPhase")
+    int requeue(@Param("id") Long id, @Param("failedPhase") WorkerUploadJob.Phase failedPhase,
+                @Param("queuedPhase") WorkerUploadJob.Phase queuedPhase, @Param("now") LocalDateTime now);
+
+    /**
+     * Mark a running job as alive without touching its progress.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkerUploadJob j SET j.updatedAt = :now WHERE j.id = :id AND j.phase IN :phases")
+    int heartbeat(@Param("id") Long id, @Param("phases") Collection<WorkerUploadJob.Phase> phases,
+                  @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE WorkerUploadJob j SET j.rowsProcessed = :rowsProcessed, j.failedRows = :failedRows, " +
+           "j.updatedAt = :now WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id, @Param("rowsProcessed") long rowsProcessed,
+                       @Param("failedRows") long failedRows, @Param("now") LocalDateTime now);
+}
@@ -14,6 +14,7 @@ public interface WorkerUploadedDataRepository extends JpaRepository<WorkerUpload
     // READ operations - to be moved to WorkerUploadedDataQueryDao in future
     List<WorkerUploadedData> findByFileId(String fileId);
     List<WorkerUploadedData> findByFileIdAndStatus(String fileId, String status);
+    List<WorkerUploadedData> findByFileIdAndStatusAndIdBetween(String fileId, String status, Long fromId, Long toId);
     Page<WorkerUploadedData> findByFileIdAndStatus(String fileId, String status, Pageable pageable);
     Page<WorkerUploadedData> findByFileId(String fileId, Pageable pageable);
     List<WorkerUploadedData> findByStatus(String status);
@@ -32,6 +33,11 @@ public interface WorkerUploadedDataRepository extends JpaRepository<WorkerUpload
     @Query("SELECT w.status, COUNT(w) FROM WorkerUploadedData w WHERE w.fileId = :fileId GROUP BY w.status")
     List<Object[]> getStatusCountsByFileId(@Param("fileId") String fileId);
     
+    long countByFileId(String fileId);
+    
+    @Query("SELECT COALESCE(MAX(w.rowNumber), 0) FROM WorkerUploadedData w WHERE w.fileId = :fileId")
+    int findMaxRowNumberByFileId(@Param("fileId") String fileId);
+    
     @Query("SELECT DISTINCT w.fileId FROM WorkerUploadedData w ORDER BY w.fileId")
     List<String> findDistinctFileIds();
     
@@ -0,0 +1,275 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.config.WorkerUploadExecutorConfig;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.example.paymentflow.worker.repository.WorkerUploadedDataRepository;
+import com.example.paymentflow.worker.validation.DuplicateRowDetector;
+import com.example.paymentflow.worker.validation.RuleContext;
+import com.example.paymentflow.worker.validation.WorkerRecordValidator;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.context.SecurityContext;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Validates a file's UPLOADED rows in id-range chunks on a bounded executor. Each chunk is loaded,
+ * evaluated and written back in its own transaction, so a failure only rolls back that chunk and
+ * {@link #retryFailedChunks(String)} revalidates just the ranges that did not complete. Chunks run
+ * with the caller's security context, so row-level security applies to them as it does to the
+ * caller. A run's chunk list is kept while it is in flight and, once it has failed chunks, until
+ * a retry completes them.
+ */
+@Service
+public class ParallelUploadValidationService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(ParallelUploadValidationService.class);
+
+    public enum ChunkState {
+        PENDING,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+
+    /**
+     * Progress of one id-range chunk. Mutated only by the thread currently running the chunk.
+     */
+    public static final class ChunkProgress {
+        private final long fromId;
+        private final long toId;
+        private volatile ChunkState state = ChunkState.PENDING;
+        private volatile int rows;
+        private volatile String error;
+
+        ChunkProgress(long fromId, long toId) {
+            this.fromId = fromId;
+            this.toId = toId;
+        }
+
+        public long getFromId() {
+            return fromId;
+        }
+
+        public long getToId() {
+            return toId;
+        }
+
+        public ChunkState getState() {
+            return state;
+        }
+
+        public int getRows() {
+            return rows;
+        }
+
+        public String getError() {
+            return error;
+        }
+    }
+
+    private final WorkerUploadedDataRepository repository;
+    private final WorkerUploadedDataBulkDao bulkDao;
+    private final WorkerRecordValidator recordValidator;
+    private final DuplicateRowDetector duplicateRowDetector;
+    private final WorkerPaymentFileConfig fileConfig;
+    private final TransactionTemplate transactionTemplate;
+    private final AsyncTaskExecutor executor;
+
+    /** Runs in flight or with failed chunks, kept so progress can be reported and failures retried. */
+    private final Map<String, List<ChunkProgress>> runs = new ConcurrentHashMap<>();
+
+    public ParallelUploadValidationService(WorkerUploadedDataRepository repository,
+            WorkerUploadedDataBulkDao bulkDao,
+            WorkerRecordValidator recordValidator,
+            DuplicateRowDetector duplicateRowDetector,
+            WorkerPaymentFileConfig fileConfig,
+            PlatformTransactionManager transactionManager,
+            @Qualifier(WorkerUploadExecutorConfig.WORKER_VALIDATION_EXECUTOR) AsyncTaskExecutor executor) {
+        this.repository = repository;
+        this.bulkDao = bulkDao;
+        this.recordValidator = recordValidator;
+        this.duplicateRowDetector = duplicateRowDetector;
+        this.fileConfig = fileConfig;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.executor = executor;
+    }
+
+    /**
+     * Split the file's UPLOADED rows into id ranges and validate them concurrently, blocking until
+     * every chunk has finished.
+     *
+     * @throws IllegalStateException if any chunk failed; its rows stay UPLOADED and can be retried
+     */
+    public int validate(String fileId) {
+        Optional<WorkerUploadedDataBulkDao.IdRange> range = bulkDao.findIdRange(fileId, "UPLOADED");
+        if (range.isEmpty()) {
+            log.info("No uploaded records to validate for fileId: {}", fileId);
+            runs.remove(fileId);
+            return 0;
+        }
+
+        long chunkSize = Math.max(1, fileConfig.getValidationChunkSize());
+        List<ChunkProgress> chunks = new ArrayList<>();
+        for (long from = range.get().minId(); from <= range.get().maxId(); from += chunkSize) {
+            chunks.add(new ChunkProgress(from, Math.min(from + chunkSize - 1, range.get().maxId())));
+        }
+        runs.put(fileId, chunks);
+
+        log.info("Validating fileId: {} in {} chunks over ids {}-{}", fileId, chunks.size(),
+                range.get().minId(), range.get().maxId());
+        return execute(fileId, chunks);
+    }
+
+    /**
+     * Re-run only the chunks that failed in the latest run for this file.
+     */
+    public int retryFailedChunks(String fileId) {
+        List<ChunkProgress> chunks = runs.get(fileId);
+        if (chunks == null) {
+            throw new IllegalStateException("No parallel validation run recorded for fileId: " + fileId);
+        }
+        List<ChunkProgress> failed = chunks.stream()
+                .filter(chunk -> chunk.getState() == ChunkState.FAILED)
+                .toList();
+        log.info("Retrying {} failed validation chunks for fileId: {}", failed.size(), fileId);
+        return execute(fileId, failed);
+    }
+
+    public Optional<Map<String, Object>> getProgress(String fileId) {
+        List<ChunkProgress> chunks = runs.get(fileId);
+        if (chunks == null) {
+            return Optional.empty();
+        }
+
+        Map<ChunkState, Integer> stateCounts = new LinkedHashMap<>();
+        for (ChunkState state : ChunkState.values()) {
+            stateCounts.put(state, 0);
+        }
+        int validatedRows = 0;
+        List<Map<String, Object>> chunkDetails = new ArrayList<>();
+        for (ChunkProgress chunk : chunks) {
+            stateCounts.merge(chunk.getState(), 1, Integer::sum);
+            validatedRows += chunk.getRows();
+            Map<String, Object> detail = new LinkedHashMap<>();
+            detail.put("fromId", chunk.getFromId());
+            detail.put("toId", chunk.getToId());
+            detail.put("state", chunk.getState());
+            detail.put("rows", chunk.getRows());
+            if (chunk.getError() != null) {
+                detail.put("error", chunk.getError());
+            }
+            chunkDetails.add(detail);
+        }
+
+        Map<String, Object> progress = new LinkedHashMap<>();
+        progress.put("fileId", fileId);
+        progress.put("totalChunks", chunks.size());
+        progress.put("chunkStates", stateCounts);
+        progress.put("validatedRows", validatedRows);
+        progress.put("chunks", chunkDetails);
+        return Optional.of(progress);
+    }
+
+    private int execute(String fileId, List<ChunkProgress> chunks) {
+        long start = System.nanoTime();
+        RuleContext context = recordValidator.newContext(LocalDate.now());
+
+        SecurityContext securityContext = SecurityContextHolder.getContext();
+        CompletableFuture<?>[] futures = chunks.stream()
+                .map(chunk -> CompletableFuture.runAsync(new DelegatingSecurityContextRunnable(
+                        () -> runChunk(fileId, chunk, context), securityContext), executor))
+                .toArray(CompletableFuture[]::new);
+        CompletableFuture.allOf(futures).join();
+
+        int rows = chunks.stream().mapToInt(ChunkProgress::getRows).sum();
+        long failed = chunks.stream().filter(chunk -> chunk.getState() == ChunkState.FAILED).count();
+        log.info("Parallel validation for fileId: {} processed {} records in {} chunks ({} failed) in {} ms",
+                fileId, rows, chunks.size(), failed, (System.nanoTime() - start) / 1_000_000);
+
+        if (failed > 0) {
+            throw new IllegalStateException(failed + " of " + chunks.size()
+                    + " validation chunks failed for fileId " + fileId + "; retry to revalidate them");
+        }
+        List<ChunkProgress> run = runs.get(fileId);
+        if (run != null && run.stream().allMatch(chunk -> chunk.getState() == ChunkState.COMPLETED)) {
+            runs.remove(fileId, run);
+        }
+        return rows;
+    }
+
+    private void runChunk(String fileId, ChunkProgress chunk, RuleContext context) {
+        chunk.state = ChunkState.RUNNING;
+        chunk.error = null;
+        try {
+            Integer rows = transactionTemplate.execute(status -> validateChunk(fileId, chunk, context));
+            chunk.rows = rows != null ? rows : 0;
+            chunk.state = ChunkState.COMPLETED;
+        } catch (RuntimeException e) {
+            log.error("Validation chunk {}-{} failed for fileId: {}", chunk.getFromId(), chunk.getToId(), fileId, e);
+            chunk.error = e.getMessage();
+            chunk.state = ChunkState.FAILED;
+        }
+    }
+
+    private int validateChunk(String fileId, ChunkProgress chunk, RuleContext context) {
+        List<WorkerUploadedData> records = repository.findByFileIdAndStatusAndIdBetween(
+                fileId, "UPLOADED", chunk.getFromId(), chunk.getToId());
+        LocalDateTime validatedAt = LocalDateTime.now();
+
+        // Entities are only read; results go out as one batch UPDATE instead of dirty-checked saves
+        List<WorkerUploadedDataBulkDao.ValidationOutcome> outcomes = new ArrayList<>(records.size());
+        List<WorkerUploadedData> passed = new ArrayList<>(records.size());
+        for (WorkerUploadedData record : records) {
+            try {
+                long failedRules = recordValidator.evaluate(record, context);
+                if (failedRules == 0L) {
+                    passed.add(record);
+                } else {
+                    outcomes.add(new WorkerUploadedDataBulkDao.ValidationOutcome(record.getId(), "REJECTED",
+                            recordValidator.renderRejectionReason(failedRules, record), record.getValidatedAt()));
+                }
+            } catch (RuntimeException e) {
+                log.error("Error validating record {} for fileId: {}", record.getRowNumber(), fileId, e);
+                outcomes.add(new WorkerUploadedDataBulkDao.ValidationOutcome(record.getId(), "REJECTED",
+                        "Validation error: " + e.getMessage(), record.getValidatedAt()));
+            }
+        }
+
+        // Rows that passed the rules still lose to an earlier row with the same fingerprint
+        Set<Long> duplicateIds = new HashSet<>();
+        for (WorkerUploadedData duplicate : duplicateRowDetector.findDuplicates(fileId, passed)) {
+            duplicateIds.add(duplicate.getId());
+        }
+        for (WorkerUploadedData record : passed) {
+            if (duplicateIds.contains(record.getId())) {
+                outcomes.add(new WorkerUploadedDataBulkDao.ValidationOutcome(record.getId(), "REJECTED",
+                        DuplicateRowDetector.DUPLICATE_REASON, record.getValidatedAt()));
+            } else {
+                outcomes.add(new WorkerUploadedDataBulkDao.ValidationOutcome(
+                        record.getId(), "VALIDATED", record.getRejectionReason(), validatedAt));
+            }
+        }
+        bulkDao.applyValidationResults(outcomes);
+        return records.size();
+    }
+}
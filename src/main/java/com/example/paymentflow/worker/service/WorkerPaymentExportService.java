@@ -0,0 +1,181 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.utilities.file.CsvRowWriter;
+import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * Writes worker payment and receipt exports straight from a database cursor to the response
+ * stream as CSV or newline-delimited JSON. Rows are written as they are read and never
+ * collected, so memory use does not depend on the size of the export.
+ */
+@Service
+public class WorkerPaymentExportService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentExportService.class);
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+    /** Flush to the client every this many rows so large exports show progress. */
+    private static final int FLUSH_EVERY_ROWS = 5000;
+
+    public enum Format {
+        CSV("text/csv", "csv"),
+        NDJSON("application/x-ndjson", "ndjson");
+
+        private final String contentType;
+        private final String extension;
+
+        Format(String contentType, String extension) {
+            this.contentType = contentType;
+            this.extension = extension;
+        }
+
+        public String getContentType() {
+            return contentType;
+        }
+
+        public String getExtension() {
+            return extension;
+        }
+
+        /**
+         * @throws IllegalArgumentException if the value names no format
+         */
+        public static Format from(String value) {
+            if (value == null || value.isBlank()) {
+                return CSV;
+            }
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unsupported export format: " + value + " (use csv or ndjson)");
+            }
+        }
+    }
+
+    private final WorkerPaymentService paymentService;
+    private final WorkerPaymentReceiptService receiptService;
+    private final ObjectMapper objectMapper;
+
+    public WorkerPaymentExportService(WorkerPaymentService paymentService,
+            WorkerPaymentReceiptService receiptService,
+            ObjectMapper objectMapper) {
+        this.paymentService = paymentService;
+        this.receiptService = receiptService;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Export the payments of a file and/or receipt, newest first.
+     *
+     * @return number of rows written
+     */
+    public long exportPayments(String fileId, String receiptNumber, String status, Format format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvRowWriter csv = new CsvRowWriter(writer);
+        if (format == Format.CSV) {
+            csv.writeRow("id", "worker_reference", "registration_id", "worker_name", "employer_id", "toli_id",
+                    "toli", "aadhar", "pan", "bank_account", "payment_amount", "request_reference_number",
+                    "receipt_number", "status", "file_id", "uploaded_file_ref", "created_at");
+        }
+        long rows = stream(writer, consumer -> paymentService.streamByFileIdOrReceiptNumber(
+                fileId, receiptNumber, status, consumer), (WorkerPayment payment) -> {
+                    if (format == Format.CSV) {
+                        csv.writeRow(payment.getId(), payment.getWorkerRef(), payment.getRegId(), payment.getName(),
+                                payment.getEmployerId(), payment.getToliId(), payment.getToli(), payment.getAadhar(),
+                                payment.getPan(), payment.getBankAccount(), payment.getPaymentAmount(),
+                                payment.getRequestReferenceNumber(), payment.getReceiptNumber(), payment.getStatus(),
+                                payment.getFileId(), payment.getUploadedFileRef(), payment.getCreatedAt());
+                    } else {
+                        writeJsonLine(writer, payment);
+                    }
+                });
+        log.info("Exported {} worker payments as {} (fileId={}, receiptNumber={}, status={})",
+                rows, format, fileId, receiptNumber, status);
+        return rows;
+    }
+
+    /**
+     * Export worker payment receipts, newest first; every filter is optional.
+     *
+     * @return number of rows written
+     */
+    public long exportReceipts(String status, LocalDateTime startDate, LocalDateTime endDate, Format format,
+            OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        CsvRowWriter csv = new CsvRowWriter(writer);
+        if (format == Format.CSV) {
+            csv.writeRow("id", "receipt_number", "employer_id", "toli_id", "created_at", "total_records",
+                    "total_amount", "status");
+        }
+        long rows = stream(writer, consumer -> receiptService.streamByStatusAndDateRange(
+                status, startDate, endDate, consumer), (WorkerPaymentReceipt receipt) -> {
+                    if (format == Format.CSV) {
+                        csv.writeRow(receipt.getId(), receipt.getReceiptNumber(), receipt.getEmployerId(),
+                                receipt.getToliId(), receipt.getCreatedAt(), receipt.getTotalRecords(),
+                                receipt.getTotalAmount(), receipt.getStatus());
+                    } else {
+                        writeJsonLine(writer, receipt);
+                    }
+                });
+        log.info("Exported {} worker payment receipts as {} (status={}, from={}, to={})",
+                rows, format, status, startDate, endDate);
+        return rows;
+    }
+
+    @FunctionalInterface
+    private interface RowWriter<T> {
+        void write(T row) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RowSource<T> {
+        long stream(Consumer<T> consumer);
+    }
+
+    /**
+     * Drive the source into the row writer. IO failures are tunnelled out of the consumer
+     * unchecked, which also closes the database cursor, and rethrown as the original exception.
+     */
+    private static <T> long stream(Writer writer, RowSource<T> source, RowWriter<T> rowWriter) throws IOException {
+        long[] written = {0};
+        try {
+            source.stream(row -> {
+                try {
+                    rowWriter.write(row);
+                    if (++written[0] % FLUSH_EVERY_ROWS == 0) {
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return written[0];
+    }
+
+    private void writeJsonLine(Writer writer, Object row) throws IOException {
+        // writeValueAsString rather than writeValue(writer, ...), which would close the response stream
+        writer.write(objectMapper.writeValueAsString(row));
+        writer.write('\n');
+    }
+}
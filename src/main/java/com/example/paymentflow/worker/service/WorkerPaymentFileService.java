@@ -3,10 +3,13 @@ package com.example.paymentflow.worker.service;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Autowired;
 
+import com.example.paymentflow.utilities.file.CsvFieldTokenizer;
 import com.example.paymentflow.utilities.file.FileStorageUtil;
+import com.example.paymentflow.utilities.file.StreamingXlsxReader;
 import com.example.paymentflow.utilities.file.UploadedFile;
 import com.example.paymentflow.utilities.file.UploadedFileRepository;
 import com.shared.utilities.logger.LoggerFactoryProvider;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import org.slf4j.Logger;
@@ -16,11 +19,11 @@ import org.springframework.web.multipart.MultipartFile;
 import java.io.File;
 import java.io.FileInputStream;
 import java.util.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.poi.ss.usermodel.Cell;
 import org.apache.poi.ss.usermodel.DataFormatter;
 import org.apache.poi.ss.usermodel.Row;
-import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.usermodel.DateUtil;
@@ -41,11 +44,20 @@ public class WorkerPaymentFileService {
     private WorkerPaymentService workerPaymentService;
     
     @Autowired
-    private WorkerPaymentReceiptService receiptService;
+    private WorkerPaymentStatusTransitionService statusTransitions;
     
     @Autowired
     private WorkerUploadedDataService workerUploadedDataService;
 
+    @Autowired
+    private WorkerPaymentFileConfig fileConfig;
+
+    @Autowired
+    private WorkerUploadPipeline uploadPipeline;
+
+    @Autowired
+    private ParallelUploadValidationService parallelValidationService;
+
     public Map<String, Object> handleFileUpload(MultipartFile file) {
         log.info("Received file upload: name={}, size={} bytes", file.getOriginalFilename(), file.getSize());
         
@@ -59,31 +71,21 @@ public class WorkerPaymentFileService {
             
             log.info("File saved to {} with fileId: {}", storedPath, fileId);
             
-            // Parse the file and extract worker uploaded data
-            File fileToRead = new File(storedPath);
-            List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = 
-                parseFileToUploadedData(fileToRead, file.getOriginalFilename(), fileId);
-            
-            // Update the uploaded file record with parsing results
-            uploadedFile.setTotalRecords(uploadedDataList.size());
-            uploadedFile.setSuccessCount(0); // Will be updated after validation
-            uploadedFile.setFailureCount(0);
-            uploadedFile.setStatus("UPLOADED");
-            uploadedFileRepository.save(uploadedFile);
-            
-            // Save uploaded data to WorkerUploadedData table
-            List<com.example.paymentflow.worker.entity.WorkerUploadedData> savedData = 
-                workerUploadedDataService.saveAll(uploadedDataList);
+            // Parse, map and bulk-load the file through the staged ingestion pipeline
+            WorkerUploadPipeline.PipelineResult pipelineResult =
+                ingestStoredFile(uploadedFile, file.getOriginalFilename(), false, 0, (writtenRows, failedRows) -> { });
             
             log.info("File {} parsed and {} records saved to WorkerUploadedData (fileId={})", 
-                file.getOriginalFilename(), savedData.size(), fileId);
+                file.getOriginalFilename(), pipelineResult.writtenRows(), fileId);
             
             // Create response map step by step to identify any null values
             Map<String, Object> response = new HashMap<>();
             response.put("fileId", fileId);
-            response.put("message", "File uploaded successfully. " + savedData.size() + " records loaded. Proceed to validation.");
+            response.put("message", "File uploaded successfully. " + pipelineResult.writtenRows() + " records loaded. Proceed to validation.");
             response.put("path", storedPath);
-            response.put("recordCount", savedData.size());
+            response.put("recordCount", pipelineResult.writtenRows());
+            response.put("failedRows", pipelineResult.failedRows());
+            response.put("rowsPerSecond", Math.round(pipelineResult.rowsPerSecond()));
             
             log.info("Returning response: {}", response);
             return response;
@@ -98,6 +100,49 @@ public class WorkerPaymentFileService {
         }
     }
 
+    /**
+     * Parse and persist an already stored upload, skipping rows up to {@code resumeAfterRow} that an
+     * earlier attempt committed, then record the totals on the uploaded file. All of the file's rows
+     * are deleted again if ingestion fails, so a failed upload never leaves a partial file behind.
+     *
+     * @param allSheets read every sheet of a workbook, e.g. one sheet per toli, instead of only the
+     *                  first; ignored for CSV files
+     */
+    public WorkerUploadPipeline.PipelineResult ingestStoredFile(UploadedFile uploadedFile, String originalFilename,
+            boolean allSheets, int resumeAfterRow, WorkerUploadPipeline.ProgressListener listener) throws java.io.IOException {
+        String fileId = uploadedFile.getId().toString();
+        File fileToRead = new File(uploadedFile.getStoredPath());
+        
+        WorkerUploadPipeline.PipelineResult pipelineResult;
+        try {
+            pipelineResult = uploadPipeline.run(fileId,
+                sink -> readRawRows(fileToRead, originalFilename, allSheets, (rowNumber, fields) -> {
+                    if (rowNumber > resumeAfterRow) {
+                        sink.accept(rowNumber, fields);
+                    }
+                }),
+                (fields, rowNumber) -> populateUploadedDataFromFields(fields, fileId, rowNumber),
+                listener);
+        } catch (java.io.IOException | RuntimeException e) {
+            // Batches are committed as they are written, so drop whatever made it in
+            workerUploadedDataService.deleteByFileId(fileId);
+            throw e;
+        }
+        
+        int totalRecords = resumeAfterRow == 0
+            ? pipelineResult.writtenRows()
+            : (int) workerUploadedDataService.countByFileId(fileId);
+        
+        // Update the uploaded file record with parsing results
+        uploadedFile.setTotalRecords(totalRecords);
+        uploadedFile.setSuccessCount(0); // Will be updated after validation
+        uploadedFile.setFailureCount(0);
+        uploadedFile.setStatus("UPLOADED");
+        uploadedFileRepository.save(uploadedFile);
+        
+        return pipelineResult;
+    }
+
     public Map<String, Object> validateFileRecords(String fileId) {
         log.info("Validating records for fileId={}", fileId);
         
@@ -112,35 +157,66 @@ public class WorkerPaymentFileService {
             // Validate uploaded data using the new service
             workerUploadedDataService.validateUploadedData(fileId);
             
-            // Get validation summary
-            Map<String, Integer> summary = workerUploadedDataService.getFileStatusSummary(fileId);
-            int passedCount = summary.getOrDefault("VALIDATED", 0);
-            int failedCount = summary.getOrDefault("REJECTED", 0);
+            return completeValidation(uploadedFileOpt.get(), fileId);
             
-            // Update the uploaded file record with validation results
-            UploadedFile uploadedFile = uploadedFileOpt.get();
-            uploadedFile.setSuccessCount(passedCount);
-            uploadedFile.setFailureCount(failedCount);
-            uploadedFile.setStatus("COMPLETED");
-            uploadedFileRepository.save(uploadedFile);
+        } catch (Exception e) {
+            log.error("Error validating records for fileId={}", fileId, e);
+            return Map.of("error", "Validation failed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Retry the chunks that failed during the last PARALLEL validation run of a file.
+     */
+    public Map<String, Object> retryFailedValidationChunks(String fileId) {
+        log.info("Retrying failed validation chunks for fileId={}", fileId);
+        
+        try {
+            Optional<UploadedFile> uploadedFileOpt = uploadedFileRepository.findById(Long.parseLong(fileId));
             
-            log.info("Validation complete for fileId={}: {} passed, {} failed", fileId, passedCount, failedCount);
+            if (uploadedFileOpt.isEmpty()) {
+                return Map.of("error", "File not found");
+            }
             
-            Map<String, Object> response = new HashMap<>();
-            response.put("passed", passedCount);
-            response.put("failed", failedCount);
-            response.put("status", "COMPLETED");
-            response.put("nextAction", "GENERATE_REQUEST");
-            response.put("message", "Validation completed. " + passedCount + " records passed validation. Ready to generate request.");
+            parallelValidationService.retryFailedChunks(fileId);
             
-            return response;
+            return completeValidation(uploadedFileOpt.get(), fileId);
             
         } catch (Exception e) {
-            log.error("Error validating records for fileId={}", fileId, e);
-            return Map.of("error", "Validation failed: " + e.getMessage());
+            log.error("Error retrying validation chunks for fileId={}", fileId, e);
+            return Map.of("error", "Validation retry failed: " + e.getMessage());
         }
     }
 
+    public Map<String, Object> getValidationProgress(String fileId) {
+        return parallelValidationService.getProgress(fileId)
+            .orElseGet(() -> Map.of("error", "No parallel validation run recorded for fileId " + fileId));
+    }
+
+    private Map<String, Object> completeValidation(UploadedFile uploadedFile, String fileId) {
+        // Get validation summary
+        Map<String, Integer> summary = workerUploadedDataService.getFileStatusSummary(fileId);
+        int passedCount = summary.getOrDefault("VALIDATED", 0);
+        int failedCount = summary.getOrDefault("REJECTED", 0);
+        
+        // Update the uploaded file record with validation results
+        uploadedFile.setSuccessCount(passedCount);
+        uploadedFile.setFailureCount(failedCount);
+        uploadedFile.setStatus("COMPLETED");
+        uploadedFileRepository.save(uploadedFile);
+        
+        log.info("Validation complete for fileId={}: {} passed, {} failed", fileId, passedCount, failedCount);
+        
+        Map<String, Object> response = new HashMap<>();
+        response.put("passed", passedCount);
+        response.put("failed", failedCount);
+        response.put("status", "COMPLETED");
+        response.put("nextAction", "GENERATE_REQUEST");
+        response.put("message", "Validation completed. " + passedCount + " records passed validation. Ready to generate request.");
+        
+        return response;
+    }
+
     public Map<String, Object> getValidationResults(String fileId) {
         log.info("Fetching validation results for fileId={}", fileId);
         
@@ -329,27 +405,18 @@ public class WorkerPaymentFileService {
             for (WorkerPayment payment : payments) {
                 // Only process records that passed validation
                 if ("VALIDATED".equals(payment.getStatus())) {
-                    payment.setStatus("PAYMENT_REQUESTED");
                     toUpdate.add(payment);
                     processedCount++;
                 }
             }
             
-            // Update statuses in bulk
             String receiptNumber = null;
             if (!toUpdate.isEmpty()) {
-                // First, create the receipt for all processed payments
-                WorkerPaymentReceipt receipt = receiptService.createReceipt(toUpdate);
+                // Create the receipt and move its payments to PAYMENT_REQUESTED in one transaction;
+                // if the file changed meanwhile the receipt is rolled back with the payments
+                WorkerPaymentReceipt receipt = statusTransitions.requestFilePayments(fileId, toUpdate);
                 receiptNumber = receipt.getReceiptNumber();
                 
-                // Assign the receipt number to all processed payments
-                for (WorkerPayment payment : toUpdate) {
-                    payment.setReceiptNumber(receiptNumber);
-                }
-                
-                // Update payments with new status and receipt number assignment
-                workerPaymentService.updateBulk(toUpdate);
-                
                 log.info("Generated receipt {} for {} processed payments", receipt.getReceiptNumber(), processedCount);
             }
             
@@ -499,101 +566,116 @@ public class WorkerPaymentFileService {
         return workerPaymentService.findByFileId(fileId);
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseFileToUploadedData(
-            File file, String originalFilename, String fileId) throws java.io.IOException {
+    /**
+     * Read the raw rows of an uploaded file in file order. Row numbers are assigned here, counting
+     * non-empty data rows from 1, so they stay stable regardless of later mapping failures. With
+     * {@code allSheets} the numbering continues across sheets in workbook order, which keeps it
+     * stable for resuming as well.
+     */
+    private void readRawRows(File file, String originalFilename, boolean allSheets,
+            WorkerUploadPipeline.RawRowSink sink)
+            throws java.io.IOException {
         log.info("Parsing file {} to WorkerUploadedData format", originalFilename);
 
         String extension = getFileExtension(originalFilename);
         if ("csv".equalsIgnoreCase(extension)) {
-            return parseCsvToUploadedData(file, fileId);
+            readCsvRows(file, sink);
+            return;
+        }
+        if ("xlsx".equalsIgnoreCase(extension) && fileConfig.isXlsxStreamingEnabled()) {
+            streamXlsxRows(file, allSheets, sink);
+            return;
         }
         if ("xls".equalsIgnoreCase(extension) || "xlsx".equalsIgnoreCase(extension)) {
-            return parseExcelToUploadedData(file, fileId);
+            readExcelRows(file, allSheets, sink);
+            return;
         }
 
         throw new java.io.IOException("Unsupported file type: " + extension);
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseCsvToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
+    private void readCsvRows(File file, WorkerUploadPipeline.RawRowSink sink) throws java.io.IOException {
+        AtomicInteger rowNumber = new AtomicInteger(1);
 
-        try (java.io.BufferedReader br = new java.io.BufferedReader(new java.io.FileReader(file))) {
-            String header = br.readLine();
-            if (header == null) {
-                throw new java.io.IOException("File is empty or invalid");
-            }
-
-            int rowNumber = 1;
-            String line;
-            while ((line = br.readLine()) != null) {
-                if (line.trim().isEmpty()) {
-                    continue;
-                }
-
-                try {
-                    com.example.paymentflow.worker.entity.WorkerUploadedData uploadedData =
-                        parseCSVLineToUploadedData(line, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
-                } catch (Exception e) {
-                    log.error("Error parsing CSV line {}: {}", rowNumber, e.getMessage());
-                }
+        long records = CsvFieldTokenizer.tokenize(file.toPath(), (recordIndex, fields) -> {
+            // Record 0 is the header; blank lines are skipped like the Excel paths do
+            if (recordIndex == 0 || isRowEmpty(fields)) {
+                return;
             }
+            sink.accept(rowNumber.getAndIncrement(), fields);
+        });
+        if (records == 0) {
+            throw new java.io.IOException("File is empty or invalid");
         }
 
-        log.info("Parsed {} records from CSV file", uploadedDataList.size());
-        return uploadedDataList;
+        log.info("Parsed {} rows from CSV file", rowNumber.get() - 1);
     }
 
-    private List<com.example.paymentflow.worker.entity.WorkerUploadedData> parseExcelToUploadedData(
-            File file, String fileId) throws java.io.IOException {
-        List<com.example.paymentflow.worker.entity.WorkerUploadedData> uploadedDataList = new ArrayList<>();
+    private void readExcelRows(File file, boolean allSheets, WorkerUploadPipeline.RawRowSink sink)
+            throws java.io.IOException {
         DataFormatter formatter = new DataFormatter();
+        int rowNumber = 1;
 
         try (FileInputStream fis = new FileInputStream(file); Workbook workbook = WorkbookFactory.create(fis)) {
-            Sheet sheet = workbook.getSheetAt(0);
-            if (sheet == null) {
+            if (workbook.getNumberOfSheets() == 0) {
                 throw new java.io.IOException("No sheet found in uploaded workbook");
             }
 
-            boolean isHeader = true;
-            int rowNumber = 1;
-            for (Row row : sheet) {
-                if (row == null) {
-                    continue;
-                }
-                if (isHeader) {
-                    isHeader = false;
-                    continue;
-                }
-
-                String[] fields = extractExcelRow(row, formatter);
-                if (isRowEmpty(fields)) {
-                    continue;
-                }
+            int sheetCount = allSheets ? workbook.getNumberOfSheets() : 1;
+            for (int sheetIndex = 0; sheetIndex < sheetCount; sheetIndex++) {
+                // Every sheet starts with its own header row
+                boolean isHeader = true;
+                for (Row row : workbook.getSheetAt(sheetIndex)) {
+                    if (row == null) {
+                        continue;
+                    }
+                    if (isHeader) {
+                        isHeader = false;
+                        continue;
+                    }
 
-                try {
-                    com.example.paymentflow.worker.entity.WorkerUploadedData uploadedData =
-                        populateUploadedDataFromFields(fields, fileId, rowNumber++);
-                    uploadedDataList.add(uploadedData);
-                } catch (Exception e) {
-                    log.error("Error parsing Excel row {}: {}", rowNumber, e.getMessage());
+                    String[] fields = extractExcelRow(row, formatter);
+                    if (isRowEmpty(fields)) {
+                        continue;
+                    }
+                    sink.accept(rowNumber++, fields);
                 }
             }
+        } catch (java.io.IOException e) {
+            throw e;
         } catch (Exception e) {
             throw new java.io.IOException("Failed to read Excel file: " + e.getMessage(), e);
         }
 
-        log.info("Parsed {} records from Excel file", uploadedDataList.size());
-        return uploadedDataList;
+        log.info("Parsed {} rows from Excel file", rowNumber - 1);
     }
 
-    private com.example.paymentflow.worker.entity.WorkerUploadedData parseCSVLineToUploadedData(
-            String csvLine, String fileId, int rowNumber) {
-        String[] fields = csvLine.split(",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)", -1);
-        return populateUploadedDataFromFields(fields, fileId, rowNumber);
+    /**
+     * Streams an .xlsx workbook through the OOXML event model so the POI object model for the
+     * sheet is never built. The legacy DOM path in {@link #readExcelRows} is still used for .xls files.
+     */
+    private void streamXlsxRows(File file, boolean allSheets, WorkerUploadPipeline.RawRowSink sink)
+            throws java.io.IOException {
+        AtomicInteger rowNumber = new AtomicInteger(1);
+        AtomicInteger currentSheet = new AtomicInteger(-1);
+
+        StreamingXlsxReader.SheetRowHandler handler = (sheetIndex, rowIndex, fields) -> {
+            // The first physical row of each sheet is its header, same as the DOM path
+            if (currentSheet.getAndSet(sheetIndex) != sheetIndex || isRowEmpty(fields)) {
+                return;
+            }
+            sink.accept(rowNumber.getAndIncrement(), fields);
+        };
+        if (allSheets) {
+            StreamingXlsxReader.readAllSheets(file, 15, handler);
+        } else {
+            StreamingXlsxReader.readFirstSheet(file, 15,
+                    (rowIndex, fields) -> handler.handleRow(0, rowIndex, fields));
+        }
+
+        log.info("Streamed {} rows from Excel file", rowNumber.get() - 1);
     }
-    
+
     private String cleanField(String field) {
         if (field == null) return null;
         // Remove quotes and trim whitespace
@@ -4,7 +4,11 @@ import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.repository.WorkerPaymentReceiptRepository;
 import com.example.paymentflow.worker.dao.WorkerPaymentReceiptQueryDao;
-import com.shared.common.dao.BaseQueryDao.PageResult;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator;
+import com.example.paymentflow.common.reference.ReferenceNumberGenerator.ReferenceType;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider;
 import org.springframework.stereotype.Service;
@@ -12,12 +16,10 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Optional;
-import java.util.function.BiFunction;
-import java.util.function.Predicate;
+import java.util.function.Consumer;
 
 @Service
 @Transactional
@@ -27,35 +29,13 @@ public class WorkerPaymentReceiptService {
     
     private final WorkerPaymentReceiptRepository repository;
     private final WorkerPaymentReceiptQueryDao queryDao;
+    private final ReferenceNumberGenerator referenceNumbers;
 
-    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao) {
+    public WorkerPaymentReceiptService(WorkerPaymentReceiptRepository repository, WorkerPaymentReceiptQueryDao queryDao,
+                                       ReferenceNumberGenerator referenceNumbers) {
         this.repository = repository;
         this.queryDao = queryDao;
-    }
-
-    private static final int FETCH_BATCH_SIZE = 500;
-
-    private <T> List<T> collectAll(BiFunction<Integer, Integer, PageResult<T>> pageSupplier) {
-        return collectAll(pageSupplier, null);
-    }
-
-    private <T> List<T> collectAll(BiFunction<Integer, Integer, PageResult<T>> pageSupplier,
-                                   Predicate<T> filter) {
-        List<T> results = new ArrayList<>();
-        int page = 0;
-        while (true) {
-            var pageResult = pageSupplier.apply(page, FETCH_BATCH_SIZE);
-            List<T> content = pageResult.getContent();
-            if (filter != null) {
-                content = content.stream().filter(filter).toList();
-            }
-            results.addAll(content);
-            if (!pageResult.hasNext()) {
-                break;
-            }
-            page++;
-        }
-        return results;
+        this.referenceNumbers = referenceNumbers;
     }
 
     public WorkerPaymentReceipt createReceipt(List<WorkerPayment> processedPayments) {
@@ -70,13 +50,23 @@ public class WorkerPaymentReceiptService {
                 .map(WorkerPayment::getPaymentAmount)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
         
-        // Generate receipt number
-        String receiptNumber = generateReceiptNumber();
-        
         // Get employer_id and toli_id from the first payment (all payments in a batch should have the same employer/toli)
         WorkerPayment firstPayment = processedPayments.get(0);
-        String employerId = firstPayment.getEmployerId();
-        String toliId = firstPayment.getToliId();
+        return createReceipt(firstPayment.getEmployerId(), firstPayment.getToliId(),
+                processedPayments.size(), totalAmount);
+    }
+
+    /**
+     * Create a receipt from precomputed totals, for callers that aggregate payments in the database
+     * instead of loading them.
+     */
+    public WorkerPaymentReceipt createReceipt(String employerId, String toliId, int totalRecords, BigDecimal totalAmount) {
+        if (totalRecords <= 0) {
+            throw new IllegalArgumentException("Cannot create receipt for empty payment list");
+        }
+        
+        // Generate receipt number
+        String receiptNumber = referenceNumbers.next(ReferenceType.WORKER_RECEIPT);
         
         // Create receipt
         WorkerPaymentReceipt receipt = new WorkerPaymentReceipt();
@@ -84,61 +74,42 @@ public class WorkerPaymentReceiptService {
         receipt.setEmployerId(employerId);
         receipt.setToliId(toliId);
         receipt.setCreatedAt(LocalDateTime.now());
-        receipt.setTotalRecords(processedPayments.size());
+        receipt.setTotalRecords(totalRecords);
         receipt.setTotalAmount(totalAmount);
         receipt.setStatus("PROCESSED"); // Changed from GENERATED to match constraint
         
         // Save receipt first to get ID
         WorkerPaymentReceipt savedReceipt = repository.save(receipt);
         
-        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, processedPayments.size(), totalAmount);
+        log.info("Created receipt {} with {} payments totaling {}", receiptNumber, totalRecords, totalAmount);
         
         return savedReceipt;
     }
     
-    private String generateReceiptNumber() {
-        // Generate receipt number in format: RCP-YYYYMMDD-HHMMSS-XXX
-        // Use retry mechanism to ensure uniqueness
-        String receiptNumber;
-        int maxAttempts = 10;
-        int attempt = 0;
-        
-        do {
-            LocalDateTime now = LocalDateTime.now();
-            String dateTime = now.format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
-            
-            // Use a combination of current nanos and a random component for better uniqueness
-            long nanos = System.nanoTime();
-            int randomComponent = (int) (Math.random() * 1000);
-            String sequence = String.format("%03d", (nanos % 1000 + randomComponent) % 1000);
-            
-            receiptNumber = "RCP-" + dateTime + "-" + sequence;
-            attempt++;
-            
-            // Check if this receipt number already exists in database
-            if (queryDao.findByReceiptNumber(receiptNumber).isEmpty()) {
-                log.info("Generated unique receipt number: {} (attempt {})", receiptNumber, attempt);
-                return receiptNumber;
-            }
-            
-            log.warn("Receipt number {} already exists, retrying... (attempt {})", receiptNumber, attempt);
-            
-            // No artificial delay needed - the next iteration will use a different nanoTime()
-            // and random component, ensuring uniqueness without blocking
-            
-        } while (attempt < maxAttempts);
-        
-        throw new RuntimeException("Failed to generate unique receipt number after " + maxAttempts + " attempts");
-    }
-
     public List<WorkerPaymentReceipt> findByStatus(String status) {
         log.info("Finding worker payment receipts with status: {}", status);
-        return collectAll((page, size) -> queryDao.findByStatus(status, page, size));
+        List<WorkerPaymentReceipt> receipts = new ArrayList<>();
+        queryDao.streamByStatusAndDateRange(status, null, null, receipts::add);
+        return receipts;
     }
 
     public List<WorkerPaymentReceipt> findAll() {
         log.info("Finding all worker payment receipts");
-        return collectAll(queryDao::findAll);
+        List<WorkerPaymentReceipt> receipts = new ArrayList<>();
+        queryDao.streamByStatusAndDateRange(null, null, null, receipts::add);
+        return receipts;
+    }
+
+    /**
+     * Stream receipts to the consumer without materialising them; every filter is optional.
+     *
+     * @return number of receipts streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamByStatusAndDateRange(String status, LocalDateTime startDate, LocalDateTime endDate,
+                                           Consumer<WorkerPaymentReceipt> consumer) {
+        log.info("Streaming worker payment receipts with status: {} between {} and {}", status, startDate, endDate);
+        return queryDao.streamByStatusAndDateRange(status, startDate, endDate, consumer);
     }
 
     public Optional<WorkerPaymentReceipt> findByReceiptNumber(String receiptNumber) {
@@ -166,6 +137,17 @@ public class WorkerPaymentReceiptService {
         return new org.springframework.data.domain.PageImpl<>(pageResult.getContent(), pageable, pageResult.getTotalElements());
     }
 
+    /**
+     * Keyset variant of {@link #findByStatusAndDateRangePaginated}; {@code status} may be empty.
+     */
+    public KeysetPage<WorkerPaymentReceipt> findByStatusAndDateRangeAfter(
+            String status, LocalDateTime startDate, LocalDateTime endDate, KeysetCursor after, int size,
+            RowCountEstimator.CountMode countMode) {
+        log.info("Finding worker payment receipts with status: {} between {} and {} (keyset, count={})",
+                status, startDate, endDate, countMode);
+        return queryDao.findByStatusAndDateRangeAfter(status, startDate, endDate, after, size, countMode);
+    }
+
     public org.springframework.data.domain.Page<WorkerPaymentReceipt> findByDateRangePaginated(
             LocalDateTime startDate, LocalDateTime endDate, org.springframework.data.domain.Pageable pageable) {
         log.info("Finding worker payment receipts between {} and {} (paginated)", startDate, endDate);
@@ -4,11 +4,14 @@ import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.shared.exception.ResourceNotFoundException;
 import com.example.paymentflow.worker.repository.WorkerPaymentRepository;
 import com.example.paymentflow.worker.dao.WorkerPaymentQueryDao;
+import com.example.paymentflow.common.sql.KeysetCursor;
+import com.example.paymentflow.common.sql.KeysetPage;
+import com.example.paymentflow.common.sql.RowCountEstimator;
 import com.shared.common.dao.BaseQueryDao.PageResult; // Uncomment if exists
 import java.util.ArrayList;
 import java.util.List;
 import java.time.LocalDateTime;
-import java.util.function.BiFunction;
+import java.util.function.Consumer;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
 import com.shared.utilities.logger.LoggerFactoryProvider; // Uncomment if exists
@@ -29,8 +32,6 @@ public class WorkerPaymentService {
     private final WorkerPaymentRepository repository;
     private final WorkerPaymentQueryDao workerPaymentQueryDao;
 
-    private static final int FETCH_BATCH_SIZE = 500;
-
     public WorkerPaymentService(WorkerPaymentRepository repository, WorkerPaymentQueryDao workerPaymentQueryDao) {
         this.repository = repository;
         this.workerPaymentQueryDao = workerPaymentQueryDao;
@@ -44,26 +45,13 @@ public class WorkerPaymentService {
         return saved;
     }
 
-    private <T> List<T> collectAll(BiFunction<Integer, Integer, PageResult<T>> pageSupplier) {
-        return collectAll(pageSupplier, null);
-    }
-
-    private <T> List<T> collectAll(BiFunction<Integer, Integer, PageResult<T>> pageSupplier,
-                                   Predicate<T> filter) {
-        List<T> results = new ArrayList<>();
-        int page = 0;
-        while (true) {
-            PageResult<T> pageResult = pageSupplier.apply(page, FETCH_BATCH_SIZE);
-            List<T> content = pageResult.getContent();
-            if (filter != null) {
-                content = content.stream().filter(filter).toList();
+    private List<WorkerPayment> streamToList(String status, String fileId, Predicate<WorkerPayment> filter) {
+        List<WorkerPayment> results = new ArrayList<>();
+        workerPaymentQueryDao.streamWithFilters(status, null, fileId, null, null, payment -> {
+            if (filter == null || filter.test(payment)) {
+                results.add(payment);
             }
-            results.addAll(content);
-            if (!pageResult.hasNext()) {
-                break;
-            }
-            page++;
-        }
+        });
         return results;
     }
 
@@ -91,30 +79,30 @@ public class WorkerPaymentService {
     @Transactional(readOnly = true)
     public List<WorkerPayment> findByStatus(String status) {
         log.info("Finding worker payments with status: {} using query DAO", status);
-        return collectAll((page, size) -> workerPaymentQueryDao.findByStatus(status, page, size));
+        return streamToList(status, null, null);
     }
 
     @Transactional(readOnly = true)
     public List<WorkerPayment> findByReferencePrefixAndStatus(String prefix, String status) {
         log.info("Finding worker payments with reference prefix: {} and status: {} using query DAO", prefix, status);
         if (prefix == null || prefix.isEmpty()) {
-            return collectAll((page, size) -> workerPaymentQueryDao.findWithFilters(status, null, null, null, null, page, size));
+            return streamToList(status, null, null);
         }
         Predicate<WorkerPayment> filter = wp ->
                 wp.getRequestReferenceNumber() != null && wp.getRequestReferenceNumber().startsWith(prefix);
-        return collectAll((page, size) -> workerPaymentQueryDao.findWithFilters(status, null, null, null, null, page, size), filter);
+        return streamToList(status, null, filter);
     }
 
     @Transactional(readOnly = true)
     public List<WorkerPayment> findByFileId(String fileId) {
         log.info("Finding worker payments for fileId: {} using query DAO", fileId);
-        return collectAll((page, size) -> workerPaymentQueryDao.findByFileId(fileId, page, size));
+        return streamToList(null, fileId, null);
     }
 
     @Transactional(readOnly = true)
     public List<WorkerPayment> findByFileIdAndStatus(String fileId, String status) {
         log.info("Finding worker payments for fileId: {} with status: {} using query DAO", fileId, status);
-        return collectAll((page, size) -> workerPaymentQueryDao.findWithFilters(status, null, fileId, null, null, page, size));
+        return streamToList(status, fileId, null);
     }
 
     @Transactional(readOnly = true)
@@ -135,7 +123,19 @@ public class WorkerPaymentService {
     @Transactional(readOnly = true)
     public List<WorkerPayment> findAll() {
         log.info("Retrieving all worker payments using query DAO");
-        return collectAll((page, size) -> workerPaymentQueryDao.findWithFilters(null, null, null, null, null, page, size));
+        return streamToList(null, null, null);
+    }
+
+    /**
+     * Stream payments for a file and/or receipt to the consumer without materialising them.
+     *
+     * @return number of payments streamed
+     */
+    @Transactional(readOnly = true)
+    public long streamByFileIdOrReceiptNumber(String fileId, String receiptNumber, String status,
+                                              Consumer<WorkerPayment> consumer) {
+        log.info("Streaming worker payments for fileId: {}, receiptNumber: {}, status: {}", fileId, receiptNumber, status);
+        return workerPaymentQueryDao.streamWithFilters(status, receiptNumber, fileId, null, null, consumer);
     }
     
     @Transactional(readOnly = true)
@@ -161,6 +161,14 @@ public class WorkerPaymentService {
         return createPageFromPageResult(result, pageable);
     }
     
+    @Transactional(readOnly = true)
+    public List<WorkerPayment> findByReceiptNumberAndStatus(String receiptNumber, String status) {
+        log.info("Finding worker payments with receipt number: {} and status: {} using query DAO", receiptNumber, status);
+        List<WorkerPayment> results = new ArrayList<>();
+        workerPaymentQueryDao.streamWithFilters(status, receiptNumber, null, null, null, results::add);
+        return results;
+    }
+
     @Transactional(readOnly = true)
     public Page<WorkerPayment> findByStatusAndReceiptNumber(
             String status,
@@ -236,6 +244,25 @@ public class WorkerPaymentService {
         return createPageFromPageResult(result, pageable);
     }
     
+    /**
+     * Keyset variant of {@link #findByStatusAndReceiptNumberAndDateRange}: seeks past {@code after}
+     * on (created_at, id) instead of using OFFSET, and only counts as {@code countMode} asks.
+     */
+    @Transactional(readOnly = true)
+    public KeysetPage<WorkerPayment> findByStatusAndReceiptNumberAndDateRangeAfter(
+            String status,
+            String receiptNumber,
+            LocalDateTime startDate,
+            LocalDateTime endDate,
+            KeysetCursor after,
+            int size,
+            RowCountEstimator.CountMode countMode) {
+        log.info("Finding worker payments with status: {}, receipt number: {}, date range: {} to {} (keyset, count={}) using query DAO", 
+                status, receiptNumber, startDate, endDate, countMode);
+        return workerPaymentQueryDao.findWithFiltersAfter(status, receiptNumber, null, startDate, endDate,
+                                                          after, size, countMode);
+    }
+    
     @Transactional(readOnly = true)
     public Page<WorkerPayment> findByUploadedFileRefPaginated(String uploadedFileRef, Pageable pageable) {
         log.info("Finding worker payments by uploaded file ref: {} (paginated) using query DAO", uploadedFileRef);
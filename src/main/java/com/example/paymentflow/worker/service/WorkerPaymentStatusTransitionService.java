@@ -0,0 +1,143 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.WorkerPaymentStatusDao;
+import com.example.paymentflow.worker.entity.WorkerPayment;
+import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Moves worker payments between the stages of the payment flow. Every transition covers all
+ * payments in scope, however many there are, and reports how many it moved; payments not in a
+ * stage's source status are skipped, which makes retrying a transition safe.
+ * <p>
+ * By default payments are saved through JPA so every status change is recorded by the entity
+ * audit listener. With {@code workerpayment.file.bulk-status-transitions-enabled} each transition
+ * is a single UPDATE instead, which emits no entity audit events.
+ */
+@Service
+@Transactional
+public class WorkerPaymentStatusTransitionService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerPaymentStatusTransitionService.class);
+
+    public enum Stage {
+        /** Worker stage: validated payments are requested under a worker receipt. */
+        WORKER(List.of("VALIDATED"), "PAYMENT_REQUESTED"),
+        /** Employer stage: the employer validated or forwarded the worker receipt. */
+        EMPLOYER(List.of("PAYMENT_REQUESTED"), "PAYMENT_INITIATED");
+
+        private final List<String> fromStatuses;
+        private final String toStatus;
+
+        Stage(List<String> fromStatuses, String toStatus) {
+            this.fromStatuses = fromStatuses;
+            this.toStatus = toStatus;
+        }
+
+        public List<String> fromStatuses() {
+            return fromStatuses;
+        }
+
+        public String toStatus() {
+            return toStatus;
+        }
+    }
+
+    public record TransitionResult(Stage stage, String reference, int affectedRows) {
+    }
+
+    private final WorkerPaymentStatusDao statusDao;
+    private final WorkerPaymentService workerPaymentService;
+    private final WorkerPaymentReceiptService receiptService;
+    private final WorkerPaymentFileConfig fileConfig;
+
+    public WorkerPaymentStatusTransitionService(WorkerPaymentStatusDao statusDao,
+            WorkerPaymentService workerPaymentService,
+            WorkerPaymentReceiptService receiptService,
+            WorkerPaymentFileConfig fileConfig) {
+        this.statusDao = statusDao;
+        this.workerPaymentService = workerPaymentService;
+        this.receiptService = receiptService;
+        this.fileConfig = fileConfig;
+    }
+
+    /**
+     * Worker stage: create the worker receipt for the file's validated payments, move them to
+     * PAYMENT_REQUESTED and assign them to the receipt, all in one transaction.
+     *
+     * @param validatedPayments the file's VALIDATED payments the receipt totals are built from
+     * @throws IllegalStateException when the payments moved differ from those the receipt covers,
+     *                               e.g. because the file changed concurrently; nothing is kept
+     */
+    public WorkerPaymentReceipt requestFilePayments(String fileId, List<WorkerPayment> validatedPayments) {
+        WorkerPaymentReceipt receipt = receiptService.createReceipt(validatedPayments);
+        String receiptNumber = receipt.getReceiptNumber();
+
+        int affected;
+        if (fileConfig.isBulkStatusTransitionsEnabled()) {
+            affected = statusDao.transitionByFileId(fileId, Stage.WORKER.fromStatuses(), Stage.WORKER.toStatus(),
+                    receiptNumber);
+        } else {
+            affected = saveTransitioned(validatedPayments, Stage.WORKER, receiptNumber);
+        }
+        if (affected != validatedPayments.size()) {
+            throw new IllegalStateException("Receipt " + receiptNumber + " covers " + validatedPayments.size()
+                    + " payments but " + affected + " were moved to " + Stage.WORKER.toStatus() + " for fileId "
+                    + fileId);
+        }
+        logged(new TransitionResult(Stage.WORKER, fileId, affected));
+        return receipt;
+    }
+
+    /**
+     * Employer stage: move the worker receipt's requested payments to PAYMENT_INITIATED.
+     */
+    public TransitionResult initiateReceiptPayments(String workerReceiptNumber) {
+        int affected;
+        if (fileConfig.isBulkStatusTransitionsEnabled()) {
+            affected = statusDao.transitionByReceiptNumber(workerReceiptNumber, Stage.EMPLOYER.fromStatuses(),
+                    Stage.EMPLOYER.toStatus());
+        } else {
+            affected = 0;
+            for (String fromStatus : Stage.EMPLOYER.fromStatuses()) {
+                affected += saveTransitioned(
+                        workerPaymentService.findByReceiptNumberAndStatus(workerReceiptNumber, fromStatus),
+                        Stage.EMPLOYER, null);
+            }
+        }
+        return logged(new TransitionResult(Stage.EMPLOYER, workerReceiptNumber, affected));
+    }
+
+    /**
+     * Audited path: save each payment through JPA.
+     *
+     * @param receiptNumber receipt to assign, or null to keep the payments' receipt
+     */
+    private int saveTransitioned(List<WorkerPayment> payments, Stage stage, String receiptNumber) {
+        List<WorkerPayment> moved = new ArrayList<>(payments.size());
+        for (WorkerPayment payment : payments) {
+            if (stage.fromStatuses().contains(payment.getStatus())) {
+                payment.setStatus(stage.toStatus());
+                if (receiptNumber != null) {
+                    payment.setReceiptNumber(receiptNumber);
+                }
+                moved.add(payment);
+            }
+        }
+        workerPaymentService.updateBulk(moved);
+        return moved.size();
+    }
+
+    private static TransitionResult logged(TransitionResult result) {
+        log.info("{} stage moved {} worker payments of {} to {}", result.stage(), result.affectedRows(),
+                result.reference(), result.stage().toStatus());
+        return result;
+    }
+}
@@ -0,0 +1,262 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.utilities.file.FileStorageUtil;
+import com.example.paymentflow.utilities.file.PathMultipartFile;
+import com.example.paymentflow.utilities.file.UploadedFile;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadJob;
+import com.example.paymentflow.worker.repository.WorkerUploadJobRepository;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import org.slf4j.Logger;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipInputStream;
+
+/**
+ * Accepts a ZIP archive of worker payment files, typically one workbook per employer with a sheet
+ * per toli, and turns every member into its own stored {@link UploadedFile} and upload job.
+ * <p>
+ * The archive is first extracted to a temporary directory, checking the member count and total
+ * uncompressed size as it streams, so an oversized archive is rejected before anything is stored.
+ * Each member is then stored and queued on the upload job executor under a shared batch id: the
+ * members are parsed and bulk inserted concurrently, as many at a time as the executor has
+ * threads, while the sheets of one workbook are read in order so row numbers stay stable for
+ * resuming. Members that cannot be stored or queued, e.g. duplicates of earlier uploads, are
+ * reported and do not fail the rest of the batch.
+ */
+@Service
+public class WorkerUploadBatchService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadBatchService.class);
+
+    private static final int COPY_BUFFER_SIZE = 64 * 1024;
+
+    private static final Map<String, String> CONTENT_TYPES = Map.of(
+            "csv", "text/csv",
+            "xls", "application/vnd.ms-excel",
+            "xlsx", "application/vnd.openxmlformats-officedocument.spreadsheetml.sheet");
+
+    public record RejectedMember(String fileName, String reason) {
+    }
+
+    public record BatchSubmission(String batchId, List<WorkerUploadJob> jobs, List<RejectedMember> rejected) {
+    }
+
+    private record ExtractedMember(String fileName, Path path, long size) {
+    }
+
+    private final WorkerUploadJobService jobService;
+    private final WorkerUploadJobRepository jobRepository;
+    private final FileStorageUtil fileStorageUtil;
+    private final WorkerPaymentFileConfig fileConfig;
+
+    public WorkerUploadBatchService(WorkerUploadJobService jobService,
+            WorkerUploadJobRepository jobRepository,
+            FileStorageUtil fileStorageUtil,
+            WorkerPaymentFileConfig fileConfig) {
+        this.jobService = jobService;
+        this.jobRepository = jobRepository;
+        this.fileStorageUtil = fileStorageUtil;
+        this.fileConfig = fileConfig;
+    }
+
+    /**
+     * Store every supported member of the archive and queue a job for it. Returns as soon as the
+     * jobs exist.
+     *
+     * @throws IllegalArgumentException when the archive holds no supported files or exceeds the
+     *                                  configured limits
+     */
+    public BatchSubmission submit(MultipartFile archive, boolean validateOnUpload) throws IOException {
+        String batchId = UUID.randomUUID().toString();
+        List<RejectedMember> rejected = new ArrayList<>();
+        Path workDir = Files.createTempDirectory("worker-upload-batch-");
+        try {
+            List<ExtractedMember> members = extract(archive, workDir, rejected);
+            if (members.isEmpty()) {
+                throw new IllegalArgumentException("Archive contains no .csv, .xls or .xlsx files");
+            }
+
+            List<WorkerUploadJob> jobs = new ArrayList<>(members.size());
+            for (ExtractedMember member : members) {
+                String fileName = UUID.randomUUID().toString() + "_" + member.fileName();
+                try {
+                    UploadedFile uploadedFile = fileStorageUtil.storeFileAndReturnEntity(
+                            new PathMultipartFile(member.path(), member.fileName(), contentType(member.fileName())),
+                            "workerpayments", fileName);
+                    jobs.add(jobService.queue(uploadedFile, member.fileName(), member.size(), validateOnUpload,
+                            batchId));
+                } catch (IOException e) {
+                    log.warn("Skipping {} of upload batch {}: {}", member.fileName(), batchId, e.getMessage());
+                    rejected.add(new RejectedMember(member.fileName(), e.getMessage()));
+                } catch (RuntimeException e) {
+                    // Earlier members are already stored and queued, so report this one and keep
+                    // the batch id reachable rather than failing the whole request
+                    log.error("Could not queue {} of upload batch {}", member.fileName(), batchId, e);
+                    rejected.add(new RejectedMember(member.fileName(), "Could not store or queue the file."));
+                }
+            }
+
+            log.info("Queued upload batch {} from {}: {} files queued, {} rejected", batchId,
+                    archive.getOriginalFilename(), jobs.size(), rejected.size());
+            return new BatchSubmission(batchId, jobs, rejected);
+        } finally {
+            deleteRecursively(workDir);
+        }
+    }
+
+    /**
+     * Aggregate progress of a batch: phase counts, rows processed and failed across its files, and
+     * the status of each file.
+     */
+    public Optional<Map<String, Object>> getBatchStatus(String batchId) {
+        List<WorkerUploadJob> jobs = jobRepository.findByBatchIdOrderByIdAsc(batchId);
+        if (jobs.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<WorkerUploadJob.Phase, Integer> phaseCounts = new EnumMap<>(WorkerUploadJob.Phase.class);
+        long rowsProcessed = 0;
+        long failedRows = 0;
+        List<Map<String, Object>> files = new ArrayList<>(jobs.size());
+        for (WorkerUploadJob job : jobs) {
+            phaseCounts.merge(job.getPhase(), 1, Integer::sum);
+            rowsProcessed += job.getRowsProcessed();
+            failedRows += job.getFailedRows();
+
+            Map<String, Object> file = new LinkedHashMap<>();
+            file.put("jobId", job.getId());
+            file.put("fileId", job.getFileId());
+            file.put("fileName", job.getOriginalFilename());
+            file.put("phase", job.getPhase());
+            file.put("rowsProcessed", job.getRowsProcessed());
+            file.put("failedRows", job.getFailedRows());
+            file.put("errorMessage", job.getErrorMessage());
+            files.add(file);
+        }
+
+        int finished = phaseCounts.getOrDefault(WorkerUploadJob.Phase.COMPLETED, 0)
+                + phaseCounts.getOrDefault(WorkerUploadJob.Phase.FAILED, 0);
+        boolean done = finished == jobs.size();
+        String phase;
+        if (!done) {
+            phase = phaseCounts.getOrDefault(WorkerUploadJob.Phase.QUEUED, 0) == jobs.size() ? "QUEUED" : "RUNNING";
+        } else {
+            phase = phaseCounts.containsKey(WorkerUploadJob.Phase.FAILED) ? "COMPLETED_WITH_FAILURES" : "COMPLETED";
+        }
+
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("batchId", batchId);
+        status.put("phase", phase);
+        status.put("totalFiles", jobs.size());
+        status.put("finishedFiles", finished);
+        status.put("phaseCounts", phaseCounts);
+        status.put("rowsProcessed", rowsProcessed);
+        status.put("failedRows", failedRows);
+        status.put("startedAt", jobs.stream().map(WorkerUploadJob::getStartedAt).filter(Objects::nonNull)
+                .min(Comparator.naturalOrder()).orElse(null));
+        status.put("completedAt", done ? jobs.stream().map(WorkerUploadJob::getCompletedAt)
+                .filter(Objects::nonNull).max(Comparator.<LocalDateTime>naturalOrder()).orElse(null) : null);
+        status.put("files", files);
+        return Optional.of(status);
+    }
+
+    /**
+     * Copy the supported members of the archive into {@code workDir}. Directories, hidden files and
+     * macOS resource forks are skipped silently; other unsupported or empty members are rejected.
+     */
+    private List<ExtractedMember> extract(MultipartFile archive, Path workDir, List<RejectedMember> rejected)
+            throws IOException {
+        int maxFiles = Math.max(1, fileConfig.getBatchUploadMaxFiles());
+        long remainingBytes = fileConfig.getBatchUploadMaxBytes();
+        List<ExtractedMember> members = new ArrayList<>();
+        byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+        try (ZipInputStream zip = new ZipInputStream(archive.getInputStream())) {
+            ZipEntry entry;
+            while ((entry = zip.getNextEntry()) != null) {
+                String entryName = entry.getName();
+                String fileName = entryName.substring(Math.max(entryName.lastIndexOf('/'),
+                        entryName.lastIndexOf('\\')) + 1);
+                if (entry.isDirectory() || fileName.isEmpty() || fileName.startsWith(".")
+                        || entryName.startsWith("__MACOSX/")) {
+                    continue;
+                }
+                String extension = extension(fileName);
+                if (!CONTENT_TYPES.containsKey(extension)) {
+                    rejected.add(new RejectedMember(fileName, "Only .csv, .xls, and .xlsx files are allowed."));
+                    continue;
+                }
+                if (members.size() == maxFiles) {
+                    throw new IllegalArgumentException("Archive contains more than " + maxFiles + " files");
+                }
+
+                // Members are written under generated names, so entry paths never leave workDir
+                Path target = workDir.resolve(members.size() + "." + extension);
+                long size = 0;
+                try (OutputStream out = Files.newOutputStream(target)) {
+                    int read;
+                    while ((read = zip.read(buffer)) != -1) {
+                        size += read;
+                        if (size > remainingBytes) {
+                            throw new IllegalArgumentException("Archive expands to more than "
+                                    + fileConfig.getBatchUploadMaxBytes() + " bytes");
+                        }
+                        out.write(buffer, 0, read);
+                    }
+                }
+                remainingBytes -= size;
+
+                if (size == 0) {
+                    Files.delete(target);
+                    rejected.add(new RejectedMember(fileName, "Uploaded file is empty."));
+                    continue;
+                }
+                members.add(new ExtractedMember(fileName, target, size));
+            }
+        }
+        return members;
+    }
+
+    private static String extension(String fileName) {
+        int dot = fileName.lastIndexOf('.');
+        return dot < 0 ? "" : fileName.substring(dot + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private static String contentType(String fileName) {
+        return CONTENT_TYPES.get(extension(fileName));
+    }
+
+    private static void deleteRecursively(Path dir) {
+        try (Stream<Path> paths = Files.walk(dir)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException e) {
+                    log.warn("Could not delete temporary batch file {}: {}", path, e.getMessage());
+                }
+            });
+        } catch (IOException e) {
+            log.warn("Could not clean up temporary batch directory {}: {}", dir, e.getMessage());
+        }
+    }
+}
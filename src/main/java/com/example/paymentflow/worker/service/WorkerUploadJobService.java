@@ -0,0 +1,315 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.utilities.file.FileStorageUtil;
+import com.example.paymentflow.utilities.file.UploadedFile;
+import com.example.paymentflow.utilities.file.UploadedFileRepository;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.config.WorkerUploadExecutorConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadJob;
+import com.example.paymentflow.worker.repository.WorkerUploadJobRepository;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.security.concurrent.DelegatingSecurityContextRunnable;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.EnumSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * Runs worker payment uploads as background jobs. The request thread only stores the file and
+ * records a QUEUED job; parsing, persisting and optional validation run on the upload job executor
+ * while the job row tracks phase, progress and throughput for polling.
+ * <p>
+ * A running job's {@code updated_at} doubles as a heartbeat: it is bumped on a fixed interval for
+ * the whole run, validation included, as well as by every committed batch. On startup unfinished
+ * jobs whose heartbeat is older than {@code workerpayment.file.upload-job-stale-minutes} are
+ * claimed with a conditional update, so only one instance handles each job, and marked FAILED:
+ * the background inserts depend on the submitting user's security context for RLS, which does
+ * not survive a restart. The user can resume such a job with {@link #resume}, which runs it under
+ * their own context and restarts parsing after the highest row already persisted for the file.
+ * Dispatching claims the job by moving it out of QUEUED, so a job queued twice still runs once.
+ * <p>
+ * Job ids are sequential, so status and resume only see jobs submitted by the calling user.
+ */
+@Service
+public class WorkerUploadJobService {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadJobService.class);
+
+    static final String INTERRUPTED_MESSAGE =
+            "Upload job was interrupted by a service restart; resume it to continue after the last persisted row";
+
+    private static final EnumSet<WorkerUploadJob.Phase> ACTIVE_PHASES = EnumSet.of(
+            WorkerUploadJob.Phase.QUEUED, WorkerUploadJob.Phase.PARSING, WorkerUploadJob.Phase.VALIDATING);
+
+    private final WorkerUploadJobRepository jobRepository;
+    private final UploadedFileRepository uploadedFileRepository;
+    private final FileStorageUtil fileStorageUtil;
+    private final WorkerPaymentFileService fileService;
+    private final WorkerUploadedDataService uploadedDataService;
+    private final WorkerPaymentFileConfig fileConfig;
+    private final TaskExecutor executor;
+    private final ScheduledExecutorService heartbeats = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "worker-upload-job-heartbeat");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public WorkerUploadJobService(WorkerUploadJobRepository jobRepository,
+            UploadedFileRepository uploadedFileRepository,
+            FileStorageUtil fileStorageUtil,
+            WorkerPaymentFileService fileService,
+            WorkerUploadedDataService uploadedDataService,
+            WorkerPaymentFileConfig fileConfig,
+            @Qualifier(WorkerUploadExecutorConfig.WORKER_UPLOAD_JOB_EXECUTOR) TaskExecutor executor) {
+        this.jobRepository = jobRepository;
+        this.uploadedFileRepository = uploadedFileRepository;
+        this.fileStorageUtil = fileStorageUtil;
+        this.fileService = fileService;
+        this.uploadedDataService = uploadedDataService;
+        this.fileConfig = fileConfig;
+        this.executor = executor;
+    }
+
+    /**
+     * Store the upload and queue a job for it. Returns as soon as the job row exists.
+     */
+    public WorkerUploadJob submit(MultipartFile file, boolean validateOnUpload) throws IOException {
+        String fileName = UUID.randomUUID().toString() + "_" + file.getOriginalFilename();
+        UploadedFile uploadedFile = fileStorageUtil.storeFileAndReturnEntity(file, "workerpayments", fileName);
+        return queue(uploadedFile, file.getOriginalFilename(), file.getSize(), validateOnUpload, null);
+    }
+
+    /**
+     * Queue a job for a file that is already stored. Jobs with a {@code batchId} belong to an
+     * archive upload and read every sheet of their workbook.
+     */
+    WorkerUploadJob queue(UploadedFile uploadedFile, String originalFilename, long size, boolean validateOnUpload,
+            String batchId) {
+        LocalDateTime now = now();
+        WorkerUploadJob job = new WorkerUploadJob();
+        job.setFileId(uploadedFile.getId().toString());
+        job.setOriginalFilename(originalFilename);
+        job.setStoredPath(uploadedFile.getStoredPath());
+        job.setBatchId(batchId);
+        job.setSubmittedBy(currentUser());
+        job.setPhase(WorkerUploadJob.Phase.QUEUED);
+        job.setValidateOnUpload(validateOnUpload);
+        job.setCreatedAt(now);
+        job.setUpdatedAt(now);
+        job = jobRepository.save(job);
+
+        log.info("Queued upload job {} for fileId {} ({} bytes, validate={}, batch={})", job.getId(),
+                job.getFileId(), size, validateOnUpload, batchId);
+        dispatch(job.getId());
+        return job;
+    }
+
+    /**
+     * Queue a failed job of the calling user again under their security context. Rows an earlier
+     * attempt persisted are kept and parsing continues after them.
+     *
+     * @return the queued job, or empty when the caller has no such job
+     * @throws IllegalStateException when the job has not failed, e.g. because it was just resumed
+     */
+    public Optional<WorkerUploadJob> resume(Long jobId) {
+        if (findOwnJob(jobId).isEmpty()) {
+            return Optional.empty();
+        }
+        if (jobRepository.requeue(jobId, WorkerUploadJob.Phase.FAILED, WorkerUploadJob.Phase.QUEUED, now()) == 0) {
+            WorkerUploadJob.Phase phase = jobRepository.findById(jobId).map(WorkerUploadJob::getPhase).orElse(null);
+            throw new IllegalStateException("Only failed upload jobs can be resumed; job " + jobId + " is " + phase);
+        }
+        WorkerUploadJob job = jobRepository.findById(jobId)
+                .orElseThrow(() -> new IllegalStateException("Upload job disappeared while resuming: " + jobId));
+
+        log.info("Resuming upload job {} for fileId {} as {}", jobId, job.getFileId(), currentUser());
+        dispatch(jobId);
+        return Optional.of(job);
+    }
+
+    /**
+     * Status of one of the calling user's jobs; jobs of other users are reported as missing.
+     */
+    public Optional<Map<String, Object>> getJobStatus(Long jobId) {
+        return findOwnJob(jobId).map(job -> {
+    /**
+     * Fail jobs abandoned by a previous instance, e.g. after a pod restart mid-upload. They are
+     * not run here because no user's security context is available at startup.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void failStaleJobs() {
+        LocalDateTime staleBefore = now().minusMinutes(staleMinutes());
+        List<WorkerUploadJob> staleJobs = jobRepository.findByPhaseInAndUpdatedAtBefore(ACTIVE_PHASES, staleBefore);
+        if (staleJobs.isEmpty()) {
+            return;
+        }
+        int failed = 0;
+        for (WorkerUploadJob job : staleJobs) {
+            if (jobRepository.claim(job.getId(), job.getPhase(), WorkerUploadJob.Phase.FAILED,
+                    job.getUpdatedAt(), now()) == 0) {
+                continue;
+            }
+            updateJob(job.getId(), j -> {
+                j.setErrorMessage(INTERRUPTED_MESSAGE);
+                j.setCompletedAt(j.getUpdatedAt());
+            });
+            failed++;
+        }
+        log.warn("Marked {} interrupted worker upload jobs as failed; they can be resumed by their users", failed);
+    }
+
+    @PreDestroy
+    void stopHeartbeats() {
+        heartbeats.shutdownNow();
+    }
+
+    private void dispatch(Long jobId) {
+        // Keep the calling user's context so RLS applies to the background inserts
+        executor.execute(new DelegatingSecurityContextRunnable(() -> runJob(jobId),
+                SecurityContextHolder.getContext()));
+    }
+
+    void runJob(Long jobId) {
+        Optional<WorkerUploadJob> found = jobRepository.findById(jobId);
+        if (found.isEmpty() || found.get().getPhase() != WorkerUploadJob.Phase.QUEUED) {
+            return;
+        }
+        WorkerUploadJob job = found.get();
+        // Moving the job out of QUEUED makes a second dispatch of the same job lose its claim
+        if (jobRepository.claim(jobId, WorkerUploadJob.Phase.QUEUED, WorkerUploadJob.Phase.PARSING,
+                job.getUpdatedAt(), now()) == 0) {
+            log.info("Upload job {} was claimed by another worker, skipping", jobId);
+            return;
+        }
+
+        String fileId = job.getFileId();
+        // Parsing a large sheet or validating can run for a long time without committing a batch
+        long heartbeatSeconds = Math.max(15, staleMinutes() * 60L / 4);
+        ScheduledFuture<?> heartbeat = heartbeats.scheduleWithFixedDelay(
+                () -> heartbeat(jobId), heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+        try {
+            UploadedFile uploadedFile = uploadedFileRepository.findById(Long.parseLong(fileId))
+                    .orElseThrow(() -> new IllegalStateException("Uploaded file not found: " + fileId));
+
+            ingest(jobId, uploadedFile, job.getOriginalFilename(), job.getBatchId() != null);
+
+            if (job.isValidateOnUpload()) {
+                updateJob(jobId, j -> j.setPhase(WorkerUploadJob.Phase.VALIDATING));
+                Map<String, Object> validation = fileService.validateFileRecords(fileId);
+                if (validation.containsKey("error")) {
+                    throw new IllegalStateException(String.valueOf(validation.get("error")));
+                }
+            }
+
+            updateJob(jobId, j -> {
+                j.setPhase(WorkerUploadJob.Phase.COMPLETED);
+                j.setCompletedAt(j.getUpdatedAt());
+            });
+            log.info("Upload job {} for fileId {} completed", jobId, fileId);
+        } catch (Exception e) {
+            log.error("Upload job {} for fileId {} failed", jobId, fileId, e);
+            updateJob(jobId, j -> {
+                j.setPhase(WorkerUploadJob.Phase.FAILED);
+                j.setErrorMessage(e.getMessage());
+                j.setCompletedAt(j.getUpdatedAt());
+            });
+        } finally {
+            heartbeat.cancel(false);
+        }
+    }
+
+    private void heartbeat(Long jobId) {
+        try {
+            jobRepository.heartbeat(jobId, ACTIVE_PHASES, now());
+        } catch (RuntimeException e) {
+            // A missed beat only matters if the job stays silent for the whole stale window
+            log.warn("Could not record heartbeat of upload job {}: {}", jobId, e.getMessage());
+        }
+    }
+
+    private int staleMinutes() {
+        return Math.max(1, fileConfig.getUploadJobStaleMinutes());
+    }
+
+    private Optional<WorkerUploadJob> findOwnJob(Long jobId) {
+        String user = currentUser();
+        return jobRepository.findById(jobId)
+                .filter(job -> user != null && user.equals(job.getSubmittedBy()));
+    }
+
+    private static String currentUser() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : null;
+    }
+
+    private void ingest(Long jobId, UploadedFile uploadedFile, String originalFilename, boolean allSheets)
+            throws IOException {
+        String fileId = uploadedFile.getId().toString();
+        int resumeAfterRow = uploadedDataService.findLastPersistedRowNumber(fileId);
+        long alreadyPersisted = resumeAfterRow == 0 ? 0 : uploadedDataService.countByFileId(fileId);
+        if (resumeAfterRow > 0) {
+            log.info("Resuming upload job {} for fileId {} after row {} ({} rows already persisted)",
+                    jobId, fileId, resumeAfterRow, alreadyPersisted);
+        }
+
+        updateJob(jobId, j -> {
+            j.setPhase(WorkerUploadJob.Phase.PARSING);
+            if (j.getStartedAt() == null) {
+                j.setStartedAt(j.getUpdatedAt());
+            }
+        });
+
+        WorkerUploadPipeline.PipelineResult result = fileService.ingestStoredFile(uploadedFile, originalFilename,
+                allSheets, resumeAfterRow, (writtenRows, failedRows) -> jobRepository.updateProgress(
+                        jobId, alreadyPersisted + writtenRows, failedRows, now()));
+
+        updateJob(jobId, j -> {
+            j.setRowsProcessed(alreadyPersisted + result.writtenRows());
+            j.setFailedRows(result.failedRows());
+            j.setRowsPerSecond(BigDecimal.valueOf(result.rowsPerSecond()).setScale(2, RoundingMode.HALF_UP));
+        });
+    }
+
+    /**
+     * Reload, mutate and save the job so progress written by {@code updateProgress} is never
+     * overwritten with stale values.
+     */
+    private void updateJob(Long jobId, Consumer<WorkerUploadJob> change) {
+        jobRepository.findById(jobId).ifPresent(job -> {
+            job.setUpdatedAt(now());
+            change.accept(job);
+            jobRepository.save(job);
+        });
+    }
+
+    /**
+     * Timestamps are truncated to the database precision so a value read back compares equal in
+     * {@link WorkerUploadJobRepository#claim}.
+     */
+    private static LocalDateTime now() {
+        return LocalDateTime.now().truncatedTo(ChronoUnit.MICROS);
+    }
+}
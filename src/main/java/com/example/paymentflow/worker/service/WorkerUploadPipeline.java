@@ -0,0 +1,331 @@
+package com.example.paymentflow.worker.service;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.config.WorkerUploadExecutorConfig;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+import com.shared.utilities.logger.LoggerFactoryProvider;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Three-stage ingestion pipeline for worker payment uploads: parse, map/clean and batch write.
+ * Stages are connected by bounded queues so parsing and database writes overlap and a slow
+ * database applies backpressure to the reader instead of letting parsed rows pile up on the heap.
+ * <p>
+ * Parse and map run on the upload executor; the write stage runs on the calling thread so the
+ * inserts keep the caller's security and RLS context. A run reserves two executor threads before
+ * it submits its stages, so concurrent uploads wait for capacity instead of filling the pool with
+ * parse stages whose map stages can never start.
+ */
+@Component
+public class WorkerUploadPipeline {
+
+    private static final Logger log = LoggerFactoryProvider.getLogger(WorkerUploadPipeline.class);
+
+    private static final long POLL_MILLIS = 100;
+
+    private static final RawRow END_OF_ROWS = new RawRow(-1, null);
+    private static final WorkerUploadedData END_OF_DATA = new WorkerUploadedData();
+
+    /**
+     * Reads raw rows from an uploaded file and hands each one to the sink in file order.
+     */
+    @FunctionalInterface
+    public interface RowSource {
+        void read(RawRowSink sink) throws IOException;
+    }
+
+    @FunctionalInterface
+    public interface RawRowSink {
+        void accept(int rowNumber, String[] fields);
+    }
+
+    /**
+     * Maps a raw row into an entity. Runtime exceptions reject only that row.
+     */
+    @FunctionalInterface
+    public interface RowMapper {
+        WorkerUploadedData map(String[] fields, int rowNumber);
+    }
+
+    /**
+     * Notified on the write thread after every committed batch, with running totals for the run.
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onBatchWritten(int writtenRows, int failedRows);
+    }
+
+    public record RawRow(int rowNumber, String[] fields) {
+    }
+
+    public record PipelineResult(int parsedRows, int mappedRows, int failedRows, int writtenRows,
+            int batches, long elapsedMillis) {
+
+        public double rowsPerSecond() {
+            return elapsedMillis <= 0 ? writtenRows : writtenRows * 1000.0 / elapsedMillis;
+        }
+    }
+
+    private final WorkerUploadedDataBulkDao bulkDao;
+    private final WorkerPaymentFileConfig fileConfig;
+    private final AsyncTaskExecutor executor;
+    /** One permit per upload executor thread; each run holds two while its stages are live. */
+    private final Semaphore stageThreads;
+
+    private final Counter parsedCounter;
+    private final Counter mappedCounter;
+    private final Counter failedCounter;
+    private final Counter writtenCounter;
+    private final Timer writeTimer;
+    private final Timer pipelineTimer;
+    private final AtomicInteger rawQueueDepth = new AtomicInteger();
+    private final AtomicInteger mappedQueueDepth = new AtomicInteger();
+
+    public WorkerUploadPipeline(WorkerUploadedDataBulkDao bulkDao,
+            WorkerPaymentFileConfig fileConfig,
+            @Qualifier(WorkerUploadExecutorConfig.WORKER_UPLOAD_EXECUTOR) AsyncTaskExecutor executor,
+            MeterRegistry meterRegistry) {
+        this.bulkDao = bulkDao;
+        this.fileConfig = fileConfig;
+        this.executor = executor;
+        this.stageThreads = new Semaphore(WorkerUploadExecutorConfig.pipelineThreads(fileConfig));
+
+        this.parsedCounter = stageCounter(meterRegistry, "parse");
+        this.mappedCounter = stageCounter(meterRegistry, "map");
+        this.writtenCounter = stageCounter(meterRegistry, "write");
+        this.failedCounter = Counter.builder("worker.upload.pipeline.rows.failed")
+                .description("Rows rejected by the map stage")
+                .register(meterRegistry);
+        this.writeTimer = Timer.builder("worker.upload.pipeline.batch.write")
+                .description("Time spent writing one batch of uploaded rows")
+                .register(meterRegistry);
+        this.pipelineTimer = Timer.builder("worker.upload.pipeline.duration")
+                .description("End-to-end duration of an upload ingestion run")
+                .register(meterRegistry);
+        Gauge.builder("worker.upload.pipeline.queue.depth", rawQueueDepth, AtomicInteger::get)
+                .description("Rows waiting between the parse and map stages")
+                .tag("queue", "parsed")
+                .register(meterRegistry);
+        Gauge.builder("worker.upload.pipeline.queue.depth", mappedQueueDepth, AtomicInteger::get)
+                .description("Rows waiting between the map and write stages")
+                .tag("queue", "mapped")
+                .register(meterRegistry);
+    }
+
+    private static Counter stageCounter(MeterRegistry meterRegistry, String stage) {
+        return Counter.builder("worker.upload.pipeline.rows")
+                .description("Rows processed by each upload ingestion stage")
+                .tag("stage", stage)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the pipeline to completion. Rows already written are left in place when a stage fails;
+     * callers are expected to clean up by file id.
+     */
+    public PipelineResult run(String fileId, RowSource source, RowMapper mapper) throws IOException {
+        return run(fileId, source, mapper, (writtenRows, failedRows) -> { });
+    }
+
+    /**
+     * Run the pipeline to completion, reporting progress after each committed batch.
+     */
+    public PipelineResult run(String fileId, RowSource source, RowMapper mapper, ProgressListener listener)
+            throws IOException {
+        int capacity = Math.max(1, fileConfig.getPipelineQueueCapacity());
+        int batchSize = Math.max(1, fileConfig.getInsertBatchSize());
+        BlockingQueue<RawRow> rawQueue = new ArrayBlockingQueue<>(capacity);
+        BlockingQueue<WorkerUploadedData> mappedQueue = new ArrayBlockingQueue<>(capacity);
+        AtomicBoolean aborted = new AtomicBoolean();
+        AtomicInteger parsed = new AtomicInteger();
+        AtomicInteger mapped = new AtomicInteger();
+        AtomicInteger failed = new AtomicInteger();
+        long start = System.nanoTime();
+
+        try {
+            stageThreads.acquire(2);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Upload ingestion interrupted", e);
+        }
+
+        Future<?> parseStage = null;
+        Future<?> mapStage = null;
+        int written = 0;
+        int batches = 0;
+        try {
+            parseStage = executor.submit(() -> {
+                try {
+                    source.read((rowNumber, fields) -> {
+                        enqueueOrAbort(rawQueue, new RawRow(rowNumber, fields), rawQueueDepth, aborted);
+                        parsed.incrementAndGet();
+                        parsedCounter.increment();
+                    });
+                } finally {
+                    enqueue(rawQueue, END_OF_ROWS, rawQueueDepth, aborted);
+                }
+                return null;
+            });
+
+            mapStage = executor.submit(() -> {
+                try {
+                    RawRow row;
+                    while ((row = take(rawQueue, rawQueueDepth, aborted)) != null && row != END_OF_ROWS) {
+                        WorkerUploadedData data;
+                        try {
+                            data = mapper.map(row.fields(), row.rowNumber());
+                        } catch (RuntimeException e) {
+                            failed.incrementAndGet();
+                            failedCounter.increment();
+                            log.error("Error mapping uploaded row {} for fileId {}: {}", row.rowNumber(), fileId,
+                                    e.getMessage());
+                            continue;
+                        }
+                        if (!enqueue(mappedQueue, data, mappedQueueDepth, aborted)) {
+                            break;
+                        }
+                        mapped.incrementAndGet();
+                        mappedCounter.increment();
+                    }
+                } finally {
+                    enqueue(mappedQueue, END_OF_DATA, mappedQueueDepth, aborted);
+                }
+                return null;
+            });
+
+            List<WorkerUploadedData> batch = new ArrayList<>(batchSize);
+            WorkerUploadedData data;
+            while ((data = take(mappedQueue, mappedQueueDepth, aborted)) != null && data != END_OF_DATA) {
+                batch.add(data);
+                if (batch.size() >= batchSize) {
+                    written += writeBatch(batch);
+                    batches++;
+                    listener.onBatchWritten(written, failed.get());
+                }
+            }
+            if (!batch.isEmpty()) {
+                written += writeBatch(batch);
+                batches++;
+                listener.onBatchWritten(written, failed.get());
+            }
+            awaitStage(parseStage, "parse");
+            awaitStage(mapStage, "map");
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            abort(aborted, parseStage, mapStage);
+            throw new IOException("Upload ingestion interrupted", e);
+        } catch (RejectedExecutionException e) {
+            abort(aborted, parseStage, mapStage);
+            throw new IOException("Upload executor rejected a pipeline stage", e);
+        } catch (IOException | RuntimeException e) {
+            abort(aborted, parseStage, mapStage);
+            throw e;
+        } finally {
+            // Aborted stages notice the flag within a poll interval, so the threads free up promptly
+            stageThreads.release(2);
+            // Queues are discarded with the run; keep the shared gauges honest
+            rawQueueDepth.addAndGet(-rawQueue.size());
+            mappedQueueDepth.addAndGet(-mappedQueue.size());
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        pipelineTimer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        PipelineResult result = new PipelineResult(parsed.get(), mapped.get(), failed.get(), written, batches,
+                elapsedNanos / 1_000_000);
+        log.info("Upload pipeline for fileId {} finished: parsed={}, mapped={}, failed={}, written={} in {} batches "
+                + "({} ms, {} rows/sec)", fileId, result.parsedRows(), result.mappedRows(), result.failedRows(),
+                result.writtenRows(), result.batches(), result.elapsedMillis(),
+                String.format("%.0f", result.rowsPerSecond()));
+        return result;
+    }
+
+    private int writeBatch(List<WorkerUploadedData> batch) {
+        long start = System.nanoTime();
+        int inserted = bulkDao.insertBatch(batch);
+        writeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        writtenCounter.increment(inserted);
+        batch.clear();
+        return inserted;
+    }
+
+    private void awaitStage(Future<?> stage, String name) throws IOException, InterruptedException {
+        try {
+            stage.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException ioException) {
+                throw ioException;
+            }
+            throw new IOException("Upload " + name + " stage failed: " + cause.getMessage(), cause);
+        }
+    }
+
+    private void abort(AtomicBoolean aborted, Future<?>... stages) {
+        aborted.set(true);
+        for (Future<?> stage : stages) {
+            if (stage != null) {
+                stage.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * Blocking put that gives up once the run is aborted, so a producer never waits forever on a
+     * consumer that has already failed.
+     */
+    private static <T> boolean enqueue(BlockingQueue<T> queue, T item, AtomicInteger depth, AtomicBoolean aborted)
+            throws InterruptedException {
+        while (!aborted.get()) {
+            if (queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                depth.incrementAndGet();
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static <T> void enqueueOrAbort(BlockingQueue<T> queue, T item, AtomicInteger depth,
+            AtomicBoolean aborted) {
+        try {
+            if (!enqueue(queue, item, depth, aborted)) {
+                throw new IllegalStateException("Upload pipeline aborted");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Upload pipeline interrupted", e);
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, AtomicInteger depth, AtomicBoolean aborted)
+            throws InterruptedException {
+        while (!aborted.get()) {
+            T item = queue.poll(POLL_MILLIS, TimeUnit.MILLISECONDS);
+            if (item != null) {
+                depth.decrementAndGet();
+                return item;
+            }
+        }
+        return null;
+    }
+}
@@ -1,9 +1,15 @@
 package com.example.paymentflow.worker.service;
 
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataBulkDao;
+import com.example.paymentflow.worker.dao.WorkerUploadedDataQueryDao;
 import com.example.paymentflow.worker.entity.WorkerUploadedData;
 import com.example.paymentflow.worker.entity.WorkerPayment;
 import com.example.paymentflow.worker.entity.WorkerPaymentReceipt;
 import com.example.paymentflow.worker.repository.WorkerUploadedDataRepository;
+import com.example.paymentflow.worker.validation.DuplicateRowDetector;
+import com.example.paymentflow.worker.validation.RuleContext;
+import com.example.paymentflow.worker.validation.WorkerRecordValidator;
 import com.example.paymentflow.utilities.file.UploadedFileRepository;
 import com.example.paymentflow.utilities.file.UploadedFile;
 import org.slf4j.Logger;
@@ -12,7 +18,10 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -39,6 +48,27 @@ public class WorkerUploadedDataService {
     @Autowired
     private WorkerPaymentReceiptService workerPaymentReceiptService;
 
+    @Autowired
+    private WorkerUploadedDataBulkDao bulkDao;
+
+    @Autowired
+    private WorkerUploadedDataQueryDao queryDao;
+
+    @Autowired
+    private WorkerPaymentFileConfig fileConfig;
+
+    @Autowired
+    private WorkerRecordValidator recordValidator;
+
+    @Autowired
+    private ParallelUploadValidationService parallelValidationService;
+
+    @Autowired
+    private DuplicateRowDetector duplicateRowDetector;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
     public WorkerUploadedDataService(WorkerUploadedDataRepository repository) {
         this.repository = repository;
     }
@@ -203,122 +233,47 @@ public class WorkerUploadedDataService {
                 page, size, fileId, status);
         
         try {
-            // Get distinct file IDs from worker_uploaded_data table with filters
-            List<String> distinctFileIds = repository.findDistinctFileIds();
-            
-            // Apply fileId filter if provided
-            if (fileId != null && !fileId.trim().isEmpty()) {
-                distinctFileIds = distinctFileIds.stream()
-                    .filter(id -> id.equals(fileId.trim()))
-                    .collect(java.util.stream.Collectors.toList());
+            LocalDateTime startDateTime = null;
+            LocalDateTime endDateTime = null;
+            if (startDate != null && endDate != null) {
+                startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
+                endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
             }
             
-            // Build summary for each file and apply filters
-            java.util.List<Map<String, Object>> allFileSummaries = new java.util.ArrayList<>();
-            
-            for (String currentFileId : distinctFileIds) {
-                try {
-                    // Get file metadata from uploaded_files table
-                    Long uploadedFileId = Long.parseLong(currentFileId);
-                    Optional<UploadedFile> uploadedFileOpt = uploadedFileRepository.findById(uploadedFileId);
-                    
-                    if (uploadedFileOpt.isEmpty()) {
-                        log.warn("File metadata not found for fileId: {}", currentFileId);
-                        continue;
-                    }
-                    
-                    UploadedFile file = uploadedFileOpt.get();
-                    
-                    // Apply date range filter
-                    if (startDate != null && endDate != null) {
-                        java.time.LocalDateTime startDateTime = java.time.LocalDate.parse(startDate).atStartOfDay();
-                        java.time.LocalDateTime endDateTime = java.time.LocalDate.parse(endDate).atTime(23, 59, 59);
-                        
-                        if (file.getUploadDate().isBefore(startDateTime) || file.getUploadDate().isAfter(endDateTime)) {
-                            continue;
-                        }
-                    }
-                    
-                    // Get aggregated data from worker_uploaded_data
-                    Map<String, Integer> statusSummary = getFileStatusSummary(currentFileId);
-                    int totalRecords = statusSummary.values().stream().mapToInt(Integer::intValue).sum();
-                    
-                    // Skip if no records found
-                    if (totalRecords == 0) {
-                        continue;
-                    }
-                    
-                    // Apply status filter based on majority status or specific criteria
-                    if (status != null && !status.trim().isEmpty()) {
-                        String filterStatus = status.trim().toUpperCase();
-                        // Only include if the file has records with the requested status
-                        if (!statusSummary.containsKey(filterStatus) || statusSummary.get(filterStatus) == 0) {
-                            continue;
-                        }
-                    }
-                    
-                    // Calculate validated amount
-                    List<WorkerUploadedData> validatedRecords = 
-                        repository.findByFileIdAndStatus(currentFileId, "VALIDATED");
-                    int validatedCount = validatedRecords.size();
-                    
-                    BigDecimal totalValidatedAmount = validatedRecords.stream()
-                        .map(record -> record.getPaymentAmount() != null ? record.getPaymentAmount() : BigDecimal.ZERO)
-                        .reduce(BigDecimal.ZERO, BigDecimal::add);
-                    
-                    // Determine overall file status based on aggregated data
-                    String overallStatus = determineOverallFileStatus(statusSummary);
-                    
-                    // Build file summary
-                    Map<String, Object> fileSummary = new HashMap<>();
-                    fileSummary.put("fileId", currentFileId);
-                    fileSummary.put("fileName", file.getFilename());
-                    fileSummary.put("uploadDate", file.getUploadDate());
-                    fileSummary.put("totalRecords", totalRecords);
-                    fileSummary.put("validatedCount", validatedCount);
-                    fileSummary.put("totalValidatedAmount", totalValidatedAmount);
-                    fileSummary.put("statusSummary", statusSummary);
-                    fileSummary.put("overallStatus", overallStatus);
-                    
-                    // Add ready for payment flag
-                    boolean readyForPayment = validatedCount > 0;
-                    fileSummary.put("readyForPayment", readyForPayment);
-                    
-                    // Add upload timestamp for sorting
-                    fileSummary.put("uploadTimestamp", file.getUploadDate());
-                    
-                    allFileSummaries.add(fileSummary);
-                    
-                } catch (NumberFormatException e) {
-                    log.warn("Invalid fileId format: {}", currentFileId);
-                } catch (Exception e) {
-                    log.error("Error processing fileId: {}", currentFileId, e);
-                }
-            }
+            // Files are paged first and only the page is aggregated; the total is counted separately
+            WorkerUploadedDataQueryDao.FileSummaryPage summaryPage = queryDao.findFileSummaries(
+                fileId, status, startDateTime, endDateTime, sortBy, "desc".equalsIgnoreCase(sortDir), page, size);
             
-            // Sort the results
-            if ("uploadDate".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    java.time.LocalDateTime dateA = (java.time.LocalDateTime) a.get("uploadTimestamp");
-                    java.time.LocalDateTime dateB = (java.time.LocalDateTime) b.get("uploadTimestamp");
-                    return "desc".equalsIgnoreCase(sortDir) ? dateB.compareTo(dateA) : dateA.compareTo(dateB);
-                });
-            } else if ("totalRecords".equals(sortBy)) {
-                allFileSummaries.sort((a, b) -> {
-                    Integer countA = (Integer) a.get("totalRecords");
-                    Integer countB = (Integer) b.get("totalRecords");
-                    return "desc".equalsIgnoreCase(sortDir) ? countB.compareTo(countA) : countA.compareTo(countB);
-                });
+            List<Map<String, Object>> paginatedSummaries = new ArrayList<>(summaryPage.rows().size());
+            for (WorkerUploadedDataQueryDao.FileSummaryRow row : summaryPage.rows()) {
+                Map<String, Integer> statusSummary = new HashMap<>();
+                statusSummary.put("UPLOADED", row.uploadedCount());
+                statusSummary.put("VALIDATED", row.validatedCount());
+                statusSummary.put("REJECTED", row.rejectedCount());
+                statusSummary.put("REQUEST_GENERATED", row.requestGeneratedCount());
+                
+                // Build file summary
+                Map<String, Object> fileSummary = new HashMap<>();
+                fileSummary.put("fileId", row.fileId());
+                fileSummary.put("fileName", row.fileName());
+                fileSummary.put("uploadDate", row.uploadDate());
+                fileSummary.put("totalRecords", row.totalRecords());
+                fileSummary.put("validatedCount", row.validatedCount());
+                fileSummary.put("totalValidatedAmount", row.totalValidatedAmount());
+                fileSummary.put("statusSummary", statusSummary);
+                fileSummary.put("overallStatus", determineOverallFileStatus(statusSummary));
+                
+                // Add ready for payment flag
+                fileSummary.put("readyForPayment", row.validatedCount() > 0);
+                
+                // Add upload timestamp for sorting
+                fileSummary.put("uploadTimestamp", row.uploadDate());
+                
+                paginatedSummaries.add(fileSummary);
             }
             
-            // Apply pagination manually
-            int totalElements = allFileSummaries.size();
+            long totalElements = summaryPage.totalElements();
             int totalPages = (int) Math.ceil((double) totalElements / size);
-            int start = page * size;
-            int end = Math.min(start + size, totalElements);
-            
-            List<Map<String, Object>> paginatedSummaries = start < totalElements ? 
-                allFileSummaries.subList(start, end) : new ArrayList<>();
             
             // Build paginated response
             Map<String, Object> response = new HashMap<>();
@@ -343,16 +298,50 @@ public class WorkerUploadedDataService {
         }
     }
 
-    @Transactional
+    /**
+     * PARALLEL chunks commit in transactions of their own, so that mode runs without one here:
+     * an outer transaction would only hold an idle connection while the chunks compete for the pool.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void validateUploadedData(String fileId) {
+        if (fileConfig.getValidationMode() == WorkerPaymentFileConfig.ValidationMode.PARALLEL) {
+            parallelValidationService.validate(fileId);
+            return;
+        }
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            if (fileConfig.getValidationMode() == WorkerPaymentFileConfig.ValidationMode.SQL) {
+                validateUploadedDataInDatabase(fileId);
+            } else {
+                validateUploadedDataInMemory(fileId);
+            }
+        });
+    }
+
+    /**
+     * Runs the validation rules as one set-based UPDATE so no rows are hydrated into the heap.
+     * The SQL template mirrors {@link com.example.paymentflow.worker.validation.WorkerRecordRule}
+     * and must be kept in sync with it.
+     */
+    private void validateUploadedDataInDatabase(String fileId) {
+        log.info("Starting set-based validation for fileId: {}", fileId);
+        long start = System.nanoTime();
+        int updated = bulkDao.validateByFileId(fileId, java.time.LocalDate.now(),
+                fileConfig.isMasterValidationEnabled());
+        int duplicates = duplicateRowDetector.rejectDuplicatesInDatabase(fileId);
+        log.info("Set-based validation completed for fileId: {} ({} records, {} duplicates in {} ms)",
+                fileId, updated, duplicates, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private void validateUploadedDataInMemory(String fileId) {
         log.info("Starting validation for fileId: {}", fileId);
         
         List<WorkerUploadedData> uploadedRecords = repository.findByFileIdAndStatus(fileId, "UPLOADED");
         log.info("Found {} uploaded records to validate", uploadedRecords.size());
         
+        RuleContext context = recordValidator.newContext(java.time.LocalDate.now());
         for (WorkerUploadedData record : uploadedRecords) {
             try {
-                validateRecord(record);
+                validateRecord(record, context);
                 if (record.getStatus().equals("VALIDATED")) {
                     record.setValidatedAt(LocalDateTime.now());
                 }
@@ -362,150 +351,76 @@ public class WorkerUploadedDataService {
                 record.setRejectionReason("Validation error: " + e.getMessage());
             }
         }
+
+        List<WorkerUploadedData> validatedRecords = uploadedRecords.stream()
+                .filter(record -> "VALIDATED".equals(record.getStatus()))
+                .toList();
+        List<WorkerUploadedData> duplicates = duplicateRowDetector.findDuplicates(fileId, validatedRecords);
+        for (WorkerUploadedData duplicate : duplicates) {
+            duplicate.setStatus("REJECTED");
+            duplicate.setRejectionReason(DuplicateRowDetector.DUPLICATE_REASON);
+            duplicate.setValidatedAt(null);
+        }
+        if (!duplicates.isEmpty()) {
+            log.info("Rejected {} rows of fileId: {} as duplicates of earlier uploads", duplicates.size(), fileId);
+        }
         
         repository.saveAll(uploadedRecords);
         log.info("Validation completed for fileId: {}", fileId);
     }
 
-    private void validateRecord(WorkerUploadedData record) {
-        StringBuilder errors = new StringBuilder();
-        
-        // Required field validations
-        if (record.getWorkerId() == null || record.getWorkerId().trim().isEmpty()) {
-            errors.append("Worker ID is required. ");
-        }
-        
-        if (record.getWorkerName() == null || record.getWorkerName().trim().isEmpty()) {
-            errors.append("Worker name is required. ");
-        }
-        
-        if (record.getPaymentAmount() == null || record.getPaymentAmount().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-            errors.append("Valid payment amount greater than 0 is required. ");
-        }
-        
-        if (record.getBankAccount() == null || record.getBankAccount().trim().isEmpty()) {
-            errors.append("Bank account is required. ");
-        }
-        
-        if (record.getWorkDate() == null) {
-            errors.append("Work date is required. ");
-        }
-        
-        // Field length validations
-        if (record.getWorkerName() != null && record.getWorkerName().length() > 100) {
-            errors.append("Worker name must not exceed 100 characters. ");
-        }
-        
-        if (record.getCompanyName() != null && record.getCompanyName().length() > 100) {
-            errors.append("Company name must not exceed 100 characters. ");
-        }
-        
-        if (record.getDepartment() != null && record.getDepartment().length() > 50) {
-            errors.append("Department must not exceed 50 characters. ");
-        }
-        
-        if (record.getPosition() != null && record.getPosition().length() > 50) {
-            errors.append("Position must not exceed 50 characters. ");
-        }
-        
-        if (record.getWorkerId() != null && record.getWorkerId().length() > 50) {
-            errors.append("Worker ID must not exceed 50 characters. ");
-        }
-        
-        if (record.getEmail() != null && record.getEmail().length() > 100) {
-            errors.append("Email must not exceed 100 characters. ");
-        }
-        
-        // Bank account validation
-        if (record.getBankAccount() != null) {
-            String bankAccount = record.getBankAccount().trim();
-            if (bankAccount.length() < 10 || bankAccount.length() > 20) {
-                errors.append("Bank account must be between 10-20 characters. ");
-            }
-            // Allow alphanumeric characters for bank accounts (more realistic)
-            if (!bankAccount.matches("^[A-Za-z0-9]+$")) {
-                errors.append("Bank account must contain only letters and digits. ");
-            }
-        }
-        
-        // Phone number validation
-        if (record.getPhoneNumber() != null && !record.getPhoneNumber().trim().isEmpty()) {
-            String phone = record.getPhoneNumber().trim();
-            if (phone.length() > 15) {
-                errors.append("Phone number must not exceed 15 characters. ");
-            }
-            // Valid phone formats: +91-9876543210, +919876543210, 9876543210
-            if (!phone.matches("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$")) {
-                errors.append("Invalid phone number format. ");
-            }
-        }
-        
-        // Email format validation
-        if (record.getEmail() != null && !record.getEmail().trim().isEmpty()) {
-            if (!record.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
-                errors.append("Invalid email format. ");
-            }
-        }
-        
-        // Date validations
-        if (record.getWorkDate() != null) {
-            java.time.LocalDate today = java.time.LocalDate.now();
-            if (record.getWorkDate().isAfter(today)) {
-                errors.append("Work date cannot be in the future. ");
-            }
-            // Check if work date is too far in the past (more than 1 year)
-            if (record.getWorkDate().isBefore(today.minusYears(1))) {
-                errors.append("Work date cannot be more than 1 year old. ");
-            }
+    private void validateRecord(WorkerUploadedData record, RuleContext context) {
+        long failedRules = recordValidator.evaluate(record, context);
+        if (failedRules != 0L) {
+            record.setStatus("REJECTED");
+            record.setRejectionReason(recordValidator.renderRejectionReason(failedRules, record));
+        } else {
+            record.setStatus("VALIDATED");
         }
-        
-        // Hours worked validation
-        if (record.getHoursWorked() != null) {
-            if (record.getHoursWorked().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hours worked must be greater than 0. ");
-            }
-            if (record.getHoursWorked().compareTo(new java.math.BigDecimal("24")) > 0) {
-                errors.append("Hours worked cannot exceed 24 hours per day. ");
-            }
+    }
+
+    @Transactional
+    public int generateRequestForValidatedData(String fileId, String uploadedFileRef) {
+        if (fileConfig.isBulkRequestGenerationEnabled()) {
+            return generateRequestInDatabase(fileId);
         }
-        
-        // Hourly rate validation
-        if (record.getHourlyRate() != null) {
-            if (record.getHourlyRate().compareTo(java.math.BigDecimal.ZERO) <= 0) {
-                errors.append("Hourly rate must be greater than 0. ");
-            }
-            if (record.getHourlyRate().compareTo(new java.math.BigDecimal("10000")) > 0) {
-                errors.append("Hourly rate seems unreasonably high (max 10,000). ");
-            }
+        return generateRequestPerRecord(fileId, uploadedFileRef);
+    }
+
+    /**
+     * Set-based request generation: aggregate the validated rows, create the receipt, claim the rows
+     * with one UPDATE and create their payments with one INSERT ... SELECT.
+     */
+    private int generateRequestInDatabase(String fileId) {
+        log.info("Generating request for validated data in fileId: {} (set-based)", fileId);
+        long start = System.nanoTime();
+        
+        WorkerUploadedDataBulkDao.RequestTotals totals = bulkDao.aggregateValidated(fileId);
+        log.info("Found {} validated records to process", totals.totalRecords());
+        
+        if (totals.totalRecords() == 0) {
+            return 0;
         }
         
-        // Payment amount validation
-        if (record.getPaymentAmount() != null) {
-            if (record.getPaymentAmount().compareTo(new java.math.BigDecimal("1000000")) > 0) {
-                errors.append("Payment amount seems unreasonably high (max 1,000,000). ");
-            }
-        }
+        WorkerPaymentReceipt receipt = workerPaymentReceiptService.createReceipt(
+                totals.employerId(), totals.toliId(), totals.totalRecords(), totals.totalAmount());
+        log.info("Created WorkerPaymentReceipt with number: {}", receipt.getReceiptNumber());
         
-        // Business logic validations
-        if (record.getHoursWorked() != null && record.getHourlyRate() != null && record.getPaymentAmount() != null) {
-            java.math.BigDecimal calculatedAmount = record.getHoursWorked().multiply(record.getHourlyRate());
-            // Allow for small rounding differences (0.01)
-            java.math.BigDecimal difference = record.getPaymentAmount().subtract(calculatedAmount).abs();
-            if (difference.compareTo(new java.math.BigDecimal("0.01")) > 0) {
-                errors.append("Payment amount doesn't match hours worked × hourly rate (calculated: " + calculatedAmount + "). ");
-            }
+        LocalDateTime now = LocalDateTime.now();
+        int claimed = bulkDao.markRequestGenerated(fileId, receipt.getReceiptNumber(), now);
+        if (claimed != totals.totalRecords()) {
+            // Another request changed the file between the aggregate and the claim; roll everything back
+            throw new IllegalStateException("Validated records for fileId " + fileId + " changed during request generation ("
+                    + totals.totalRecords() + " counted, " + claimed + " claimed)");
         }
+        int inserted = bulkDao.insertPaymentsFromUploaded(fileId, receipt.getReceiptNumber(), now);
         
-        if (errors.length() > 0) {
-            record.setStatus("REJECTED");
-            record.setRejectionReason(errors.toString().trim());
-        } else {
-            record.setStatus("VALIDATED");
-        }
+        log.info("Successfully generated request for {} records with receipt: {} ({} payments inserted in {} ms)",
+                claimed, receipt.getReceiptNumber(), inserted, (System.nanoTime() - start) / 1_000_000);
+        return claimed;
     }
 
-    @Transactional
-    public int generateRequestForValidatedData(String fileId, String uploadedFileRef) {
+    private int generateRequestPerRecord(String fileId, String uploadedFileRef) {
         log.info("Generating request for validated data in fileId: {}", fileId);
         
         List<WorkerUploadedData> validatedRecords = repository.findByFileIdAndStatus(fileId, "VALIDATED");
@@ -593,6 +508,18 @@ public class WorkerUploadedDataService {
         return payment;
     }
 
+    public long countByFileId(String fileId) {
+        return repository.countByFileId(fileId);
+    }
+
+    /**
+     * Highest row number already persisted for a file, 0 when none. Rows are written in row order,
+     * so an interrupted upload can resume after this row.
+     */
+    public int findLastPersistedRowNumber(String fileId) {
+        return repository.findMaxRowNumberByFileId(fileId);
+    }
+
     public void deleteByFileId(String fileId) {
         log.info("Deleting all uploaded data for fileId: {}", fileId);
         repository.deleteByFileId(fileId);
@@ -0,0 +1,77 @@
+package com.example.paymentflow.worker.validation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.springframework.stereotype.Component;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.dao.WorkerPaymentFingerprintDao;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Rejects uploaded rows that repeat a row already validated in this or an earlier file, i.e.
+ * the same worker, employer, toli, work date and amount, so one payment cannot be requested
+ * twice through two files. Runs after the rule checks, on the rows that passed them, and claims
+ * their {@link WorkerRowFingerprint}s in the same transaction as the validation result.
+ */
+@Component
+public class DuplicateRowDetector {
+
+    public static final String DUPLICATE_REASON =
+            "Duplicate row: the same worker, employer, toli, work date and amount was already uploaded.";
+
+    /** Fingerprints sent per claim statement. */
+    private static final int CLAIM_BATCH_SIZE = 10_000;
+
+    private final WorkerPaymentFingerprintDao fingerprintDao;
+    private final WorkerPaymentFileConfig fileConfig;
+
+    public DuplicateRowDetector(WorkerPaymentFingerprintDao fingerprintDao, WorkerPaymentFileConfig fileConfig) {
+        this.fingerprintDao = fingerprintDao;
+        this.fileConfig = fileConfig;
+    }
+
+    public boolean isEnabled() {
+        return fileConfig.isDuplicateDetectionEnabled();
+    }
+
+    /**
+     * Claim the fingerprints of rows that passed validation.
+     *
+     * @param validated persisted rows, so their ids are set
+     * @return the rows that duplicate an already claimed row
+     */
+    public List<WorkerUploadedData> findDuplicates(String fileId, List<WorkerUploadedData> validated) {
+        List<WorkerUploadedData> duplicates = new ArrayList<>();
+        if (!isEnabled()) {
+            return duplicates;
+        }
+        for (int from = 0; from < validated.size(); from += CLAIM_BATCH_SIZE) {
+            List<WorkerUploadedData> batch = validated.subList(from, Math.min(from + CLAIM_BATCH_SIZE, validated.size()));
+            List<Long> ids = new ArrayList<>(batch.size());
+            List<String> fingerprints = new ArrayList<>(batch.size());
+            for (WorkerUploadedData record : batch) {
+                ids.add(record.getId());
+                fingerprints.add(WorkerRowFingerprint.of(record));
+            }
+            Set<Long> claimed = fingerprintDao.claim(fileId, ids, fingerprints);
+            for (WorkerUploadedData record : batch) {
+                if (!claimed.contains(record.getId())) {
+                    duplicates.add(record);
+                }
+            }
+        }
+        return duplicates;
+    }
+
+    /**
+     * Set-based variant for SQL validation mode, run after the validation UPDATE.
+     *
+     * @return number of rows rejected as duplicates
+     */
+    public int rejectDuplicatesInDatabase(String fileId) {
+        return isEnabled() ? fingerprintDao.rejectUnclaimedValidated(fileId, DUPLICATE_REASON) : 0;
+    }
+}
@@ -0,0 +1,22 @@
+package com.example.paymentflow.worker.validation;
+
+import java.time.LocalDate;
+
+import com.example.paymentflow.master.service.MasterDataSnapshotCache;
+
+/**
+ * Per-run inputs shared by every record in a validation pass, computed once instead of per row.
+ *
+ * @param masterData master-data lookups for the cross-checks against the master tables, or null
+ *                   when those checks are disabled
+ */
+public record RuleContext(LocalDate today, LocalDate oneYearAgo, MasterDataSnapshotCache.Lookup masterData) {
+
+    public static RuleContext of(LocalDate today) {
+        return of(today, null);
+    }
+
+    public static RuleContext of(LocalDate today, MasterDataSnapshotCache.Lookup masterData) {
+        return new RuleContext(today, today.minusYears(1), masterData);
+    }
+}
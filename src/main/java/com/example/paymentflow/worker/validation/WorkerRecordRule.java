@@ -0,0 +1,256 @@
+package com.example.paymentflow.worker.validation;
+
+import java.math.BigDecimal;
+import java.util.regex.Pattern;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Declarative registry of the validation rules applied to uploaded worker rows.
+ * Each rule owns one bit of a {@code long} mask (its ordinal), so a record's outcome is a
+ * single primitive and rejection text is only rendered for rows that actually failed.
+ * Declaration order is the order messages appear in rejection_reason; the set-based template
+ * sql/worker/worker_uploaded_data_validate.sql mirrors this list.
+ */
+public enum WorkerRecordRule {
+
+    WORKER_ID_REQUIRED("Worker ID is required.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return isBlank(r.getWorkerId());
+        }
+    },
+    WORKER_NAME_REQUIRED("Worker name is required.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return isBlank(r.getWorkerName());
+        }
+    },
+    PAYMENT_AMOUNT_REQUIRED("Valid payment amount greater than 0 is required.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getPaymentAmount() == null || r.getPaymentAmount().signum() <= 0;
+        }
+    },
+    BANK_ACCOUNT_REQUIRED("Bank account is required.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return isBlank(r.getBankAccount());
+        }
+    },
+    WORK_DATE_REQUIRED("Work date is required.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getWorkDate() == null;
+        }
+    },
+    WORKER_NAME_TOO_LONG("Worker name must not exceed 100 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getWorkerName(), 100);
+        }
+    },
+    COMPANY_NAME_TOO_LONG("Company name must not exceed 100 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getCompanyName(), 100);
+        }
+    },
+    DEPARTMENT_TOO_LONG("Department must not exceed 50 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getDepartment(), 50);
+        }
+    },
+    POSITION_TOO_LONG("Position must not exceed 50 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getPosition(), 50);
+        }
+    },
+    WORKER_ID_TOO_LONG("Worker ID must not exceed 50 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getWorkerId(), 50);
+        }
+    },
+    EMAIL_TOO_LONG("Email must not exceed 100 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return longerThan(r.getEmail(), 100);
+        }
+    },
+    BANK_ACCOUNT_LENGTH("Bank account must be between 10-20 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            if (r.getBankAccount() == null) {
+                return false;
+            }
+            int length = trimmedLength(r.getBankAccount());
+            return length < 10 || length > 20;
+        }
+    },
+    BANK_ACCOUNT_CHARACTERS("Bank account must contain only letters and digits.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getBankAccount() != null && !BANK_ACCOUNT_PATTERN.matcher(r.getBankAccount().trim()).matches();
+        }
+    },
+    PHONE_TOO_LONG("Phone number must not exceed 15 characters.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return !isBlank(r.getPhoneNumber()) && trimmedLength(r.getPhoneNumber()) > 15;
+        }
+    },
+    PHONE_FORMAT("Invalid phone number format.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            // Valid phone formats: +91-9876543210, +919876543210, 9876543210
+            return !isBlank(r.getPhoneNumber()) && !PHONE_PATTERN.matcher(r.getPhoneNumber().trim()).matches();
+        }
+    },
+    EMAIL_FORMAT("Invalid email format.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return !isBlank(r.getEmail()) && !EMAIL_PATTERN.matcher(r.getEmail()).matches();
+        }
+    },
+    WORK_DATE_IN_FUTURE("Work date cannot be in the future.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getWorkDate() != null && r.getWorkDate().isAfter(ctx.today());
+        }
+    },
+    WORK_DATE_TOO_OLD("Work date cannot be more than 1 year old.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getWorkDate() != null && r.getWorkDate().isBefore(ctx.oneYearAgo());
+        }
+    },
+    HOURS_NOT_POSITIVE("Hours worked must be greater than 0.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getHoursWorked() != null && r.getHoursWorked().signum() <= 0;
+        }
+    },
+    HOURS_ABOVE_MAX("Hours worked cannot exceed 24 hours per day.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getHoursWorked() != null && r.getHoursWorked().compareTo(MAX_HOURS_PER_DAY) > 0;
+        }
+    },
+    RATE_NOT_POSITIVE("Hourly rate must be greater than 0.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getHourlyRate() != null && r.getHourlyRate().signum() <= 0;
+        }
+    },
+    RATE_ABOVE_MAX("Hourly rate seems unreasonably high (max 10,000).") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getHourlyRate() != null && r.getHourlyRate().compareTo(MAX_HOURLY_RATE) > 0;
+        }
+    },
+    AMOUNT_ABOVE_MAX("Payment amount seems unreasonably high (max 1,000,000).") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return r.getPaymentAmount() != null && r.getPaymentAmount().compareTo(MAX_PAYMENT_AMOUNT) > 0;
+        }
+    },
+    AMOUNT_MISMATCH("Payment amount doesn't match hours worked × hourly rate") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            if (r.getHoursWorked() == null || r.getHourlyRate() == null || r.getPaymentAmount() == null) {
+                return false;
+            }
+            BigDecimal calculated = r.getHoursWorked().multiply(r.getHourlyRate());
+            // Allow for small rounding differences (0.01)
+            return r.getPaymentAmount().subtract(calculated).abs().compareTo(AMOUNT_TOLERANCE) > 0;
+        }
+
+        @Override
+        public String render(WorkerUploadedData r) {
+            return message() + " (calculated: " + r.getHoursWorked().multiply(r.getHourlyRate()) + ").";
+        }
+    },
+    // Master-data cross-checks; only evaluated when the context carries master data
+    WORKER_NOT_IN_MASTER("Worker is not registered in the worker master of the employer's board.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return ctx.masterData() != null && !isBlank(r.getWorkerId())
+                    && !ctx.masterData().isWorkerRegistered(r.getEmployerId(), r.getWorkerId());
+        }
+    },
+    TOLI_NOT_UNDER_EMPLOYER("Toli is not registered under the employer.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return ctx.masterData() != null && !isBlank(r.getToliId())
+                    && !ctx.masterData().isEmployerToliRelated(r.getEmployerId(), r.getToliId());
+        }
+    },
+    BANK_ACCOUNT_MISMATCH("Bank account does not match the worker master.") {
+        @Override
+        boolean isViolated(WorkerUploadedData r, RuleContext ctx) {
+            return ctx.masterData() != null && !isBlank(r.getBankAccount()) && !isBlank(r.getWorkerId())
+                    && !ctx.masterData().bankAccountMatches(r.getEmployerId(), r.getWorkerId(), r.getBankAccount());
+        }
+    };
+
+    private static final Pattern BANK_ACCOUNT_PATTERN = Pattern.compile("^[A-Za-z0-9]+$");
+    private static final Pattern PHONE_PATTERN = Pattern.compile("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$");
+    private static final Pattern EMAIL_PATTERN = Pattern.compile("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$");
+
+    private static final BigDecimal MAX_HOURS_PER_DAY = new BigDecimal("24");
+    private static final BigDecimal MAX_HOURLY_RATE = new BigDecimal("10000");
+    private static final BigDecimal MAX_PAYMENT_AMOUNT = new BigDecimal("1000000");
+    private static final BigDecimal AMOUNT_TOLERANCE = new BigDecimal("0.01");
+
+    private final String message;
+
+    WorkerRecordRule(String message) {
+        this.message = message;
+    }
+
+    abstract boolean isViolated(WorkerUploadedData record, RuleContext context);
+
+    public long bit() {
+        return 1L << ordinal();
+    }
+
+    public String message() {
+        return message;
+    }
+
+    /**
+     * Rejection text for this rule; only called for rules that failed on the given record.
+     */
+    public String render(WorkerUploadedData record) {
+        return message;
+    }
+
+    /**
+     * Same outcome as {@code value == null || value.trim().isEmpty()} without allocating.
+     */
+    static boolean isBlank(String value) {
+        return value == null || trimmedLength(value) == 0;
+    }
+
+    static boolean longerThan(String value, int max) {
+        return value != null && value.length() > max;
+    }
+
+    /**
+     * Length of {@code value.trim()} without allocating the trimmed copy.
+     */
+    static int trimmedLength(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) <= ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) <= ' ') {
+            end--;
+        }
+        return end - start;
+    }
+}
@@ -0,0 +1,69 @@
+package com.example.paymentflow.worker.validation;
+
+import java.time.LocalDate;
+import java.util.StringJoiner;
+
+import org.springframework.stereotype.Component;
+
+import com.example.paymentflow.master.service.MasterDataSnapshotCache;
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Evaluates {@link WorkerRecordRule}s against uploaded rows. Evaluation returns a bitmask of
+ * failed rules and allocates nothing; rejection text is rendered separately, on demand.
+ */
+@Component
+public class WorkerRecordValidator {
+
+    private static final WorkerRecordRule[] RULES = WorkerRecordRule.values();
+
+    private final WorkerPaymentFileConfig fileConfig;
+    private final MasterDataSnapshotCache masterDataCache;
+
+    public WorkerRecordValidator(WorkerPaymentFileConfig fileConfig, MasterDataSnapshotCache masterDataCache) {
+        this.fileConfig = fileConfig;
+        this.masterDataCache = masterDataCache;
+    }
+
+    /**
+     * Context for one validation run, with master-data lookups when
+     * {@code workerpayment.file.master-validation-enabled} is set.
+     */
+    public RuleContext newContext(LocalDate today) {
+        return fileConfig.isMasterValidationEnabled()
+                ? RuleContext.of(today, masterDataCache.lookup())
+                : RuleContext.of(today);
+    }
+
+    /**
+     * @return bitmask of failed {@link WorkerRecordRule#bit()} codes, 0 when the record is valid
+     */
+    public long evaluate(WorkerUploadedData record, RuleContext context) {
+        long failedRules = 0L;
+        for (WorkerRecordRule rule : RULES) {
+            if (rule.isViolated(record, context)) {
+                failedRules |= rule.bit();
+            }
+        }
+        return failedRules;
+    }
+
+    /**
+     * Render the rejection reason for a failed record, in rule declaration order.
+     *
+     * @return the rejection text, or null when no rule failed
+     */
+    public String renderRejectionReason(long failedRules, WorkerUploadedData record) {
+        if (failedRules == 0L) {
+            return null;
+        }
+        StringJoiner reason = new StringJoiner(" ");
+        for (WorkerRecordRule rule : RULES) {
+            if ((failedRules & rule.bit()) != 0L) {
+                reason.add(rule.render(record));
+            }
+        }
+        return reason.toString();
+    }
+}
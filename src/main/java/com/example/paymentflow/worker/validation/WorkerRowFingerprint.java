@@ -0,0 +1,56 @@
+package com.example.paymentflow.worker.validation;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Identity of an uploaded payment row for cross-file duplicate detection: the hex SHA-256 of
+ * worker id, employer id, toli id, work date and payment amount joined with U+001F.
+ * <p>
+ * The canonical text must stay identical to the SQL in
+ * sql/worker/worker_payment_fingerprints_claim_validated.sql and the backfill migration:
+ * values are stripped of surrounding spaces (as btrim does), the date is ISO formatted and the
+ * amount drops trailing zeros (as trim_scale does).
+ */
+public final class WorkerRowFingerprint {
+
+    private static final char SEPARATOR = '\u001F';
+
+    private WorkerRowFingerprint() {
+    }
+
+    /**
+     * Only defined for rows that passed validation, where every component is present.
+     */
+    public static String of(WorkerUploadedData record) {
+        String canonical = new StringBuilder(96)
+                .append(stripSpaces(record.getWorkerId())).append(SEPARATOR)
+                .append(stripSpaces(record.getEmployerId())).append(SEPARATOR)
+                .append(stripSpaces(record.getToliId())).append(SEPARATOR)
+                .append(record.getWorkDate()).append(SEPARATOR)
+                .append(record.getPaymentAmount().stripTrailingZeros().toPlainString())
+                .toString();
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(canonical.getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static String stripSpaces(String value) {
+        int start = 0;
+        int end = value.length();
+        while (start < end && value.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        return value.substring(start, end);
+    }
+}
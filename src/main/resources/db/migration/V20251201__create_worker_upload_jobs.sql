@@ -0,0 +1,25 @@
+-- Migration: Track asynchronous worker payment upload jobs so they can be polled and resumed
+CREATE TABLE IF NOT EXISTS payment_flow.worker_upload_jobs (
+    id                BIGSERIAL PRIMARY KEY,
+    file_id           VARCHAR(100) NOT NULL,
+    original_filename VARCHAR(255) NOT NULL,
+    stored_path       VARCHAR(500) NOT NULL,
+    submitted_by      VARCHAR(255),
+    phase             VARCHAR(32)  NOT NULL,
+    validate_on_upload BOOLEAN     NOT NULL DEFAULT FALSE,
+    rows_processed    BIGINT       NOT NULL DEFAULT 0,
+    failed_rows       BIGINT       NOT NULL DEFAULT 0,
+    rows_per_second   NUMERIC(12, 2),
+    attempts          INTEGER      NOT NULL DEFAULT 0,
+    error_message     TEXT,
+    created_at        TIMESTAMP    NOT NULL,
+    updated_at        TIMESTAMP    NOT NULL,
+    started_at        TIMESTAMP,
+    completed_at      TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_worker_upload_jobs_phase_updated
+    ON payment_flow.worker_upload_jobs (phase, updated_at);
+
+CREATE INDEX IF NOT EXISTS idx_worker_upload_jobs_file_id
+    ON payment_flow.worker_upload_jobs (file_id);
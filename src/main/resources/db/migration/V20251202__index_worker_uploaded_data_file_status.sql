@@ -0,0 +1,7 @@
+-- Migration: Support per-file aggregation of uploaded worker rows and date-bounded file listings
+CREATE INDEX IF NOT EXISTS idx_worker_uploaded_data_file_status
+    ON payment_flow.worker_uploaded_data (file_id, status)
+    INCLUDE (payment_amount);
+
+CREATE INDEX IF NOT EXISTS idx_uploaded_files_created_at
+    ON payment_flow.uploaded_files (created_at);
@@ -0,0 +1,6 @@
+-- Migration: Support keyset pagination of board receipts on (receipt_date, id), optionally by status
+CREATE INDEX IF NOT EXISTS idx_board_receipts_receipt_date_id
+    ON payment_flow.board_receipts (receipt_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_board_receipts_status_receipt_date_id
+    ON payment_flow.board_receipts (status, receipt_date DESC, id DESC);
@@ -0,0 +1,9 @@
+-- Migration: Support keyset pagination of payments and receipts on (timestamp, id)
+CREATE INDEX IF NOT EXISTS idx_worker_payments_created_at_id
+    ON payment_flow.worker_payments (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_worker_payment_receipts_created_at_id
+    ON payment_flow.worker_payment_receipts (created_at DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_employer_payment_receipts_validated_at_id
+    ON payment_flow.employer_payment_receipts (validated_at DESC, id DESC);
@@ -0,0 +1,7 @@
+-- Migration: Shared sequence for receipt and request reference numbers.
+-- Each instance reserves a block of 1000 values per nextval call, so INCREMENT BY must match
+-- ReferenceNumberGenerator.BLOCK_SIZE.
+CREATE SEQUENCE IF NOT EXISTS payment_flow.reference_number_seq
+    START WITH 1
+    INCREMENT BY 1000
+    NO CYCLE;
@@ -0,0 +1,46 @@
+-- Migration: Content hashes and natural-key constraints for delta master imports.
+-- Delta uploads upsert on the natural key with INSERT ... ON CONFLICT and skip rows whose
+-- content_hash has not changed.
+ALTER TABLE payment_flow.worker_master
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE payment_flow.employer_master
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE payment_flow.toli_master
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+ALTER TABLE payment_flow.board_master
+    ADD COLUMN IF NOT EXISTS content_hash VARCHAR(64);
+
+-- ON CONFLICT needs a unique index on exactly the key column. Hibernate normally creates these
+-- with generated names, so look for any single-column unique index before adding one.
+DO
+$$
+DECLARE
+    natural_key RECORD;
+BEGIN
+    FOR natural_key IN
+        SELECT *
+        FROM (VALUES ('worker_master', 'registration_number'),
+                     ('employer_master', 'registration_number'),
+                     ('toli_master', 'registration_number'),
+                     ('board_master', 'board_id')) AS k(table_name, column_name)
+    LOOP
+        IF NOT EXISTS (
+            SELECT 1
+            FROM pg_index i
+            JOIN pg_attribute a ON a.attrelid = i.indrelid AND a.attnum = i.indkey[0]
+            WHERE i.indrelid = format('payment_flow.%I', natural_key.table_name)::regclass
+              AND i.indisunique
+              AND i.indnatts = 1
+              AND a.attname = natural_key.column_name
+        ) THEN
+            EXECUTE format('ALTER TABLE payment_flow.%I ADD CONSTRAINT %I UNIQUE (%I)',
+                           natural_key.table_name,
+                           natural_key.table_name || '_' || natural_key.column_name || '_key',
+                           natural_key.column_name);
+        END IF;
+    END LOOP;
+END;
+$$;
@@ -0,0 +1,51 @@
+-- Migration: Index the duplicate-upload checks on uploaded_files.
+-- Uploads are rejected when the filename or the content hash is already stored; both lookups
+-- previously scanned the table.
+CREATE INDEX IF NOT EXISTS idx_uploaded_files_filename
+    ON payment_flow.uploaded_files (filename);
+
+-- A unique index on file_hash makes concurrent uploads of the same content race-free: the second
+-- insert fails instead of both passing the lookup. Rows without a hash (stored before hashing, as
+-- empty strings) cannot be duplicates of anything, so they are nulled where the column allows it
+-- and left out of the index. Duplicate hashes among the remaining rows stop the migration: a
+-- non-unique index would silently let the upload race through, so an operator has to remove the
+-- duplicate uploads first.
+DO
+$$
+DECLARE
+    duplicate_hashes BIGINT;
+BEGIN
+    IF EXISTS (
+        SELECT 1
+        FROM information_schema.columns
+        WHERE table_schema = 'payment_flow'
+          AND table_name = 'uploaded_files'
+          AND column_name = 'file_hash'
+          AND is_nullable = 'YES'
+    ) THEN
+        UPDATE payment_flow.uploaded_files
+        SET file_hash = NULL
+        WHERE file_hash = '';
+    END IF;
+
+    SELECT count(*)
+    INTO duplicate_hashes
+    FROM (
+        SELECT file_hash
+        FROM payment_flow.uploaded_files
+        WHERE file_hash IS NOT NULL
+          AND file_hash <> ''
+        GROUP BY file_hash
+        HAVING count(*) > 1
+    ) AS duplicates;
+
+    IF duplicate_hashes > 0 THEN
+        RAISE EXCEPTION 'uploaded_files has % file_hash values stored more than once; remove the duplicate uploads before migrating',
+            duplicate_hashes;
+    END IF;
+END;
+$$;
+
+CREATE UNIQUE INDEX IF NOT EXISTS uq_uploaded_files_file_hash
+    ON payment_flow.uploaded_files (file_hash)
+    WHERE file_hash IS NOT NULL AND file_hash <> '';
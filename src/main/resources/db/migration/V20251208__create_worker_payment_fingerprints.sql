@@ -0,0 +1,61 @@
+-- Migration: Fingerprint index for cross-file duplicate detection of uploaded worker rows.
+-- Each validated row claims the SHA-256 of (worker_id, employer_id, toli_id, work_date,
+-- payment_amount); a row whose fingerprint is already claimed by another row is rejected.
+-- Fingerprints are stored as 32-byte digests so the primary key stays compact at tens of
+-- millions of rows.
+-- A fingerprint belongs to its row for as long as that row can still be paid: deleting the row,
+-- e.g. with its file before a corrected file is uploaded, or rejecting it releases it again.
+CREATE TABLE IF NOT EXISTS payment_flow.worker_payment_fingerprints (
+    fingerprint      BYTEA PRIMARY KEY,
+    uploaded_data_id BIGINT       NOT NULL
+        REFERENCES payment_flow.worker_uploaded_data (id) ON DELETE CASCADE,
+    file_id          VARCHAR(100) NOT NULL,
+    created_at       TIMESTAMP    NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+CREATE INDEX IF NOT EXISTS idx_worker_payment_fingerprints_file_id
+    ON payment_flow.worker_payment_fingerprints (file_id);
+
+-- Serves the cascade from worker_uploaded_data and the release trigger below
+CREATE INDEX IF NOT EXISTS idx_worker_payment_fingerprints_uploaded_data_id
+    ON payment_flow.worker_payment_fingerprints (uploaded_data_id);
+
+-- Release the fingerprints of rows an update moves to REJECTED, whatever the path: a rule
+-- failure on revalidation, a manual rejection or SQL-mode validation. Rows rejected as
+-- duplicates own no fingerprint, so the delete leaves the row they duplicate alone.
+CREATE OR REPLACE FUNCTION payment_flow.release_rejected_row_fingerprints()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    DELETE FROM payment_flow.worker_payment_fingerprints fp
+    USING new_rows n
+    WHERE fp.uploaded_data_id = n.id
+      AND n.status = 'REJECTED';
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_worker_uploaded_data_release_fingerprints ON payment_flow.worker_uploaded_data;
+CREATE TRIGGER trg_worker_uploaded_data_release_fingerprints
+    AFTER UPDATE ON payment_flow.worker_uploaded_data
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.release_rejected_row_fingerprints();
+
+-- Backfill from rows already validated or turned into payment requests, the oldest row winning.
+-- Must produce the same canonical text as WorkerRowFingerprint.
+INSERT INTO payment_flow.worker_payment_fingerprints (fingerprint, uploaded_data_id, file_id, created_at)
+SELECT DISTINCT ON (f.fingerprint) f.fingerprint, f.id, f.file_id, f.created_at
+FROM (
+    SELECT sha256(convert_to(concat_ws(chr(31),
+               btrim(d.worker_id), btrim(d.employer_id), btrim(d.toli_id),
+               to_char(d.work_date, 'YYYY-MM-DD'), CAST(trim_scale(d.payment_amount) AS TEXT)), 'UTF8')) AS fingerprint,
+           d.id, d.file_id, d.created_at
+    FROM payment_flow.worker_uploaded_data d
+    WHERE d.status IN ('VALIDATED', 'REQUEST_GENERATED')
+      AND d.worker_id IS NOT NULL
+      AND d.work_date IS NOT NULL
+      AND d.payment_amount IS NOT NULL
+) f
+ORDER BY f.fingerprint, f.id
+ON CONFLICT (fingerprint) DO NOTHING;
@@ -0,0 +1,6 @@
+-- Migration: Support set-based worker payment status transitions by receipt and by file
+CREATE INDEX IF NOT EXISTS idx_worker_payments_receipt_number_status
+    ON payment_flow.worker_payments (receipt_number, status);
+
+CREATE INDEX IF NOT EXISTS idx_worker_payments_file_id_status
+    ON payment_flow.worker_payments (file_id, status);
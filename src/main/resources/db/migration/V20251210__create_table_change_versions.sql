@@ -0,0 +1,55 @@
+-- Migration: Per-table change versions for conditional GETs.
+-- Every statement that writes a tracked table appends a row to table_change_log in the same
+-- transaction, so a change only counts once it is committed and visible. Writers only insert,
+-- never update a shared row, so they take no locks that long or concurrent transactions (e.g.
+-- parallel validation chunks) could queue or deadlock on. A table's version is its folded base
+-- version plus the number of its log rows; folding moves log rows into the base version in one
+-- statement, which leaves the version unchanged.
+CREATE TABLE IF NOT EXISTS payment_flow.table_change_versions (
+    table_name TEXT   PRIMARY KEY,
+    version    BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE TABLE IF NOT EXISTS payment_flow.table_change_log (
+    id         BIGSERIAL PRIMARY KEY,
+    table_name TEXT      NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS idx_table_change_log_table_name
+    ON payment_flow.table_change_log (table_name);
+
+INSERT INTO payment_flow.table_change_versions (table_name)
+SELECT t.table_name
+FROM unnest(ARRAY['worker_uploaded_data', 'worker_payments', 'board_receipts', 'uploaded_files']) AS t(table_name)
+ON CONFLICT DO NOTHING;
+
+CREATE OR REPLACE FUNCTION payment_flow.bump_table_change_version()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    INSERT INTO payment_flow.table_change_log (table_name)
+    VALUES (TG_TABLE_NAME);
+    RETURN NULL;
+END;
+$$;
+
+DROP TRIGGER IF EXISTS trg_worker_uploaded_data_change_version ON payment_flow.worker_uploaded_data;
+CREATE TRIGGER trg_worker_uploaded_data_change_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON payment_flow.worker_uploaded_data
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.bump_table_change_version();
+
+DROP TRIGGER IF EXISTS trg_worker_payments_change_version ON payment_flow.worker_payments;
+CREATE TRIGGER trg_worker_payments_change_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON payment_flow.worker_payments
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.bump_table_change_version();
+
+DROP TRIGGER IF EXISTS trg_board_receipts_change_version ON payment_flow.board_receipts;
+CREATE TRIGGER trg_board_receipts_change_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON payment_flow.board_receipts
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.bump_table_change_version();
+
+DROP TRIGGER IF EXISTS trg_uploaded_files_change_version ON payment_flow.uploaded_files;
+CREATE TRIGGER trg_uploaded_files_change_version
+    AFTER INSERT OR UPDATE OR DELETE OR TRUNCATE ON payment_flow.uploaded_files
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.bump_table_change_version();
@@ -0,0 +1,150 @@
+-- Migration: Daily rollups behind the receipt dashboards.
+-- Each rollup row holds the count and amount of the receipts sharing a day, owner and status.
+-- Statement-level triggers apply the net change of every write in the same transaction. An
+-- update subtracts the old rows and adds the new ones, so a status transition moves the
+-- receipts between buckets. Dashboards then aggregate O(days) rollup rows instead of scanning
+-- every receipt.
+CREATE TABLE IF NOT EXISTS payment_flow.board_receipt_daily_rollups (
+    receipt_day   DATE           NOT NULL,
+    board_id      VARCHAR(64)    NOT NULL,
+    employer_id   VARCHAR(64)    NOT NULL,
+    status        VARCHAR(64)    NOT NULL,
+    receipt_count BIGINT         NOT NULL DEFAULT 0,
+    total_amount  NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (receipt_day, board_id, employer_id, status)
+);
+
+CREATE INDEX IF NOT EXISTS idx_board_receipt_daily_rollups_status
+    ON payment_flow.board_receipt_daily_rollups (status);
+
+CREATE INDEX IF NOT EXISTS idx_board_receipt_daily_rollups_board_id
+    ON payment_flow.board_receipt_daily_rollups (board_id);
+
+-- employer_payment_receipts carries no board id; validated_by is kept so validator counts can
+-- be answered from the rollup.
+CREATE TABLE IF NOT EXISTS payment_flow.employer_receipt_daily_rollups (
+    validated_day DATE           NOT NULL,
+    employer_id   VARCHAR(64)    NOT NULL,
+    status        VARCHAR(32)    NOT NULL,
+    validated_by  VARCHAR(64)    NOT NULL,
+    receipt_count BIGINT         NOT NULL DEFAULT 0,
+    total_amount  NUMERIC(19, 2) NOT NULL DEFAULT 0,
+    PRIMARY KEY (validated_day, employer_id, status, validated_by)
+);
+
+CREATE OR REPLACE FUNCTION payment_flow.rollup_board_receipts()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO payment_flow.board_receipt_daily_rollups AS r
+            (receipt_day, board_id, employer_id, status, receipt_count, total_amount)
+        SELECT receipt_date, board_id, employer_id, status, -COUNT(*), -SUM(amount)
+        FROM old_rows
+        GROUP BY receipt_date, board_id, employer_id, status
+        ORDER BY receipt_date, board_id, employer_id, status
+        ON CONFLICT (receipt_day, board_id, employer_id, status) DO UPDATE
+        SET receipt_count = r.receipt_count + EXCLUDED.receipt_count,
+            total_amount = r.total_amount + EXCLUDED.total_amount;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO payment_flow.board_receipt_daily_rollups AS r
+            (receipt_day, board_id, employer_id, status, receipt_count, total_amount)
+        SELECT receipt_date, board_id, employer_id, status, COUNT(*), SUM(amount)
+        FROM new_rows
+        GROUP BY receipt_date, board_id, employer_id, status
+        ORDER BY receipt_date, board_id, employer_id, status
+        ON CONFLICT (receipt_day, board_id, employer_id, status) DO UPDATE
+        SET receipt_count = r.receipt_count + EXCLUDED.receipt_count,
+            total_amount = r.total_amount + EXCLUDED.total_amount;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+CREATE OR REPLACE FUNCTION payment_flow.rollup_employer_payment_receipts()
+RETURNS TRIGGER
+LANGUAGE plpgsql
+AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        INSERT INTO payment_flow.employer_receipt_daily_rollups AS r
+            (validated_day, employer_id, status, validated_by, receipt_count, total_amount)
+        SELECT CAST(validated_at AS DATE), employer_id, status, validated_by, -COUNT(*), -SUM(total_amount)
+        FROM old_rows
+        GROUP BY CAST(validated_at AS DATE), employer_id, status, validated_by
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (validated_day, employer_id, status, validated_by) DO UPDATE
+        SET receipt_count = r.receipt_count + EXCLUDED.receipt_count,
+            total_amount = r.total_amount + EXCLUDED.total_amount;
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        INSERT INTO payment_flow.employer_receipt_daily_rollups AS r
+            (validated_day, employer_id, status, validated_by, receipt_count, total_amount)
+        SELECT CAST(validated_at AS DATE), employer_id, status, validated_by, COUNT(*), SUM(total_amount)
+        FROM new_rows
+        GROUP BY CAST(validated_at AS DATE), employer_id, status, validated_by
+        ORDER BY 1, 2, 3, 4
+        ON CONFLICT (validated_day, employer_id, status, validated_by) DO UPDATE
+        SET receipt_count = r.receipt_count + EXCLUDED.receipt_count,
+            total_amount = r.total_amount + EXCLUDED.total_amount;
+    END IF;
+    RETURN NULL;
+END;
+$$;
+
+-- Transition tables allow one event per trigger, hence three triggers per table.
+-- Writes are blocked until the backfill below has seen every existing receipt.
+LOCK TABLE payment_flow.board_receipts, payment_flow.employer_payment_receipts IN SHARE ROW EXCLUSIVE MODE;
+
+DROP TRIGGER IF EXISTS trg_board_receipts_rollup_insert ON payment_flow.board_receipts;
+CREATE TRIGGER trg_board_receipts_rollup_insert
+    AFTER INSERT ON payment_flow.board_receipts
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_board_receipts();
+
+DROP TRIGGER IF EXISTS trg_board_receipts_rollup_update ON payment_flow.board_receipts;
+CREATE TRIGGER trg_board_receipts_rollup_update
+    AFTER UPDATE ON payment_flow.board_receipts
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_board_receipts();
+
+DROP TRIGGER IF EXISTS trg_board_receipts_rollup_delete ON payment_flow.board_receipts;
+CREATE TRIGGER trg_board_receipts_rollup_delete
+    AFTER DELETE ON payment_flow.board_receipts
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_board_receipts();
+
+DROP TRIGGER IF EXISTS trg_employer_payment_receipts_rollup_insert ON payment_flow.employer_payment_receipts;
+CREATE TRIGGER trg_employer_payment_receipts_rollup_insert
+    AFTER INSERT ON payment_flow.employer_payment_receipts
+    REFERENCING NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_employer_payment_receipts();
+
+DROP TRIGGER IF EXISTS trg_employer_payment_receipts_rollup_update ON payment_flow.employer_payment_receipts;
+CREATE TRIGGER trg_employer_payment_receipts_rollup_update
+    AFTER UPDATE ON payment_flow.employer_payment_receipts
+    REFERENCING OLD TABLE AS old_rows NEW TABLE AS new_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_employer_payment_receipts();
+
+DROP TRIGGER IF EXISTS trg_employer_payment_receipts_rollup_delete ON payment_flow.employer_payment_receipts;
+CREATE TRIGGER trg_employer_payment_receipts_rollup_delete
+    AFTER DELETE ON payment_flow.employer_payment_receipts
+    REFERENCING OLD TABLE AS old_rows
+    FOR EACH STATEMENT EXECUTE FUNCTION payment_flow.rollup_employer_payment_receipts();
+
+-- Backfill: rebuild the rollups from the receipts already stored.
+TRUNCATE payment_flow.board_receipt_daily_rollups, payment_flow.employer_receipt_daily_rollups;
+
+INSERT INTO payment_flow.board_receipt_daily_rollups
+    (receipt_day, board_id, employer_id, status, receipt_count, total_amount)
+SELECT receipt_date, board_id, employer_id, status, COUNT(*), SUM(amount)
+FROM payment_flow.board_receipts
+GROUP BY receipt_date, board_id, employer_id, status;
+
+INSERT INTO payment_flow.employer_receipt_daily_rollups
+    (validated_day, employer_id, status, validated_by, receipt_count, total_amount)
+SELECT CAST(validated_at AS DATE), employer_id, status, validated_by, COUNT(*), SUM(total_amount)
+FROM payment_flow.employer_payment_receipts
+GROUP BY CAST(validated_at AS DATE), employer_id, status, validated_by;
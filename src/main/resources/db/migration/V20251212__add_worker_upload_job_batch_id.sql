@@ -0,0 +1,8 @@
+-- Migration: Group the upload jobs created from one archive so batch progress can be aggregated.
+-- Jobs of a batch read every sheet of their workbook; single uploads keep batch_id NULL.
+ALTER TABLE payment_flow.worker_upload_jobs
+    ADD COLUMN IF NOT EXISTS batch_id VARCHAR(36);
+
+CREATE INDEX IF NOT EXISTS idx_worker_upload_jobs_batch_id
+    ON payment_flow.worker_upload_jobs (batch_id)
+    WHERE batch_id IS NOT NULL;
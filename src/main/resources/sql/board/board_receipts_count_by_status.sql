@@ -1,3 +1,4 @@
-SELECT COUNT(*)
-FROM board_receipts
+-- Bind order: status
+SELECT CAST(COALESCE(SUM(receipt_count), 0) AS BIGINT)
+FROM board_receipt_daily_rollups
 WHERE status = ?
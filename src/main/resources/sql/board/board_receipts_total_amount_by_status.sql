@@ -1,3 +1,4 @@
-SELECT COALESCE(SUM(amount), 0)
-FROM board_receipts
+-- Bind order: status
+SELECT COALESCE(SUM(total_amount), 0)
+FROM board_receipt_daily_rollups
 WHERE status = ?
@@ -0,0 +1,14 @@
+-- Folds every committed change log row into its table's base version; versions are unchanged.
+WITH folded AS (
+    DELETE FROM table_change_log
+    RETURNING table_name
+),
+counts AS (
+    SELECT table_name, count(*) AS log_rows
+    FROM folded
+    GROUP BY table_name
+)
+UPDATE table_change_versions v
+SET version = v.version + c.log_rows
+FROM counts c
+WHERE v.table_name = c.table_name
@@ -0,0 +1,10 @@
+-- Version of a set of tables, and how many of their change log rows are not folded yet.
+-- Bind order: tableNames, tableNames
+SELECT (SELECT COALESCE(SUM(version), 0)
+        FROM table_change_versions
+        WHERE table_name = ANY(?))
+     + pending.log_rows AS version,
+       pending.log_rows
+FROM (SELECT count(*) AS log_rows
+      FROM table_change_log
+      WHERE table_name = ANY(?)) AS pending
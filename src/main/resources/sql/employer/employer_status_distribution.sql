@@ -1,5 +1,6 @@
 SELECT status,
-       COUNT(*) AS count
-FROM employer_payment_receipts
+       SUM(receipt_count) AS count
+FROM employer_receipt_daily_rollups
 GROUP BY status
+HAVING SUM(receipt_count) > 0
 ORDER BY count DESC
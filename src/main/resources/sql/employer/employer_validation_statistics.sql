@@ -1,10 +1,26 @@
+-- Bind order: startDate, endDate, startDate, endDate, startDate, endDate
+-- Whole days inside the range are read from the daily rollup; only the first and last day,
+-- which the range may cover partly, are aggregated from the receipts themselves.
+-- employer_payment_receipts has no separate validated amount: a receipt is validated for its
+-- total amount.
+WITH buckets AS (
+    SELECT status, validated_by, receipt_count, total_amount
+    FROM employer_receipt_daily_rollups
+    WHERE validated_day > CAST(? AS DATE)
+      AND validated_day < CAST(? AS DATE)
+    UNION ALL
+    SELECT status, validated_by, COUNT(*), SUM(total_amount)
+    FROM employer_payment_receipts
+    WHERE validated_at BETWEEN ? AND ?
+      AND (validated_at < CAST(? AS DATE) + 1 OR validated_at >= CAST(? AS DATE))
+    GROUP BY status, validated_by
+)
 SELECT
-    COUNT(*) AS total_receipts,
+    COALESCE(SUM(receipt_count), 0) AS total_receipts,
     SUM(total_amount) AS total_amount_sum,
-    SUM(validated_amount) AS validated_amount_sum,
-    AVG(total_amount) AS average_total_amount,
-    AVG(validated_amount) AS average_validated_amount,
-    COUNT(DISTINCT status) AS unique_statuses,
-    COUNT(DISTINCT validated_by) AS unique_validators
-FROM employer_payment_receipts
-WHERE validated_at BETWEEN ? AND ?
+    SUM(total_amount) AS validated_amount_sum,
+    SUM(total_amount) / NULLIF(SUM(receipt_count), 0) AS average_total_amount,
+    SUM(total_amount) / NULLIF(SUM(receipt_count), 0) AS average_validated_amount,
+    COUNT(DISTINCT status) FILTER (WHERE receipt_count > 0) AS unique_statuses,
+    COUNT(DISTINCT validated_by) FILTER (WHERE receipt_count > 0) AS unique_validators
+FROM buckets
@@ -0,0 +1,4 @@
+-- Content hashes of every stored upload, streamed to seed the in-memory duplicate filter.
+SELECT file_hash
+FROM uploaded_files
+WHERE file_hash <> ''
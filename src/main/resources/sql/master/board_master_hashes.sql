@@ -0,0 +1,4 @@
+SELECT board_id AS natural_key,
+       content_hash
+FROM board_master
+WHERE board_id = ANY(?)
@@ -0,0 +1,15 @@
+INSERT INTO board_master (
+       board_id,
+       board_name,
+       board_code,
+       state_name,
+       district_name,
+       address,
+       contact_person,
+       contact_email,
+       contact_phone,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
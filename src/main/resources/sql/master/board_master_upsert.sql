@@ -0,0 +1,28 @@
+INSERT INTO board_master (
+       board_id,
+       board_name,
+       board_code,
+       state_name,
+       district_name,
+       address,
+       contact_person,
+       contact_email,
+       contact_phone,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+ON CONFLICT (board_id) DO UPDATE SET
+       board_name = EXCLUDED.board_name,
+       board_code = EXCLUDED.board_code,
+       state_name = EXCLUDED.state_name,
+       district_name = EXCLUDED.district_name,
+       address = EXCLUDED.address,
+       contact_person = EXCLUDED.contact_person,
+       contact_email = EXCLUDED.contact_email,
+       contact_phone = EXCLUDED.contact_phone,
+       status = EXCLUDED.status,
+       updated_at = EXCLUDED.updated_at,
+       content_hash = EXCLUDED.content_hash
+ WHERE board_master.content_hash IS DISTINCT FROM EXCLUDED.content_hash
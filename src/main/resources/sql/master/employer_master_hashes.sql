@@ -0,0 +1,4 @@
+SELECT registration_number AS natural_key,
+       content_hash
+FROM employer_master
+WHERE registration_number = ANY(?)
@@ -0,0 +1,20 @@
+INSERT INTO employer_master (
+       board_id,
+       serial_no,
+       registration_number,
+       establishment_name,
+       employer_name,
+       address,
+       owner_name,
+       mobile_number,
+       email_id,
+       aadhar_number,
+       aadhaar_number,
+       pan_number,
+       tan_number,
+       virtual_bank_account_number,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
@@ -0,0 +1,38 @@
+INSERT INTO employer_master (
+       board_id,
+       serial_no,
+       registration_number,
+       establishment_name,
+       employer_name,
+       address,
+       owner_name,
+       mobile_number,
+       email_id,
+       aadhar_number,
+       aadhaar_number,
+       pan_number,
+       tan_number,
+       virtual_bank_account_number,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+ON CONFLICT (registration_number) DO UPDATE SET
+       board_id = EXCLUDED.board_id,
+       serial_no = EXCLUDED.serial_no,
+       establishment_name = EXCLUDED.establishment_name,
+       employer_name = EXCLUDED.employer_name,
+       address = EXCLUDED.address,
+       owner_name = EXCLUDED.owner_name,
+       mobile_number = EXCLUDED.mobile_number,
+       email_id = EXCLUDED.email_id,
+       aadhar_number = EXCLUDED.aadhar_number,
+       aadhaar_number = EXCLUDED.aadhaar_number,
+       pan_number = EXCLUDED.pan_number,
+       tan_number = EXCLUDED.tan_number,
+       virtual_bank_account_number = EXCLUDED.virtual_bank_account_number,
+       status = EXCLUDED.status,
+       updated_at = EXCLUDED.updated_at,
+       content_hash = EXCLUDED.content_hash
+ WHERE employer_master.content_hash IS DISTINCT FROM EXCLUDED.content_hash
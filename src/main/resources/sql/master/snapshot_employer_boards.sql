@@ -0,0 +1,5 @@
+-- Employer -> board directory for the master-data snapshot, changed since the watermark.
+-- Bind order: since
+SELECT registration_number, board_id, status, updated_at
+FROM employer_master
+WHERE updated_at >= ?
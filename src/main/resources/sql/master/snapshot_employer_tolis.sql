@@ -0,0 +1,7 @@
+-- Employer-toli relations of one board's employers for the master-data snapshot, changed since the watermark.
+-- Bind order: boardId, since
+SELECT r.employer_id, r.toli_id, r.status, r.updated_at
+FROM employer_toli_relation r
+JOIN employer_master e ON e.registration_number = r.employer_id
+WHERE e.board_id = ?
+  AND r.updated_at >= ?
@@ -0,0 +1,6 @@
+-- Workers of one board for the master-data snapshot, changed since the watermark.
+-- Bind order: boardId, since
+SELECT registration_number, account_number, status, updated_at
+FROM worker_master
+WHERE board_id = ?
+  AND updated_at >= ?
@@ -0,0 +1,14 @@
+INSERT INTO toli_master (
+       board_id,
+       employer_id,
+       registration_number,
+       employer_name_marathi,
+       address,
+       employer_name_english,
+       mobile_number,
+       email_id,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
@@ -0,0 +1,26 @@
+INSERT INTO toli_master (
+       board_id,
+       employer_id,
+       registration_number,
+       employer_name_marathi,
+       address,
+       employer_name_english,
+       mobile_number,
+       email_id,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+ON CONFLICT (registration_number) DO UPDATE SET
+       board_id = EXCLUDED.board_id,
+       employer_id = EXCLUDED.employer_id,
+       employer_name_marathi = EXCLUDED.employer_name_marathi,
+       address = EXCLUDED.address,
+       employer_name_english = EXCLUDED.employer_name_english,
+       mobile_number = EXCLUDED.mobile_number,
+       email_id = EXCLUDED.email_id,
+       status = EXCLUDED.status,
+       updated_at = EXCLUDED.updated_at,
+       content_hash = EXCLUDED.content_hash
+ WHERE toli_master.content_hash IS DISTINCT FROM EXCLUDED.content_hash
@@ -0,0 +1,27 @@
+INSERT INTO worker_master (
+       board_id,
+       worker_name_marathi,
+       worker_name_english,
+       witness_name_1,
+       witness_name_2,
+       toli_number,
+       registration_number,
+       pan_number,
+       nationality,
+       mother_name,
+       mobile_number,
+       mobile_number_1,
+       marital_status,
+       ifsc_code,
+       branch_address,
+       bank_name,
+       age,
+       address1,
+       address2,
+       account_number,
+       aadhar_number,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
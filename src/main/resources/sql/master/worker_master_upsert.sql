@@ -0,0 +1,52 @@
+INSERT INTO worker_master (
+       board_id,
+       worker_name_marathi,
+       worker_name_english,
+       witness_name_1,
+       witness_name_2,
+       toli_number,
+       registration_number,
+       pan_number,
+       nationality,
+       mother_name,
+       mobile_number,
+       mobile_number_1,
+       marital_status,
+       ifsc_code,
+       branch_address,
+       bank_name,
+       age,
+       address1,
+       address2,
+       account_number,
+       aadhar_number,
+       status,
+       created_at,
+       updated_at,
+       content_hash
+) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)
+ON CONFLICT (registration_number) DO UPDATE SET
+       board_id = EXCLUDED.board_id,
+       worker_name_marathi = EXCLUDED.worker_name_marathi,
+       worker_name_english = EXCLUDED.worker_name_english,
+       witness_name_1 = EXCLUDED.witness_name_1,
+       witness_name_2 = EXCLUDED.witness_name_2,
+       toli_number = EXCLUDED.toli_number,
+       pan_number = EXCLUDED.pan_number,
+       nationality = EXCLUDED.nationality,
+       mother_name = EXCLUDED.mother_name,
+       mobile_number = EXCLUDED.mobile_number,
+       mobile_number_1 = EXCLUDED.mobile_number_1,
+       marital_status = EXCLUDED.marital_status,
+       ifsc_code = EXCLUDED.ifsc_code,
+       branch_address = EXCLUDED.branch_address,
+       bank_name = EXCLUDED.bank_name,
+       age = EXCLUDED.age,
+       address1 = EXCLUDED.address1,
+       address2 = EXCLUDED.address2,
+       account_number = EXCLUDED.account_number,
+       aadhar_number = EXCLUDED.aadhar_number,
+       status = EXCLUDED.status,
+       updated_at = EXCLUDED.updated_at,
+       content_hash = EXCLUDED.content_hash
+ WHERE worker_master.content_hash IS DISTINCT FROM EXCLUDED.content_hash
@@ -0,0 +1,24 @@
+-- Claim row fingerprints. Returns the rows that now own their fingerprint, including rows that
+-- already owned it from an earlier attempt; rows whose fingerprint belongs to another row are
+-- duplicates and are not returned.
+-- Bind order: fileId, fingerprints (hex text[]), uploadedDataIds (bigint[])
+WITH p AS (
+    SELECT CAST(? AS VARCHAR) AS file_id
+),
+input AS (
+    SELECT decode(f.fingerprint, 'hex') AS fingerprint, f.uploaded_data_id
+    FROM unnest(CAST(? AS TEXT[]), CAST(? AS BIGINT[])) AS f(fingerprint, uploaded_data_id)
+),
+claimed AS (
+    INSERT INTO worker_payment_fingerprints (fingerprint, uploaded_data_id, file_id, created_at)
+    SELECT i.fingerprint, i.uploaded_data_id, p.file_id, CURRENT_TIMESTAMP
+    FROM input i
+    CROSS JOIN p
+    ON CONFLICT (fingerprint) DO NOTHING
+    RETURNING uploaded_data_id
+)
+SELECT uploaded_data_id FROM claimed
+UNION ALL
+SELECT fp.uploaded_data_id
+FROM worker_payment_fingerprints fp
+JOIN input i ON i.fingerprint = fp.fingerprint AND i.uploaded_data_id = fp.uploaded_data_id
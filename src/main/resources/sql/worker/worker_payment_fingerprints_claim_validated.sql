@@ -0,0 +1,39 @@
+-- Set-based fingerprint claim for a file's VALIDATED rows, then reject the rows whose
+-- fingerprint belongs to another row. Rows that already own their fingerprint are kept.
+-- The canonical text must match WorkerRowFingerprint and the backfill migration.
+-- Bind order: fileId, rejectionReason
+WITH p AS (
+    SELECT CAST(? AS VARCHAR) AS file_id, CAST(? AS TEXT) AS rejection_reason
+),
+candidates AS (
+    SELECT d.id,
+           sha256(convert_to(concat_ws(chr(31),
+               btrim(d.worker_id), btrim(d.employer_id), btrim(d.toli_id),
+               to_char(d.work_date, 'YYYY-MM-DD'), CAST(trim_scale(d.payment_amount) AS TEXT)), 'UTF8')) AS fingerprint
+    FROM worker_uploaded_data d
+    CROSS JOIN p
+    WHERE d.file_id = p.file_id
+      AND d.status = 'VALIDATED'
+),
+claimed AS (
+    INSERT INTO worker_payment_fingerprints (fingerprint, uploaded_data_id, file_id, created_at)
+    SELECT DISTINCT ON (c.fingerprint) c.fingerprint, c.id, p.file_id, CURRENT_TIMESTAMP
+    FROM candidates c
+    CROSS JOIN p
+    ORDER BY c.fingerprint, c.id
+    ON CONFLICT (fingerprint) DO NOTHING
+    RETURNING uploaded_data_id
+)
+UPDATE worker_uploaded_data w
+SET status = 'REJECTED',
+    rejection_reason = p.rejection_reason,
+    validated_at = NULL
+FROM candidates c
+CROSS JOIN p
+WHERE w.id = c.id
+  AND NOT EXISTS (SELECT 1 FROM claimed cl WHERE cl.uploaded_data_id = c.id)
+  AND NOT EXISTS (
+      SELECT 1
+      FROM worker_payment_fingerprints fp
+      WHERE fp.fingerprint = c.fingerprint
+        AND fp.uploaded_data_id = c.id)
@@ -0,0 +1,41 @@
+-- Set-based equivalent of WorkerUploadedDataService.convertUploadedDataToPayment.
+-- request_reference_number follows WorkerPayment.prePersist: 'WRK-' + 12 upper-case hex chars.
+-- Bind order: createdAt, fileId, receiptNumber
+INSERT INTO worker_payments (
+       worker_reference,
+       registration_id,
+       worker_name,
+       employer_id,
+       toli_id,
+       toli,
+       aadhar,
+       pan,
+       bank_account,
+       payment_amount,
+       file_id,
+       request_reference_number,
+       receipt_number,
+       status,
+       created_at
+)
+SELECT d.worker_id,
+       d.worker_id,
+       d.worker_name,
+       d.employer_id,
+       d.toli_id,
+       COALESCE(d.department, 'DEFAULT'),
+       '',
+       '',
+       d.bank_account,
+       d.payment_amount,
+       d.file_id,
+       'WRK-' || upper(substr(md5(CAST(random() AS TEXT) || CAST(d.id AS TEXT)), 1, 12)),
+       d.receipt_number,
+       'VALIDATED',
+       p.created_at
+FROM worker_uploaded_data d
+CROSS JOIN (SELECT CAST(? AS TIMESTAMP) AS created_at) p
+WHERE d.file_id = ?
+  AND d.receipt_number = ?
+  AND d.status = 'REQUEST_GENERATED'
+ORDER BY d.id
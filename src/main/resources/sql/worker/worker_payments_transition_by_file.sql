@@ -0,0 +1,6 @@
+-- Bind order: toStatus, receiptNumber, fileId, fromStatuses
+UPDATE worker_payments
+SET status = ?,
+    receipt_number = ?
+WHERE file_id = ?
+  AND status = ANY(?)
@@ -0,0 +1,5 @@
+-- Bind order: toStatus, receiptNumber, fromStatuses
+UPDATE worker_payments
+SET status = ?
+WHERE receipt_number = ?
+  AND status = ANY(?)
@@ -0,0 +1,6 @@
+UPDATE worker_uploaded_data
+SET status = ?,
+    rejection_reason = ?,
+    validated_at = ?
+WHERE id = ?
+  AND status = 'UPLOADED'
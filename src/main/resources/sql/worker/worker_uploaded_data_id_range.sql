@@ -0,0 +1,5 @@
+SELECT MIN(id) AS min_id,
+       MAX(id) AS max_id
+FROM worker_uploaded_data
+WHERE file_id = ?
+  AND status = ?
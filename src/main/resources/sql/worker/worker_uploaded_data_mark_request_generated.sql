@@ -0,0 +1,7 @@
+-- Bind order: receiptNumber, processedAt, fileId
+UPDATE worker_uploaded_data
+SET status = 'REQUEST_GENERATED',
+    receipt_number = ?,
+    processed_at = ?
+WHERE file_id = ?
+  AND status = 'VALIDATED'
@@ -0,0 +1,22 @@
+-- Totals for the receipt of a request plus the employer/toli of the first validated row.
+-- Bind order: fileId, fileId
+SELECT agg.total_records,
+       agg.total_amount,
+       first_row.employer_id,
+       first_row.toli_id
+FROM (
+    SELECT COUNT(*) AS total_records,
+           COALESCE(SUM(payment_amount), 0) AS total_amount
+    FROM worker_uploaded_data
+    WHERE file_id = ?
+      AND status = 'VALIDATED'
+) agg
+LEFT JOIN LATERAL (
+    SELECT employer_id,
+           toli_id
+    FROM worker_uploaded_data
+    WHERE file_id = ?
+      AND status = 'VALIDATED'
+    ORDER BY id
+    LIMIT 1
+) first_row ON TRUE
@@ -0,0 +1,86 @@
+-- Set-based mirror of WorkerRecordRule (worker.validation).
+-- Messages and their order must stay in sync with the enum declaration order.
+-- Bind order: today, oneYearAgo, checkMaster, fileId
+UPDATE worker_uploaded_data w
+SET status = CASE WHEN c.errors = '' THEN 'VALIDATED' ELSE 'REJECTED' END,
+    rejection_reason = CASE WHEN c.errors = '' THEN w.rejection_reason ELSE c.errors END,
+    validated_at = CASE WHEN c.errors = '' THEN CURRENT_TIMESTAMP ELSE w.validated_at END
+FROM (
+    SELECT d.id,
+           concat_ws(' ',
+               CASE WHEN d.worker_id IS NULL OR btrim(d.worker_id) = '' THEN 'Worker ID is required.' END,
+               CASE WHEN d.worker_name IS NULL OR btrim(d.worker_name) = '' THEN 'Worker name is required.' END,
+               CASE WHEN d.payment_amount IS NULL OR d.payment_amount <= 0 THEN 'Valid payment amount greater than 0 is required.' END,
+               CASE WHEN d.bank_account IS NULL OR btrim(d.bank_account) = '' THEN 'Bank account is required.' END,
+               CASE WHEN d.work_date IS NULL THEN 'Work date is required.' END,
+               CASE WHEN char_length(d.worker_name) > 100 THEN 'Worker name must not exceed 100 characters.' END,
+               CASE WHEN char_length(d.company_name) > 100 THEN 'Company name must not exceed 100 characters.' END,
+               CASE WHEN char_length(d.department) > 50 THEN 'Department must not exceed 50 characters.' END,
+               CASE WHEN char_length(d.position) > 50 THEN 'Position must not exceed 50 characters.' END,
+               CASE WHEN char_length(d.worker_id) > 50 THEN 'Worker ID must not exceed 50 characters.' END,
+               CASE WHEN char_length(d.email) > 100 THEN 'Email must not exceed 100 characters.' END,
+               CASE WHEN d.bank_account IS NOT NULL
+                         AND char_length(btrim(d.bank_account)) NOT BETWEEN 10 AND 20
+                    THEN 'Bank account must be between 10-20 characters.' END,
+               CASE WHEN d.bank_account IS NOT NULL
+                         AND btrim(d.bank_account) !~ '^[A-Za-z0-9]+$'
+                    THEN 'Bank account must contain only letters and digits.' END,
+               CASE WHEN btrim(d.phone_number) <> ''
+                         AND char_length(btrim(d.phone_number)) > 15
+                    THEN 'Phone number must not exceed 15 characters.' END,
+               CASE WHEN btrim(d.phone_number) <> ''
+                         AND btrim(d.phone_number) !~ '^(\+\d{1,3}[\s\-]?)?\d{10}$'
+                    THEN 'Invalid phone number format.' END,
+               CASE WHEN btrim(d.email) <> ''
+                         AND d.email !~ '^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\.[A-Za-z]{2,}$'
+                    THEN 'Invalid email format.' END,
+               CASE WHEN d.work_date > p.today THEN 'Work date cannot be in the future.' END,
+               CASE WHEN d.work_date < p.one_year_ago THEN 'Work date cannot be more than 1 year old.' END,
+               CASE WHEN d.hours_worked <= 0 THEN 'Hours worked must be greater than 0.' END,
+               CASE WHEN d.hours_worked > 24 THEN 'Hours worked cannot exceed 24 hours per day.' END,
+               CASE WHEN d.hourly_rate <= 0 THEN 'Hourly rate must be greater than 0.' END,
+               CASE WHEN d.hourly_rate > 10000 THEN 'Hourly rate seems unreasonably high (max 10,000).' END,
+               CASE WHEN d.payment_amount > 1000000 THEN 'Payment amount seems unreasonably high (max 1,000,000).' END,
+               CASE WHEN abs(d.payment_amount - d.hours_worked * d.hourly_rate) > 0.01
+                    THEN 'Payment amount doesn''t match hours worked × hourly rate (calculated: '
+                         || CAST(d.hours_worked * d.hourly_rate AS TEXT) || ').' END,
+               CASE WHEN p.check_master AND btrim(d.worker_id) <> ''
+                         AND NOT EXISTS (
+                             SELECT 1
+                             FROM employer_master e
+                             JOIN worker_master m ON m.board_id = e.board_id
+                             WHERE e.registration_number = btrim(d.employer_id)
+                               AND e.status = 'ACTIVE'
+                               AND m.registration_number = btrim(d.worker_id)
+                               AND m.status = 'ACTIVE')
+                    THEN 'Worker is not registered in the worker master of the employer''s board.' END,
+               CASE WHEN p.check_master AND btrim(d.toli_id) <> ''
+                         AND NOT EXISTS (
+                             SELECT 1
+                             FROM employer_master e
+                             JOIN employer_toli_relation r ON r.employer_id = e.registration_number
+                             WHERE e.registration_number = btrim(d.employer_id)
+                               AND e.status = 'ACTIVE'
+                               AND r.toli_id = btrim(d.toli_id)
+                               AND r.status = 'ACTIVE')
+                    THEN 'Toli is not registered under the employer.' END,
+               CASE WHEN p.check_master AND btrim(d.bank_account) <> '' AND btrim(d.worker_id) <> ''
+                         AND EXISTS (
+                             SELECT 1
+                             FROM employer_master e
+                             JOIN worker_master m ON m.board_id = e.board_id
+                             WHERE e.registration_number = btrim(d.employer_id)
+                               AND e.status = 'ACTIVE'
+                               AND m.registration_number = btrim(d.worker_id)
+                               AND m.status = 'ACTIVE'
+                               AND btrim(m.account_number) <> ''
+                               AND upper(btrim(m.account_number)) <> upper(btrim(d.bank_account)))
+                    THEN 'Bank account does not match the worker master.' END
+           ) AS errors
+    FROM worker_uploaded_data d
+    CROSS JOIN (SELECT CAST(? AS DATE) AS today, CAST(? AS DATE) AS one_year_ago,
+                       CAST(? AS BOOLEAN) AS check_master) p
+    WHERE d.file_id = ?
+      AND d.status = 'UPLOADED'
+) c
+WHERE w.id = c.id
@@ -0,0 +1,12 @@
+-- Status counts and validated amount of the uploaded rows of one page of files, read through the
+-- (file_id, status) index; only the files named in :fileIds are aggregated.
+SELECT wud.file_id,
+       COUNT(*) AS total_records,
+       COUNT(*) FILTER (WHERE wud.status = 'UPLOADED') AS uploaded_count,
+       COUNT(*) FILTER (WHERE wud.status = 'VALIDATED') AS validated_count,
+       COUNT(*) FILTER (WHERE wud.status = 'REJECTED') AS rejected_count,
+       COUNT(*) FILTER (WHERE wud.status = 'REQUEST_GENERATED') AS request_generated_count,
+       COALESCE(SUM(wud.payment_amount) FILTER (WHERE wud.status = 'VALIDATED'), 0) AS total_validated_amount
+FROM worker_uploaded_data wud
+WHERE wud.file_id IN (:fileIds)
+GROUP BY wud.file_id
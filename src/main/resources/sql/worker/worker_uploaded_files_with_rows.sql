@@ -0,0 +1,12 @@
+-- Uploaded files that have at least one uploaded row; each file is probed through the
+-- (file_id, status) index, so a LIMIT on the caller's ORDER BY stops the scan early.
+-- Callers append further AND filters on uf, ORDER BY and LIMIT/OFFSET.
+SELECT uf.id,
+       uf.filename,
+       uf.created_at
+FROM uploaded_files uf
+WHERE EXISTS (
+    SELECT 1
+    FROM worker_uploaded_data wud
+    WHERE wud.file_id = CAST(uf.id AS VARCHAR)
+)
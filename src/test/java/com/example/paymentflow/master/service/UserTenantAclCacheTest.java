@@ -0,0 +1,240 @@
+package com.example.paymentflow.master.service;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import com.example.paymentflow.master.config.UserTenantAclCacheConfig;
+import com.example.paymentflow.master.event.UserTenantAclChangedEvent;
+import com.example.paymentflow.master.service.UserTenantAclClient.UserTenantAclInfo;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+class UserTenantAclCacheTest {
+
+    private static final long TTL_SECONDS = 60;
+
+    private final AtomicLong nanoTime = new AtomicLong(1_000_000L);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void shutDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void servesCachedAclUntilTtlExpires() {
+        StubClient client = new StubClient(userId -> acl("board-" + userId));
+        UserTenantAclCache cache = cache(client, 100);
+
+        UserTenantAclInfo first = cache.getAclForUser(1L);
+        advanceSeconds(TTL_SECONDS);
+        assertSame(first, cache.getAclForUser(1L));
+        assertEquals(1, client.calls.get());
+
+        advanceSeconds(1);
+        cache.getAclForUser(1L);
+        assertEquals(2, client.calls.get());
+        assertEquals(1.0, evictions("expired"));
+    }
+
+    @Test
+    void evictsOldestEntriesBeyondMaxEntries() {
+        StubClient client = new StubClient(userId -> acl("board-" + userId));
+        UserTenantAclCache cache = cache(client, 2);
+
+        cache.getAclForUser(1L);
+        advanceSeconds(1);
+        cache.getAclForUser(2L);
+        advanceSeconds(1);
+        cache.getAclForUser(3L);
+        assertEquals(3, client.calls.get());
+        assertEquals(1.0, evictions("size"));
+
+        cache.getAclForUser(2L);
+        cache.getAclForUser(3L);
+        assertEquals(3, client.calls.get());
+
+        cache.getAclForUser(1L);
+        assertEquals(4, client.calls.get());
+    }
+
+    @Test
+    void concurrentMissesShareOneClientCall() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        StubClient client = new StubClient(userId -> {
+            entered.countDown();
+            await(release);
+            return acl("board-" + userId);
+        });
+        UserTenantAclCache cache = cache(client, 100);
+        int callers = 8;
+
+        List<Future<UserTenantAclInfo>> results = new ArrayList<>();
+        results.add(executor.submit(() -> cache.getAclForUser(7L)));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        for (int i = 1; i < callers; i++) {
+            results.add(executor.submit(() -> cache.getAclForUser(7L)));
+        }
+        // Release the lookup only once every other caller is waiting on it
+        waitUntil(() -> requests("coalesced") == callers - 1);
+        release.countDown();
+
+        UserTenantAclInfo loaded = results.get(0).get(5, TimeUnit.SECONDS);
+        for (Future<UserTenantAclInfo> result : results) {
+            assertSame(loaded, result.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, client.calls.get());
+        assertEquals(1.0, requests("miss"));
+    }
+
+    @Test
+    void failedLookupIsNotCached() {
+        AtomicInteger attempt = new AtomicInteger();
+        StubClient client = new StubClient(userId -> {
+            if (attempt.getAndIncrement() == 0) {
+                throw new IllegalStateException("auth service unavailable");
+            }
+            return acl("board-" + userId);
+        });
+        UserTenantAclCache cache = cache(client, 100);
+
+        IllegalStateException failure = assertThrows(IllegalStateException.class, () -> cache.getAclForUser(1L));
+        assertEquals("auth service unavailable", failure.getMessage());
+
+        assertEquals("board-1", cache.getAclForUser(1L).getBoardId());
+        cache.getAclForUser(1L);
+        assertEquals(2, client.calls.get());
+    }
+
+    @Test
+    void invalidationDuringLoadDropsTheLoadedAcl() throws Exception {
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger version = new AtomicInteger();
+        StubClient client = new StubClient(userId -> {
+            int current = version.incrementAndGet();
+            if (current == 1) {
+                entered.countDown();
+                await(release);
+            }
+            return acl("board-v" + current);
+        });
+        UserTenantAclCache cache = cache(client, 100);
+
+        Future<UserTenantAclInfo> inFlight = executor.submit(() -> cache.getAclForUser(5L));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+        cache.onAclChanged(new UserTenantAclChangedEvent(5L));
+        release.countDown();
+
+        // The caller that started the lookup still gets its answer, but it is not kept
+        assertEquals("board-v1", inFlight.get(5, TimeUnit.SECONDS).getBoardId());
+        assertEquals("board-v2", cache.getAclForUser(5L).getBoardId());
+        assertEquals("board-v2", cache.getAclForUser(5L).getBoardId());
+        assertEquals(2, client.calls.get());
+    }
+
+    @Test
+    void invalidateAllDropsEveryUser() {
+        StubClient client = new StubClient(userId -> acl("board-" + userId));
+        UserTenantAclCache cache = cache(client, 100);
+        cache.getAclForUser(1L);
+        cache.getAclForUser(2L);
+
+        cache.onAclChanged(UserTenantAclChangedEvent.allUsers());
+        cache.getAclForUser(1L);
+        cache.getAclForUser(2L);
+
+        assertEquals(4, client.calls.get());
+    }
+
+    @Test
+    void zeroTtlDisablesCaching() {
+        StubClient client = new StubClient(userId -> acl("board-" + userId));
+        UserTenantAclCacheConfig config = new UserTenantAclCacheConfig();
+        config.setTtlSeconds(0);
+        UserTenantAclCache cache = new UserTenantAclCache(client, config, meterRegistry, nanoTime::get);
+
+        cache.getAclForUser(1L);
+        cache.getAclForUser(1L);
+
+        assertEquals(2, client.calls.get());
+    }
+
+    private UserTenantAclCache cache(UserTenantAclClient client, int maxEntries) {
+        UserTenantAclCacheConfig config = new UserTenantAclCacheConfig();
+        config.setTtlSeconds(TTL_SECONDS);
+        config.setMaxEntries(maxEntries);
+        return new UserTenantAclCache(client, config, meterRegistry, nanoTime::get);
+    }
+
+    private void advanceSeconds(long seconds) {
+        nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(seconds));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("master.acl.cache.requests").tag("result", result).counter().count();
+    }
+
+    private double evictions(String cause) {
+        return meterRegistry.get("master.acl.cache.evictions").tag("cause", cause).counter().count();
+    }
+
+    private static UserTenantAclInfo acl(String boardId) {
+        return new UserTenantAclInfo(boardId, "employer-1");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            if (!latch.await(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("Timed out waiting for the test to release the lookup");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void waitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertTrue(System.nanoTime() < deadline, "condition not met within 5 seconds");
+            Thread.sleep(5);
+        }
+    }
+
+    /** Counts calls and answers through the given function instead of the auth service. */
+    private static final class StubClient extends UserTenantAclClient {
+
+        private final AtomicInteger calls = new AtomicInteger();
+        private final Function<Long, UserTenantAclInfo> answer;
+
+        private StubClient(Function<Long, UserTenantAclInfo> answer) {
+            this.answer = answer;
+        }
+
+        @Override
+        public UserTenantAclInfo getAclForUser(Long userId) {
+            calls.incrementAndGet();
+            return answer.apply(userId);
+        }
+    }
+}
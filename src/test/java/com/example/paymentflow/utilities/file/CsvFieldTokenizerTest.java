@@ -0,0 +1,137 @@
+package com.example.paymentflow.utilities.file;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+class CsvFieldTokenizerTest {
+
+    /** Size of the tokenizer's read buffer; inputs straddling it exercise state carried across reads. */
+    private static final int READ_BUFFER_SIZE = 64 * 1024;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void splitsRecordsAndFields() throws IOException {
+        List<String[]> records = tokenize("id,name,amount\n1,Ramesh,100\n2,,250\n");
+
+        assertEquals(3, records.size());
+        assertArrayEquals(new String[] {"id", "name", "amount"}, records.get(0));
+        assertArrayEquals(new String[] {"1", "Ramesh", "100"}, records.get(1));
+        assertArrayEquals(new String[] {"2", "", "250"}, records.get(2));
+    }
+
+    @Test
+    void quotedFieldKeepsCommasAndLineBreaks() throws IOException {
+        List<String[]> records = tokenize("1,\"Shed 4, Dock Road\nNavi Mumbai\",done\r\n2,x,y\r\n");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"1", "Shed 4, Dock Road\nNavi Mumbai", "done"}, records.get(0));
+        assertArrayEquals(new String[] {"2", "x", "y"}, records.get(1));
+    }
+
+    @Test
+    void doubledQuoteIsALiteralQuote() throws IOException {
+        List<String[]> records = tokenize("\"say \"\"hi\"\"\",\"\"\"\",\"\"\n");
+
+        assertArrayEquals(new String[] {"say \"hi\"", "\"", ""}, records.get(0));
+    }
+
+    @Test
+    void utf8BomIsSkipped() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        bytes.write(new byte[] {(byte) 0xEF, (byte) 0xBB, (byte) 0xBF});
+        bytes.write("workerId,name\nW1,संजय\n".getBytes(StandardCharsets.UTF_8));
+
+        List<String[]> records = tokenize(bytes.toByteArray());
+
+        assertArrayEquals(new String[] {"workerId", "name"}, records.get(0));
+        assertArrayEquals(new String[] {"W1", "संजय"}, records.get(1));
+    }
+
+    @Test
+    void crlfSplitAcrossReadBuffersEndsOneRecord() throws IOException {
+        String longField = "x".repeat(READ_BUFFER_SIZE - 1);
+
+        // The CR is the last byte of the first read and the LF the first byte of the second
+        List<String[]> records = tokenize(longField + "\r\nnext\r\n");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {longField}, records.get(0));
+        assertArrayEquals(new String[] {"next"}, records.get(1));
+    }
+
+    @Test
+    void multiByteCharacterSplitAcrossReadBuffersIsDecoded() throws IOException {
+        String prefix = "y".repeat(READ_BUFFER_SIZE - 1);
+
+        List<String[]> records = tokenize(prefix + "é,z\n");
+
+        assertArrayEquals(new String[] {prefix + "é", "z"}, records.get(0));
+    }
+
+    @Test
+    void trailingRecordWithoutLineBreakIsEmitted() throws IOException {
+        List<String[]> records = tokenize("a,b\nc,d");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"c", "d"}, records.get(1));
+    }
+
+    @Test
+    void trailingEmptyFieldIsKept() throws IOException {
+        List<String[]> records = tokenize("a,\nb,");
+
+        assertArrayEquals(new String[] {"a", ""}, records.get(0));
+        assertArrayEquals(new String[] {"b", ""}, records.get(1));
+    }
+
+    @Test
+    void loneCarriageReturnEndsARecord() throws IOException {
+        List<String[]> records = tokenize("a\rb\r");
+
+        assertEquals(2, records.size());
+        assertArrayEquals(new String[] {"b"}, records.get(1));
+    }
+
+    @Test
+    void recordIndexesCountFromZero() throws IOException {
+        Path file = write("h\n1\n2\n".getBytes(StandardCharsets.UTF_8));
+        List<Long> indexes = new ArrayList<>();
+
+        long count = CsvFieldTokenizer.tokenize(file, (recordIndex, fields) -> indexes.add(recordIndex));
+
+        assertEquals(3, count);
+        assertEquals(List.of(0L, 1L, 2L), indexes);
+    }
+
+    @Test
+    void emptyFileEmitsNoRecords() throws IOException {
+        assertEquals(0, tokenize("").size());
+    }
+
+    private List<String[]> tokenize(String content) throws IOException {
+        return tokenize(content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private List<String[]> tokenize(byte[] content) throws IOException {
+        List<String[]> records = new ArrayList<>();
+        CsvFieldTokenizer.tokenize(write(content), (recordIndex, fields) -> records.add(fields));
+        return records;
+    }
+
+    private Path write(byte[] content) throws IOException {
+        return Files.write(Files.createTempFile(tempDir, "upload", ".csv"), content);
+    }
+}
@@ -0,0 +1,116 @@
+package com.example.paymentflow.utilities.file;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.commons.csv.CSVFormat;
+import org.apache.commons.csv.CSVParser;
+import org.apache.commons.csv.CSVRecord;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.opencsv.CSVReader;
+
+/**
+ * Compares {@link CsvFieldTokenizer} with the BufferedReader and lookahead-regex split it
+ * replaced, commons-csv and opencsv, on a generated worker upload. Quoted fields contain commas
+ * but no line breaks, so every parser sees the same records. Run after {@code mvn test-compile}
+ * with {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main CsvParsingBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CsvParsingBenchmark {
+
+    /** The replaced split, which String.split compiled again for every line. */
+    private static final String LEGACY_SPLIT = ",(?=(?:[^\"]*\"[^\"]*\")*[^\"]*$)";
+
+    @Param({"10000", "100000"})
+    public int rows;
+
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void writeFile() throws IOException {
+        file = Files.createTempFile("worker-upload", ".csv");
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write("workerId,workerName,companyName,department,position,workDate,hoursWorked,"
+                    + "hourlyRate,paymentAmount,bankAccount,phoneNumber,email\n");
+            for (int i = 0; i < rows; i++) {
+                writer.write("W" + i + ",Worker " + i + ",\"Harbour Logistics, Unit " + (i % 7) + "\",Loading,Mathadi,"
+                        + "2026-03-0" + (1 + i % 9) + ",8,125.50,1004.00,SBIN" + (10000000 + i)
+                        + ",+91-98765" + (10000 + i % 90000) + ",worker" + i + "@example.com\n");
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void deleteFile() throws IOException {
+        Files.deleteIfExists(file);
+    }
+
+    @Benchmark
+    public long fieldTokenizer(Blackhole blackhole) throws IOException {
+        return CsvFieldTokenizer.tokenize(file, (recordIndex, fields) -> blackhole.consume(fields));
+    }
+
+    @Benchmark
+    public long regexSplit(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (BufferedReader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                blackhole.consume(line.split(LEGACY_SPLIT, -1));
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long commonsCsv(Blackhole blackhole) throws IOException {
+        long records = 0;
+        try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8);
+                CSVParser parser = CSVFormat.DEFAULT.parse(reader)) {
+            for (CSVRecord record : parser) {
+                blackhole.consume(record.values());
+                records++;
+            }
+        }
+        return records;
+    }
+
+    @Benchmark
+    public long openCsv(Blackhole blackhole) throws Exception {
+        long records = 0;
+        try (CSVReader reader = new CSVReader(Files.newBufferedReader(file, StandardCharsets.UTF_8))) {
+            String[] fields;
+            while ((fields = reader.readNext()) != null) {
+                blackhole.consume(fields);
+                records++;
+            }
+        }
+        return records;
+    }
+}
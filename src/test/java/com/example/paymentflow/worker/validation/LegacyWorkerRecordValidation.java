@@ -0,0 +1,147 @@
+package com.example.paymentflow.worker.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * The per-row validation that {@link WorkerRecordRule} replaced, kept verbatim as the reference
+ * for parity tests and benchmarks. Only the clock is a parameter so results are deterministic.
+ */
+final class LegacyWorkerRecordValidation {
+
+    private LegacyWorkerRecordValidation() {
+    }
+
+    /**
+     * @return the rejection reason the old validateRecord stored, or null for a valid record
+     */
+    static String rejectionReason(WorkerUploadedData record, LocalDate today) {
+        StringBuilder errors = new StringBuilder();
+
+        // Required field validations
+        if (record.getWorkerId() == null || record.getWorkerId().trim().isEmpty()) {
+            errors.append("Worker ID is required. ");
+        }
+
+        if (record.getWorkerName() == null || record.getWorkerName().trim().isEmpty()) {
+            errors.append("Worker name is required. ");
+        }
+
+        if (record.getPaymentAmount() == null || record.getPaymentAmount().compareTo(BigDecimal.ZERO) <= 0) {
+            errors.append("Valid payment amount greater than 0 is required. ");
+        }
+
+        if (record.getBankAccount() == null || record.getBankAccount().trim().isEmpty()) {
+            errors.append("Bank account is required. ");
+        }
+
+        if (record.getWorkDate() == null) {
+            errors.append("Work date is required. ");
+        }
+
+        // Field length validations
+        if (record.getWorkerName() != null && record.getWorkerName().length() > 100) {
+            errors.append("Worker name must not exceed 100 characters. ");
+        }
+
+        if (record.getCompanyName() != null && record.getCompanyName().length() > 100) {
+            errors.append("Company name must not exceed 100 characters. ");
+        }
+
+        if (record.getDepartment() != null && record.getDepartment().length() > 50) {
+            errors.append("Department must not exceed 50 characters. ");
+        }
+
+        if (record.getPosition() != null && record.getPosition().length() > 50) {
+            errors.append("Position must not exceed 50 characters. ");
+        }
+
+        if (record.getWorkerId() != null && record.getWorkerId().length() > 50) {
+            errors.append("Worker ID must not exceed 50 characters. ");
+        }
+
+        if (record.getEmail() != null && record.getEmail().length() > 100) {
+            errors.append("Email must not exceed 100 characters. ");
+        }
+
+        // Bank account validation
+        if (record.getBankAccount() != null) {
+            String bankAccount = record.getBankAccount().trim();
+            if (bankAccount.length() < 10 || bankAccount.length() > 20) {
+                errors.append("Bank account must be between 10-20 characters. ");
+            }
+            if (!bankAccount.matches("^[A-Za-z0-9]+$")) {
+                errors.append("Bank account must contain only letters and digits. ");
+            }
+        }
+
+        // Phone number validation
+        if (record.getPhoneNumber() != null && !record.getPhoneNumber().trim().isEmpty()) {
+            String phone = record.getPhoneNumber().trim();
+            if (phone.length() > 15) {
+                errors.append("Phone number must not exceed 15 characters. ");
+            }
+            if (!phone.matches("^(\\+\\d{1,3}[\\s\\-]?)?\\d{10}$")) {
+                errors.append("Invalid phone number format. ");
+            }
+        }
+
+        // Email format validation
+        if (record.getEmail() != null && !record.getEmail().trim().isEmpty()) {
+            if (!record.getEmail().matches("^[A-Za-z0-9+_.-]+@[A-Za-z0-9.-]+\\.[A-Za-z]{2,}$")) {
+                errors.append("Invalid email format. ");
+            }
+        }
+
+        // Date validations
+        if (record.getWorkDate() != null) {
+            if (record.getWorkDate().isAfter(today)) {
+                errors.append("Work date cannot be in the future. ");
+            }
+            if (record.getWorkDate().isBefore(today.minusYears(1))) {
+                errors.append("Work date cannot be more than 1 year old. ");
+            }
+        }
+
+        // Hours worked validation
+        if (record.getHoursWorked() != null) {
+            if (record.getHoursWorked().compareTo(BigDecimal.ZERO) <= 0) {
+                errors.append("Hours worked must be greater than 0. ");
+            }
+            if (record.getHoursWorked().compareTo(new BigDecimal("24")) > 0) {
+                errors.append("Hours worked cannot exceed 24 hours per day. ");
+            }
+        }
+
+        // Hourly rate validation
+        if (record.getHourlyRate() != null) {
+            if (record.getHourlyRate().compareTo(BigDecimal.ZERO) <= 0) {
+                errors.append("Hourly rate must be greater than 0. ");
+            }
+            if (record.getHourlyRate().compareTo(new BigDecimal("10000")) > 0) {
+                errors.append("Hourly rate seems unreasonably high (max 10,000). ");
+            }
+        }
+
+        // Payment amount validation
+        if (record.getPaymentAmount() != null) {
+            if (record.getPaymentAmount().compareTo(new BigDecimal("1000000")) > 0) {
+                errors.append("Payment amount seems unreasonably high (max 1,000,000). ");
+            }
+        }
+
+        // Business logic validations
+        if (record.getHoursWorked() != null && record.getHourlyRate() != null && record.getPaymentAmount() != null) {
+            BigDecimal calculatedAmount = record.getHoursWorked().multiply(record.getHourlyRate());
+            BigDecimal difference = record.getPaymentAmount().subtract(calculatedAmount).abs();
+            if (difference.compareTo(new BigDecimal("0.01")) > 0) {
+                errors.append("Payment amount doesn't match hours worked × hourly rate (calculated: "
+                        + calculatedAmount + "). ");
+            }
+        }
+
+        return errors.length() > 0 ? errors.toString().trim() : null;
+    }
+}
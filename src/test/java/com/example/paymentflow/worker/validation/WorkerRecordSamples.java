@@ -0,0 +1,111 @@
+package com.example.paymentflow.worker.validation;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Uploaded rows shared by the validator tests and benchmarks: one valid row and variants that
+ * each break one or more rules.
+ */
+final class WorkerRecordSamples {
+
+    static final LocalDate TODAY = LocalDate.of(2026, 3, 15);
+
+    private WorkerRecordSamples() {
+    }
+
+    static WorkerUploadedData valid() {
+        WorkerUploadedData record = new WorkerUploadedData();
+        record.setWorkerId("W-1001");
+        record.setWorkerName("Ramesh Patil");
+        record.setEmployerId("EMP-01");
+        record.setToliId("T-07");
+        record.setCompanyName("Harbour Logistics");
+        record.setDepartment("Loading");
+        record.setPosition("Mathadi");
+        record.setWorkDate(TODAY.minusDays(3));
+        record.setHoursWorked(new BigDecimal("8"));
+        record.setHourlyRate(new BigDecimal("125.50"));
+        record.setPaymentAmount(new BigDecimal("1004.00"));
+        record.setBankAccount("SBIN00012345");
+        record.setPhoneNumber("+91-9876543210");
+        record.setEmail("ramesh.patil@example.com");
+        return record;
+    }
+
+    static WorkerUploadedData with(Consumer<WorkerUploadedData> change) {
+        WorkerUploadedData record = valid();
+        change.accept(record);
+        return record;
+    }
+
+    /**
+     * The valid row, every single-rule failure the non-master rules can produce, and a few rows
+     * that fail several rules at once.
+     */
+    static List<WorkerUploadedData> all() {
+        List<WorkerUploadedData> records = new ArrayList<>();
+        records.add(valid());
+        records.add(with(r -> r.setWorkerId(null)));
+        records.add(with(r -> r.setWorkerId("   ")));
+        records.add(with(r -> r.setWorkerId("W".repeat(51))));
+        records.add(with(r -> r.setWorkerName(null)));
+        records.add(with(r -> r.setWorkerName("\t")));
+        records.add(with(r -> r.setWorkerName("N".repeat(101))));
+        records.add(with(r -> r.setPaymentAmount(null)));
+        records.add(with(r -> r.setPaymentAmount(BigDecimal.ZERO)));
+        records.add(with(r -> r.setPaymentAmount(new BigDecimal("1004.01"))));
+        records.add(with(r -> r.setPaymentAmount(new BigDecimal("1004.02"))));
+        records.add(with(r -> {
+            r.setHoursWorked(new BigDecimal("10"));
+            r.setHourlyRate(new BigDecimal("100001"));
+            r.setPaymentAmount(new BigDecimal("1000010"));
+        }));
+        records.add(with(r -> r.setBankAccount(null)));
+        records.add(with(r -> r.setBankAccount("  ")));
+        records.add(with(r -> r.setBankAccount("12345")));
+        records.add(with(r -> r.setBankAccount("1".repeat(21))));
+        records.add(with(r -> r.setBankAccount("SBIN-0001234")));
+        records.add(with(r -> r.setBankAccount("  SBIN00012345  ")));
+        records.add(with(r -> r.setWorkDate(null)));
+        records.add(with(r -> r.setWorkDate(TODAY.plusDays(1))));
+        records.add(with(r -> r.setWorkDate(TODAY.minusYears(1))));
+        records.add(with(r -> r.setWorkDate(TODAY.minusYears(1).minusDays(1))));
+        records.add(with(r -> r.setCompanyName("C".repeat(101))));
+        records.add(with(r -> r.setDepartment("D".repeat(51))));
+        records.add(with(r -> r.setPosition("P".repeat(51))));
+        records.add(with(r -> r.setEmail("e".repeat(95) + "@x.com")));
+        records.add(with(r -> r.setEmail("not-an-email")));
+        records.add(with(r -> r.setEmail(" ")));
+        records.add(with(r -> r.setPhoneNumber("98765")));
+        records.add(with(r -> r.setPhoneNumber("+91-98765432101234")));
+        records.add(with(r -> r.setPhoneNumber(" 9876543210 ")));
+        records.add(with(r -> r.setPhoneNumber("")));
+        records.add(with(r -> r.setHoursWorked(BigDecimal.ZERO)));
+        records.add(with(r -> {
+            r.setHoursWorked(new BigDecimal("25"));
+            r.setPaymentAmount(new BigDecimal("3137.50"));
+        }));
+        records.add(with(r -> r.setHourlyRate(new BigDecimal("-1"))));
+        records.add(with(r -> {
+            r.setHoursWorked(null);
+            r.setHourlyRate(null);
+        }));
+        WorkerUploadedData empty = new WorkerUploadedData();
+        records.add(empty);
+        records.add(with(r -> {
+            r.setWorkerId("");
+            r.setWorkerName("N".repeat(120));
+            r.setBankAccount("abc!");
+            r.setEmail("bad@");
+            r.setPhoneNumber("12");
+            r.setWorkDate(TODAY.plusYears(1));
+        }));
+        return records;
+    }
+}
@@ -0,0 +1,80 @@
+package com.example.paymentflow.worker.validation;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+/**
+ * Compares {@link WorkerRecordValidator} with the validateRecord it replaced, over the shared
+ * sample rows (mostly failing ones) and over valid rows only, which is the common case in a
+ * clean upload. Run after {@code mvn test-compile} with
+ * {@code java -cp target/test-classes:<test classpath> org.openjdk.jmh.Main WorkerRecordValidatorBenchmark}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WorkerRecordValidatorBenchmark {
+
+    private WorkerRecordValidator validator;
+    private RuleContext context;
+    private List<WorkerUploadedData> mixedRows;
+    private List<WorkerUploadedData> validRows;
+
+    @Setup
+    public void setUp() {
+        validator = new WorkerRecordValidator(new WorkerPaymentFileConfig(), null);
+        context = RuleContext.of(WorkerRecordSamples.TODAY);
+        mixedRows = WorkerRecordSamples.all();
+        validRows = mixedRows.stream().map(row -> WorkerRecordSamples.valid()).toList();
+    }
+
+    @Benchmark
+    public void legacyMixed(Blackhole blackhole) {
+        legacy(mixedRows, blackhole);
+    }
+
+    @Benchmark
+    public void ruleRegistryMixed(Blackhole blackhole) {
+        ruleRegistry(mixedRows, blackhole);
+    }
+
+    @Benchmark
+    public void legacyValid(Blackhole blackhole) {
+        legacy(validRows, blackhole);
+    }
+
+    @Benchmark
+    public void ruleRegistryValid(Blackhole blackhole) {
+        ruleRegistry(validRows, blackhole);
+    }
+
+    private void legacy(List<WorkerUploadedData> rows, Blackhole blackhole) {
+        for (WorkerUploadedData row : rows) {
+            blackhole.consume(LegacyWorkerRecordValidation.rejectionReason(row, WorkerRecordSamples.TODAY));
+        }
+    }
+
+    private void ruleRegistry(List<WorkerUploadedData> rows, Blackhole blackhole) {
+        for (WorkerUploadedData row : rows) {
+            long failedRules = validator.evaluate(row, context);
+            blackhole.consume(validator.renderRejectionReason(failedRules, row));
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.example.paymentflow.worker.validation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.math.BigDecimal;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import com.example.paymentflow.worker.config.WorkerPaymentFileConfig;
+import com.example.paymentflow.worker.entity.WorkerUploadedData;
+
+class WorkerRecordValidatorTest {
+
+    private final WorkerRecordValidator validator = new WorkerRecordValidator(new WorkerPaymentFileConfig(), null);
+    private final RuleContext context = RuleContext.of(WorkerRecordSamples.TODAY);
+
+    @Test
+    void rejectionReasonMatchesLegacyValidation() {
+        List<WorkerUploadedData> samples = WorkerRecordSamples.all();
+        for (int i = 0; i < samples.size(); i++) {
+            WorkerUploadedData record = samples.get(i);
+            long failedRules = validator.evaluate(record, context);
+            assertEquals(LegacyWorkerRecordValidation.rejectionReason(record, WorkerRecordSamples.TODAY),
+                    validator.renderRejectionReason(failedRules, record), "sample " + i);
+        }
+    }
+
+    @Test
+    void validRecordHasNoFailedRules() {
+        WorkerUploadedData record = WorkerRecordSamples.valid();
+
+        assertEquals(0L, validator.evaluate(record, context));
+        assertNull(validator.renderRejectionReason(0L, record));
+    }
+
+    @Test
+    void everyRuleOwnsADistinctBit() {
+        Set<Long> bits = new HashSet<>();
+        for (WorkerRecordRule rule : WorkerRecordRule.values()) {
+            assertEquals(1, Long.bitCount(rule.bit()), rule.name());
+            assertTrue(bits.add(rule.bit()), rule.name());
+        }
+    }
+
+    @Test
+    void singleFailureSetsOnlyItsRuleBit() {
+        assertMask(WorkerRecordSamples.with(r -> r.setWorkerId("  ")), WorkerRecordRule.WORKER_ID_REQUIRED);
+        assertMask(WorkerRecordSamples.with(r -> r.setBankAccount("12345")), WorkerRecordRule.BANK_ACCOUNT_LENGTH);
+        assertMask(WorkerRecordSamples.with(r -> r.setBankAccount("SBIN-0001234")),
+                WorkerRecordRule.BANK_ACCOUNT_CHARACTERS);
+        assertMask(WorkerRecordSamples.with(r -> r.setWorkDate(WorkerRecordSamples.TODAY.plusDays(1))),
+                WorkerRecordRule.WORK_DATE_IN_FUTURE);
+        assertMask(WorkerRecordSamples.with(r -> r.setPaymentAmount(new BigDecimal("1004.02"))),
+                WorkerRecordRule.AMOUNT_MISMATCH);
+    }
+
+    @Test
+    void severalFailuresSetEachRuleBit() {
+        WorkerUploadedData record = WorkerRecordSamples.with(r -> {
+            r.setBankAccount(null);
+            r.setPhoneNumber("98765");
+        });
+
+        assertMask(record, WorkerRecordRule.BANK_ACCOUNT_REQUIRED, WorkerRecordRule.PHONE_FORMAT);
+    }
+
+    @Test
+    void reasonFollowsRuleDeclarationOrder() {
+        WorkerUploadedData record = new WorkerUploadedData();
+        long failedRules = WorkerRecordRule.WORK_DATE_REQUIRED.bit() | WorkerRecordRule.WORKER_ID_REQUIRED.bit();
+
+        assertEquals("Worker ID is required. Work date is required.",
+                validator.renderRejectionReason(failedRules, record));
+    }
+
+    @Test
+    void amountMismatchReportsCalculatedAmount() {
+        WorkerUploadedData record = WorkerRecordSamples.with(r -> r.setPaymentAmount(new BigDecimal("900")));
+
+        assertEquals("Payment amount doesn't match hours worked × hourly rate (calculated: 1004.00).",
+                validator.renderRejectionReason(validator.evaluate(record, context), record));
+    }
+
+    @Test
+    void masterRulesAreSkippedWithoutMasterData() {
+        WorkerUploadedData record = WorkerRecordSamples.with(r -> r.setWorkerId("UNKNOWN"));
+        long masterRules = WorkerRecordRule.WORKER_NOT_IN_MASTER.bit()
+                | WorkerRecordRule.TOLI_NOT_UNDER_EMPLOYER.bit()
+                | WorkerRecordRule.BANK_ACCOUNT_MISMATCH.bit();
+
+        assertEquals(0L, validator.evaluate(record, context) & masterRules);
+    }
+
+    private void assertMask(WorkerUploadedData record, WorkerRecordRule... expected) {
+        long expectedMask = 0L;
+        for (WorkerRecordRule rule : expected) {
+            expectedMask |= rule.bit();
+        }
+        assertEquals(expectedMask, validator.evaluate(record, context));
+    }
+}